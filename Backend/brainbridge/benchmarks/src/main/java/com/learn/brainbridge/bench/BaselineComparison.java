@@ -0,0 +1,115 @@
+package com.learn.brainbridge.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * BaselineComparison - Diffs two JMH JSON result files
+ *
+ * A benchmark counts as regressed when
+ * - its score got worse by more than max-slowdown (default 10%) and by more than
+ *   the combined error margins of both runs, or
+ * - it allocates more than max-alloc-growth (default 5%, and at least 16 bytes) per operation.
+ *
+ * Thresholds: -Dbench.maxSlowdown=0.10 -Dbench.maxAllocGrowth=0.05
+ * Can also be run on its own: java -cp target/benchmarks.jar ...BaselineComparison baseline.json result.json
+ */
+public class BaselineComparison {
+
+    private static final String ALLOC_NORM = "gc.alloc.rate.norm";
+    private static final double MIN_ALLOC_DELTA_BYTES = 16;
+
+    private final double maxSlowdown;
+    private final double maxAllocGrowth;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public BaselineComparison(double maxSlowdown, double maxAllocGrowth) {
+        this.maxSlowdown = maxSlowdown;
+        this.maxAllocGrowth = maxAllocGrowth;
+    }
+
+    public static BaselineComparison fromSystemProperties() {
+        return new BaselineComparison(
+                Double.parseDouble(System.getProperty("bench.maxSlowdown", "0.10")),
+                Double.parseDouble(System.getProperty("bench.maxAllocGrowth", "0.05")));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: BaselineComparison <baseline.json> <result.json>");
+            System.exit(2);
+        }
+        if (!fromSystemProperties().compare(Path.of(args[0]), Path.of(args[1]))) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Print a comparison table.
+     *
+     * @return false if any benchmark regressed
+     */
+    public boolean compare(Path baselineFile, Path resultFile) throws IOException {
+        Map<String, JsonNode> baseline = index(mapper.readTree(baselineFile.toFile()));
+        Map<String, JsonNode> current = index(mapper.readTree(resultFile.toFile()));
+
+        boolean ok = true;
+        System.out.printf("%n%-70s %14s %14s %8s %12s %12s %8s%n",
+                "Benchmark", "baseline", "current", "change", "base B/op", "cur B/op", "change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode base = baseline.get(entry.getKey());
+            if (base == null) {
+                System.out.printf("%-70s %14s%n", entry.getKey(), "(new)");
+                continue;
+            }
+            JsonNode cur = entry.getValue();
+            boolean higherIsBetter = cur.path("mode").asText().equals("thrpt");
+
+            double baseScore = base.path("primaryMetric").path("score").asDouble();
+            double curScore = cur.path("primaryMetric").path("score").asDouble();
+            double noise = error(base.path("primaryMetric")) + error(cur.path("primaryMetric"));
+            double worse = higherIsBetter ? baseScore - curScore : curScore - baseScore;
+            boolean slower = worse > baseScore * maxSlowdown && worse > noise;
+
+            double baseAlloc = base.path("secondaryMetrics").path(ALLOC_NORM).path("score").asDouble(Double.NaN);
+            double curAlloc = cur.path("secondaryMetrics").path(ALLOC_NORM).path("score").asDouble(Double.NaN);
+            boolean allocates = !Double.isNaN(baseAlloc) && !Double.isNaN(curAlloc)
+                    && curAlloc - baseAlloc > Math.max(baseAlloc * maxAllocGrowth, MIN_ALLOC_DELTA_BYTES);
+
+            String flag = slower || allocates ? "  REGRESSION" : "";
+            System.out.printf("%-70s %14.2f %14.2f %7.1f%% %12.1f %12.1f %7.1f%%%s%n",
+                    entry.getKey(), baseScore, curScore, change(baseScore, curScore),
+                    baseAlloc, curAlloc, change(baseAlloc, curAlloc), flag);
+            ok &= !(slower || allocates);
+        }
+        System.out.println(ok ? "\nNo regressions against baseline." : "\nRegressions found against baseline.");
+        return ok;
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            String key = result.path("benchmark").asText().replace("com.learn.brainbridge.", "");
+            JsonNode params = result.path("params");
+            if (!params.isMissingNode() && params.size() > 0) {
+                key += params.toString();
+            }
+            byKey.put(key, result);
+        }
+        return byKey;
+    }
+
+    private static double error(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static double change(double base, double cur) {
+        return base == 0 ? 0 : (cur - base) / base * 100;
+    }
+}
@@ -0,0 +1,131 @@
+package com.learn.brainbridge.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.learn.brainbridge.dtos.ProjectDTO;
+import com.learn.brainbridge.dtos.RegisterUserDTO;
+import com.learn.brainbridge.dtos.UserDTO;
+import com.learn.brainbridge.entity.Projects;
+import com.learn.brainbridge.entity.User;
+import com.learn.brainbridge.enums.ProjectStatus;
+import com.learn.brainbridge.enums.ProjectVisibility;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BenchmarkData - Realistic fixtures shared by the benchmarks
+ */
+public final class BenchmarkData {
+
+    public static final String PASSWORD = "Str0ng!Passw0rd";
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 9, 30);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * ObjectMapper configured like Spring Boot's JacksonAutoConfiguration
+     * (same builder, ISO dates instead of timestamp arrays).
+     */
+    public static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    public static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@brainbridge.dev");
+        user.setUsername("user" + id);
+        user.setPasswordHash(PASSWORD);
+        user.setFirstName("Ada");
+        user.setLastName("Lovelace");
+        user.setProfileImageUrl("https://cdn.brainbridge.dev/avatars/" + id + ".png");
+        user.setIsActive(true);
+        user.setIsEmailVerified(true);
+        user.setCreatedAt(CREATED);
+        user.setUpdatedAt(CREATED.plusDays(id % 30));
+        return user;
+    }
+
+    public static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            users.add(user(i));
+        }
+        return users;
+    }
+
+    public static UserDTO userDTO(long id) {
+        UserDTO dto = new UserDTO();
+        dto.setId(id);
+        dto.setEmail("user" + id + "@brainbridge.dev");
+        dto.setUsername("user" + id);
+        dto.setFirstName("Ada");
+        dto.setLastName("Lovelace");
+        dto.setProfileImageUrl("https://cdn.brainbridge.dev/avatars/" + id + ".png");
+        dto.setIsActive(true);
+        dto.setIsEmailVerified(true);
+        dto.setCreatedAt(CREATED);
+        dto.setUpdatedAt(CREATED.plusDays(id % 30));
+        return dto;
+    }
+
+    public static Projects project(int id) {
+        return new Projects("BrainBridge project " + id,
+                description(),
+                ProjectStatus.values()[id % ProjectStatus.values().length],
+                ProjectVisibility.values()[id % ProjectVisibility.values().length],
+                id % 100, id % 10, 1,
+                "https://cdn.brainbridge.dev/covers/" + id + ".png",
+                "https://github.com/brainbridge/project-" + id,
+                LocalDate.of(2024, 1, 15), LocalDate.of(2024, 12, 15));
+    }
+
+    public static ProjectDTO projectDTO(int id) {
+        return new ProjectDTO(id, "BrainBridge project " + id,
+                description(),
+                ProjectStatus.values()[id % ProjectStatus.values().length],
+                ProjectVisibility.values()[id % ProjectVisibility.values().length],
+                id % 100, id % 10, 1,
+                "https://cdn.brainbridge.dev/covers/" + id + ".png",
+                "https://github.com/brainbridge/project-" + id,
+                LocalDate.of(2024, 1, 15), LocalDate.of(2024, 12, 15));
+    }
+
+    public static List<ProjectDTO> projectDTOs(int count) {
+        List<ProjectDTO> projects = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            projects.add(projectDTO(i));
+        }
+        return projects;
+    }
+
+    public static RegisterUserDTO validRegistration() {
+        return new RegisterUserDTO("new.user@brainbridge.dev", "new_user", PASSWORD, PASSWORD,
+                "New", "User", "+250788000000", "Builds things.", "BrainBridge");
+    }
+
+    public static RegisterUserDTO mismatchedPasswords() {
+        RegisterUserDTO dto = validRegistration();
+        dto.setConfirmPassword(PASSWORD + "2");
+        return dto;
+    }
+
+    /** Several field violations at once: bad email, short username, weak passwords, no organization. */
+    public static RegisterUserDTO invalidRegistration() {
+        return new RegisterUserDTO("not-an-email", "ab", "short", "short",
+                null, null, null, null, "");
+    }
+
+    private static String description() {
+        return "A collaborative platform where students publish their projects, find teammates "
+                + "with matching skills and get feedback from mentors across the organization.";
+    }
+}
@@ -0,0 +1,64 @@
+package com.learn.brainbridge.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * BenchmarkRunner - Runs the benchmarks with the GC profiler and checks them against the stored baseline
+ *
+ * Usage (from the benchmarks directory):
+ *   java -jar target/benchmarks.jar                      run everything, compare with baselines/jmh-baseline.json
+ *   java -jar target/benchmarks.jar Validation           only benchmarks matching the regex
+ *   java -jar target/benchmarks.jar --update-baseline    run and store the result as the new baseline
+ *
+ * The GC profiler adds gc.alloc.rate.norm (bytes allocated per operation), which is far
+ * more stable between machines than timings and is the first number to look at in review.
+ * Exits with status 1 when a benchmark regressed beyond the thresholds in {@link BaselineComparison}.
+ */
+public class BenchmarkRunner {
+
+    static final Path RESULT = Path.of("target", "jmh-result.json");
+    static final Path BASELINE = Path.of("baselines", "jmh-baseline.json");
+
+    public static void main(String[] args) throws Exception {
+        boolean updateBaseline = false;
+        String include = "com\\.learn\\.brainbridge\\..*Benchmark";
+        for (String arg : args) {
+            if (arg.equals("--update-baseline")) {
+                updateBaseline = true;
+            } else {
+                include = arg;
+            }
+        }
+
+        Files.createDirectories(RESULT.getParent());
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULT.toString());
+        new Runner(options.build()).run();
+
+        if (updateBaseline) {
+            Files.createDirectories(BASELINE.getParent());
+            Files.copy(RESULT, BASELINE, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline updated: " + BASELINE);
+            return;
+        }
+        if (!Files.exists(BASELINE)) {
+            System.out.println("No baseline at " + BASELINE + " - run with --update-baseline to create one");
+            return;
+        }
+        BaselineComparison comparison = BaselineComparison.fromSystemProperties();
+        if (!comparison.compare(BASELINE, RESULT)) {
+            System.exit(1);
+        }
+    }
+}
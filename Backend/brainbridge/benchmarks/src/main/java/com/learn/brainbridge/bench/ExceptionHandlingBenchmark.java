@@ -0,0 +1,83 @@
+package com.learn.brainbridge.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.brainbridge.Exception.BadRequestException;
+import com.learn.brainbridge.Exception.GlobalExceptionHandler;
+import com.learn.brainbridge.Exception.ResourceNotFoundException;
+import com.learn.brainbridge.dtos.RegisterUserDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExceptionHandlingBenchmark - Error responses built by GlobalExceptionHandler
+ *
+ * Each benchmark includes creating the exception (stack trace capture is usually
+ * the expensive part), so the numbers match what a failing request pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionHandlingBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private ObjectMapper mapper;
+    private MethodParameter parameter;
+    private RegisterUserDTO invalidRegistration;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler();
+        mapper = BenchmarkData.objectMapper();
+        parameter = new MethodParameter(
+                ExceptionHandlingBenchmark.class.getDeclaredMethod("register", RegisterUserDTO.class), 0);
+        invalidRegistration = BenchmarkData.invalidRegistration();
+    }
+
+    @Benchmark
+    public ResponseEntity<GlobalExceptionHandler.ErrorResponse> notFound() {
+        return handler.handleResourceNotFoundException(new ResourceNotFoundException("User", 42L));
+    }
+
+    @Benchmark
+    public ResponseEntity<GlobalExceptionHandler.ErrorResponse> badRequest() {
+        return handler.handleBadRequestException(new BadRequestException("Email already exists: a@b.dev"));
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> validationFailure() {
+        BeanPropertyBindingResult result = new BeanPropertyBindingResult(invalidRegistration, "registerUserDTO");
+        result.rejectValue("email", "Email", "Email should be valid");
+        result.rejectValue("username", "Size", "Username must be between 3 and 50 characters");
+        result.rejectValue("password", "Size", "Password must be at least 8 characters");
+        return handler.handleValidationExceptions(new MethodArgumentNotValidException(parameter, result));
+    }
+
+    @Benchmark
+    public byte[] notFoundSerialized() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(notFound().getBody());
+    }
+
+    // target method for the MethodParameter carried by MethodArgumentNotValidException
+    @SuppressWarnings("unused")
+    private static void register(RegisterUserDTO registerUserDTO) {
+    }
+}
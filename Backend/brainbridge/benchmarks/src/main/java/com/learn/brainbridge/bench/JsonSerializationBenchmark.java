@@ -0,0 +1,71 @@
+package com.learn.brainbridge.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.brainbridge.dtos.ProjectDTO;
+import com.learn.brainbridge.dtos.UserDTO;
+import com.learn.brainbridge.entity.Projects;
+import com.learn.brainbridge.generics.ApiResponses1;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonSerializationBenchmark - Response bodies as Spring MVC writes them
+ *
+ * The ObjectMapper is built like Spring Boot's (see BenchmarkData.objectMapper()),
+ * so modules (java.time) and features match the running app.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper mapper;
+    private Projects project;
+    private UserDTO user;
+    private ApiResponses1<UserDTO> userResponse;
+    private ApiResponses1<List<ProjectDTO>> projectListResponse;
+
+    @Setup
+    public void setUp() {
+        mapper = BenchmarkData.objectMapper();
+        project = BenchmarkData.project(7);
+        user = BenchmarkData.userDTO(42);
+        userResponse = new ApiResponses1<>(true, "User registered successfully", user);
+        projectListResponse = new ApiResponses1<>(true, "Projects fetched", BenchmarkData.projectDTOs(20));
+    }
+
+    @Benchmark
+    public byte[] projectEntity() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(project);
+    }
+
+    @Benchmark
+    public byte[] userDTO() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] apiResponseWithUser() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(userResponse);
+    }
+
+    @Benchmark
+    public byte[] apiResponseWith20Projects() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(projectListResponse);
+    }
+}
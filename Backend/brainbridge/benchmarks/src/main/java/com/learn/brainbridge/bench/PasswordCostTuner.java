@@ -0,0 +1,109 @@
+package com.learn.brainbridge.bench;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * PasswordCostTuner - Finds the BCrypt cost factor that fits a latency budget on this machine
+ *
+ * For each cost it hashes on every core at once (like a login burst would on the hashing pool)
+ * and records the per-hash latency and total throughput. The recommendation is the highest
+ * cost whose median stays within the target: as slow as possible for attackers, but no slower
+ * than the budget for users.
+ *
+ * Usage (run on the production hardware, not a laptop):
+ *   java -cp target/benchmarks.jar com.learn.brainbridge.bench.PasswordCostTuner [--target-ms=100] [--samples=10] [--threads=N]
+ */
+public class PasswordCostTuner {
+
+    private static final int MIN_COST = 8;
+    private static final int MAX_COST = 16;
+
+    public static void main(String[] args) throws Exception {
+        long targetMs = 100;
+        int samples = 10;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (String arg : args) {
+            if (arg.startsWith("--target-ms=")) {
+                targetMs = Long.parseLong(arg.substring("--target-ms=".length()));
+            } else if (arg.startsWith("--samples=")) {
+                samples = Integer.parseInt(arg.substring("--samples=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+
+        System.out.printf("Target %d ms per hash, %d threads, %d samples per thread%n%n", targetMs, threads, samples);
+        System.out.printf("%4s  %10s  %10s  %12s%n", "cost", "median ms", "p99 ms", "hashes/s");
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        int recommended = -1;
+        try {
+            for (int cost = MIN_COST; cost <= MAX_COST; cost++) {
+                Result result = measure(pool, new BCryptPasswordEncoder(cost), threads, samples);
+                System.out.printf("%4d  %10.1f  %10.1f  %12.1f%n", cost, result.medianMs(), result.p99Ms(), result.perSecond());
+                if (result.medianMs() <= targetMs) {
+                    recommended = cost;
+                } else if (result.medianMs() > targetMs * 4) {
+                    // every further step doubles the time, nothing beyond this can fit
+                    break;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        System.out.println();
+        if (recommended < 0) {
+            System.out.printf("Even cost %d is slower than %d ms here; raise the target or add cores%n", MIN_COST, targetMs);
+        } else {
+            System.out.printf("Recommended: app.password.bcrypt-cost=%d%n", recommended);
+        }
+    }
+
+    private static Result measure(ExecutorService pool, BCryptPasswordEncoder encoder, int threads, int samples)
+            throws Exception {
+        // warm up the JIT on this cost before timing
+        encoder.encode(BenchmarkData.PASSWORD);
+
+        Callable<long[]> worker = () -> {
+            long[] nanos = new long[samples];
+            for (int i = 0; i < samples; i++) {
+                long start = System.nanoTime();
+                encoder.encode(BenchmarkData.PASSWORD);
+                nanos[i] = System.nanoTime() - start;
+            }
+            return nanos;
+        };
+        List<Future<long[]>> futures = new ArrayList<>(threads);
+        long started = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(worker));
+        }
+        long[] all = new long[threads * samples];
+        int n = 0;
+        for (Future<long[]> future : futures) {
+            for (long nanos : future.get()) {
+                all[n++] = nanos;
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        Arrays.sort(all);
+        return new Result(all[all.length / 2] / 1e6,
+                all[Math.min(all.length - 1, (int) Math.ceil(all.length * 0.99) - 1)] / 1e6,
+                all.length / elapsedSeconds);
+    }
+
+    private record Result(double medianMs, double p99Ms, double perSecond) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.learn.brainbridge.bench;
+
+import com.learn.brainbridge.service.PasswordHashingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PasswordHashingBenchmark - What one login / registration costs in BCrypt, per cost factor
+ *
+ * encoder* calls BCrypt directly; service* go through PasswordHashingService, so the
+ * difference is the hand-off to the hashing pool (should be noise next to the hash itself).
+ * Every +1 on the cost doubles the time. Use PasswordCostTuner to pick the cost for a host.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({"10", "12"})
+    public int cost;
+
+    private BCryptPasswordEncoder encoder;
+    private PasswordHashingService service;
+    private String storedHash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(cost);
+        service = new PasswordHashingService(new SimpleMeterRegistry(), cost, 1, 16, 60_000);
+        storedHash = encoder.encode(BenchmarkData.PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public String encoderHash() {
+        return encoder.encode(BenchmarkData.PASSWORD);
+    }
+
+    @Benchmark
+    public boolean encoderVerify() {
+        return encoder.matches(BenchmarkData.PASSWORD, storedHash);
+    }
+
+    @Benchmark
+    public PasswordHashingService.Verification serviceVerify() {
+        return service.verify(BenchmarkData.PASSWORD, storedHash);
+    }
+}
@@ -0,0 +1,67 @@
+package com.learn.brainbridge.bench;
+
+import com.learn.brainbridge.util.MpmcRingBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RingBufferBenchmark - Analytics ingestion queue: MpmcRingBuffer vs ArrayBlockingQueue
+ *
+ * Four producers (request threads) offer and one consumer (the writer) polls, as in
+ * AnalyticsServiceImpl. Both queues are bounded at the default buffer size; a failed offer
+ * or an empty poll counts as an operation too, as it does for the real callers.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RingBufferBenchmark {
+
+    private static final int CAPACITY = 65536;
+    private static final Object EVENT = new Object();
+
+    private final MpmcRingBuffer<Object> ringBuffer = new MpmcRingBuffer<>(CAPACITY);
+    private final ArrayBlockingQueue<Object> blockingQueue = new ArrayBlockingQueue<>(CAPACITY);
+
+    @Benchmark
+    @Group("ringBuffer")
+    @GroupThreads(4)
+    public boolean ringBufferOffer() {
+        return ringBuffer.offer(EVENT);
+    }
+
+    @Benchmark
+    @Group("ringBuffer")
+    @GroupThreads(1)
+    public Object ringBufferPoll() {
+        return ringBuffer.poll();
+    }
+
+    @Benchmark
+    @Group("arrayBlockingQueue")
+    @GroupThreads(4)
+    public boolean blockingQueueOffer() {
+        return blockingQueue.offer(EVENT);
+    }
+
+    @Benchmark
+    @Group("arrayBlockingQueue")
+    @GroupThreads(1)
+    public Object blockingQueuePoll() {
+        return blockingQueue.poll();
+    }
+}
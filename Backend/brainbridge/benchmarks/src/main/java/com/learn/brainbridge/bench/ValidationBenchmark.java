@@ -0,0 +1,91 @@
+package com.learn.brainbridge.bench;
+
+import com.learn.brainbridge.dtos.ProjectDTO;
+import com.learn.brainbridge.dtos.RegisterUserDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ValidationBenchmark - What @Valid costs on the registration and project endpoints
+ *
+ * RegisterUserDTO runs field constraints (including the password @Pattern regex)
+ * plus the class-level @PasswordMatches check (PasswordMatchesValidator).
+ * Failing cases also pay for building the violation messages.
+ * ProjectDTO bounds its title and description with @Min/@Max, which Hibernate Validator
+ * applies to a String as a number, so projectValid also builds (two) violations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private ValidatorFactory factory;
+    private Validator validator;
+    private RegisterUserDTO validRegistration;
+    private RegisterUserDTO mismatchedPasswords;
+    private RegisterUserDTO invalidRegistration;
+    private ProjectDTO validProject;
+    private ProjectDTO invalidProject;
+
+    @Setup
+    public void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+        validRegistration = BenchmarkData.validRegistration();
+        mismatchedPasswords = BenchmarkData.mismatchedPasswords();
+        invalidRegistration = BenchmarkData.invalidRegistration();
+        validProject = BenchmarkData.projectDTO(3);
+        invalidProject = BenchmarkData.projectDTO(4);
+        invalidProject.setTitle("short");
+        invalidProject.setRepo_url("not a url");
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<RegisterUserDTO>> registerValid() {
+        return validator.validate(validRegistration);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<RegisterUserDTO>> registerPasswordMismatch() {
+        return validator.validate(mismatchedPasswords);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<RegisterUserDTO>> registerManyViolations() {
+        return validator.validate(invalidRegistration);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ProjectDTO>> projectValid() {
+        return validator.validate(validProject);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ProjectDTO>> projectInvalid() {
+        return validator.validate(invalidProject);
+    }
+}
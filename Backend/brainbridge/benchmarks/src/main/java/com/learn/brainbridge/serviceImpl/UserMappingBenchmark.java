@@ -0,0 +1,54 @@
+package com.learn.brainbridge.serviceImpl;
+
+import com.learn.brainbridge.bench.BenchmarkData;
+import com.learn.brainbridge.dtos.UserDTO;
+import com.learn.brainbridge.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserMappingBenchmark - Cost of UserServiceImpl.convertToDTO, alone and over a page of users
+ *
+ * Lives in the serviceImpl package because convertToDTO is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMappingBenchmark {
+
+    private UserServiceImpl service;
+    private User user;
+    private List<User> page;
+
+    @Setup
+    public void setUp() {
+        // convertToDTO only reads its argument, so the injected collaborators can stay null
+        service = new UserServiceImpl();
+        user = BenchmarkData.user(42);
+        page = BenchmarkData.users(100);
+    }
+
+    @Benchmark
+    public UserDTO convertOne() {
+        return service.convertToDTO(user);
+    }
+
+    @Benchmark
+    public List<UserDTO> convertPageOf100() {
+        return page.stream().map(service::convertToDTO).toList();
+    }
+}
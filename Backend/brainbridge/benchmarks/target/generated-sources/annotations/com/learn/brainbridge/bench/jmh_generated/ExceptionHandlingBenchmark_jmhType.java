@@ -0,0 +1,4 @@
+package com.learn.brainbridge.bench.jmh_generated;
+public class ExceptionHandlingBenchmark_jmhType extends ExceptionHandlingBenchmark_jmhType_B3 {
+}
+
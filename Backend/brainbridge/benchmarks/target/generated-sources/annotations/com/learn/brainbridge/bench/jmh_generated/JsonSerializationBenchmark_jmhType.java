@@ -0,0 +1,4 @@
+package com.learn.brainbridge.bench.jmh_generated;
+public class JsonSerializationBenchmark_jmhType extends JsonSerializationBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.learn.brainbridge.bench.jmh_generated;
+public class JwtVerificationBenchmark_jmhType extends JwtVerificationBenchmark_jmhType_B3 {
+}
+
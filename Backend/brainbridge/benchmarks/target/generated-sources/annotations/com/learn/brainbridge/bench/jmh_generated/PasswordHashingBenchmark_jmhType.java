@@ -0,0 +1,4 @@
+package com.learn.brainbridge.bench.jmh_generated;
+public class PasswordHashingBenchmark_jmhType extends PasswordHashingBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.learn.brainbridge.bench.jmh_generated;
+public class RingBufferBenchmark_jmhType extends RingBufferBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.learn.brainbridge.bench.jmh_generated;
+public class ValidationBenchmark_jmhType extends ValidationBenchmark_jmhType_B3 {
+}
+
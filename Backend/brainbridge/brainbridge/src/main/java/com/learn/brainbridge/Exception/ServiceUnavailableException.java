@@ -0,0 +1,19 @@
+package com.learn.brainbridge.Exception;
+
+/**
+ * ServiceUnavailableException - The server is temporarily overloaded, the client should retry
+ * Mapped to HTTP 503 with a Retry-After header
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,149 @@
+package com.learn.brainbridge.Filters;
+
+import com.learn.brainbridge.util.RequestPaths;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ConcurrencyLimitFilter - Caps requests in flight when running on virtual threads
+ *
+ * With a fixed Tomcat pool the pool size itself limits how many requests reach the
+ * database at once. Virtual threads remove that limit: thousands of requests can queue
+ * on the Hikari pool, each holding memory and eventually failing with a connection
+ * timeout. This filter puts the limit back, sized from the JDBC pool
+ * (maximumPoolSize x requests-per-connection), and answers 503 with Retry-After when
+ * a request cannot get a slot within the acquire timeout.
+ *
+ * Streaming responses and exports go async: the filter chain returns while the response is still
+ * being written. Their permit is held until the async request completes, times out or fails.
+ * The SSE notification stream is left out on purpose: it stays open for up to half an hour without
+ * a database connection, would pin a permit the whole time, and NotificationHub caps it separately
+ * (app.notifications.sse.max-connections).
+ *
+ * Only active in virtual-thread mode (spring.threads.virtual.enabled=true).
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+    private static final String NOTIFICATION_STREAM = "/api/notifications/stream";
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+
+    public ConcurrencyLimitFilter(DataSource dataSource,
+                                  @Value("${app.concurrency.max-in-flight:0}") int maxInFlight,
+                                  @Value("${app.concurrency.requests-per-connection:4}") int requestsPerConnection,
+                                  @Value("${app.concurrency.acquire-timeout-ms:2000}") long acquireTimeoutMs) {
+        int limit = maxInFlight > 0 ? maxInFlight : poolSize(dataSource) * requestsPerConnection;
+        this.permits = new Semaphore(limit);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        log.info("Limiting requests in flight to {}", limit);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = RequestPaths.lookupPath(request);
+        return path.startsWith("/api/health") || path.startsWith("/actuator") || path.equals(NOTIFICATION_STREAM);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"status\":503,\"message\":\"Server is busy, please retry\"}");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+            } else {
+                permits.release();
+            }
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Hands the permit back when the async request ends. Timeouts and errors are followed by
+     * onComplete, so the release is guarded to happen once.
+     */
+    private final class ReleaseOnCompletion implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // async restarted from an async dispatch: listeners must register again to hear the end
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            return hikari.getMaximumPoolSize();
+        }
+        return 10; // Hikari's default maximumPoolSize
+    }
+}
@@ -0,0 +1,137 @@
+package com.learn.brainbridge.Filters;
+
+import com.learn.brainbridge.service.JwtService;
+import com.learn.brainbridge.util.RequestPaths;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * JwtAuthenticationFilter - Resolves "Authorization: Bearer <access token>" to the calling user
+ *
+ * - A valid token puts its JwtService.TokenClaims in the request attribute AUTHENTICATED_USER,
+ *   for controllers to read with @RequestAttribute.
+ * - A token that is present but invalid, expired or revoked gets 401, so clients know to refresh.
+ *   On public paths it is ignored instead, so a client holding an expired token can still reach
+ *   /api/auth/refresh and /api/auth/logout.
+ * - The SSE notification stream is let through without a token: EventSource cannot send headers,
+ *   so it authenticates with a short-lived stream ticket that NotificationController checks.
+ * - Requests without a token pass through, unless app.jwt.enforce=true, in which case
+ *   everything outside the public paths (login, registration, docs, health) gets 401.
+ * - Operator paths (actuator except health, cache statistics) and the bulk exports always need a
+ *   token with the admin claim, whatever app.jwt.enforce says: 401 without a token, 403 without the role.
+ * - Paths are matched the way Spring MVC routes them (see RequestPaths), so "/api/export;x/projects"
+ *   or "/%61ctuator/metrics" get the same checks as the plain spelling.
+ *
+ * Verification itself (cached key, memoized claims, deny set) lives in JwtService.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String AUTHENTICATED_USER = "authenticatedUser";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final List<String> PUBLIC_PATHS = List.of(
+            "/api/auth/",
+            "/api/users/register",
+            "/api/users/login",
+            "/api/users/verify-email",
+            "/api/users/availability",
+            "/api/health",
+            "/actuator/health",
+            "/swagger-ui",
+            "/v3/api-docs");
+
+    private static final List<String> ADMIN_PATHS = List.of(
+            "/actuator",
+            "/api/cache/",
+            "/api/export/");
+
+    /** Exact paths whose controller authenticates the request itself (?ticket=) */
+    private static final Set<String> TICKET_PATHS = Set.of("/api/notifications/stream");
+
+    private final JwtService jwtService;
+    private final boolean enforce;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   @Value("${app.jwt.enforce:false}") boolean enforce) {
+        this.jwtService = jwtService;
+        this.enforce = enforce;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = RequestPaths.lookupPath(request);
+        String token = null;
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            token = header.substring(BEARER_PREFIX.length()).trim();
+        }
+        if (token != null) {
+            Optional<JwtService.TokenClaims> claims = jwtService.verify(token);
+            if (claims.isEmpty()) {
+                if (isPublic(path)) {
+                    chain.doFilter(request, response);
+                    return;
+                }
+                unauthorized(response, "Invalid or expired access token");
+                return;
+            }
+            request.setAttribute(AUTHENTICATED_USER, claims.get());
+            if (!claims.get().admin() && isAdminOnly(path)) {
+                forbidden(response);
+                return;
+            }
+        } else if ((enforce && !isPublic(path)) || isAdminOnly(path)) {
+            unauthorized(response, "Authentication required");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static boolean isPublic(String path) {
+        return startsWithAny(path, PUBLIC_PATHS) || TICKET_PATHS.contains(path);
+    }
+
+    private static boolean isAdminOnly(String path) {
+        return startsWithAny(path, ADMIN_PATHS) && !isPublic(path);
+    }
+
+    private static boolean startsWithAny(String path, List<String> prefixes) {
+        for (String prefix : prefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void forbidden(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.FORBIDDEN.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":403,\"message\":\"Admin role required\"}");
+    }
+
+    private static void unauthorized(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":401,\"message\":\"" + message + "\"}");
+    }
+}
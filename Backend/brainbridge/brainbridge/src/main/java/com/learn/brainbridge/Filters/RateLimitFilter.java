@@ -0,0 +1,357 @@
+package com.learn.brainbridge.Filters;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.learn.brainbridge.util.RequestPaths;
+import com.learn.brainbridge.util.TokenBucket;
+import com.learn.brainbridge.util.TrustedProxies;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimitFilter - Token-bucket limits on login and registration
+ *
+ * Each request takes one token from up to three buckets; if any is empty the request is
+ * answered 429 with Retry-After before it reaches the controller (no BCrypt, no query):
+ * - ip:      per client address, against bursts from one machine
+ * - account: per login identifier / registration email, against credential stuffing spread over many IPs
+ * - org:     per organization name on registration, against mass sign-ups into one organization
+ *
+ * Only failed logins count against an account: a login that succeeds gives its account token back,
+ * so the owner signing in normally never drains their own bucket. The client address is
+ * util.TrustedProxies' view of the request: X-Forwarded-For is only followed through the proxies
+ * listed in app.rate-limit.trusted-proxies.
+ *
+ * Buckets (util.TokenBucket) are lock-free. They live in Caffeine caches bounded by
+ * app.rate-limit.max-keys; an idle bucket is dropped once it would have refilled completely,
+ * so eviction never hands out tokens a client did not already have back.
+ *
+ * The account and org keys come from the JSON body, which is buffered (up to max-body-bytes)
+ * and replayed to the controller.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private enum Endpoint {
+        LOGIN("login", "emailOrUsername", null, true),
+        REGISTER("register", "email", "organizationName", false);
+
+        final String name;
+        final String accountField;
+        final String orgField;
+        final boolean accountChargedOnFailureOnly;
+
+        Endpoint(String name, String accountField, String orgField, boolean accountChargedOnFailureOnly) {
+            this.name = name;
+            this.accountField = accountField;
+            this.orgField = orgField;
+            this.accountChargedOnFailureOnly = accountChargedOnFailureOnly;
+        }
+    }
+
+    /** One kind of key with its own bucket size, refill period and bounded key store */
+    private static final class Tier {
+        final String name;
+        final int capacity;
+        final Duration period;
+        final Cache<String, TokenBucket> buckets;
+
+        Tier(String name, int capacity, long periodSeconds, long maxKeys) {
+            this.name = name;
+            this.capacity = capacity;
+            this.period = Duration.ofSeconds(periodSeconds);
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    // untouched for a full period = bucket is full again, nothing to remember
+                    .expireAfterAccess(period)
+                    .build();
+        }
+
+        TokenBucket bucket(String key, long nowNanos) {
+            return buckets.get(key, k -> new TokenBucket(capacity, period, nowNanos));
+        }
+    }
+
+    private final boolean enabled;
+    private final int maxBodyBytes;
+    private final Tier ipTier;
+    private final Tier accountTier;
+    private final Tier orgTier;
+    private final TrustedProxies trustedProxies;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.max-keys:100000}") long maxKeys,
+                           @Value("${app.rate-limit.max-body-bytes:16384}") int maxBodyBytes,
+                           @Value("${app.rate-limit.ip.capacity:20}") int ipCapacity,
+                           @Value("${app.rate-limit.ip.period-seconds:60}") long ipPeriodSeconds,
+                           @Value("${app.rate-limit.account.capacity:5}") int accountCapacity,
+                           @Value("${app.rate-limit.account.period-seconds:300}") long accountPeriodSeconds,
+                           @Value("${app.rate-limit.org.capacity:50}") int orgCapacity,
+                           @Value("${app.rate-limit.org.period-seconds:3600}") long orgPeriodSeconds,
+                           @Value("${app.rate-limit.trusted-proxies:}") String trustedProxies) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxBodyBytes = maxBodyBytes;
+        this.ipTier = new Tier("ip", ipCapacity, ipPeriodSeconds, maxKeys);
+        this.accountTier = new Tier("account", accountCapacity, accountPeriodSeconds, maxKeys);
+        this.orgTier = new Tier("org", orgCapacity, orgPeriodSeconds, maxKeys);
+        this.trustedProxies = TrustedProxies.parse(trustedProxies);
+
+        for (Tier tier : List.of(ipTier, accountTier, orgTier)) {
+            Gauge.builder("brainbridge.rate_limit.keys", tier.buckets, Cache::estimatedSize)
+                    .description("Rate limit buckets currently tracked")
+                    .tag("tier", tier.name)
+                    .register(meterRegistry);
+        }
+        if (enabled) {
+            log.info("Rate limits: ip {}/{}s, account {}/{}s, org {}/{}s", ipCapacity, ipPeriodSeconds,
+                    accountCapacity, accountPeriodSeconds, orgCapacity, orgPeriodSeconds);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || endpoint(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Endpoint endpoint = endpoint(request);
+        BufferedBodyRequest buffered = new BufferedBodyRequest(request, maxBodyBytes);
+        JsonNode body = parse(buffered.prefix());
+
+        // one clock reading for all buckets of this request
+        long now = System.nanoTime();
+        List<Tier> tiers = new ArrayList<>(3);
+        List<String> keys = new ArrayList<>(3);
+        tiers.add(ipTier);
+        keys.add(trustedProxies.clientAddress(request));
+        addKey(tiers, keys, accountTier, body, endpoint.accountField);
+        addKey(tiers, keys, orgTier, body, endpoint.orgField);
+
+        TokenBucket accountBucket = null;
+        for (int i = 0; i < tiers.size(); i++) {
+            Tier tier = tiers.get(i);
+            TokenBucket bucket = tier.bucket(endpoint.name + ':' + keys.get(i), now);
+            long waitNanos = bucket.tryAcquire(now);
+            if (waitNanos > 0) {
+                rejected(endpoint, tier).increment();
+                tooManyRequests(response, waitNanos);
+                return;
+            }
+            if (tier == accountTier) {
+                accountBucket = bucket;
+            }
+        }
+        chain.doFilter(buffered, response);
+
+        // taken up front so concurrent guesses cannot overshoot, handed back when the login worked
+        if (endpoint.accountChargedOnFailureOnly && accountBucket != null && response.getStatus() < 400) {
+            accountBucket.release(System.nanoTime());
+        }
+    }
+
+    private static void addKey(List<Tier> tiers, List<String> keys, Tier tier, JsonNode body, String field) {
+        if (field == null || body == null) {
+            return;
+        }
+        JsonNode value = body.get(field);
+        if (value != null && value.isTextual() && !value.asText().isBlank()) {
+            tiers.add(tier);
+            keys.add(value.asText().trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private JsonNode parse(byte[] json) {
+        if (json == null || json.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            return node != null && node.isObject() ? node : null;
+        } catch (IOException e) {
+            // malformed body: limit by IP only, the controller answers 400
+            return null;
+        }
+    }
+
+    private static Endpoint endpoint(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return null;
+        }
+        // the routed path, so "/api/users;a=1/login" cannot step around the buckets
+        return switch (RequestPaths.lookupPath(request)) {
+            case "/api/users/login", "/api/auth/login" -> Endpoint.LOGIN;
+            case "/api/users/register" -> Endpoint.REGISTER;
+            default -> null;
+        };
+    }
+
+    private Counter rejected(Endpoint endpoint, Tier tier) {
+        return rejections.computeIfAbsent(endpoint.name + ':' + tier.name, k ->
+                Counter.builder("brainbridge.rate_limit.rejections")
+                        .description("Requests answered 429 by the rate limiter")
+                        .tag("endpoint", endpoint.name)
+                        .tag("tier", tier.name)
+                        .register(meterRegistry));
+    }
+
+    private static void tooManyRequests(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":429,\"message\":\"Too many attempts, retry in "
+                + retryAfterSeconds + " seconds\"}");
+    }
+
+    /**
+     * Reads the first maxBytes of the body up front and replays them, followed by whatever
+     * was not read, to the rest of the chain.
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] prefix;
+        private final boolean complete;
+        private ServletInputStream stream;
+
+        BufferedBodyRequest(HttpServletRequest request, int maxBytes) throws IOException {
+            super(request);
+            byte[] read = request.getInputStream().readNBytes(maxBytes + 1);
+            this.complete = read.length <= maxBytes;
+            this.prefix = read;
+        }
+
+        /** The body if it fit in maxBytes, otherwise null (too large to inspect) */
+        byte[] prefix() {
+            return complete ? prefix : null;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (stream == null) {
+                InputStream rest = complete ? InputStream.nullInputStream() : super.getInputStream();
+                stream = new ReplayInputStream(new SequenceInputStream(new ByteArrayInputStream(prefix), rest));
+            }
+            return stream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Replays the buffered body. Async readers get it too: the prefix is in memory and the rest is read
+     * from the container in blocking mode, so the stream is always ready and the listener is told so
+     * at once, then onAllDataRead() once the end is reached.
+     */
+    private static final class ReplayInputStream extends ServletInputStream {
+
+        private final InputStream delegate;
+        private boolean finished;
+        private ReadListener listener;
+        private boolean allDataReadSignalled;
+
+        ReplayInputStream(InputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            reached(b < 0);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = delegate.read(buffer, offset, length);
+            reached(n < 0);
+            return n;
+        }
+
+        private void reached(boolean end) throws IOException {
+            finished = end;
+            if (end && listener != null && !allDataReadSignalled) {
+                allDataReadSignalled = true;
+                listener.onAllDataRead();
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            if (listener == null) {
+                throw new NullPointerException("listener");
+            }
+            if (this.listener != null) {
+                throw new IllegalStateException("ReadListener already set");
+            }
+            this.listener = listener;
+            try {
+                listener.onDataAvailable();
+            } catch (IOException | RuntimeException e) {
+                listener.onError(e);
+            }
+        }
+    }
+}
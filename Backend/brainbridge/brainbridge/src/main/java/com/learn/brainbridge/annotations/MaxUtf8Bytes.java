@@ -0,0 +1,21 @@
+package com.learn.brainbridge.annotations;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import java.lang.annotation.*;
+
+/**
+ * Limits a string's UTF-8 encoded length in bytes rather than in characters.
+ * BCrypt only uses the first 72 bytes of a password, and a character can take up to 4 of them.
+ * null is valid (combine with @NotBlank).
+ */
+@Documented
+@Constraint(validatedBy = MaxUtf8BytesValidator.class)
+@Target({ ElementType.FIELD, ElementType.PARAMETER })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MaxUtf8Bytes {
+  int value();
+  String message() default "must be at most {value} bytes";
+  Class<?>[] groups() default {};
+  Class<? extends Payload>[] payload() default {};
+}
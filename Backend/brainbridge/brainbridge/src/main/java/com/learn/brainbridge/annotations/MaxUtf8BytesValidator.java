@@ -0,0 +1,43 @@
+package com.learn.brainbridge.annotations;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class MaxUtf8BytesValidator implements ConstraintValidator<MaxUtf8Bytes, CharSequence> {
+
+  private int maxBytes;
+
+  @Override
+  public void initialize(MaxUtf8Bytes constraintAnnotation) {
+    maxBytes = constraintAnnotation.value();
+  }
+
+  @Override
+  public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+    if (value == null) {
+      return true;
+    }
+    // counts the encoded length without allocating the byte array
+    long bytes = 0;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        bytes += 1;
+      } else if (c < 0x800) {
+        bytes += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+          && Character.isLowSurrogate(value.charAt(i + 1))) {
+        bytes += 4;
+        i++;
+      } else if (Character.isSurrogate(c)) {
+        bytes += 1; // unpaired: String.getBytes writes '?'
+      } else {
+        bytes += 3;
+      }
+      if (bytes > maxBytes) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,17 @@
+package com.learn.brainbridge.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * AsyncConfig - Enables @Async methods
+ *
+ * @Async work runs on Spring Boot's applicationTaskExecutor. With
+ * spring.threads.virtual.enabled=true that executor (like Tomcat's request
+ * threads and the @Scheduled scheduler) hands out a new virtual thread per task
+ * instead of borrowing from a fixed platform-thread pool.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
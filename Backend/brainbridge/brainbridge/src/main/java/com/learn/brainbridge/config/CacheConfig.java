@@ -0,0 +1,65 @@
+package com.learn.brainbridge.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.learn.brainbridge.util.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * CacheConfig - Read-through entity caches
+ *
+ * CONCEPTS TO LEARN:
+ * 1. @EnableCaching - Activates @Cacheable / @CachePut / @CacheEvict on Spring beans
+ * 2. Caffeine - In-memory cache using W-TinyLFU admission: a new entry only evicts
+ *    an old one if it is estimated to be used more often, so one-off reads
+ *    cannot flush the hot set
+ * 3. Spec strings - maximumSize bounds the entry count, expireAfterWrite bounds staleness,
+ *    recordStats enables the hit/miss/eviction counters shown on /api/cache/stats
+ * 4. SingleFlight - Sits behind the cache: when many requests miss on the same key at
+ *    once, only one of them queries the database and the rest share its result
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PROJECTS = "projects";
+    public static final String USERS = "users";
+
+    @Value("${app.cache.projects.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}")
+    private String projectsSpec;
+
+    @Value("${app.cache.users.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}")
+    private String usersSpec;
+
+    @Value("${app.single-flight.projects.timeout-ms:2000}")
+    private long projectLoadTimeoutMs;
+
+    @Value("${app.single-flight.users.timeout-ms:2000}")
+    private long userLoadTimeoutMs;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // don't remember "not found": ids are handed out by sequences and may exist a moment later
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(PROJECTS, Caffeine.from(projectsSpec).build());
+        cacheManager.registerCustomCache(USERS, Caffeine.from(usersSpec).build());
+        return cacheManager;
+    }
+
+    @Bean
+    public SingleFlight projectLoads() {
+        return new SingleFlight(PROJECTS, Duration.ofMillis(projectLoadTimeoutMs));
+    }
+
+    @Bean
+    public SingleFlight userLoads() {
+        return new SingleFlight(USERS, Duration.ofMillis(userLoadTimeoutMs));
+    }
+}
@@ -0,0 +1,16 @@
+package com.learn.brainbridge.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * JdbcConfig - Loads the built-in JDBC batching defaults (jdbc-defaults.properties)
+ *
+ * Hibernate sends inserts and updates in batches of 50 and the Postgres driver rewrites each
+ * batch into one multi-row INSERT; the bulk project import depends on it.
+ * Loaded with the lowest priority, so application.properties can still override every value.
+ */
+@Configuration
+@PropertySource("classpath:jdbc-defaults.properties")
+public class JdbcConfig {
+}
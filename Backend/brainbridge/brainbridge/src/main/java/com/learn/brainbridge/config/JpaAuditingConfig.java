@@ -0,0 +1,16 @@
+package com.learn.brainbridge.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+
+/**
+ * JpaAuditingConfig - Turns on Spring Data JPA auditing
+ *
+ * Projects relies on AuditingEntityListener to fill created_at / updated_at.
+ * Without @EnableJpaAuditing the listener is a no-op and those NOT NULL columns
+ * stay empty, which also breaks the keyset ordering on (updated_at, id).
+ */
+@Configuration
+@EnableJpaAuditing
+public class JpaAuditingConfig {
+}
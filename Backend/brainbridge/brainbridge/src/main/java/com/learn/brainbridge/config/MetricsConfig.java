@@ -0,0 +1,25 @@
+package com.learn.brainbridge.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * MetricsConfig - Loads the built-in metrics and tracing defaults
+ *
+ * CONCEPTS TO LEARN:
+ * 1. Spring Boot Actuator - Adds /actuator/* endpoints; with micrometer-registry-prometheus
+ *    every metric is published at /actuator/prometheus
+ * 2. Micrometer - Timers, counters and gauges that cost a few nanoseconds to record
+ *    - http.server.requests: latency per endpoint (automatic)
+ *    - hikaricp.connections.acquire: wait for a JDBC connection (automatic)
+ *    - cache.gets / cache.evictions: Caffeine caches (automatic, stats are enabled)
+ *    - brainbridge.*: our own meters, see the monitoring package
+ * 3. @PropertySource - Adds metrics-defaults.properties with the lowest priority,
+ *    so application.properties can still override every value
+ *
+ * Everything but /actuator/health needs an admin access token (see JwtAuthenticationFilter).
+ */
+@Configuration
+@PropertySource("classpath:metrics-defaults.properties")
+public class MetricsConfig {
+}
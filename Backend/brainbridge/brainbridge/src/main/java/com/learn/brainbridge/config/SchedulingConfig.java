@@ -0,0 +1,15 @@
+package com.learn.brainbridge.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * SchedulingConfig - Enables @Scheduled background jobs (see the scheduler package)
+ * The scheduler pool size comes from scheduling-defaults.properties unless application.properties sets it.
+ */
+@Configuration
+@EnableScheduling
+@PropertySource("classpath:scheduling-defaults.properties")
+public class SchedulingConfig {
+}
@@ -0,0 +1,52 @@
+package com.learn.brainbridge.config;
+
+import org.apache.coyote.AbstractProtocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.env.Environment;
+
+/**
+ * WebServerConfig - Loads the built-in Spring MVC defaults (web-defaults.properties) and sizes
+ * Tomcat's connection limit for the notification streams
+ *
+ * - spring.mvc.async.request-timeout: long enough for streamed exports
+ * - maxConnections: Tomcat's default of 8192 for ordinary requests plus one slot per SSE stream
+ *   the hub accepts (app.notifications.sse.max-connections), so idle streams cannot take the
+ *   slots regular requests need. The limit is per connector, i.e. for the whole port; an explicit
+ *   server.tomcat.max-connections wins.
+ * The properties are loaded with the lowest priority, so application.properties can still override every value.
+ */
+@Configuration
+@PropertySource("classpath:web-defaults.properties")
+public class WebServerConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(WebServerConfig.class);
+
+    /** Tomcat's own default, kept for everything that is not a notification stream */
+    static final int REQUEST_CONNECTIONS = 8192;
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> sseConnectionHeadroom(
+            Environment environment,
+            @Value("${app.notifications.sse.max-connections:40000}") int sseConnections) {
+        return factory -> {
+            if (environment.containsProperty("server.tomcat.max-connections")) {
+                return;
+            }
+            int maxConnections = REQUEST_CONNECTIONS + Math.max(0, sseConnections);
+            factory.addConnectorCustomizers(connector -> {
+                if (connector.getProtocolHandler() instanceof AbstractProtocol<?> protocol) {
+                    protocol.setMaxConnections(maxConnections);
+                    log.info("Tomcat max connections: {} ({} for requests + {} notification streams)",
+                            maxConnections, REQUEST_CONNECTIONS, sseConnections);
+                }
+            });
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.learn.brainbridge.controllers;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.learn.brainbridge.util.SingleFlight;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CacheController - Exposes cache and single-flight counters so cache sizes can be tuned
+ */
+@RestController
+@RequestMapping("/api/cache")
+@Tag(name = "Cache", description = "Cache statistics")
+public class CacheController {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private List<SingleFlight> singleFlights;
+
+    @GetMapping("/stats")
+    @Operation(summary = "Cache statistics",
+            description = "Hit, miss and eviction counters per cache, and collapsed loads per single-flight group.")
+    public ResponseEntity<Map<String, Map<String, Object>>> stats() {
+        Map<String, Object> caches = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof CaffeineCache caffeineCache) {
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+                CacheStats stats = nativeCache.stats();
+                Map<String, Object> values = new LinkedHashMap<>();
+                values.put("size", nativeCache.estimatedSize());
+                values.put("hits", stats.hitCount());
+                values.put("misses", stats.missCount());
+                values.put("hitRate", stats.hitRate());
+                values.put("evictions", stats.evictionCount());
+                caches.put(name, values);
+            }
+        }
+
+        Map<String, Object> loads = new LinkedHashMap<>();
+        for (SingleFlight singleFlight : singleFlights) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("loads", singleFlight.getLeaderLoads());
+            values.put("collapsed", singleFlight.getCollapsedLoads());
+            values.put("timeouts", singleFlight.getTimeouts());
+            values.put("inFlight", singleFlight.getInFlight());
+            loads.put(singleFlight.getName(), values);
+        }
+
+        Map<String, Map<String, Object>> response = new LinkedHashMap<>();
+        response.put("caches", caches);
+        response.put("singleFlight", loads);
+        return ResponseEntity.ok(response);
+    }
+}
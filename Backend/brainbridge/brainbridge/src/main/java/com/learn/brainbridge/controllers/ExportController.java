@@ -0,0 +1,144 @@
+package com.learn.brainbridge.controllers;
+
+import com.learn.brainbridge.Exception.BadRequestException;
+import com.learn.brainbridge.enums.ExportFormat;
+import com.learn.brainbridge.enums.ProjectStatus;
+import com.learn.brainbridge.enums.ProjectVisibility;
+import com.learn.brainbridge.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ExportController - Bulk exports of projects and users
+ *
+ * Responses are streamed (StreamingResponseBody) while ExportService reads the database cursor,
+ * so an export of any size starts immediately and uses constant memory.
+ * When the client sends "Accept-Encoding: gzip" the stream is gzip-compressed on the fly
+ * (CSV / NDJSON typically shrink 5-10x).
+ * Exports contain every user's email and phone, so JwtAuthenticationFilter only lets admins in.
+ */
+@RestController
+@RequestMapping("/api/export")
+@Tag(name = "Export", description = "Streaming CSV / NDJSON exports")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Value("${app.export.gzip:true}")
+    private boolean gzipEnabled;
+
+    /**
+     * GET /api/export/projects?format=csv&status=&visibility=&ownerId=&teamId=&from=&to=
+     */
+    @GetMapping("/projects")
+    @Operation(summary = "Export projects", description = "Streams projects as CSV or NDJSON; from/to filter on creation date (inclusive).")
+    public ResponseEntity<StreamingResponseBody> exportProjects(
+            @Parameter(description = "csv or ndjson") @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "status", required = false) ProjectStatus status,
+            @RequestParam(value = "visibility", required = false) ProjectVisibility visibility,
+            @RequestParam(value = "ownerId", required = false) Integer ownerId,
+            @RequestParam(value = "teamId", required = false) Integer teamId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportFormat exportFormat = parseFormat(format);
+        ExportService.ProjectFilter filter = new ExportService.ProjectFilter(status, visibility, ownerId, teamId,
+                from, checkRange(from, to));
+        return stream("projects", exportFormat, acceptEncoding,
+                out -> exportService.exportProjects(filter, exportFormat, out));
+    }
+
+    /**
+     * GET /api/export/users?format=csv&active=&organizationId=&from=&to=
+     */
+    @GetMapping("/users")
+    @Operation(summary = "Export users", description = "Streams users (without credentials) as CSV or NDJSON; from/to filter on registration date (inclusive).")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "csv or ndjson") @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "active", required = false) Boolean active,
+            @RequestParam(value = "organizationId", required = false) Long organizationId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportFormat exportFormat = parseFormat(format);
+        ExportService.UserFilter filter = new ExportService.UserFilter(active, organizationId, from, checkRange(from, to));
+        return stream("users", exportFormat, acceptEncoding,
+                out -> exportService.exportUsers(filter, exportFormat, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String name, ExportFormat format, String acceptEncoding,
+                                                         Consumer<OutputStream> export) {
+        boolean gzip = gzipEnabled && acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                export.accept(compressed);
+                compressed.finish();
+            } else {
+                export.accept(out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("brainbridge-" + name + "-" + LocalDate.now() + "." + format.getExtension())
+                        .build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .cacheControl(CacheControl.noStore());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    private static ExportFormat parseFormat(String format) {
+        try {
+            return ExportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown export format '" + format + "', use csv or ndjson");
+        }
+    }
+
+    private static LocalDate checkRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new BadRequestException("'to' must not be before 'from'");
+        }
+        return to;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (tokens[0].trim().equalsIgnoreCase("gzip")) {
+                // "gzip;q=0" means explicitly not acceptable
+                return tokens.length == 1 || !tokens[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
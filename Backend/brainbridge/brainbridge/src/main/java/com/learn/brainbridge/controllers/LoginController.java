@@ -1,5 +1,170 @@
 package com.learn.brainbridge.controllers;
 
+import com.learn.brainbridge.Exception.BadRequestException;
+import com.learn.brainbridge.Filters.JwtAuthenticationFilter;
+import com.learn.brainbridge.dtos.AuthTokensDTO;
+import com.learn.brainbridge.dtos.LoginDTO;
+import com.learn.brainbridge.dtos.RefreshTokenRequestDTO;
+import com.learn.brainbridge.dtos.UserDTO;
+import com.learn.brainbridge.enums.NotificationType;
+import com.learn.brainbridge.generics.ApiResponses1;
+import com.learn.brainbridge.service.JwtService;
+import com.learn.brainbridge.service.NotificationAggregator;
+import com.learn.brainbridge.service.RefreshTokenService;
+import com.learn.brainbridge.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+
+/**
+ * LoginController - Token based authentication
+ *
+ * Login returns a short-lived access token (JWT, verified on every request by JwtAuthenticationFilter)
+ * and a long-lived refresh token (opaque, kept by RefreshTokenService) used to get new access tokens.
+ * Responses carrying tokens are never cached (Cache-Control: no-store).
+ * Every login leaves a "New sign-in" notification, so users see sign-ins they did not make.
+ */
+@RestController
+@RequestMapping("/api/auth")
+@Tag(name = "Authentication", description = "Login, token refresh and logout")
 public class LoginController {
-  
+
+    private static final Logger log = LoggerFactory.getLogger(LoginController.class);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private NotificationAggregator notificationAggregator;
+
+    /**
+     * POST /api/auth/login
+     * Check credentials and hand out an access / refresh token pair
+     */
+    @PostMapping("/login")
+    @Operation(summary = "Login", description = "Authenticates with email/username and password and returns access and refresh tokens.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Login successful",
+                    content = @Content(schema = @Schema(implementation = AuthTokensDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid credentials or account deactivated")
+    })
+    public ResponseEntity<ApiResponses1<AuthTokensDTO>> login(@Valid @RequestBody LoginDTO loginDTO,
+                                                              HttpServletRequest request) {
+        UserDTO user = userService.loginUser(loginDTO);
+        RefreshTokenService.IssuedToken refreshToken = refreshTokenService.issue(
+                user.getId(), request.getHeader(HttpHeaders.USER_AGENT), request.getRemoteAddr());
+        notifySignIn(user, request);
+        return tokens("Logged in successfully", user, refreshToken);
+    }
+
+    /**
+     * POST /api/auth/refresh
+     * Exchange a refresh token for a new pair; the old refresh token stops working
+     */
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh tokens", description = "Rotates the refresh token and returns a new access token.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tokens refreshed",
+                    content = @Content(schema = @Schema(implementation = AuthTokensDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid or expired refresh token")
+    })
+    public ResponseEntity<ApiResponses1<AuthTokensDTO>> refresh(@Valid @RequestBody RefreshTokenRequestDTO body,
+                                                                HttpServletRequest request) {
+        RefreshTokenService.IssuedToken refreshToken = refreshTokenService.rotate(
+                body.getRefreshToken(), request.getHeader(HttpHeaders.USER_AGENT), request.getRemoteAddr());
+        UserDTO user = userService.getUserById(refreshToken.userId());
+        if (!Boolean.TRUE.equals(user.getIsActive())) {
+            refreshTokenService.revoke(refreshToken.token());
+            throw new BadRequestException("Account is deactivated");
+        }
+        return tokens("Tokens refreshed", user, refreshToken);
+    }
+
+    /**
+     * POST /api/auth/logout
+     * Revoke the given refresh token and the access token of this request (this device only)
+     */
+    @PostMapping("/logout")
+    @Operation(summary = "Logout", description = "Revokes the refresh token and the current access token.")
+    @ApiResponse(responseCode = "200", description = "Logged out")
+    public ResponseEntity<ApiResponses1<Void>> logout(
+            @RequestBody(required = false) RefreshTokenRequestDTO body,
+            @RequestAttribute(name = JwtAuthenticationFilter.AUTHENTICATED_USER, required = false)
+            JwtService.TokenClaims caller) {
+        if (body != null) {
+            refreshTokenService.revoke(body.getRefreshToken());
+        }
+        if (caller != null) {
+            jwtService.revoke(caller);
+        }
+        return ResponseEntity.ok(new ApiResponses1<>(true, "Logged out", null));
+    }
+
+    /**
+     * POST /api/auth/logout-all
+     * Revoke every refresh and access token of the calling user (all devices)
+     */
+    @PostMapping("/logout-all")
+    @Operation(summary = "Logout everywhere", description = "Revokes all refresh and access tokens of the authenticated user.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Logged out on all devices"),
+            @ApiResponse(responseCode = "401", description = "No valid access token")
+    })
+    public ResponseEntity<ApiResponses1<Void>> logoutAll(
+            @RequestAttribute(name = JwtAuthenticationFilter.AUTHENTICATED_USER, required = false)
+            JwtService.TokenClaims caller) {
+        if (caller == null) {
+            return ResponseEntity.status(401).body(new ApiResponses1<>(false, "Authentication required", null));
+        }
+        refreshTokenService.revokeAll(caller.userId());
+        jwtService.revokeAllIssuedBefore(caller.userId(), Instant.now());
+        return ResponseEntity.ok(new ApiResponses1<>(true, "Logged out on all devices", null));
+    }
+
+    /**
+     * Best effort: a failed notification insert must not fail the login it reports.
+     */
+    private void notifySignIn(UserDTO user, HttpServletRequest request) {
+        String userAgent = request.getHeader(HttpHeaders.USER_AGENT);
+        try {
+            notificationAggregator.notify(user.getId(), NotificationType.SYSTEM, "USER", user.getId(), "New sign-in",
+                    "Signed in from " + request.getRemoteAddr() + (userAgent != null ? " (" + userAgent + ")" : ""));
+        } catch (RuntimeException e) {
+            log.warn("Could not store the sign-in notification of user {}", user.getId(), e);
+        }
+    }
+
+    private ResponseEntity<ApiResponses1<AuthTokensDTO>> tokens(String message, UserDTO user,
+                                                                RefreshTokenService.IssuedToken refreshToken) {
+        AuthTokensDTO tokens = new AuthTokensDTO(
+                jwtService.issueAccessToken(user.getId(), user.getUsername(), user.isAdmin()),
+                "Bearer",
+                jwtService.getAccessTokenTtl().toSeconds(),
+                refreshToken.token(),
+                refreshToken.expiresAt(),
+                user);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(new ApiResponses1<>(true, message, tokens));
+    }
 }
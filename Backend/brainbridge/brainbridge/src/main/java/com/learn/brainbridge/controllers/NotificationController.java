@@ -0,0 +1,174 @@
+package com.learn.brainbridge.controllers;
+
+import com.learn.brainbridge.Exception.ResourceNotFoundException;
+import com.learn.brainbridge.Filters.JwtAuthenticationFilter;
+import com.learn.brainbridge.dtos.NotificationDTO;
+import com.learn.brainbridge.dtos.StreamTicketDTO;
+import com.learn.brainbridge.generics.ApiResponses1;
+import com.learn.brainbridge.service.JwtService;
+import com.learn.brainbridge.service.NotificationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * NotificationController - Notifications of the authenticated user
+ *
+ * Clients get a ticket from POST /api/notifications/stream-ticket, open
+ * GET /api/notifications/stream?ticket= once (EventSource) and receive:
+ * - "unread"       {"count": n} on connect and whenever the count changes
+ * - "notification" a NotificationDTO, with the notification id as SSE event id
+ * - "digest"       an updated NotificationDTO (same id) after more events were merged into it
+ * - "resync"       after a reconnect that missed too much: reload GET /api/notifications
+ * EventSource resends the last id as Last-Event-ID when it reconnects, and the stream
+ * replays what was created in between. A ticket only opens one stream, so when the stream
+ * fails the client fetches a new ticket and reopens it with ?lastEventId=.
+ */
+@RestController
+@RequestMapping("/api/notifications")
+@Tag(name = "Notifications", description = "Notification list, unread count and live stream")
+public class NotificationController {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    /**
+     * POST /api/notifications/stream-ticket
+     */
+    @PostMapping("/stream-ticket")
+    @Operation(summary = "Stream ticket",
+            description = "Single-use ticket for opening the notification stream within 30 seconds; EventSource cannot send the access token as a header.")
+    public ResponseEntity<ApiResponses1<StreamTicketDTO>> streamTicket(
+            @RequestAttribute(name = JwtAuthenticationFilter.AUTHENTICATED_USER, required = false)
+            JwtService.TokenClaims caller) {
+        if (caller == null) {
+            return unauthorized();
+        }
+        StreamTicketDTO ticket = new StreamTicketDTO(jwtService.issueStreamTicket(caller),
+                JwtService.STREAM_TICKET_TTL.toSeconds());
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(new ApiResponses1<>(true, "Stream ticket issued", ticket));
+    }
+
+    /**
+     * GET /api/notifications/stream?ticket=
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Notification stream", description = "Server-Sent Events with new notifications and the unread count.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream"),
+            @ApiResponse(responseCode = "401", description = "No valid ticket or access token"),
+            @ApiResponse(responseCode = "503", description = "Too many open streams")
+    })
+    public ResponseEntity<SseEmitter> stream(
+            @RequestAttribute(name = JwtAuthenticationFilter.AUTHENTICATED_USER, required = false)
+            JwtService.TokenClaims caller,
+            @Parameter(description = "From POST /api/notifications/stream-ticket; not needed with an Authorization header")
+            @RequestParam(value = "ticket", required = false) String ticket,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @Parameter(description = "Fallback for clients that cannot set Last-Event-ID")
+            @RequestParam(value = "lastEventId", required = false) Long lastEventIdParam) {
+        Optional<Long> userId = caller != null ? Optional.of(caller.userId()) : jwtService.redeemStreamTicket(ticket);
+        if (userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        SseEmitter emitter = notificationService.subscribe(userId.get(),
+                lastEventId != null ? lastEventId : lastEventIdParam);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header("X-Accel-Buffering", "no") // nginx: pass events through unbuffered
+                .body(emitter);
+    }
+
+    /**
+     * GET /api/notifications?before=&size=
+     */
+    @GetMapping
+    @Operation(summary = "List notifications", description = "Newest first; pass the smallest id of a page as 'before' for the next one.")
+    public ResponseEntity<ApiResponses1<List<NotificationDTO>>> list(
+            @RequestAttribute(name = JwtAuthenticationFilter.AUTHENTICATED_USER, required = false)
+            JwtService.TokenClaims caller,
+            @RequestParam(value = "before", required = false) Long before,
+            @RequestParam(value = "size", defaultValue = "" + NotificationService.DEFAULT_PAGE_SIZE) int size) {
+        if (caller == null) {
+            return unauthorized();
+        }
+        List<NotificationDTO> notifications = notificationService.getNotifications(caller.userId(), before, size);
+        return ResponseEntity.ok(new ApiResponses1<>(true, "Notifications retrieved", notifications));
+    }
+
+    /**
+     * GET /api/notifications/unread-count
+     */
+    @GetMapping("/unread-count")
+    @Operation(summary = "Unread count", description = "Served from memory after the first call.")
+    public ResponseEntity<ApiResponses1<Long>> unreadCount(
+            @RequestAttribute(name = JwtAuthenticationFilter.AUTHENTICATED_USER, required = false)
+            JwtService.TokenClaims caller) {
+        if (caller == null) {
+            return unauthorized();
+        }
+        return ResponseEntity.ok(new ApiResponses1<>(true, "Unread count",
+                notificationService.getUnreadCount(caller.userId())));
+    }
+
+    /**
+     * POST /api/notifications/{id}/read
+     */
+    @PostMapping("/{id}/read")
+    @Operation(summary = "Mark as read")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Marked as read"),
+            @ApiResponse(responseCode = "404", description = "No unread notification with this id for the caller")
+    })
+    public ResponseEntity<ApiResponses1<Void>> markRead(
+            @RequestAttribute(name = JwtAuthenticationFilter.AUTHENTICATED_USER, required = false)
+            JwtService.TokenClaims caller,
+            @PathVariable("id") Long id) {
+        if (caller == null) {
+            return unauthorized();
+        }
+        if (!notificationService.markRead(caller.userId(), id)) {
+            throw new ResourceNotFoundException("Unread notification", id);
+        }
+        return ResponseEntity.ok(new ApiResponses1<>(true, "Marked as read", null));
+    }
+
+    /**
+     * POST /api/notifications/read-all?upTo=
+     */
+    @PostMapping("/read-all")
+    @Operation(summary = "Mark all as read",
+            description = "Marks every unread notification with an id up to 'upTo' (the newest one the client has shown) as read; without 'upTo' all of them.")
+    public ResponseEntity<ApiResponses1<Integer>> markAllRead(
+            @RequestAttribute(name = JwtAuthenticationFilter.AUTHENTICATED_USER, required = false)
+            JwtService.TokenClaims caller,
+            @RequestParam(value = "upTo", required = false) Long upTo) {
+        if (caller == null) {
+            return unauthorized();
+        }
+        int marked = notificationService.markAllRead(caller.userId(), upTo);
+        return ResponseEntity.ok(new ApiResponses1<>(true, marked + " notifications marked as read", marked));
+    }
+
+    private static <T> ResponseEntity<ApiResponses1<T>> unauthorized() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new ApiResponses1<>(false, "Authentication required", null));
+    }
+}
@@ -1,15 +1,28 @@
 package com.learn.brainbridge.controllers;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import com.learn.brainbridge.dtos.ProjectDTO;
+import com.learn.brainbridge.dtos.ProjectDetailsDTO;
+import com.learn.brainbridge.dtos.ProjectImportResultDTO;
+import com.learn.brainbridge.dtos.ProjectPageDTO;
+import com.learn.brainbridge.dtos.ProjectSearchResultDTO;
+import com.learn.brainbridge.dtos.ResourceVersionDTO;
 import com.learn.brainbridge.entity.Projects;
+import com.learn.brainbridge.service.ProjectImportService;
+import com.learn.brainbridge.service.ProjectSearchService;
 import com.learn.brainbridge.service.ProjectsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,9 +31,14 @@ import java.util.Optional;
 @RequestMapping("/projects/api")
 public class ProjectsController {
     private ProjectsService  service;
+    private ProjectSearchService searchService;
+    private ProjectImportService importService;
     @Autowired
-    public ProjectsController(ProjectsService service) {
+    public ProjectsController(ProjectsService service, ProjectSearchService searchService,
+                              ProjectImportService importService) {
         this.service = service;
+        this.searchService = searchService;
+        this.importService = importService;
     }
 @PostMapping("/add")
     public ResponseEntity<?> createProject(@Valid @RequestBody ProjectDTO projectDTO) {
@@ -35,15 +53,49 @@ public class ProjectsController {
     service.createProject(project);
     return ResponseEntity.status(HttpStatus.CREATED).body(project);
 }
+/**
+ * POST /projects/api/import
+ * Bulk import: a JSON array, or NDJSON (one project per line) with Content-Type application/x-ndjson.
+ * Bad rows are reported individually and do not stop the others from being saved.
+ */
+@PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ProjectImportResultDTO> importProjects(HttpServletRequest request) throws IOException {
+        boolean ndjson = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+        ProjectImportResultDTO result = importService.importProjects(request.getInputStream(), ndjson);
+        return ResponseEntity.status(HttpStatus.OK).body(result);
+}
+/**
+ * GET /projects/api/all?cursor=&size=
+ * Keyset-paginated listing, newest first. Pass nextCursor from the previous
+ * response as ?cursor= to continue; size is capped at ProjectsService.MAX_PAGE_SIZE.
+ */
 @GetMapping("/all")
-    public ResponseEntity<?> getAllProjects() {
-        List<Projects> projects = service.getAllProjects();
-        if(projects.isEmpty()) {
-            return ResponseEntity
-                    .status(HttpStatus.NOT_FOUND)
-                    .body("No projects found");
-        }
-        return ResponseEntity.status(HttpStatus.OK).body(projects);
+    public ResponseEntity<ProjectPageDTO> getAllProjects(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "" + ProjectsService.DEFAULT_PAGE_SIZE) int size) {
+        ProjectPageDTO page = service.getProjectsPage(cursor, size);
+        return ResponseEntity.status(HttpStatus.OK).body(page);
+}
+/**
+ * GET /projects/api/stream
+ * Every project as one JSON array, written row by row from a database cursor.
+ */
+@GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProjects() {
+        StreamingResponseBody body = service::writeAllProjects;
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).body(body);
+}
+/**
+ * GET /projects/api/search?q=&page=&size=
+ * Ranked full-text search over title and description; tolerates typos.
+ * Pages reaching past ProjectSearchService.MAX_RESULT_WINDOW hits get 400.
+ */
+@GetMapping("/search")
+    public ResponseEntity<ProjectSearchResultDTO> searchProjects(
+            @RequestParam("q") String query,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "" + ProjectsService.DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.status(HttpStatus.OK).body(searchService.search(query, page, size));
 }
 @PutMapping("/update")
     public ResponseEntity<?> updateProject(@Valid @RequestBody ProjectDTO projectDTO) {
@@ -55,16 +107,29 @@ public class ProjectsController {
 }
 @GetMapping("/team/{teamName}")
     public ResponseEntity<?> getProject(@PathVariable("teamName") Integer teamName) {
-        List<Projects> project = service.getProjectsByTeam(teamName);
+        List<ProjectDTO> project = service.getProjectsByTeam(teamName);
         return ResponseEntity.status(HttpStatus.OK).body(project);
 }
+/**
+ * GET /projects/api/owner/{ownerId}
+ * Projects owned by one user.
+ */
+@GetMapping("/owner/{ownerId}")
+    public ResponseEntity<List<ProjectDTO>> getProjectsByOwner(@PathVariable("ownerId") Integer ownerId) {
+        return ResponseEntity.status(HttpStatus.OK).body(service.getProjectsByOwner(ownerId));
+}
 @GetMapping("/fetch/{id}")
-    public ResponseEntity<?> getProjectById(@PathVariable("id") Integer id) {
-        Optional<Projects> project = service.getProjectById(id);
-        if(project == null){
+    public ResponseEntity<?> getProjectById(@PathVariable("id") Integer id, WebRequest request) {
+        // ETag from the version column: a 304 never loads or serializes the project
+        Optional<ResourceVersionDTO> version = service.getProjectVersion(id);
+        if(version.isEmpty()){
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No projects found");
         }
-        return ResponseEntity.status(HttpStatus.OK).body(project);
+        if(request.checkNotModified(version.get().etag("project", id))){
+            return null;
+        }
+        Optional<ProjectDetailsDTO> project = service.getProjectById(id);
+        return ResponseEntity.status(HttpStatus.OK).cacheControl(CacheControl.noCache()).body(project);
 }
 @DeleteMapping("/remove/{title}")
     public ResponseEntity<?> deleteProject(@PathVariable("id") String title) {
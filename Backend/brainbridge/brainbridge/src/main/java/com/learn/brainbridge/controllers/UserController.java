@@ -1,10 +1,14 @@
 package com.learn.brainbridge.controllers;
 
+import com.learn.brainbridge.Exception.BadRequestException;
+import com.learn.brainbridge.dtos.AvailabilityDTO;
 import com.learn.brainbridge.dtos.LoginDTO;
 import com.learn.brainbridge.dtos.RegisterUserDTO;
+import com.learn.brainbridge.dtos.ResourceVersionDTO;
 import com.learn.brainbridge.dtos.UserDTO;
 import com.learn.brainbridge.generics.ApiResponses1;
 import com.learn.brainbridge.service.EmailVerificationService;
+import com.learn.brainbridge.service.UserAvailabilityService;
 import com.learn.brainbridge.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,10 +19,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.ZoneId;
 import java.util.List;
 
 /**
@@ -57,6 +64,9 @@ public class UserController {
     @Autowired
     private EmailVerificationService emailVerificationService;
 
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+
     /**
      * POST /api/users/register
      * Register a new user
@@ -91,6 +101,36 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * GET /api/users/availability?email=...&username=...
+     * Check whether an email and/or username is still free (registration form, as the user types).
+     * Answered from the in-memory Bloom filters when possible; never cached by clients,
+     * since the answer can change with the next registration.
+     */
+    @GetMapping("/availability")
+    @Operation(summary = "Check email / username availability",
+            description = "Returns whether the given email and/or username can still be used to register.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Availability checked",
+                    content = @Content(schema = @Schema(implementation = AvailabilityDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Neither email nor username given")
+    })
+    public ResponseEntity<ApiResponses1<AvailabilityDTO>> checkAvailability(
+            @Parameter(description = "Email to check") @RequestParam(value = "email", required = false) String email,
+            @Parameter(description = "Username to check") @RequestParam(value = "username", required = false) String username) {
+        boolean checkEmail = email != null && !email.isBlank();
+        boolean checkUsername = username != null && !username.isBlank();
+        if (!checkEmail && !checkUsername) {
+            throw new BadRequestException("Provide an email and/or a username to check");
+        }
+        AvailabilityDTO availability = new AvailabilityDTO(
+                checkEmail ? userAvailabilityService.isEmailAvailable(email.trim()) : null,
+                checkUsername ? userAvailabilityService.isUsernameAvailable(username.trim()) : null);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(new ApiResponses1<>(true, "Availability checked", availability));
+    }
+
     @PostMapping("/login")
     @Operation(summary = "Login user", description = "Authenticates a user with email/username and password.")
     @ApiResponses(value = {
@@ -120,13 +160,27 @@ public class UserController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User found",
                     content = @Content(schema = @Schema(implementation = UserDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag / date sent"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
     public ResponseEntity<UserDTO> getUserById(
             @Parameter(description = "User ID", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
+        // Conditional GET: compare the client's If-None-Match / If-Modified-Since against the
+        // version alone, so an unchanged user costs a cache hit (or a two-column query) and a 304
+        ResourceVersionDTO version = userService.getUserVersion(id);
+        String etag = version.etag("user", id);
+        long lastModified = version.lastModified() != null
+                ? version.lastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+        if (request.checkNotModified(etag, lastModified)) {
+            return null; // 304 Not Modified, headers already set
+        }
         UserDTO user = userService.getUserById(id);
-        return ResponseEntity.ok(user); // Shortcut for new ResponseEntity<>(user, HttpStatus.OK)
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache()) // clients may keep it, but must revalidate
+                .body(user);
     }
 
     /**
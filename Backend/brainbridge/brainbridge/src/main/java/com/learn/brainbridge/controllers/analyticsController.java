@@ -1,5 +1,170 @@
 package com.learn.brainbridge.controllers;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.brainbridge.Exception.BadRequestException;
+import com.learn.brainbridge.Filters.JwtAuthenticationFilter;
+import com.learn.brainbridge.dtos.RollupPointDTO;
+import com.learn.brainbridge.dtos.TopEntityDTO;
+import com.learn.brainbridge.dtos.UniqueCountDTO;
+import com.learn.brainbridge.dtos.analyticsDTO;
+import com.learn.brainbridge.enums.AnalyticsEntity;
+import com.learn.brainbridge.enums.RollupGranularity;
+import com.learn.brainbridge.generics.ApiResponses1;
+import com.learn.brainbridge.service.AnalyticsRollupService;
+import com.learn.brainbridge.service.AnalyticsService;
+import com.learn.brainbridge.service.AnalyticsSketchService;
+import com.learn.brainbridge.service.JwtService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * analyticsController - Analytics event ingestion and queries
+ *
+ * Accepts one event object or an array of them and answers 202 as soon as they are queued;
+ * AnalyticsService writes them to analytics_events in the background.
+ * Queries are answered from pre-aggregated data (analytics_rollups, analytics_sketches),
+ * never from raw events.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@Tag(name = "Analytics", description = "Analytics event ingestion and queries")
 public class analyticsController {
-  
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private AnalyticsRollupService rollupService;
+
+    @Autowired
+    private AnalyticsSketchService sketchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${app.analytics.ingest.max-events-per-request:1000}")
+    private int maxEventsPerRequest;
+
+    /**
+     * POST /api/analytics/events
+     */
+    @PostMapping("/events")
+    @Operation(summary = "Ingest events", description = "Queues one event or an array of events. The user is taken from the access token, if any.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Queued; 'dropped' counts events discarded because the buffer was full"),
+            @ApiResponse(responseCode = "400", description = "Invalid event; nothing was queued"),
+            @ApiResponse(responseCode = "503", description = "Buffer full (overflow-policy BLOCK), retry later")
+    })
+    public ResponseEntity<ApiResponses1<AnalyticsService.IngestResult>> ingest(
+            @RequestBody JsonNode body,
+            @RequestAttribute(name = JwtAuthenticationFilter.AUTHENTICATED_USER, required = false)
+            JwtService.TokenClaims caller) {
+        List<analyticsDTO> events = parse(body);
+        AnalyticsService.IngestResult result = analyticsService.ingest(caller != null ? caller.userId() : null, events);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(new ApiResponses1<>(true, result.accepted() + " events accepted", result));
+    }
+
+    /**
+     * GET /api/analytics/rollups?entityType=PROJECT&entityId=42&granularity=HOUR&from=&to=&eventType=
+     */
+    @GetMapping("/rollups")
+    @Operation(summary = "Event counts over time", description = "Per-bucket counts for one entity from the pre-aggregated rollups; from inclusive, to exclusive.")
+    public ResponseEntity<ApiResponses1<List<RollupPointDTO>>> rollups(
+            @RequestParam("entityType") AnalyticsEntity entityType,
+            @RequestParam("entityId") Long entityId,
+            @RequestParam(value = "granularity", defaultValue = "HOUR") RollupGranularity granularity,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Only this event type; all types if omitted")
+            @RequestParam(value = "eventType", required = false) String eventType) {
+        List<RollupPointDTO> points = rollupService.getRange(entityType, entityId, eventType, granularity, from, to);
+        return ResponseEntity.ok(new ApiResponses1<>(true, "Rollups retrieved", points));
+    }
+
+    /**
+     * GET /api/analytics/unique-users?entityType=PROJECT&entityId=42&granularity=DAY&from=&to=&eventType=
+     */
+    @GetMapping("/unique-users")
+    @Operation(summary = "Distinct users", description = "Estimated number of distinct signed-in users behind one entity's events (HyperLogLog, about 1.6% standard error); whole HOUR or DAY buckets.")
+    public ResponseEntity<ApiResponses1<UniqueCountDTO>> uniqueUsers(
+            @RequestParam("entityType") AnalyticsEntity entityType,
+            @RequestParam("entityId") Long entityId,
+            @RequestParam(value = "granularity", defaultValue = "HOUR") RollupGranularity granularity,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Only this event type; all types if omitted")
+            @RequestParam(value = "eventType", required = false) String eventType) {
+        UniqueCountDTO count = sketchService.getUniqueUsers(entityType, entityId, eventType, granularity, from, to);
+        return ResponseEntity.ok(new ApiResponses1<>(true, "Unique users estimated", count));
+    }
+
+    /**
+     * GET /api/analytics/top-entities?entityType=PROJECT&granularity=DAY&from=&to=&eventType=&limit=10
+     */
+    @GetMapping("/top-entities")
+    @Operation(summary = "Most active entities", description = "Entities of the type with the most events (Count-Min sketch, counts are upper bounds); whole HOUR or DAY buckets.")
+    public ResponseEntity<ApiResponses1<List<TopEntityDTO>>> topEntities(
+            @RequestParam("entityType") AnalyticsEntity entityType,
+            @RequestParam(value = "granularity", defaultValue = "HOUR") RollupGranularity granularity,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Only this event type; all types if omitted")
+            @RequestParam(value = "eventType", required = false) String eventType,
+            @Parameter(description = "At most " + AnalyticsSketchService.MAX_TOP_LIMIT)
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        List<TopEntityDTO> top = sketchService.getTopEntities(entityType, eventType, granularity, from, to, limit);
+        return ResponseEntity.ok(new ApiResponses1<>(true, "Top entities estimated", top));
+    }
+
+    private List<analyticsDTO> parse(JsonNode body) {
+        if (body == null || !(body.isObject() || body.isArray())) {
+            throw new BadRequestException("Expected an event object or an array of events");
+        }
+        if (body.isArray() && body.size() > maxEventsPerRequest) {
+            throw new BadRequestException("At most " + maxEventsPerRequest + " events per request");
+        }
+        List<JsonNode> nodes = new ArrayList<>();
+        if (body.isArray()) {
+            body.forEach(nodes::add);
+        } else {
+            nodes.add(body);
+        }
+        List<analyticsDTO> events = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            analyticsDTO event;
+            try {
+                event = objectMapper.treeToValue(nodes.get(i), analyticsDTO.class);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                throw new BadRequestException("Event " + i + ": " + e.getMessage().lines().findFirst().orElse("invalid"));
+            }
+            Set<ConstraintViolation<analyticsDTO>> violations = validator.validate(event);
+            if (!violations.isEmpty()) {
+                throw new BadRequestException("Event " + i + ": " + violations.iterator().next().getMessage());
+            }
+            events.add(event);
+        }
+        return events;
+    }
 }
@@ -0,0 +1,29 @@
+package com.learn.brainbridge.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * AuthTokensDTO - Tokens handed out on login and refresh
+ *
+ * - accessToken: short-lived JWT, sent as "Authorization: Bearer <accessToken>"
+ * - refreshToken: long-lived opaque token, only sent to /api/auth/refresh and /api/auth/logout
+ */
+@Schema(description = "Access and refresh tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthTokensDTO {
+
+    private String accessToken;
+    private String tokenType;
+    /** Access token lifetime in seconds */
+    private Long expiresIn;
+    private String refreshToken;
+    private LocalDateTime refreshTokenExpiresAt;
+    private UserDTO user;
+}
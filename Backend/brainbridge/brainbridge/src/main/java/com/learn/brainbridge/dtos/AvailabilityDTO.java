@@ -0,0 +1,25 @@
+package com.learn.brainbridge.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * AvailabilityDTO - Whether an email and/or username can still be registered
+ * Fields that were not asked about are left out of the response.
+ */
+@Schema(description = "Email / username availability")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailabilityDTO {
+
+    @Schema(description = "True if no account uses this email", example = "true")
+    private Boolean emailAvailable;
+
+    @Schema(description = "True if no account uses this username", example = "false")
+    private Boolean usernameAvailable;
+}
@@ -0,0 +1,43 @@
+package com.learn.brainbridge.dtos;
+
+import com.learn.brainbridge.enums.NotificationType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * NotificationDTO - A notification as sent to its user (REST and the SSE stream)
+ * Built directly by NotificationRepository's "SELECT new NotificationDTO(...)" queries.
+ */
+@Schema(description = "Notification data transfer object")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationDTO {
+
+    @Schema(description = "Notification ID, increasing; also the SSE event id", example = "1042")
+    private Long id;
+
+    private NotificationType type;
+
+    private String title;
+
+    private String body;
+
+    private Boolean isRead;
+
+    private String targetType;
+
+    private Long targetId;
+
+    @Schema(description = "Events merged into this notification (digest); 1 for a single event", example = "3")
+    private Integer groupCount;
+
+    private LocalDateTime createdAt;
+
+    @Schema(description = "When the last event was merged in; null for a single event")
+    private LocalDateTime updatedAt;
+}
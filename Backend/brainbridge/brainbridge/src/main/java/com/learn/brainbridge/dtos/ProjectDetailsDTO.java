@@ -0,0 +1,38 @@
+package com.learn.brainbridge.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.learn.brainbridge.entity.Projects;
+import com.learn.brainbridge.enums.ProjectStatus;
+import com.learn.brainbridge.enums.ProjectVisibility;
+
+import java.time.LocalDate;
+
+/**
+ * ProjectDetailsDTO - Immutable copy of a project, as kept in the "projects" cache
+ * Serializes like the Projects entity. One instance is handed to every request that hits the
+ * cache, so it must not be something a caller (or Hibernate) can change underneath the others.
+ */
+public record ProjectDetailsDTO(Integer id,
+                                String title,
+                                String description,
+                                ProjectStatus projectStatus,
+                                ProjectVisibility projectVisibility,
+                                Integer ownerId,
+                                Integer teamId,
+                                Integer sourceIdeaId,
+                                String coverImageUrl,
+                                String repoUrl,
+                                LocalDate startDate,
+                                LocalDate endDate,
+                                LocalDate createdAt,
+                                LocalDate updatedAt,
+                                @JsonIgnore long version) {
+
+    public static ProjectDetailsDTO from(Projects project) {
+        return new ProjectDetailsDTO(project.getId(), project.getTitle(), project.getDescription(),
+                project.getProjectStatus(), project.getProjectVisibility(), project.getOwnerId(),
+                project.getTeamId(), project.getSourceIdeaId(), project.getCoverImageUrl(),
+                project.getRepoUrl(), project.getStartDate(), project.getEndDate(),
+                project.getCreatedAt(), project.getUpdatedAt(), project.getVersion());
+    }
+}
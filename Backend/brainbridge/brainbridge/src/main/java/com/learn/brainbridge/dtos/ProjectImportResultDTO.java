@@ -0,0 +1,44 @@
+package com.learn.brainbridge.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ProjectImportResultDTO - Outcome of a bulk project import
+ *
+ * Rows are numbered from 1 in input order. Every rejected row is counted in failed,
+ * but only the first max-errors of them are listed (errorsTruncated tells if more were cut).
+ */
+@Schema(description = "Bulk import summary with per-row errors")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectImportResultDTO {
+
+    private int received;
+    private int imported;
+    private int failed;
+    private List<RowError> errors = new ArrayList<>();
+
+    @Schema(description = "True if more rows failed than are listed in errors")
+    private boolean errorsTruncated;
+
+    @Schema(description = "Set when the input could not be read to the end (malformed JSON)")
+    private String stoppedAt;
+
+    private long durationMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int row;
+        private String title;
+        private List<String> messages;
+    }
+}
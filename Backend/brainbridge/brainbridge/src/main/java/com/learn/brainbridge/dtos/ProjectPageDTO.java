@@ -0,0 +1,29 @@
+package com.learn.brainbridge.dtos;
+
+import com.learn.brainbridge.entity.Projects;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * ProjectPageDTO - One page of a keyset-paginated project listing
+ *
+ * nextCursor is opaque to clients: pass it back unchanged as ?cursor=
+ * to get the following page. It is null when there are no more rows.
+ */
+@Schema(description = "A page of projects with an opaque continuation cursor")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectPageDTO {
+
+    private List<Projects> items;
+
+    @Schema(description = "Cursor for the next page, null on the last page")
+    private String nextCursor;
+
+    private boolean hasMore;
+}
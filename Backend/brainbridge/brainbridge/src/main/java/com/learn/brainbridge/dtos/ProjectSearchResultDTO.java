@@ -0,0 +1,38 @@
+package com.learn.brainbridge.dtos;
+
+import com.learn.brainbridge.entity.Projects;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * ProjectSearchResultDTO - One page of ranked project search results
+ */
+@Schema(description = "Ranked project search results")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectSearchResultDTO {
+
+    private String query;
+    private int page;
+    private int size;
+
+    @Schema(description = "Number of projects matching at least one query term")
+    private long totalHits;
+
+    private List<Hit> hits;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hit {
+        private Projects project;
+
+        @Schema(description = "BM25 relevance score, higher is better")
+        private double score;
+    }
+}
@@ -0,0 +1,10 @@
+package com.learn.brainbridge.dtos;
+
+import java.time.LocalDateTime;
+
+/**
+ * RefreshTokenRecordDTO - One refresh_tokens row without the User association
+ * Used to rebuild the in-memory token store at startup.
+ */
+public record RefreshTokenRecordDTO(Long id, String tokenHash, Long userId, LocalDateTime expiresAt) {
+}
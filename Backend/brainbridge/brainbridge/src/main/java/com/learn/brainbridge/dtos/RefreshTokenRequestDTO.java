@@ -0,0 +1,20 @@
+package com.learn.brainbridge.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * RefreshTokenRequestDTO - DTO carrying a refresh token (refresh, logout)
+ */
+@Schema(description = "Refresh token")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenRequestDTO {
+
+    @NotBlank(message = "Refresh token is required")
+    private String refreshToken;
+}
@@ -1,5 +1,6 @@
 package com.learn.brainbridge.dtos;
 
+import com.learn.brainbridge.annotations.MaxUtf8Bytes;
 import com.learn.brainbridge.annotations.PasswordMatches;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Email;
@@ -30,13 +31,16 @@ public class RegisterUserDTO {
     private String username;
     
     @NotBlank(message = "Password is required")
-    // I might need to add more constraints like uppercase, lowercase, numbers, special characters, etc.
     @Size(min = 8, message = "Password must be at least 8 characters")
+    // BCrypt ignores everything past 72 bytes, and a character can take up to 4 of them
+    @MaxUtf8Bytes(value = 72, message = "Password must be at most 72 bytes")
+    // the lookaheads require each character class; any other character (space, #, -, _, accents) is allowed
+    @Pattern(regexp = "^(?=.*\\p{Ll})(?=.*\\p{Lu})(?=.*\\d)(?=.*[^\\p{L}\\d]).{8,}$", message = "Password must contain at least one uppercase letter, one lowercase letter, one number, and one symbol or space")
     private String password;
 
     @NotBlank(message = "Confirm password is required")
     @Size(message = "Confirm password must be at least 8 characters")
-    @Pattern(regexp = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{8,}$", message = "Confirm password must contain at least one uppercase letter, one lowercase letter, one number, and one special character")
+    @Pattern(regexp = "^(?=.*\\p{Ll})(?=.*\\p{Lu})(?=.*\\d)(?=.*[^\\p{L}\\d]).{8,}$", message = "Confirm password must contain at least one uppercase letter, one lowercase letter, one number, and one symbol or space")
     private String confirmPassword;
 
     
@@ -0,0 +1,18 @@
+package com.learn.brainbridge.dtos;
+
+import java.time.LocalDateTime;
+
+/**
+ * ResourceVersionDTO - What a conditional GET needs to know about a row: its @Version counter
+ * and, where the table keeps one, the last modification time (null otherwise)
+ */
+public record ResourceVersionDTO(long version, LocalDateTime lastModified) {
+
+    /**
+     * Strong ETag for the resource, e.g. "user-42-v7". Any write bumps the version, so equal
+     * ETags mean byte-identical representations.
+     */
+    public String etag(String kind, Object id) {
+        return "\"" + kind + "-" + id + "-v" + version + "\"";
+    }
+}
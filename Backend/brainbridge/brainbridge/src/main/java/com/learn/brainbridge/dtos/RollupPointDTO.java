@@ -0,0 +1,9 @@
+package com.learn.brainbridge.dtos;
+
+import java.time.LocalDateTime;
+
+/**
+ * RollupPointDTO - Number of events of one type in one time bucket
+ */
+public record RollupPointDTO(String eventType, LocalDateTime bucketStart, long count) {
+}
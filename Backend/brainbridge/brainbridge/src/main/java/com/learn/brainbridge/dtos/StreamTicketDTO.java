@@ -0,0 +1,20 @@
+package com.learn.brainbridge.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * StreamTicketDTO - Single-use ticket for GET /api/notifications/stream?ticket=
+ */
+@Schema(description = "Notification stream ticket")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamTicketDTO {
+
+    private String ticket;
+    /** Seconds left to open the stream with it */
+    private Long expiresIn;
+}
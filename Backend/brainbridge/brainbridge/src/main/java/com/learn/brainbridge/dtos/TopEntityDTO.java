@@ -0,0 +1,7 @@
+package com.learn.brainbridge.dtos;
+
+/**
+ * TopEntityDTO - One of the most active entities; count is an upper bound of its events
+ */
+public record TopEntityDTO(Long entityId, long count) {
+}
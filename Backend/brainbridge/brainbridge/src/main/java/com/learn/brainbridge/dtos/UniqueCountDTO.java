@@ -0,0 +1,8 @@
+package com.learn.brainbridge.dtos;
+
+/**
+ * UniqueCountDTO - Estimated number of distinct users; relativeError is the standard error
+ * (about two thirds of estimates are within estimate * relativeError of the exact count)
+ */
+public record UniqueCountDTO(long estimate, double relativeError) {
+}
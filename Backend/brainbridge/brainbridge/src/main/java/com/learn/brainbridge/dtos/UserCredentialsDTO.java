@@ -0,0 +1,8 @@
+package com.learn.brainbridge.dtos;
+
+/**
+ * UserCredentialsDTO - The columns a login needs to check a password, nothing else
+ * Loaded with one query by email or username, without building a User entity.
+ */
+public record UserCredentialsDTO(Long id, String passwordHash, Boolean isActive, Boolean isEmailVerified) {
+}
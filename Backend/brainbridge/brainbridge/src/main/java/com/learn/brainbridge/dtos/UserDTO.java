@@ -58,5 +58,27 @@ public class UserDTO {
     private LocalDateTime updatedAt;
     private boolean isVerified;
     private boolean isAdmin;
-    
+
+    /** User.version, for the ETag of GET /api/users/{id}; not part of the JSON body */
+    @JsonIgnore
+    private Long version;
+
+    /**
+     * Fields returned by the user endpoints; used by UserRepository's
+     * "SELECT new UserDTO(...)" projection queries
+     */
+    public UserDTO(Long id, String email, String username, String firstName, String lastName,
+                   String profileImageUrl, Boolean isActive, Boolean isEmailVerified,
+                   LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.email = email;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.profileImageUrl = profileImageUrl;
+        this.isActive = isActive;
+        this.isEmailVerified = isEmailVerified;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
 }
@@ -0,0 +1,10 @@
+package com.learn.brainbridge.dtos;
+
+import java.time.LocalDateTime;
+
+/**
+ * UserIdentityDTO - Just the unique identifiers of a user, and when it was created
+ * Used to warm and sync the availability filters without loading full User entities.
+ */
+public record UserIdentityDTO(Long id, String email, String username, LocalDateTime createdAt) {
+}
@@ -1,5 +1,40 @@
 package com.learn.brainbridge.dtos;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.learn.brainbridge.enums.AnalyticsEntity;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * analyticsDTO - One analytics event as sent by a client to POST /api/analytics/events
+ * The user is taken from the access token, never from the payload.
+ */
+@Schema(description = "Analytics event")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class analyticsDTO {
-  
+
+    @NotBlank(message = "eventType is required")
+    @Size(max = 100, message = "eventType must be at most 100 characters")
+    @Schema(description = "What happened", example = "project_view")
+    private String eventType;
+
+    @Schema(description = "Kind of thing the event is about", example = "PROJECT")
+    private AnalyticsEntity entityType;
+
+    @Schema(description = "ID of the thing the event is about", example = "42")
+    private Long entityId;
+
+    @Schema(description = "Free-form JSON object stored with the event")
+    private JsonNode context;
+
+    @Schema(description = "When it happened; defaults to the time the server receives it")
+    private LocalDateTime occurredAt;
 }
@@ -1,5 +1,54 @@
 package com.learn.brainbridge.entity;
 
+import com.learn.brainbridge.enums.AnalyticsEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Analytics Entity - One raw analytics event (analytics_events)
+ *
+ * Rows are written in batches by AnalyticsServiceImpl with plain JDBC, not through this entity;
+ * it defines the table and serves reads.
+ */
+@Entity
+@Table(name = "analytics_events", indexes = {
+        @Index(name = "idx_analytics_events_entity", columnList = "entity_type, entity_id, created_at"),
+        @Index(name = "idx_analytics_events_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class Analytics {
-  
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Null for anonymous events; plain column so ingestion needs no User lookup */
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type")
+    private AnalyticsEntity entityType;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "context", columnDefinition = "jsonb")
+    private String context;
+
+    /** When the event happened (client time, never in the future) */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
 }
@@ -0,0 +1,51 @@
+package com.learn.brainbridge.entity;
+
+import com.learn.brainbridge.enums.AnalyticsEntity;
+import com.learn.brainbridge.enums.RollupGranularity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * AnalyticsRollup Entity - Event count of one entity, event type and time bucket
+ *
+ * Maintained by AnalyticsRollupService with additive upserts on the unique key; dashboards read
+ * these rows instead of scanning analytics_events.
+ */
+@Entity
+@Table(name = "analytics_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_analytics_rollups_bucket",
+                columnNames = {"granularity", "entity_type", "entity_id", "event_type", "bucket_start"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RollupGranularity granularity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private AnalyticsEntity entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "event_count", nullable = false)
+    private long eventCount;
+}
@@ -0,0 +1,57 @@
+package com.learn.brainbridge.entity;
+
+import com.learn.brainbridge.enums.AnalyticsEntity;
+import com.learn.brainbridge.enums.RollupGranularity;
+import com.learn.brainbridge.enums.SketchKind;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * AnalyticsSketch Entity - Serialized probabilistic sketch of one time bucket
+ *
+ * Maintained by AnalyticsSketchService, which merges new events into data under a row lock.
+ * TOP_ENTITIES rows cover every entity of the type and use entity_id 0.
+ */
+@Entity
+@Table(name = "analytics_sketches", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_analytics_sketches_bucket",
+                columnNames = {"kind", "granularity", "entity_type", "entity_id", "event_type", "bucket_start"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SketchKind kind;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RollupGranularity granularity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private AnalyticsEntity entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    /** HyperLogLog.toBytes() or TopK.toBytes() */
+    @Column(nullable = false)
+    private byte[] data;
+}
@@ -11,9 +11,15 @@ import java.time.LocalDateTime;
 
 /**
  * Notification Entity - Represents notifications for users
+ *
+ * idx_notifications_user_read serves the unread count, idx_notifications_user_id the
+ * newest-first listing and the catch-up query of a reconnecting SSE stream (id > last seen).
  */
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_user_read", columnList = "user_id, is_read"),
+        @Index(name = "idx_notifications_user_id", columnList = "user_id, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -41,6 +47,24 @@ public class Notification {
     @Column(name = "is_read")
     private Boolean isRead = false;
 
+    /**
+     * What the notification is about (e.g. "PROJECT" / 42); notifications of the same type on the
+     * same target are merged into one digest row by NotificationAggregator
+     */
+    @Column(name = "target_type", length = 50)
+    private String targetType;
+
+    @Column(name = "target_id")
+    private Long targetId;
+
+    /** Number of events merged into this row (1 for a plain notification) */
+    @Column(name = "group_count", nullable = false, columnDefinition = "integer default 1")
+    private Integer groupCount = 1;
+
+    /** Last time events were merged into this row; null if never */
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -10,9 +10,16 @@ import java.time.LocalDateTime;
 
 /**
  * PasswordResetToken Entity - Represents password reset tokens for users
+ *
+ * Marking a token used also sets expires_at to now, so ExpiredTokenSweeper removes used and
+ * expired tokens with the same expires_at index range delete.
  */
 @Entity
-@Table(name = "password_reset_tokens")
+@Table(name = "password_reset_tokens", indexes = {
+        @Index(name = "idx_password_reset_tokens_token", columnList = "token"),
+        @Index(name = "idx_password_reset_tokens_user_id", columnList = "user_id"),
+        @Index(name = "idx_password_reset_tokens_expires_at", columnList = "expires_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
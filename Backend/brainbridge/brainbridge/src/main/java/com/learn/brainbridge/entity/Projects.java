@@ -1,5 +1,6 @@
 package com.learn.brainbridge.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import com.learn.brainbridge.enums.ProjectStatus;
 import com.learn.brainbridge.enums.ProjectVisibility;
@@ -11,7 +12,9 @@ import java.time.LocalDate;
 
 @Entity
 @EntityListeners(AuditingEntityListener.class)
-@Table(name = "Projects")
+@Table(name = "Projects", indexes = {
+        @Index(name = "idx_projects_updated_at_id", columnList = "updated_at DESC, id DESC")
+})
 public class Projects {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE,generator = "projects_seq")
@@ -61,6 +64,12 @@ public class Projects {
     @Column(nullable = false,name = "updated_at")
     private LocalDate updatedAt;
 
+    // bumped by Hibernate on every update; the ETag of GET /fetch/{id}
+    @Version
+    @JsonIgnore
+    @Column(nullable = false,name = "version",columnDefinition = "bigint default 0")
+    private long version;
+
     public Projects() {
     }
 
@@ -137,6 +146,10 @@ public class Projects {
         return updatedAt;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public void setTitle(String title) {
         this.title = title;
     }
@@ -10,9 +10,13 @@ import java.time.LocalDateTime;
 
 /**
  * RefreshToken Entity - Represents refresh tokens for user authentication
+ * token holds the SHA-256 (hex) of the token handed to the client, never the token itself.
  */
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_token", columnList = "token", unique = true),
+        @Index(name = "idx_refresh_tokens_user_id", columnList = "user_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
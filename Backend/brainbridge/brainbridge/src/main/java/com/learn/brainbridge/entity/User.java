@@ -5,7 +5,6 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import jakarta.validation.constraints.Pattern;
 
 import java.time.LocalDateTime;
 
@@ -24,7 +23,9 @@ import java.time.LocalDateTime;
  * 9. Lombok annotations (@Data, @NoArgsConstructor, @AllArgsConstructor) - Reduces boilerplate
  */
 @Entity
-@Table(name = "users") // Table name in database
+@Table(name = "users", // Table name in database
+        // the availability filters sync the users created since their last pass
+        indexes = @Index(name = "idx_users_created_at", columnList = "created_at"))
 @Data // Lombok: Generates getters, setters, toString, equals, hashCode
 @NoArgsConstructor // Lombok: Generates no-args constructor
 @AllArgsConstructor // Lombok: Generates constructor with all fields
@@ -41,7 +42,6 @@ public class User {
     private String username;
 
     @Column(name = "password_hash", nullable = false, length = 255)
-    @Pattern(regexp = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{8,}$", message = "Confirm password must contain at least one uppercase letter, one lowercase letter, one number, and one special character")
     @JsonIgnore
     private String passwordHash;
 
@@ -71,12 +71,27 @@ public class User {
     @Column(name = "is_email_verified")
     private Boolean isEmailVerified = false;
 
+    /**
+     * Operators only (metrics, cache statistics, exports); set directly in the database,
+     * never through the API. Carried in the access token as the "admin" claim.
+     */
+    @Column(name = "is_admin", nullable = false, columnDefinition = "boolean default false")
+    private Boolean isAdmin = false;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * @Version - Incremented by Hibernate on every update; used for ETags
+     * (default 0 so existing rows and plain JDBC inserts get a value)
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     /**
      * @PrePersist - Executes before entity is saved for the first time
      * Sets createdAt timestamp automatically
@@ -0,0 +1,13 @@
+package com.learn.brainbridge.enums;
+
+/**
+ * What analytics ingestion does with an event when its buffer is full
+ */
+public enum AnalyticsOverflowPolicy {
+    /** Discard the incoming event */
+    DROP_NEWEST,
+    /** Discard the oldest buffered event to make room */
+    DROP_OLDEST,
+    /** Wait for room up to app.analytics.ingest.block-timeout-ms, then reject with 503 */
+    BLOCK
+}
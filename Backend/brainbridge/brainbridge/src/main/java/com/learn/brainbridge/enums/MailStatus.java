@@ -0,0 +1,8 @@
+package com.learn.brainbridge.enums;
+
+public enum MailStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,33 @@
+package com.learn.brainbridge.enums;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket sizes of analytics_rollups
+ */
+public enum RollupGranularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /** Start of the bucket containing time */
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    /** Start of the next bucket (exclusive end of this one) */
+    public LocalDateTime bucketEnd(LocalDateTime bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+}
@@ -0,0 +1,11 @@
+package com.learn.brainbridge.enums;
+
+/**
+ * What an analytics_sketches row holds
+ */
+public enum SketchKind {
+    /** HyperLogLog of the users behind one entity's events */
+    UNIQUE_USERS,
+    /** TopK (Count-Min + heap) of the entity ids of one entity type */
+    TOP_ENTITIES
+}
@@ -101,6 +101,7 @@
     CREATE INDEX idx_projects_team ON projects(team_id);
     CREATE INDEX idx_projects_org ON projects(organization_id);
     CREATE INDEX idx_projects_status_visibility ON projects(status, visibility);
+    CREATE INDEX idx_projects_updated_at_id ON projects(updated_at DESC, id DESC);
 
     -- -------------------------
     -- PROJECT MEMBERS
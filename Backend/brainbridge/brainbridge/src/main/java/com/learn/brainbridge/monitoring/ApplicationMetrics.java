@@ -0,0 +1,72 @@
+package com.learn.brainbridge.monitoring;
+
+import com.learn.brainbridge.Filters.ConcurrencyLimitFilter;
+import com.learn.brainbridge.util.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * ApplicationMetrics - Publishes the counters our own components already keep
+ *
+ * Meters read the existing LongAdders/fields when scraped, so nothing extra happens on the hot path.
+ * - brainbridge.singleflight.loads{name, result=leader|collapsed|timeout}
+ * - brainbridge.singleflight.in.flight{name}
+ * - brainbridge.virtual.threads.pinned   (virtual-thread mode only)
+ * - brainbridge.requests.permits.available (virtual-thread mode only)
+ */
+@Component
+public class ApplicationMetrics implements MeterBinder {
+
+    private final List<SingleFlight> singleFlights;
+    private final ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor;
+    private final ObjectProvider<ConcurrencyLimitFilter> concurrencyLimit;
+
+    public ApplicationMetrics(List<SingleFlight> singleFlights,
+                              ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor,
+                              ObjectProvider<ConcurrencyLimitFilter> concurrencyLimit) {
+        this.singleFlights = singleFlights;
+        this.pinningMonitor = pinningMonitor;
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (SingleFlight singleFlight : singleFlights) {
+            loads(registry, singleFlight, "leader", SingleFlight::getLeaderLoads);
+            loads(registry, singleFlight, "collapsed", SingleFlight::getCollapsedLoads);
+            loads(registry, singleFlight, "timeout", SingleFlight::getTimeouts);
+            Gauge.builder("brainbridge.singleflight.in.flight", singleFlight, SingleFlight::getInFlight)
+                    .description("Loads currently running")
+                    .tag("name", singleFlight.getName())
+                    .register(registry);
+        }
+
+        pinningMonitor.ifAvailable(monitor ->
+                FunctionCounter.builder("brainbridge.virtual.threads.pinned", monitor,
+                                VirtualThreadPinningMonitor::getPinnedCount)
+                        .description("Virtual threads pinned to their carrier longer than the threshold")
+                        .register(registry));
+
+        concurrencyLimit.ifAvailable(filter ->
+                Gauge.builder("brainbridge.requests.permits.available", filter,
+                                ConcurrencyLimitFilter::getAvailablePermits)
+                        .description("Free request slots in the concurrency limit")
+                        .register(registry));
+    }
+
+    private static void loads(MeterRegistry registry, SingleFlight singleFlight, String result,
+                              ToDoubleFunction<SingleFlight> count) {
+        FunctionCounter.builder("brainbridge.singleflight.loads", singleFlight, count)
+                .description("Loads per single-flight group by how they were served")
+                .tag("name", singleFlight.getName())
+                .tag("result", result)
+                .register(registry);
+    }
+}
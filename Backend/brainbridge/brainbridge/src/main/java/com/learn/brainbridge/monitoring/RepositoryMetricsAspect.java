@@ -0,0 +1,124 @@
+package com.learn.brainbridge.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.BaseStream;
+
+/**
+ * RepositoryMetricsAspect - Times every repository call and records how many rows it returned
+ *
+ * Meters (tags: repository, method):
+ * - brainbridge.repository.calls  timer, also tagged outcome=success|error
+ * - brainbridge.repository.rows   rows returned by finders (collections, pages, optionals, entities)
+ *
+ * Count/exists/delete methods only get the timer. Stream results are not counted because
+ * counting would consume them. Meters are looked up once per repository method and cached,
+ * so the per-call cost is two clock reads and a lock-free record.
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<String, Meters> meters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..)) "
+            + "&& !execution(* java.lang.Object.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryNames.computeIfAbsent(joinPoint.getTarget().getClass(), RepositoryMetricsAspect::repositoryName);
+        String method = joinPoint.getSignature().getName();
+        Meters m = meters.computeIfAbsent(repository + '.' + method, key -> new Meters(registry, repository, method));
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            m.error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        m.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        long rows = rowCount(result);
+        if (rows >= 0) {
+            m.rows.record(rows);
+        }
+        return result;
+    }
+
+    /**
+     * Rows in a finder result, or -1 when the result is not a row set (counts, booleans, void, streams).
+     */
+    static long rowCount(Object result) {
+        if (result == null) {
+            return -1;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof BaseStream<?, ?>
+                || result.getClass().isArray()) {
+            return -1;
+        }
+        return 1;
+    }
+
+    /**
+     * The application's repository interface behind a Spring Data proxy (e.g. "UserRepository").
+     */
+    private static String repositoryName(Class<?> targetClass) {
+        for (Class<?> candidate : targetClass.getInterfaces()) {
+            if (candidate.getPackageName().startsWith("com.learn.brainbridge")) {
+                return candidate.getSimpleName();
+            }
+        }
+        return targetClass.getSimpleName();
+    }
+
+    private static final class Meters {
+        final Timer success;
+        final Timer error;
+        final DistributionSummary rows;
+
+        Meters(MeterRegistry registry, String repository, String method) {
+            success = timer(registry, repository, method, "success");
+            error = timer(registry, repository, method, "error");
+            rows = DistributionSummary.builder("brainbridge.repository.rows")
+                    .description("Rows returned per repository call")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .register(registry);
+        }
+
+        private static Timer timer(MeterRegistry registry, String repository, String method, String outcome) {
+            return Timer.builder("brainbridge.repository.calls")
+                    .description("Repository method latency")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.learn.brainbridge.monitoring;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * VirtualThreadPinningMonitor - Reports virtual threads that get pinned to their carrier
+ *
+ * A virtual thread that blocks inside a synchronized block (or native frame) cannot
+ * unmount, so it holds one of the few carrier threads for the whole wait. A few of
+ * those on a hot path undo the benefit of virtual threads. The JVM emits a
+ * jdk.VirtualThreadPinned JFR event for each pin longer than the threshold; this
+ * component streams those events in-process and logs where they happened.
+ *
+ * Only active in virtual-thread mode (spring.threads.virtual.enabled=true).
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int FRAMES_TO_LOG = 8;
+
+    private final Duration threshold;
+    private final LongAdder pinnedCount = new LongAdder();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${app.virtual-threads.pinning-threshold-ms:20}") long thresholdMs) {
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Watching for virtual thread pinning longer than {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /** Pinning events seen since startup. */
+    public long getPinnedCount() {
+        return pinnedCount.sum();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCount.increment();
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String where = frames.stream()
+                .limit(FRAMES_TO_LOG)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n\tat "));
+        log.warn("Virtual thread pinned for {} ms\n\tat {}", event.getDuration().toMillis(), where);
+    }
+}
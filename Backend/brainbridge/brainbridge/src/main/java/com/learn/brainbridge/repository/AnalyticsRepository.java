@@ -1,5 +1,9 @@
 package com.learn.brainbridge.repository;
 
-public class AnalyticsRepository {
-  
+import com.learn.brainbridge.entity.Analytics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AnalyticsRepository extends JpaRepository<Analytics, Long> {
 }
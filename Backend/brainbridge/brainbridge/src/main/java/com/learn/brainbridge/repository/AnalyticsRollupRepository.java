@@ -0,0 +1,48 @@
+package com.learn.brainbridge.repository;
+
+import com.learn.brainbridge.dtos.RollupPointDTO;
+import com.learn.brainbridge.entity.AnalyticsRollup;
+import com.learn.brainbridge.enums.AnalyticsEntity;
+import com.learn.brainbridge.enums.RollupGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AnalyticsRollupRepository extends JpaRepository<AnalyticsRollup, Long> {
+
+    /**
+     * Buckets in [from, to) for every event type of the entity (walks the unique key index).
+     */
+    @Query("SELECT new com.learn.brainbridge.dtos.RollupPointDTO(r.eventType, r.bucketStart, r.eventCount) " +
+            "FROM AnalyticsRollup r WHERE r.granularity = :granularity AND r.entityType = :entityType " +
+            "AND r.entityId = :entityId AND r.bucketStart >= :from AND r.bucketStart < :to " +
+            "ORDER BY r.bucketStart, r.eventType")
+    List<RollupPointDTO> findRange(@Param("granularity") RollupGranularity granularity,
+                                   @Param("entityType") AnalyticsEntity entityType,
+                                   @Param("entityId") Long entityId,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to);
+
+    @Query("SELECT new com.learn.brainbridge.dtos.RollupPointDTO(r.eventType, r.bucketStart, r.eventCount) " +
+            "FROM AnalyticsRollup r WHERE r.granularity = :granularity AND r.entityType = :entityType " +
+            "AND r.entityId = :entityId AND r.eventType = :eventType AND r.bucketStart >= :from AND r.bucketStart < :to " +
+            "ORDER BY r.bucketStart")
+    List<RollupPointDTO> findRange(@Param("granularity") RollupGranularity granularity,
+                                   @Param("entityType") AnalyticsEntity entityType,
+                                   @Param("entityId") Long entityId,
+                                   @Param("eventType") String eventType,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AnalyticsRollup r WHERE r.granularity = :granularity AND r.bucketStart < :before")
+    int deleteOlderThan(@Param("granularity") RollupGranularity granularity, @Param("before") LocalDateTime before);
+}
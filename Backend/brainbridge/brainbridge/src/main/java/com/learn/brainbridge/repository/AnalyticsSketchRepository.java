@@ -0,0 +1,48 @@
+package com.learn.brainbridge.repository;
+
+import com.learn.brainbridge.entity.AnalyticsSketch;
+import com.learn.brainbridge.enums.AnalyticsEntity;
+import com.learn.brainbridge.enums.RollupGranularity;
+import com.learn.brainbridge.enums.SketchKind;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AnalyticsSketchRepository extends JpaRepository<AnalyticsSketch, Long> {
+
+    /**
+     * Sketches of every event type in [from, to), to be merged by the caller.
+     */
+    @Query("SELECT s.data FROM AnalyticsSketch s WHERE s.kind = :kind AND s.granularity = :granularity " +
+            "AND s.entityType = :entityType AND s.entityId = :entityId " +
+            "AND s.bucketStart >= :from AND s.bucketStart < :to")
+    List<byte[]> findData(@Param("kind") SketchKind kind,
+                          @Param("granularity") RollupGranularity granularity,
+                          @Param("entityType") AnalyticsEntity entityType,
+                          @Param("entityId") Long entityId,
+                          @Param("from") LocalDateTime from,
+                          @Param("to") LocalDateTime to);
+
+    @Query("SELECT s.data FROM AnalyticsSketch s WHERE s.kind = :kind AND s.granularity = :granularity " +
+            "AND s.entityType = :entityType AND s.entityId = :entityId AND s.eventType = :eventType " +
+            "AND s.bucketStart >= :from AND s.bucketStart < :to")
+    List<byte[]> findData(@Param("kind") SketchKind kind,
+                          @Param("granularity") RollupGranularity granularity,
+                          @Param("entityType") AnalyticsEntity entityType,
+                          @Param("entityId") Long entityId,
+                          @Param("eventType") String eventType,
+                          @Param("from") LocalDateTime from,
+                          @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AnalyticsSketch s WHERE s.granularity = :granularity AND s.bucketStart < :before")
+    int deleteOlderThan(@Param("granularity") RollupGranularity granularity, @Param("before") LocalDateTime before);
+}
@@ -1,10 +1,14 @@
 package com.learn.brainbridge.repository;
 
 import com.learn.brainbridge.entity.EmailVerificationToken;
-import com.learn.brainbridge.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -12,6 +16,22 @@ public interface EmailVerificationTokenRepository extends JpaRepository<EmailVer
 
     Optional<EmailVerificationToken> findByToken(String token);
 
-    void deleteByUser(User user);
-}
+    /**
+     * One DELETE statement (derived deleteBy... loads every row and removes them one by one).
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailVerificationToken t WHERE t.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
 
+    /**
+     * Delete up to :limit tokens expired before :now, oldest first, walking the expires_at index.
+     * Rows locked by a running verification are skipped rather than waited for.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM email_verification_tokens WHERE id IN (" +
+            "SELECT id FROM email_verification_tokens WHERE expires_at < :now " +
+            "ORDER BY expires_at LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int deleteExpiredChunk(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -0,0 +1,41 @@
+package com.learn.brainbridge.repository;
+
+import com.learn.brainbridge.entity.MailOutbox;
+import com.learn.brainbridge.enums.MailStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    /**
+     * Lock up to :limit due messages for this dispatcher.
+     * SENDING rows whose lease (next_attempt_at) has run out are picked up again,
+     * which recovers mail claimed by a dispatcher that died mid-batch.
+     * SKIP LOCKED lets several app instances dispatch without stepping on each other.
+     */
+    @Query(value = "SELECT * FROM mail_outbox " +
+            "WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<MailOutbox> lockDueBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByStatus(MailStatus status);
+
+    /**
+     * Row count per status in one scan, for the queue-depth gauges.
+     * Each row is [MailStatus, Long].
+     */
+    @Query("SELECT m.status, COUNT(m) FROM MailOutbox m GROUP BY m.status")
+    List<Object[]> countGroupedByStatus();
+
+    /**
+     * Creation time of the oldest message still waiting, or null when the queue is empty.
+     */
+    @Query("SELECT MIN(m.createdAt) FROM MailOutbox m WHERE m.status IN :statuses")
+    LocalDateTime findOldestCreatedAt(@Param("statuses") List<MailStatus> statuses);
+}
@@ -0,0 +1,76 @@
+package com.learn.brainbridge.repository;
+
+import com.learn.brainbridge.dtos.NotificationDTO;
+import com.learn.brainbridge.entity.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    /**
+     * Unread notifications of a user, counted on idx_notifications_user_read.
+     */
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
+    long countUnread(@Param("userId") Long userId);
+
+    /**
+     * Newest first, ids below :beforeId (keyset paging; Long.MAX_VALUE for the first page).
+     */
+    @Query("SELECT new com.learn.brainbridge.dtos.NotificationDTO(n.id, n.type, n.title, n.body, n.isRead, " +
+            "n.targetType, n.targetId, n.groupCount, n.createdAt, n.updatedAt) " +
+            "FROM Notification n WHERE n.user.id = :userId AND n.id < :beforeId ORDER BY n.id DESC")
+    List<NotificationDTO> findPage(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Pageable page);
+
+    /**
+     * Oldest first, ids above :afterId: what a reconnecting stream missed.
+     */
+    @Query("SELECT new com.learn.brainbridge.dtos.NotificationDTO(n.id, n.type, n.title, n.body, n.isRead, " +
+            "n.targetType, n.targetId, n.groupCount, n.createdAt, n.updatedAt) " +
+            "FROM Notification n WHERE n.user.id = :userId AND n.id > :afterId ORDER BY n.id")
+    List<NotificationDTO> findAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable page);
+
+    @Query("SELECT new com.learn.brainbridge.dtos.NotificationDTO(n.id, n.type, n.title, n.body, n.isRead, " +
+            "n.targetType, n.targetId, n.groupCount, n.createdAt, n.updatedAt) FROM Notification n WHERE n.id = :id")
+    Optional<NotificationDTO> findDTOById(@Param("id") Long id);
+
+    /**
+     * @return 1 if the notification was unread and now is read, 0 if it was already read or is not the user's
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.user.id = :userId AND n.isRead = false")
+    int markRead(@Param("userId") Long userId, @Param("id") Long id);
+
+    /**
+     * Mark every unread notification of the user up to and including :upToId as read, in one
+     * statement. The high-water mark keeps notifications the client has not seen yet unread.
+     *
+     * @return number of notifications that changed from unread to read
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false AND n.id <= :upToId")
+    int markAllRead(@Param("userId") Long userId, @Param("upToId") Long upToId);
+
+    /**
+     * Merge :added more events into a digest row that is still unread.
+     *
+     * @return 0 if the row was read (or deleted) in the meantime
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.groupCount = n.groupCount + :added, n.title = :title, n.body = :body, " +
+            "n.updatedAt = :now WHERE n.id = :id AND n.isRead = false")
+    int mergeIntoDigest(@Param("id") Long id, @Param("added") int added, @Param("title") String title,
+                        @Param("body") String body, @Param("now") LocalDateTime now);
+}
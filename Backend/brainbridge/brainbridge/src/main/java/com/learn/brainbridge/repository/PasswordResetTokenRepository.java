@@ -0,0 +1,33 @@
+package com.learn.brainbridge.repository;
+
+import com.learn.brainbridge.entity.Password_Reset_Token;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface PasswordResetTokenRepository extends JpaRepository<Password_Reset_Token, Long> {
+
+    Optional<Password_Reset_Token> findByToken(String token);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Password_Reset_Token t WHERE t.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
+    /**
+     * Delete up to :limit tokens expired before :now, oldest first, walking the expires_at index.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM password_reset_tokens WHERE id IN (" +
+            "SELECT id FROM password_reset_tokens WHERE expires_at < :now " +
+            "ORDER BY expires_at LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int deleteExpiredChunk(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -1,14 +1,24 @@
 package com.learn.brainbridge.repository;
 
+import com.learn.brainbridge.dtos.ProjectDTO;
 import com.learn.brainbridge.entity.Projects;
 import com.learn.brainbridge.enums.ProjectStatus;
 import com.learn.brainbridge.enums.ProjectVisibility;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProjectsRepository extends JpaRepository<Projects, Integer> {
@@ -42,4 +52,57 @@ public interface ProjectsRepository extends JpaRepository<Projects, Integer> {
     );
 
     void deleteByTitle(String title);
-}
\ No newline at end of file
+
+    /**
+     * Which of the given titles are taken (one query per import chunk instead of one per row).
+     */
+    @Query("SELECT p.title FROM Projects p WHERE p.title IN :titles")
+    List<String> findExistingTitles(@Param("titles") Collection<String> titles);
+
+    /**
+     * Keyset pagination on (updated_at, id), newest first.
+     * The Pageable only carries the LIMIT; ordering is fixed by the query so the
+     * index idx_projects_updated_at_id can be walked instead of sorting.
+     */
+    @Query("SELECT p FROM Projects p ORDER BY p.updatedAt DESC, p.id DESC")
+    List<Projects> findFirstPage(Pageable pageable);
+
+    @Query("SELECT p FROM Projects p " +
+            "WHERE p.updatedAt < :updatedAt OR (p.updatedAt = :updatedAt AND p.id < :id) " +
+            "ORDER BY p.updatedAt DESC, p.id DESC")
+    List<Projects> findPageAfter(@Param("updatedAt") LocalDate updatedAt,
+                                 @Param("id") Integer id,
+                                 Pageable pageable);
+
+    /**
+     * Forward-only cursor over every project in listing order.
+     * Must be consumed inside a transaction (Postgres only honours the fetch size
+     * with autocommit off) and closed by the caller.
+     */
+    @Query("SELECT p FROM Projects p ORDER BY p.updatedAt DESC, p.id DESC")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<Projects> streamAllOrdered();
+
+    /**
+     * Projects of a team / an owner as ProjectDTOs: only the DTO's columns, no managed entities.
+     */
+    @Query("SELECT new com.learn.brainbridge.dtos.ProjectDTO(p.id, p.title, p.description, p.projectStatus, " +
+            "p.projectVisibility, p.ownerId, p.teamId, p.sourceIdeaId, p.coverImageUrl, p.repoUrl, p.startDate, p.endDate) " +
+            "FROM Projects p WHERE p.teamId = :teamId ORDER BY p.id")
+    List<ProjectDTO> findDTOsByTeamId(@Param("teamId") Integer teamId);
+
+    @Query("SELECT new com.learn.brainbridge.dtos.ProjectDTO(p.id, p.title, p.description, p.projectStatus, " +
+            "p.projectVisibility, p.ownerId, p.teamId, p.sourceIdeaId, p.coverImageUrl, p.repoUrl, p.startDate, p.endDate) " +
+            "FROM Projects p WHERE p.ownerId = :ownerId ORDER BY p.id")
+    List<ProjectDTO> findDTOsByOwnerId(@Param("ownerId") Integer ownerId);
+
+    /**
+     * Version only; updated_at is a DATE, too coarse for Last-Modified.
+     */
+    @Query("SELECT p.version FROM Projects p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Integer id);
+}
@@ -0,0 +1,52 @@
+package com.learn.brainbridge.repository;
+
+import com.learn.brainbridge.dtos.RefreshTokenRecordDTO;
+import com.learn.brainbridge.entity.RefreshToken;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Stream every token still valid at :now (no entities, nothing in the persistence context).
+     * Must be consumed inside a transaction and closed.
+     */
+    @Query("SELECT new com.learn.brainbridge.dtos.RefreshTokenRecordDTO(r.id, r.token, r.user.id, r.expiresAt) " +
+            "FROM RefreshToken r WHERE r.expiresAt > :now")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<RefreshTokenRecordDTO> streamValid(@Param("now") LocalDateTime now);
+
+    @Query("SELECT new com.learn.brainbridge.dtos.RefreshTokenRecordDTO(r.id, r.token, r.user.id, r.expiresAt) " +
+            "FROM RefreshToken r WHERE r.token = :tokenHash")
+    Optional<RefreshTokenRecordDTO> findRecordByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.token = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,12 +1,25 @@
 package com.learn.brainbridge.repository;
 
+import com.learn.brainbridge.dtos.ResourceVersionDTO;
+import com.learn.brainbridge.dtos.UserCredentialsDTO;
+import com.learn.brainbridge.dtos.UserDTO;
+import com.learn.brainbridge.dtos.UserIdentityDTO;
 import com.learn.brainbridge.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * UserRepository - Data Access Layer for User entity
@@ -66,4 +79,71 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * Check if a user exists with the given username
      */
     boolean existsByUsername(String username);
+
+    /**
+     * Stream id, email, username and created_at of every user with id > :afterId, in id order
+     * (constructor expression: no entities, nothing in the persistence context).
+     * Must be consumed inside a transaction and closed.
+     */
+    @Query("SELECT new com.learn.brainbridge.dtos.UserIdentityDTO(u.id, u.email, u.username, u.createdAt) " +
+            "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<UserIdentityDTO> streamIdentitiesAfter(@Param("afterId") Long afterId);
+
+    /**
+     * Same as streamIdentitiesAfter, for the users created at or after :since (idx_users_created_at).
+     * Unlike ids, this also finds rows whose transaction committed after a later id's did.
+     */
+    @Query("SELECT new com.learn.brainbridge.dtos.UserIdentityDTO(u.id, u.email, u.username, u.createdAt) " +
+            "FROM User u WHERE u.createdAt >= :since")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<UserIdentityDTO> streamIdentitiesCreatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * The most recently registered users (pass PageRequest.of(0, n)); spot checks of the availability snapshot
+     */
+    @Query("SELECT new com.learn.brainbridge.dtos.UserIdentityDTO(u.id, u.email, u.username, u.createdAt) " +
+            "FROM User u ORDER BY u.id DESC")
+    List<UserIdentityDTO> findLatestIdentities(Pageable page);
+
+    /**
+     * Login lookup: one round trip for either identifier, only the credential columns.
+     * Both columns are unique-indexed, so Postgres answers with two index probes (BitmapOr).
+     * At most two rows (one user's email equals another's username); the email match sorts first.
+     */
+    @Query("SELECT new com.learn.brainbridge.dtos.UserCredentialsDTO(u.id, u.passwordHash, u.isActive, u.isEmailVerified) " +
+            "FROM User u WHERE u.email = :login OR u.username = :login " +
+            "ORDER BY CASE WHEN u.email = :login THEN 0 ELSE 1 END")
+    List<UserCredentialsDTO> findCredentials(@Param("login") String emailOrUsername);
+
+    /**
+     * Replace a stored password hash without loading the user
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.passwordHash = :passwordHash WHERE u.id = :id")
+    int updatePasswordHash(@Param("id") Long id, @Param("passwordHash") String passwordHash);
+
+    /**
+     * Every user as a UserDTO, selecting only the columns the DTO carries.
+     * Constructor expressions return plain objects: nothing enters the persistence context,
+     * no dirty-checking snapshots, no Organization proxies, no biography TEXT column.
+     */
+    @Query("SELECT new com.learn.brainbridge.dtos.UserDTO(u.id, u.email, u.username, u.firstName, u.lastName, " +
+            "u.profileImageUrl, u.isActive, u.isEmailVerified, u.createdAt, u.updatedAt) " +
+            "FROM User u ORDER BY u.id")
+    List<UserDTO> findAllUserDTOs();
+
+    /**
+     * Version and modification time only (primary key lookup, two columns): enough to answer a
+     * conditional GET with 304 without loading the user.
+     */
+    @Query("SELECT new com.learn.brainbridge.dtos.ResourceVersionDTO(u.version, u.updatedAt) FROM User u WHERE u.id = :id")
+    Optional<ResourceVersionDTO> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,129 @@
+package com.learn.brainbridge.scheduler;
+
+import com.learn.brainbridge.repository.EmailVerificationTokenRepository;
+import com.learn.brainbridge.repository.PasswordResetTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * ExpiredTokenSweeper - Removes expired (and used) email-verification and password-reset tokens
+ *
+ * Each run deletes in chunks: every chunk is one short DELETE ... LIMIT n statement in its own
+ * transaction, driven by the expires_at index, skipping rows another transaction has locked.
+ * Between chunks the sweeper pauses, and a run stops after max-chunks-per-run, so a large
+ * backlog is worked off over several runs without long locks or WAL bursts on the write path.
+ *
+ * Used tokens are given expires_at = now when they are consumed, so they go with the expired ones.
+ * Set app.token-sweeper.enabled=false to turn it off.
+ */
+@Component
+@ConditionalOnProperty(name = "app.token-sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class ExpiredTokenSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiredTokenSweeper.class);
+
+    /** A token table and its chunked delete */
+    private record Target(String table, BiFunction<LocalDateTime, Integer, Integer> deleteChunk,
+                          Counter purged, Timer duration) {
+    }
+
+    private final List<Target> targets;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final long pauseMs;
+
+    @Autowired
+    public ExpiredTokenSweeper(EmailVerificationTokenRepository emailVerificationTokens,
+                               PasswordResetTokenRepository passwordResetTokens,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.token-sweeper.chunk-size:1000}") int chunkSize,
+                               @Value("${app.token-sweeper.max-chunks-per-run:100}") int maxChunksPerRun,
+                               @Value("${app.token-sweeper.pause-ms:50}") long pauseMs) {
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.pauseMs = pauseMs;
+        this.targets = List.of(
+                target(meterRegistry, "email_verification_tokens", emailVerificationTokens::deleteExpiredChunk),
+                target(meterRegistry, "password_reset_tokens", passwordResetTokens::deleteExpiredChunk));
+    }
+
+    private static Target target(MeterRegistry registry, String table,
+                                 BiFunction<LocalDateTime, Integer, Integer> deleteChunk) {
+        return new Target(table, deleteChunk,
+                Counter.builder("brainbridge.token_sweeper.purged")
+                        .description("Expired or used tokens deleted by the sweeper")
+                        .tag("table", table)
+                        .register(registry),
+                Timer.builder("brainbridge.token_sweeper.duration")
+                        .description("Time per sweeper run, pauses included")
+                        .tag("table", table)
+                        .register(registry));
+    }
+
+    @Scheduled(initialDelayString = "${app.token-sweeper.initial-delay-ms:60000}",
+            fixedDelayString = "${app.token-sweeper.interval-ms:600000}")
+    public void sweep() {
+        for (Target target : targets) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            long started = System.nanoTime();
+            int purged = sweep(target);
+            target.duration().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (purged > 0) {
+                log.info("Purged {} expired rows from {} in {} ms", purged, target.table(),
+                        (System.nanoTime() - started) / 1_000_000);
+            }
+        }
+    }
+
+    private int sweep(Target target) {
+        // one cutoff per run: rows expiring while we sweep wait for the next run
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            int deleted;
+            try {
+                deleted = target.deleteChunk().apply(now, chunkSize);
+            } catch (RuntimeException e) {
+                log.warn("Sweeping {} failed after {} rows, retrying next run", target.table(), total, e);
+                break;
+            }
+            total += deleted;
+            target.purged().increment(deleted);
+            if (deleted < chunkSize) {
+                break;
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.learn.brainbridge.scheduler;
+
+import com.learn.brainbridge.entity.MailOutbox;
+import com.learn.brainbridge.enums.MailStatus;
+import com.learn.brainbridge.repository.MailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MailOutboxDispatcher - Sends queued emails in the background
+ *
+ * Every poll it:
+ * 1. Claims a batch of due rows (short transaction, FOR UPDATE SKIP LOCKED) and marks them
+ *    SENDING with a lease, so a crash mid-send only delays them until the lease runs out
+ * 2. Sends the whole batch through JavaMailSender over one SMTP connection
+ *    (JavaMailSenderImpl reuses the transport for every message of a send(...) call)
+ * 3. Records the outcome per message: SENT, or back to PENDING with exponential backoff,
+ *    or FAILED once max-attempts is reached
+ *
+ * No database transaction is held open while talking to the SMTP server.
+ * Set app.mail.outbox.enabled=false to turn dispatching off (e.g. in load tests).
+ */
+@Component
+@ConditionalOnProperty(name = "app.mail.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class MailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final MailOutboxRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration sendLease;
+
+    @Autowired
+    public MailOutboxDispatcher(MailOutboxRepository outboxRepository,
+                                JavaMailSender mailSender,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.mail.outbox.batch-size:50}") int batchSize,
+                                @Value("${app.mail.outbox.max-attempts:8}") int maxAttempts,
+                                @Value("${app.mail.outbox.initial-backoff-ms:30000}") long initialBackoffMs,
+                                @Value("${app.mail.outbox.max-backoff-ms:3600000}") long maxBackoffMs,
+                                @Value("${app.mail.outbox.send-lease-ms:300000}") long sendLeaseMs) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.sendLease = Duration.ofMillis(sendLeaseMs);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:2000}")
+    public void poll() {
+        // keep draining while full batches come back, so a backlog clears without waiting a poll each
+        int claimed;
+        do {
+            claimed = dispatchBatch();
+        } while (claimed == batchSize);
+    }
+
+    /**
+     * Claim, send and record one batch.
+     *
+     * @return number of messages claimed
+     */
+    public int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<MailOutbox> batch = tx.execute(status -> {
+            List<MailOutbox> due = outboxRepository.lockDueBatch(now, batchSize);
+            for (MailOutbox mail : due) {
+                mail.setStatus(MailStatus.SENDING);
+                mail.setAttempts(mail.getAttempts() + 1);
+                mail.setNextAttemptAt(now.plus(sendLease));
+            }
+            return outboxRepository.saveAll(due);
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<MailOutbox, Exception> failures = send(batch);
+
+        LocalDateTime finishedAt = LocalDateTime.now();
+        for (MailOutbox mail : batch) {
+            Exception failure = failures.get(mail);
+            if (failure == null) {
+                mail.setStatus(MailStatus.SENT);
+                mail.setSentAt(finishedAt);
+                mail.setLastError(null);
+            } else if (mail.getAttempts() >= maxAttempts) {
+                mail.setStatus(MailStatus.FAILED);
+                mail.setLastError(truncate(failure.getMessage()));
+                log.warn("Giving up on mail {} to {} after {} attempts: {}",
+                        mail.getId(), mail.getRecipient(), mail.getAttempts(), failure.getMessage());
+            } else {
+                mail.setStatus(MailStatus.PENDING);
+                mail.setNextAttemptAt(finishedAt.plus(backoff(mail.getAttempts())));
+                mail.setLastError(truncate(failure.getMessage()));
+            }
+        }
+        tx.executeWithoutResult(status -> outboxRepository.saveAll(batch));
+
+        if (!failures.isEmpty()) {
+            log.info("Mail batch: {} sent, {} failed", batch.size() - failures.size(), failures.size());
+        }
+        return batch.size();
+    }
+
+    /**
+     * Send the batch in one call and map any failures back to their outbox rows.
+     */
+    private Map<MailOutbox, Exception> send(List<MailOutbox> batch) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        Map<Object, MailOutbox> byMessage = new IdentityHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            MailOutbox mail = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(mail.getRecipient());
+            message.setSubject(mail.getSubject());
+            message.setText(mail.getBody());
+            messages[i] = message;
+            byMessage.put(message, mail);
+        }
+
+        Map<MailOutbox, Exception> failures = new IdentityHashMap<>();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                batch.forEach(mail -> failures.put(mail, e));
+            } else {
+                e.getFailedMessages().forEach((message, cause) -> {
+                    MailOutbox mail = byMessage.get(message);
+                    if (mail != null) {
+                        failures.put(mail, cause);
+                    }
+                });
+            }
+        } catch (MailException e) {
+            // authentication / connection problems fail the whole batch
+            batch.forEach(mail -> failures.put(mail, e));
+        }
+        return failures;
+    }
+
+    Duration backoff(int attempts) {
+        long factor = 1L << Math.min(attempts - 1, 20);
+        Duration delay = initialBackoff.multipliedBy(factor);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
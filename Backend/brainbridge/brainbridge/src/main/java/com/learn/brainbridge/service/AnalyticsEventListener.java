@@ -0,0 +1,14 @@
+package com.learn.brainbridge.service;
+
+import java.util.List;
+
+/**
+ * AnalyticsEventListener - Sees every batch of analytics events after it is stored
+ *
+ * Called on the analytics writer thread once the batch is in analytics_events, so anything
+ * derived from it can be recomputed from the raw rows. Implementations must return quickly.
+ */
+public interface AnalyticsEventListener {
+
+    void onEventsWritten(List<AnalyticsService.Event> events);
+}
@@ -0,0 +1,252 @@
+package com.learn.brainbridge.service;
+
+import com.learn.brainbridge.Exception.BadRequestException;
+import com.learn.brainbridge.dtos.RollupPointDTO;
+import com.learn.brainbridge.enums.AnalyticsEntity;
+import com.learn.brainbridge.enums.RollupGranularity;
+import com.learn.brainbridge.repository.AnalyticsRollupRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AnalyticsRollupService - Minute / hour / day event counts per entity, kept up to date incrementally
+ *
+ * Every stored batch of analytics events (AnalyticsEventListener) is counted in memory per
+ * (granularity, entity, event type, bucket). Every flush-interval-ms the accumulated deltas are
+ * added to analytics_rollups with one batched upsert (ON CONFLICT ... event_count + delta), so a
+ * bucket costs one row however many events it holds, and no query ever scans analytics_events.
+ *
+ * Late events - ones whose bucket closed more than allowed-lateness-ms ago - are not added as
+ * deltas. Their buckets are marked dirty and recomputed exactly from analytics_events after the
+ * deltas are flushed, one small indexed range query per affected (entity, bucket). On-time events
+ * can no longer reach a closed bucket, so the recomputed count stays right.
+ *
+ * A recount replaces whatever deltas were added before it, but a delta still pending for that
+ * bucket (a failed flush put it back, or it arrived between flush and recount) would be added on
+ * top. Such a delta always belongs to an event stored before the bucket closed, i.e. one the
+ * recount already saw, so deltas of recounted buckets are dropped instead of flushed. If the
+ * deltas cannot be written at all, the recount waits for the next flush.
+ */
+@Service
+public class AnalyticsRollupService implements AnalyticsEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsRollupService.class);
+
+    private static final String UPSERT_SQL = "INSERT INTO analytics_rollups "
+            + "(granularity, entity_type, entity_id, event_type, bucket_start, event_count) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (granularity, entity_type, entity_id, event_type, bucket_start) "
+            + "DO UPDATE SET event_count = analytics_rollups.event_count + EXCLUDED.event_count";
+
+    /** Replaces the counts of one entity's bucket with what analytics_events holds now */
+    private static final String RECOMPUTE_SQL = "INSERT INTO analytics_rollups "
+            + "(granularity, entity_type, entity_id, event_type, bucket_start, event_count) "
+            + "SELECT ?, ?, ?, event_type, ?, COUNT(*) FROM analytics_events "
+            + "WHERE entity_type = ? AND entity_id = ? AND created_at >= ? AND created_at < ? GROUP BY event_type "
+            + "ON CONFLICT (granularity, entity_type, entity_id, event_type, bucket_start) "
+            + "DO UPDATE SET event_count = EXCLUDED.event_count";
+
+    /** One counter of analytics_rollups */
+    private record BucketKey(RollupGranularity granularity, AnalyticsEntity entityType, Long entityId,
+                             String eventType, LocalDateTime bucketStart) {
+
+        DirtyBucket bucket() {
+            return new DirtyBucket(granularity, entityType, entityId, bucketStart);
+        }
+    }
+
+    /**
+     * How long a recount keeps swallowing deltas of its bucket. Those come from listener calls that
+     * began before the bucket closed, so this only needs to outlast a stalled listener.
+     */
+    private static final Duration RECOUNT_RETENTION = Duration.ofMinutes(10);
+
+    /** One entity's bucket, all event types: the unit of recomputation */
+    private record DirtyBucket(RollupGranularity granularity, AnalyticsEntity entityType, Long entityId,
+                               LocalDateTime bucketStart) {
+    }
+
+    private final AnalyticsRollupRepository rollupRepository;
+    private final JdbcTemplate jdbc;
+    private final Map<BucketKey, Long> pending = new ConcurrentHashMap<>();
+    private final Set<DirtyBucket> dirty = ConcurrentHashMap.newKeySet();
+    /** Buckets counted from analytics_events, and when; their deltas are dropped until the entry ages out */
+    private final Map<DirtyBucket, LocalDateTime> recounted = new ConcurrentHashMap<>();
+    private final Duration allowedLateness;
+    private final int maxBuckets;
+    private final int minuteRetentionDays;
+    private final Counter lateEvents;
+    private final Counter recomputed;
+
+    @Autowired
+    public AnalyticsRollupService(AnalyticsRollupRepository rollupRepository,
+                                  DataSource dataSource,
+                                  MeterRegistry registry,
+                                  @Value("${app.analytics.rollup.allowed-lateness-ms:300000}") long allowedLatenessMs,
+                                  @Value("${app.analytics.rollup.max-buckets:1500}") int maxBuckets,
+                                  @Value("${app.analytics.rollup.minute-retention-days:7}") int minuteRetentionDays) {
+        this.rollupRepository = rollupRepository;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.allowedLateness = Duration.ofMillis(allowedLatenessMs);
+        this.maxBuckets = maxBuckets;
+        this.minuteRetentionDays = minuteRetentionDays;
+        this.lateEvents = Counter.builder("brainbridge.analytics.rollup.late_events")
+                .description("Events that arrived after their bucket closed")
+                .register(registry);
+        this.recomputed = Counter.builder("brainbridge.analytics.rollup.recomputed_buckets")
+                .description("Rollup buckets recomputed from analytics_events because of late events")
+                .register(registry);
+    }
+
+    @Override
+    public void onEventsWritten(List<AnalyticsService.Event> events) {
+        LocalDateTime now = LocalDateTime.now();
+        // count the batch locally first: one map update per bucket instead of per event
+        Map<BucketKey, Long> deltas = new HashMap<>();
+        for (AnalyticsService.Event event : events) {
+            if (event.entityType() == null || event.entityId() == null) {
+                continue; // rollups are per entity
+            }
+            boolean late = false;
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                LocalDateTime bucketStart = granularity.bucketStart(event.occurredAt());
+                if (isClosed(granularity, bucketStart, now)) {
+                    dirty.add(new DirtyBucket(granularity, event.entityType(), event.entityId(), bucketStart));
+                    late = true;
+                } else {
+                    deltas.merge(new BucketKey(granularity, event.entityType(), event.entityId(),
+                            event.eventType(), bucketStart), 1L, Long::sum);
+                }
+            }
+            if (late) {
+                lateEvents.increment();
+            }
+        }
+        deltas.forEach((key, delta) -> pending.merge(key, delta, Long::sum));
+    }
+
+    private boolean isClosed(RollupGranularity granularity, LocalDateTime bucketStart, LocalDateTime now) {
+        return granularity.bucketEnd(bucketStart).plus(allowedLateness).isBefore(now);
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.rollup.flush-interval-ms:10000}")
+    public void flush() {
+        if (flushDeltas()) {
+            recomputeDirty();
+        }
+        LocalDateTime expired = LocalDateTime.now().minus(RECOUNT_RETENTION);
+        recounted.values().removeIf(at -> at.isBefore(expired));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * @return false if the deltas could not be written (they are pending again)
+     */
+    private boolean flushDeltas() {
+        List<Object[]> rows = new ArrayList<>();
+        Map<BucketKey, Long> taken = new HashMap<>();
+        for (BucketKey key : pending.keySet()) {
+            Long delta = pending.remove(key);
+            if (delta != null && !recounted.containsKey(key.bucket())) {
+                taken.put(key, delta);
+                rows.add(new Object[]{key.granularity().name(), key.entityType().name(), key.entityId(),
+                        key.eventType(), Timestamp.valueOf(key.bucketStart()), delta});
+            }
+        }
+        if (rows.isEmpty()) {
+            return true;
+        }
+        try {
+            jdbc.batchUpdate(UPSERT_SQL, rows, new int[]{
+                    Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.TIMESTAMP, Types.BIGINT});
+            return true;
+        } catch (RuntimeException e) {
+            // put the deltas back; the next flush tries again
+            taken.forEach((key, delta) -> pending.merge(key, delta, Long::sum));
+            log.warn("Flushing {} analytics rollup buckets failed, will retry", rows.size(), e);
+            return false;
+        }
+    }
+
+    private void recomputeDirty() {
+        for (DirtyBucket bucket : List.copyOf(dirty)) {
+            dirty.remove(bucket);
+            // before the query: a delta merged while it runs is covered by it as well
+            recounted.put(bucket, LocalDateTime.now());
+            Timestamp start = Timestamp.valueOf(bucket.bucketStart());
+            Timestamp end = Timestamp.valueOf(bucket.granularity().bucketEnd(bucket.bucketStart()));
+            try {
+                jdbc.update(RECOMPUTE_SQL, ps -> {
+                    ps.setString(1, bucket.granularity().name());
+                    ps.setString(2, bucket.entityType().name());
+                    ps.setLong(3, bucket.entityId());
+                    ps.setTimestamp(4, start);
+                    // untyped, so it compares with a varchar column or main.sql's analytics_entity enum
+                    ps.setObject(5, bucket.entityType().name(), Types.OTHER);
+                    ps.setLong(6, bucket.entityId());
+                    ps.setTimestamp(7, start);
+                    ps.setTimestamp(8, end);
+                });
+                recomputed.increment();
+            } catch (RuntimeException e) {
+                dirty.add(bucket);
+                log.warn("Recomputing analytics rollup {} failed, will retry", bucket, e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Minute buckets are only kept for minute-retention-days; hours and days stay.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.rollup.cleanup-interval-ms:3600000}")
+    public void deleteExpiredMinutes() {
+        int deleted = rollupRepository.deleteOlderThan(RollupGranularity.MINUTE,
+                LocalDateTime.now().minusDays(minuteRetentionDays));
+        if (deleted > 0) {
+            log.info("Deleted {} minute rollups older than {} days", deleted, minuteRetentionDays);
+        }
+    }
+
+    /**
+     * Counts per bucket in [from, to) for one entity, optionally one event type. Buckets without
+     * events are left out; counts trail live traffic by up to flush-interval-ms.
+     */
+    public List<RollupPointDTO> getRange(AnalyticsEntity entityType, Long entityId, String eventType,
+                                         RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            throw new BadRequestException("'to' must be after 'from'");
+        }
+        LocalDateTime start = granularity.bucketStart(from);
+        if (granularity.getUnit().between(start, to) > maxBuckets) {
+            throw new BadRequestException("Range covers more than " + maxBuckets + " "
+                    + granularity.name().toLowerCase() + " buckets, use a coarser granularity");
+        }
+        return eventType == null
+                ? rollupRepository.findRange(granularity, entityType, entityId, start, to)
+                : rollupRepository.findRange(granularity, entityType, entityId, eventType, start, to);
+    }
+}
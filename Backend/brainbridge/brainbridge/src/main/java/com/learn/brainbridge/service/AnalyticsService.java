@@ -1,5 +1,43 @@
 package com.learn.brainbridge.service;
 
-public class AnalyticsService {
-  
+import com.learn.brainbridge.dtos.analyticsDTO;
+import com.learn.brainbridge.enums.AnalyticsEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * AnalyticsService - Analytics event ingestion
+ */
+public interface AnalyticsService {
+
+    /**
+     * An accepted event waiting to be written; context is the JSON text (or null)
+     * and acceptedAtNanos the System.nanoTime() it was queued at
+     */
+    record Event(Long userId, String eventType, AnalyticsEntity entityType, Long entityId, String context,
+                 LocalDateTime occurredAt, long acceptedAtNanos) {
+    }
+
+    /** Outcome of one ingest call */
+    record IngestResult(int accepted, int dropped) {
+    }
+
+    /**
+     * Queue events for writing; returns without waiting for the database.
+     * @param userId the caller, or null for anonymous events
+     * @param events already validated
+     * @return how many were queued and how many were dropped because the buffer was full
+     */
+    IngestResult ingest(Long userId, List<analyticsDTO> events);
+
+    /**
+     * Events queued but not written yet
+     */
+    int getQueuedEvents();
+
+    /**
+     * Age of the oldest queued event in seconds (0 when the queue is empty)
+     */
+    double getIngestLagSeconds();
 }
@@ -0,0 +1,314 @@
+package com.learn.brainbridge.service;
+
+import com.learn.brainbridge.Exception.BadRequestException;
+import com.learn.brainbridge.dtos.TopEntityDTO;
+import com.learn.brainbridge.dtos.UniqueCountDTO;
+import com.learn.brainbridge.enums.AnalyticsEntity;
+import com.learn.brainbridge.enums.RollupGranularity;
+import com.learn.brainbridge.enums.SketchKind;
+import com.learn.brainbridge.repository.AnalyticsSketchRepository;
+import com.learn.brainbridge.util.HyperLogLog;
+import com.learn.brainbridge.util.TopK;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * AnalyticsSketchService - Distinct users and most active entities, estimated with sketches
+ *
+ * Exact answers need COUNT(DISTINCT user_id) or GROUP BY entity_id scans over analytics_events.
+ * Instead every stored batch (AnalyticsEventListener) is folded into small mergeable sketches per
+ * hour and day bucket and event type:
+ * - UNIQUE_USERS: a HyperLogLog of the user ids per entity (anonymous events are not counted)
+ * - TOP_ENTITIES: a TopK (Count-Min sketch + heap) of the entity ids per entity type
+ *
+ * Sketches are built in memory and every flush-interval-ms merged into their analytics_sketches
+ * rows, so they survive restarts and several instances can share the table. Rows are written
+ * FLUSH_BATCH at a time, each batch in one transaction of three statements whatever its size:
+ * 1. a batched INSERT ... ON CONFLICT DO NOTHING creates missing rows with empty data
+ * 2. one SELECT ... FOR UPDATE locks and reads all of them, in key order
+ * 3. the sketches are merged in memory and written back with a batched UPDATE
+ * Creating the rows first means step 2 locks every row of the batch, including ones another
+ * instance is creating at the same time. Both kinds merge losslessly, so late events simply go
+ * into their old bucket, and a query merges every bucket and event type of its range into one answer.
+ *
+ * The sketch dimensions are fixed: rows written with other dimensions could not be merged.
+ */
+@Service
+public class AnalyticsSketchService implements AnalyticsEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsSketchService.class);
+
+    /** 4096 registers: 1.6% standard error, at most 3 KB per sketch */
+    private static final int HLL_PRECISION = 12;
+    private static final int TOP_CAPACITY = 100;
+    private static final int CMS_DEPTH = 4;
+    private static final int CMS_WIDTH = 1024;
+    /** Leaves TopK headroom, so ids near the cut are not lost when buckets are merged */
+    public static final int MAX_TOP_LIMIT = 50;
+    /** entity_id of TOP_ENTITIES rows, which cover the whole entity type */
+    private static final long ALL_ENTITIES = 0L;
+
+    /** Rows per flush transaction; 5 parameters each in the SELECT */
+    private static final int FLUSH_BATCH = 500;
+
+    private static final List<RollupGranularity> GRANULARITIES = List.of(RollupGranularity.HOUR, RollupGranularity.DAY);
+
+    private static final String INSERT_SQL = "INSERT INTO analytics_sketches "
+            + "(kind, granularity, entity_type, entity_id, event_type, bucket_start, data) VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (kind, granularity, entity_type, entity_id, event_type, bucket_start) DO NOTHING";
+    private static final String SELECT_FOR_UPDATE_SQL = "SELECT granularity, entity_type, entity_id, event_type, "
+            + "bucket_start, data FROM analytics_sketches WHERE kind = ? "
+            + "AND (granularity, entity_type, entity_id, event_type, bucket_start) IN (%s) "
+            + "ORDER BY granularity, entity_type, entity_id, event_type COLLATE \"C\", bucket_start FOR UPDATE";
+    private static final String UPDATE_SQL = "UPDATE analytics_sketches SET data = ? WHERE kind = ? AND granularity = ? "
+            + "AND entity_type = ? AND entity_id = ? AND event_type = ? AND bucket_start = ?";
+    private static final byte[] NO_DATA = new byte[0];
+
+    /** One analytics_sketches row */
+    private record SketchKey(RollupGranularity granularity, AnalyticsEntity entityType, Long entityId,
+                             String eventType, LocalDateTime bucketStart) {
+
+        Object[] insertArgs(SketchKind kind) {
+            return new Object[]{kind.name(), granularity.name(), entityType.name(), entityId, eventType,
+                    Timestamp.valueOf(bucketStart), NO_DATA};
+        }
+
+        Object[] updateArgs(SketchKind kind, byte[] data) {
+            return new Object[]{data, kind.name(), granularity.name(), entityType.name(), entityId, eventType,
+                    Timestamp.valueOf(bucketStart)};
+        }
+    }
+
+    /** Same order as the SELECT's ORDER BY, so concurrent flushes lock rows in the same sequence */
+    private static final Comparator<SketchKey> KEY_ORDER = Comparator
+            .comparing((SketchKey key) -> key.granularity().name())
+            .thenComparing(key -> key.entityType().name())
+            .thenComparing(SketchKey::entityId)
+            .thenComparing(SketchKey::eventType)
+            .thenComparing(SketchKey::bucketStart);
+
+    private final AnalyticsSketchRepository sketchRepository;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final Map<SketchKey, HyperLogLog> pendingUsers = new ConcurrentHashMap<>();
+    private final Map<SketchKey, TopK> pendingEntities = new ConcurrentHashMap<>();
+    private final int maxBuckets;
+    private final int hourRetentionDays;
+
+    @Autowired
+    public AnalyticsSketchService(AnalyticsSketchRepository sketchRepository,
+                                  DataSource dataSource,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.analytics.sketch.max-buckets:1500}") int maxBuckets,
+                                  @Value("${app.analytics.sketch.hour-retention-days:30}") int hourRetentionDays) {
+        this.sketchRepository = sketchRepository;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.tx = new TransactionTemplate(transactionManager);
+        this.maxBuckets = maxBuckets;
+        this.hourRetentionDays = hourRetentionDays;
+    }
+
+    @Override
+    public void onEventsWritten(List<AnalyticsService.Event> events) {
+        // group the batch locally first: one map update per sketch instead of per event
+        Map<SketchKey, List<Long>> users = new HashMap<>();
+        Map<SketchKey, Map<Long, Long>> hits = new HashMap<>();
+        for (AnalyticsService.Event event : events) {
+            if (event.entityType() == null || event.entityId() == null) {
+                continue;
+            }
+            for (RollupGranularity granularity : GRANULARITIES) {
+                LocalDateTime bucketStart = granularity.bucketStart(event.occurredAt());
+                if (event.userId() != null) {
+                    users.computeIfAbsent(new SketchKey(granularity, event.entityType(), event.entityId(),
+                            event.eventType(), bucketStart), k -> new ArrayList<>()).add(event.userId());
+                }
+                hits.computeIfAbsent(new SketchKey(granularity, event.entityType(), ALL_ENTITIES,
+                                event.eventType(), bucketStart), k -> new HashMap<>())
+                        .merge(event.entityId(), 1L, Long::sum);
+            }
+        }
+        users.forEach((key, userIds) -> pendingUsers.compute(key, (k, sketch) -> {
+            HyperLogLog hll = sketch != null ? sketch : new HyperLogLog(HLL_PRECISION);
+            userIds.forEach(hll::add);
+            return hll;
+        }));
+        hits.forEach((key, counts) -> pendingEntities.compute(key, (k, sketch) -> {
+            TopK topK = sketch != null ? sketch : new TopK(TOP_CAPACITY, CMS_DEPTH, CMS_WIDTH);
+            counts.forEach(topK::add);
+            return topK;
+        }));
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.sketch.flush-interval-ms:30000}")
+    public void flush() {
+        flush(SketchKind.UNIQUE_USERS, pendingUsers, HyperLogLog::toBytes, HyperLogLog::fromBytes, HyperLogLog::merge);
+        flush(SketchKind.TOP_ENTITIES, pendingEntities, TopK::toBytes, AnalyticsSketchService::readTopK, TopK::merge);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private <S> void flush(SketchKind kind, Map<SketchKey, S> pending, Function<S, byte[]> encode,
+                           Function<byte[], S> decode, BiConsumer<S, S> merge) {
+        List<SketchKey> keys = new ArrayList<>(pending.keySet());
+        keys.sort(KEY_ORDER);
+        for (int from = 0; from < keys.size(); from += FLUSH_BATCH) {
+            Map<SketchKey, S> batch = new LinkedHashMap<>();
+            for (SketchKey key : keys.subList(from, Math.min(from + FLUSH_BATCH, keys.size()))) {
+                // removed under the map's lock, so the listener no longer adds to this instance
+                S sketch = pending.remove(key);
+                if (sketch != null) {
+                    batch.put(key, sketch);
+                }
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                tx.executeWithoutResult(status -> store(kind, batch, encode, decode, merge));
+            } catch (RuntimeException e) {
+                // put them back, merged with whatever arrived meanwhile; the next flush tries again
+                batch.forEach((key, sketch) -> pending.merge(key, sketch, (newer, failed) -> {
+                    merge.accept(newer, failed);
+                    return newer;
+                }));
+                log.warn("Storing {} {} sketches failed, will retry", batch.size(), kind, e);
+                return;
+            }
+        }
+    }
+
+    private <S> void store(SketchKind kind, Map<SketchKey, S> batch, Function<S, byte[]> encode,
+                           Function<byte[], S> decode, BiConsumer<S, S> merge) {
+        List<Object[]> inserts = new ArrayList<>(batch.size());
+        List<Object> selectArgs = new ArrayList<>(1 + batch.size() * 5);
+        selectArgs.add(kind.name());
+        for (SketchKey key : batch.keySet()) {
+            inserts.add(key.insertArgs(kind));
+            selectArgs.addAll(List.of(key.granularity().name(), key.entityType().name(), key.entityId(),
+                    key.eventType(), Timestamp.valueOf(key.bucketStart())));
+        }
+        jdbc.batchUpdate(INSERT_SQL, inserts);
+
+        String placeholders = String.join(", ", Collections.nCopies(batch.size(), "(?, ?, ?, ?, ?)"));
+        Map<SketchKey, byte[]> stored = new HashMap<>();
+        jdbc.query(SELECT_FOR_UPDATE_SQL.formatted(placeholders), rs -> {
+            stored.put(new SketchKey(RollupGranularity.valueOf(rs.getString(1)), AnalyticsEntity.valueOf(rs.getString(2)),
+                    rs.getLong(3), rs.getString(4), rs.getTimestamp(5).toLocalDateTime()), rs.getBytes(6));
+        }, selectArgs.toArray());
+
+        List<Object[]> updates = new ArrayList<>(batch.size());
+        batch.forEach((key, sketch) -> {
+            byte[] data = stored.get(key);
+            S merged = sketch;
+            if (data != null && data.length > 0) {
+                try {
+                    merged = decode.apply(data);
+                    merge.accept(merged, sketch);
+                } catch (IllegalArgumentException e) {
+                    log.warn("Replacing unreadable {} sketch {}: {}", kind, key, e.getMessage());
+                    merged = sketch;
+                }
+            }
+            updates.add(key.updateArgs(kind, encode.apply(merged)));
+        });
+        jdbc.batchUpdate(UPDATE_SQL, updates);
+    }
+
+    /** Rows are only ever written with this service's dimensions; anything bigger is corrupt */
+    private static TopK readTopK(byte[] data) {
+        return TopK.fromBytes(data, TOP_CAPACITY, CMS_DEPTH, CMS_WIDTH);
+    }
+
+    /**
+     * Hour sketches are only kept for hour-retention-days; day sketches stay.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.sketch.cleanup-interval-ms:3600000}")
+    public void deleteExpiredHours() {
+        int deleted = sketchRepository.deleteOlderThan(RollupGranularity.HOUR,
+                LocalDateTime.now().minusDays(hourRetentionDays));
+        if (deleted > 0) {
+            log.info("Deleted {} hourly analytics sketches older than {} days", deleted, hourRetentionDays);
+        }
+    }
+
+    /**
+     * Distinct users behind the entity's events in the buckets overlapping [from, to),
+     * optionally of one event type.
+     */
+    public UniqueCountDTO getUniqueUsers(AnalyticsEntity entityType, Long entityId, String eventType,
+                                         RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = validateRange(granularity, from, to);
+        HyperLogLog union = new HyperLogLog(HLL_PRECISION);
+        for (byte[] data : load(SketchKind.UNIQUE_USERS, granularity, entityType, entityId, eventType, start, to)) {
+            union.merge(HyperLogLog.fromBytes(data));
+        }
+        return new UniqueCountDTO(union.estimate(), union.standardError());
+    }
+
+    /**
+     * The entities of the type with the most events in the buckets overlapping [from, to),
+     * optionally of one event type.
+     */
+    public List<TopEntityDTO> getTopEntities(AnalyticsEntity entityType, String eventType, RollupGranularity granularity,
+                                             LocalDateTime from, LocalDateTime to, int limit) {
+        if (limit < 1 || limit > MAX_TOP_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_TOP_LIMIT);
+        }
+        LocalDateTime start = validateRange(granularity, from, to);
+        TopK union = new TopK(TOP_CAPACITY, CMS_DEPTH, CMS_WIDTH);
+        for (byte[] data : load(SketchKind.TOP_ENTITIES, granularity, entityType, ALL_ENTITIES, eventType, start, to)) {
+            union.merge(readTopK(data));
+        }
+        return union.top(limit).stream()
+                .map(entry -> new TopEntityDTO(entry.item(), entry.count()))
+                .toList();
+    }
+
+    private LocalDateTime validateRange(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        if (!GRANULARITIES.contains(granularity)) {
+            throw new BadRequestException("Sketches are kept per HOUR and DAY only");
+        }
+        if (!to.isAfter(from)) {
+            throw new BadRequestException("'to' must be after 'from'");
+        }
+        LocalDateTime start = granularity.bucketStart(from);
+        if (granularity.getUnit().between(start, to) > maxBuckets) {
+            throw new BadRequestException("Range covers more than " + maxBuckets + " "
+                    + granularity.name().toLowerCase() + " buckets, use a coarser granularity");
+        }
+        return start;
+    }
+
+    private List<byte[]> load(SketchKind kind, RollupGranularity granularity, AnalyticsEntity entityType,
+                              Long entityId, String eventType, LocalDateTime from, LocalDateTime to) {
+        return eventType == null
+                ? sketchRepository.findData(kind, granularity, entityType, entityId, from, to)
+                : sketchRepository.findData(kind, granularity, entityType, entityId, eventType, from, to);
+    }
+}
@@ -0,0 +1,263 @@
+package com.learn.brainbridge.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.brainbridge.enums.ExportFormat;
+import com.learn.brainbridge.enums.ProjectStatus;
+import com.learn.brainbridge.enums.ProjectVisibility;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ExportService - Streams projects and users as CSV or NDJSON with constant memory
+ *
+ * Rows go straight from a forward-only JDBC cursor to the output stream: plain JdbcTemplate
+ * with a fetch size (no entities, no persistence context, no DTO list), inside a read-only
+ * transaction because Postgres only honours the fetch size with autocommit off. At any time
+ * the service holds one fetch-size batch of rows and one output buffer.
+ *
+ * Column names are the database column names; the password hash is never selected.
+ */
+@Service
+public class ExportService {
+
+    private static final String PROJECT_COLUMNS = "id, title, description, project_status, project_visibility, "
+            + "owner_id, team_id, source_idea_id, cover_image_url, repo_url, start_date, end_date, created_at, updated_at";
+
+    private static final String USER_COLUMNS = "id, email, username, first_name, last_name, phone, organization_id, "
+            + "is_active, is_email_verified, created_at, updated_at";
+
+    /** Optional filters for the project export; null means "any" */
+    public record ProjectFilter(ProjectStatus status, ProjectVisibility visibility, Integer ownerId, Integer teamId,
+                                LocalDate from, LocalDate to) {
+    }
+
+    /** Optional filters for the user export; null means "any" */
+    public record UserFilter(Boolean active, Long organizationId, LocalDate from, LocalDate to) {
+    }
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+
+    @Autowired
+    public ExportService(DataSource dataSource,
+                         ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /**
+     * Projects matching the filter, oldest first; created_at between from and to (inclusive).
+     */
+    public void exportProjects(ProjectFilter filter, ExportFormat format, OutputStream out) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(PROJECT_COLUMNS).append(" FROM projects WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        where(sql, args, "project_status = ?", filter.status() != null ? filter.status().name() : null);
+        where(sql, args, "project_visibility = ?", filter.visibility() != null ? filter.visibility().name() : null);
+        where(sql, args, "owner_id = ?", filter.ownerId());
+        where(sql, args, "team_id = ?", filter.teamId());
+        where(sql, args, "created_at >= ?", filter.from() != null ? Date.valueOf(filter.from()) : null);
+        where(sql, args, "created_at <= ?", filter.to() != null ? Date.valueOf(filter.to()) : null);
+        sql.append(" ORDER BY id");
+        export(sql.toString(), args, format, out);
+    }
+
+    /**
+     * Users matching the filter, oldest first; created_at on or after from and before the day after to.
+     */
+    public void exportUsers(UserFilter filter, ExportFormat format, OutputStream out) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(USER_COLUMNS).append(" FROM users WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        where(sql, args, "is_active = ?", filter.active());
+        where(sql, args, "organization_id = ?", filter.organizationId());
+        where(sql, args, "created_at >= ?", filter.from() != null ? Timestamp.valueOf(filter.from().atStartOfDay()) : null);
+        where(sql, args, "created_at < ?", filter.to() != null ? Timestamp.valueOf(filter.to().plusDays(1).atStartOfDay()) : null);
+        sql.append(" ORDER BY id");
+        export(sql.toString(), args, format, out);
+    }
+
+    private static void where(StringBuilder sql, List<Object> args, String condition, Object value) {
+        if (value != null) {
+            sql.append(" AND ").append(condition);
+            args.add(value);
+        }
+    }
+
+    private void export(String sql, List<Object> args, ExportFormat format, OutputStream out) {
+        readOnlyTx.executeWithoutResult(status -> {
+            try {
+                RowWriter writer = format == ExportFormat.CSV ? new CsvWriter(out) : new NdjsonWriter(out);
+                jdbc.query(sql, (ResultSetExtractor<Void>) rs -> {
+                    try {
+                        // before the first row, so an empty export still gets its CSV header
+                        writer.start(rs.getMetaData());
+                        while (rs.next()) {
+                            writer.row(rs);
+                        }
+                    } catch (IOException e) {
+                        // client went away: stop reading the cursor
+                        throw new UncheckedIOException(e);
+                    }
+                    return null;
+                }, args.toArray());
+                writer.finish();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /** Date / time columns as ISO strings, everything else as the driver returns it */
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (value instanceof Date date) {
+            return date.toLocalDate().toString();
+        }
+        return value;
+    }
+
+    private interface RowWriter {
+        void start(ResultSetMetaData meta) throws SQLException, IOException;
+
+        void row(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * RFC 4180 CSV with a header row. Cells starting with = + - @ are prefixed with a quote
+     * so spreadsheet apps do not run them as formulas.
+     */
+    private static final class CsvWriter implements RowWriter {
+        private final Writer writer;
+        private int columns;
+
+        CsvWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        @Override
+        public void start(ResultSetMetaData meta) throws SQLException, IOException {
+            columns = meta.getColumnCount();
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                writer.write(meta.getColumnLabel(i));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = value(rs, i);
+                if (value != null) {
+                    writeCell(value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeCell(String cell) throws IOException {
+            if (!cell.isEmpty() && "=+-@".indexOf(cell.charAt(0)) >= 0 && !isNumber(cell)) {
+                cell = "'" + cell;
+            }
+            boolean quote = cell.indexOf(',') >= 0 || cell.indexOf('"') >= 0
+                    || cell.indexOf('\n') >= 0 || cell.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(cell);
+                return;
+            }
+            writer.write('"');
+            writer.write(cell.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        private static boolean isNumber(String cell) {
+            for (int i = 1; i < cell.length(); i++) {
+                char c = cell.charAt(i);
+                if ((c < '0' || c > '9') && c != '.') {
+                    return false;
+                }
+            }
+            return cell.length() > 1;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * One JSON object per line, keys are the column names.
+     */
+    private final class NdjsonWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private String[] labels;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void start(ResultSetMetaData meta) throws SQLException {
+            labels = new String[meta.getColumnCount()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = meta.getColumnLabel(i + 1);
+            }
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < labels.length; i++) {
+                generator.writeFieldName(labels[i]);
+                generator.writeObject(value(rs, i + 1));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+}
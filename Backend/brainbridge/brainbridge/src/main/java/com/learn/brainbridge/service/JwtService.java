@@ -0,0 +1,337 @@
+package com.learn.brainbridge.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtService - Issues and verifies short-lived access tokens (HS256)
+ *
+ * Verification cost per request is kept low in three layers:
+ * 1. The HMAC key is derived from jwt.secret.key once (SHA-256 of the secret, so any
+ *    secret length gives a full 256-bit key) and the JwtParser is built once around it.
+ * 2. Verified claims are memoized in a bounded Caffeine cache keyed by the token's SHA-256,
+ *    each entry expiring exactly when the token does. A repeat request skips the base64,
+ *    JSON and signature work and pays one SHA-256 plus a map lookup.
+ * 3. Revocation is checked in memory on every request, cached or not: a deny set of token ids
+ *    (logout), and a per-user "revoked before" instant (logout everywhere).
+ * Denied ids are only kept until the token would have expired anyway.
+ *
+ * It also issues notification stream tickets: JWTs with the "notification-stream" audience, valid
+ * for STREAM_TICKET_TTL and accepted once. EventSource can only authenticate through the URL, and
+ * a ticket there is harmless in access logs, unlike an access token. Tickets are verified by any
+ * instance with the same secret; "once" is tracked per instance, so a ticket replayed on another
+ * instance within its 30 seconds would still be accepted there. verify() never accepts a ticket.
+ */
+@Service
+public class JwtService {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtService.class);
+
+    private static final String ADMIN_CLAIM = "admin";
+    private static final String STREAM_TICKET_AUDIENCE = "notification-stream";
+
+    public static final Duration STREAM_TICKET_TTL = Duration.ofSeconds(30);
+
+    /** What a verified access token says about the caller */
+    public record TokenClaims(Long userId, String username, String tokenId, Instant issuedAt, Instant expiresAt,
+                              boolean admin) {
+    }
+
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final JwtParser streamTicketParser;
+    private final String issuer;
+    private final Duration accessTokenTtl;
+
+    private final Cache<String, TokenClaims> verified;
+    private final Cache<String, Instant> deniedTokenIds;
+    private final Cache<String, Instant> redeemedTicketIds;
+    private final ConcurrentHashMap<Long, Instant> revokedBefore = new ConcurrentHashMap<>();
+
+    private final Counter cachedVerifications;
+    private final Counter parsedVerifications;
+    private final Counter rejectedVerifications;
+
+    @Autowired
+    public JwtService(MeterRegistry meterRegistry,
+                      @Value("${jwt.secret.key:}") String secret,
+                      @Value("${app.jwt.issuer:brainbridge}") String issuer,
+                      @Value("${app.jwt.access-token-ttl-minutes:15}") long accessTokenTtlMinutes,
+                      @Value("${app.jwt.claims-cache-size:100000}") long claimsCacheSize) {
+        this.key = deriveKey(secret);
+        this.issuer = issuer;
+        this.accessTokenTtl = Duration.ofMinutes(accessTokenTtlMinutes);
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .requireIssuer(issuer)
+                .build();
+        this.streamTicketParser = Jwts.parser()
+                .verifyWith(key)
+                .requireIssuer(issuer)
+                .requireAudience(STREAM_TICKET_AUDIENCE)
+                .build();
+
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new UntilExpiry<String, TokenClaims>() {
+                    @Override
+                    Instant expiresAt(TokenClaims claims) {
+                        return claims.expiresAt();
+                    }
+                })
+                .build();
+        this.deniedTokenIds = Caffeine.newBuilder()
+                .expireAfter(new UntilExpiry<String, Instant>() {
+                    @Override
+                    Instant expiresAt(Instant tokenExpiresAt) {
+                        return tokenExpiresAt;
+                    }
+                })
+                .build();
+        this.redeemedTicketIds = Caffeine.newBuilder()
+                .expireAfter(new UntilExpiry<String, Instant>() {
+                    @Override
+                    Instant expiresAt(Instant ticketExpiresAt) {
+                        return ticketExpiresAt;
+                    }
+                })
+                .build();
+
+        this.cachedVerifications = verificationCounter(meterRegistry, "cached");
+        this.parsedVerifications = verificationCounter(meterRegistry, "parsed");
+        this.rejectedVerifications = verificationCounter(meterRegistry, "rejected");
+    }
+
+    private static Counter verificationCounter(MeterRegistry registry, String result) {
+        return Counter.builder("brainbridge.jwt.verifications")
+                .description("Access token checks: answered from the claims cache, fully parsed, or rejected")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public String issueAccessToken(Long userId, String username) {
+        return issueAccessToken(userId, username, false);
+    }
+
+    /**
+     * @param admin adds the "admin" claim; the role is fixed for the token's lifetime
+     */
+    public String issueAccessToken(Long userId, String username, boolean admin) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .issuer(issuer)
+                .subject(String.valueOf(userId))
+                .claim("username", username)
+                .claim(ADMIN_CLAIM, admin ? Boolean.TRUE : null)
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(accessTokenTtl)))
+                .signWith(key)
+                .compact();
+    }
+
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
+
+    /**
+     * A single-use ticket that opens the caller's notification stream within STREAM_TICKET_TTL.
+     */
+    public String issueStreamTicket(TokenClaims caller) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .issuer(issuer)
+                .audience().add(STREAM_TICKET_AUDIENCE).and()
+                .subject(String.valueOf(caller.userId()))
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(STREAM_TICKET_TTL)))
+                .signWith(key)
+                .compact();
+    }
+
+    /**
+     * @return the ticket's user if it is correctly signed, unexpired, not redeemed before on this
+     *         instance and the user has not logged out everywhere since it was issued
+     */
+    public Optional<Long> redeemStreamTicket(String ticket) {
+        if (ticket == null || ticket.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            Claims claims = streamTicketParser.parseSignedClaims(ticket).getPayload();
+            Long userId = Long.valueOf(claims.getSubject());
+            Instant issuedAt = claims.getIssuedAt().toInstant();
+            Instant cutoff = revokedBefore.get(userId);
+            if (claims.getId() == null || (cutoff != null && issuedAt.isBefore(cutoff))
+                    || redeemedTicketIds.asMap().putIfAbsent(claims.getId(), claims.getExpiration().toInstant()) != null) {
+                return Optional.empty();
+            }
+            return Optional.of(userId);
+        } catch (JwtException | IllegalArgumentException | NullPointerException e) {
+            log.debug("Rejected stream ticket: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the claims if the token is correctly signed, unexpired and not revoked
+     */
+    public Optional<TokenClaims> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        String cacheKey = sha256(token);
+        TokenClaims claims = verified.getIfPresent(cacheKey);
+        if (claims != null) {
+            cachedVerifications.increment();
+        } else {
+            claims = parse(token);
+            if (claims == null) {
+                rejectedVerifications.increment();
+                return Optional.empty();
+            }
+            parsedVerifications.increment();
+            verified.put(cacheKey, claims);
+        }
+        if (isRevoked(claims)) {
+            rejectedVerifications.increment();
+            return Optional.empty();
+        }
+        return Optional.of(claims);
+    }
+
+    /**
+     * Reject this one token from now on (logout on this device).
+     */
+    public void revoke(TokenClaims claims) {
+        if (claims.tokenId() != null && claims.expiresAt().isAfter(Instant.now())) {
+            deniedTokenIds.put(claims.tokenId(), claims.expiresAt());
+        }
+    }
+
+    /**
+     * Reject every access token of the user issued up to now (logout everywhere).
+     * One map entry per user; tokens issued afterwards are unaffected.
+     */
+    public void revokeAllIssuedBefore(Long userId, Instant instant) {
+        revokedBefore.merge(userId, instant, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    /**
+     * Forget "revoked before" cutoffs older than the token lifetime: every token they cover has expired.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation-purge-ms:60000}")
+    public void purgeRevocations() {
+        Instant oldestRelevant = Instant.now().minus(accessTokenTtl);
+        revokedBefore.values().removeIf(cutoff -> cutoff.isBefore(oldestRelevant));
+    }
+
+    private boolean isRevoked(TokenClaims claims) {
+        if (claims.tokenId() != null && deniedTokenIds.getIfPresent(claims.tokenId()) != null) {
+            return true;
+        }
+        Instant cutoff = revokedBefore.get(claims.userId());
+        // iat has whole seconds: a token issued in the same second as the cutoff counts as revoked
+        return cutoff != null && claims.issuedAt().isBefore(cutoff);
+    }
+
+    private TokenClaims parse(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getAudience() != null && !claims.getAudience().isEmpty()) {
+                // a stream ticket (or anything else meant for one endpoint) is not an access token
+                return null;
+            }
+            Long userId = Long.valueOf(claims.getSubject());
+            Instant issuedAt = claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : Instant.EPOCH;
+            return new TokenClaims(userId, claims.get("username", String.class), claims.getId(),
+                    issuedAt, claims.getExpiration().toInstant(),
+                    Boolean.TRUE.equals(claims.get(ADMIN_CLAIM, Boolean.class)));
+        } catch (JwtException | IllegalArgumentException | NullPointerException e) {
+            // bad signature, expired, wrong issuer, malformed, missing sub/exp
+            log.debug("Rejected access token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * SHA-256 of the configured secret as the HS256 key. Without a secret a random key is
+     * generated, which works but invalidates every token on restart.
+     */
+    private static SecretKey deriveKey(String secret) {
+        byte[] material;
+        if (secret == null || secret.isBlank()) {
+            log.warn("jwt.secret.key is not set; using a random key (access tokens will not survive a restart)");
+            material = new byte[32];
+            new SecureRandom().nextBytes(material);
+        } else {
+            material = sha256Bytes(secret);
+        }
+        return new SecretKeySpec(material, "HmacSHA256");
+    }
+
+    private static String sha256(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sha256Bytes(value));
+    }
+
+    private static byte[] sha256Bytes(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Caffeine expiry that drops an entry at an absolute instant taken from its value.
+     */
+    private abstract static class UntilExpiry<K, V> implements Expiry<K, V> {
+
+        abstract Instant expiresAt(V value);
+
+        @Override
+        public long expireAfterCreate(K key, V value, long currentTime) {
+            long millis = expiresAt(value).toEpochMilli() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
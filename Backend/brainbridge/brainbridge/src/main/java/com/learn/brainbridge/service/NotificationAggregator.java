@@ -0,0 +1,159 @@
+package com.learn.brainbridge.service;
+
+import com.learn.brainbridge.dtos.NotificationDTO;
+import com.learn.brainbridge.enums.NotificationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * NotificationAggregator - Collapses bursts of notifications into digest rows
+ *
+ * Events of the same type on the same target for the same user (ten comments on one project)
+ * within window-ms become one notification row instead of ten:
+ * 1. The first event of a burst is stored and pushed right away, so nothing is delayed
+ * 2. Further events in the window only bump an in-memory counter and remember the latest text
+ * 3. When the window closes, one UPDATE folds them into the first row (group_count, title,
+ *    body) and the new state goes out as a "digest" event
+ * If the user has read the first row by then, the rest becomes a new row instead, so nothing
+ * is marked read that the user has not seen.
+ *
+ * A burst of n events costs one INSERT and one UPDATE. Bursts are per instance: events for the
+ * same target handled by two instances give two rows. They also live only in memory: a clean
+ * shutdown writes them (flushAll), but if the process dies the events merged into open windows
+ * are lost; the first row of each burst is already stored.
+ */
+@Service
+public class NotificationAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationAggregator.class);
+
+    private record Key(Long userId, NotificationType type, String targetType, Long targetId) {
+    }
+
+    /**
+     * An open window. pending / title / body only change inside bursts.compute for its key;
+     * notificationId is set once by the thread that opened the burst.
+     */
+    private static final class Burst {
+        private final long openedAt;
+        private volatile Long notificationId;
+        private int pending;
+        private String title;
+        private String body;
+
+        private Burst(long openedAt) {
+            this.openedAt = openedAt;
+        }
+    }
+
+    /** What a closing window hands to the database */
+    private record Flush(Key key, Long notificationId, int added, String title, String body) {
+    }
+
+    private final NotificationService notificationService;
+    private final Map<Key, Burst> bursts = new ConcurrentHashMap<>();
+    private final Set<NotificationType> types;
+    private final long windowMs;
+    private final Counter merged;
+
+    @Autowired
+    public NotificationAggregator(NotificationService notificationService,
+                                  MeterRegistry registry,
+                                  @Value("${app.notifications.digest.types:COMMENT,MENTION,INVITE}") Set<NotificationType> types,
+                                  @Value("${app.notifications.digest.window-ms:300000}") long windowMs) {
+        this.notificationService = notificationService;
+        this.types = types;
+        this.windowMs = windowMs;
+        this.merged = Counter.builder("brainbridge.notifications.digest.merged")
+                .description("Notifications folded into an existing digest row instead of getting their own")
+                .register(registry);
+    }
+
+    /**
+     * Notify the user about an event on a target. Types not in app.notifications.digest.types
+     * and events without a target are stored as they are.
+     */
+    public void notify(Long userId, NotificationType type, String targetType, Long targetId, String title, String body) {
+        if (targetId == null || !types.contains(type) || windowMs <= 0) {
+            notificationService.create(userId, type, targetType, targetId, title, body, 1);
+            return;
+        }
+        Key key = new Key(userId, type, targetType, targetId);
+        Burst opened = new Burst(System.currentTimeMillis());
+        Burst burst = bursts.compute(key, (k, current) -> {
+            if (current == null) {
+                return opened;
+            }
+            current.pending++;
+            current.title = title;
+            current.body = body;
+            return current;
+        });
+        if (burst != opened) {
+            merged.increment();
+            return;
+        }
+        try {
+            NotificationDTO created = notificationService.create(userId, type, targetType, targetId, title, body, 1);
+            opened.notificationId = created.getId();
+        } catch (RuntimeException e) {
+            // events merged meanwhile go nowhere: better than a digest pointing at no row
+            bursts.remove(key, opened);
+            throw e;
+        }
+    }
+
+    /**
+     * Close every window that has run its length and write what accumulated in it.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.digest.flush-interval-ms:5000}")
+    public void flushExpired() {
+        flush(System.currentTimeMillis() - windowMs);
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        flush(Long.MAX_VALUE);
+    }
+
+    private void flush(long openedBefore) {
+        List<Flush> due = new ArrayList<>();
+        for (Key key : bursts.keySet()) {
+            bursts.computeIfPresent(key, (k, burst) -> {
+                if (burst.openedAt > openedBefore || burst.notificationId == null) {
+                    return burst; // still open, or its first row is still being written
+                }
+                if (burst.pending > 0) {
+                    due.add(new Flush(k, burst.notificationId, burst.pending, burst.title, burst.body));
+                }
+                return null;
+            });
+        }
+        for (Flush flush : due) {
+            try {
+                Key key = flush.key();
+                if (!notificationService.mergeIntoDigest(key.userId(), flush.notificationId(), flush.added(),
+                        flush.title(), flush.body())) {
+                    // already read: the rest of the burst is news
+                    notificationService.create(key.userId(), key.type(), key.targetType(), key.targetId(),
+                            flush.title(), flush.body(), flush.added());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not write notification digest {} (+{})", flush.notificationId(), flush.added(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.learn.brainbridge.service;
+
+import com.learn.brainbridge.Exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * NotificationHub - Server-Sent Event connections per user, and fan-out to them
+ *
+ * An idle connection is an async servlet request (no thread) plus a Connection object with an
+ * empty queue, so tens of thousands of them cost a few KB each. Publishing never blocks:
+ * 1. The event is appended to each of the user's connections (lock-free queue, bounded by buffer-size)
+ * 2. If no drain is running for that connection, one is started on a virtual thread; it writes
+ *    everything queued and ends, so a slow client only ever occupies its own drain
+ * 3. A connection whose buffer is full is closed instead of growing: the client reconnects with
+ *    Last-Event-ID and NotificationService replays what it missed from the database
+ *
+ * A heartbeat comment goes to idle connections so proxies keep them open and dead ones are noticed.
+ */
+@Component
+public class NotificationHub {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationHub.class);
+
+    /** One event for the stream; id > 0 for notifications (becomes the SSE id), 0 otherwise */
+    public record Event(long id, String name, Object data) {
+    }
+
+    private static final Event HEARTBEAT = new Event(0, null, null);
+
+    private final Map<Long, List<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ExecutorService drains = Executors.newVirtualThreadPerTaskExecutor();
+    private final long timeoutMs;
+    private final int bufferSize;
+    private final int maxConnections;
+    private final int maxConnectionsPerUser;
+    private final Counter overflows;
+
+    @Autowired
+    public NotificationHub(MeterRegistry registry,
+                           @Value("${app.notifications.sse.timeout-ms:1800000}") long timeoutMs,
+                           @Value("${app.notifications.sse.buffer-size:64}") int bufferSize,
+                           @Value("${app.notifications.sse.max-connections:40000}") int maxConnections,
+                           @Value("${app.notifications.sse.max-connections-per-user:5}") int maxConnectionsPerUser) {
+        this.timeoutMs = timeoutMs;
+        this.bufferSize = bufferSize;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.overflows = Counter.builder("brainbridge.notifications.sse.overflows")
+                .description("Streams closed because the client did not keep up")
+                .register(registry);
+        Gauge.builder("brainbridge.notifications.sse.connections", connectionCount, AtomicInteger::get)
+                .description("Open notification streams")
+                .register(registry);
+    }
+
+    /**
+     * Open a stream for the user. Events published from now on are buffered but not sent until
+     * start(...) is called, so the caller can send what the client missed first without a gap.
+     */
+    public Connection register(Long userId) {
+        if (connectionCount.get() >= maxConnections) {
+            throw new ServiceUnavailableException("Too many notification streams, please retry", 5);
+        }
+        Connection connection = new Connection(userId, new SseEmitter(timeoutMs));
+        connection.emitter.onCompletion(connection::close);
+        connection.emitter.onTimeout(connection::close);
+        connection.emitter.onError(e -> connection.close());
+
+        List<Connection> evicted = new ArrayList<>();
+        connections.compute(userId, (id, current) -> {
+            List<Connection> updated = current == null ? new ArrayList<>(1) : new ArrayList<>(current);
+            updated.add(connection);
+            while (updated.size() > maxConnectionsPerUser) {
+                evicted.add(updated.remove(0)); // oldest tab goes first
+            }
+            return List.copyOf(updated);
+        });
+        connectionCount.incrementAndGet();
+        evicted.forEach(Connection::close);
+        return connection;
+    }
+
+    /**
+     * Send the initial events directly, then let buffered live events flow. Live notifications
+     * with an id at or below lastEventId (or below the last initial one) are skipped as duplicates.
+     */
+    public void start(Connection connection, long lastEventId, List<Event> initial) {
+        connection.lastSentId = lastEventId;
+        try {
+            for (Event event : initial) {
+                connection.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            connection.close();
+            return;
+        }
+        connection.ready = true;
+        connection.scheduleDrain();
+    }
+
+    /**
+     * Queue an event for every open stream of the user; returns immediately.
+     */
+    public void publish(Long userId, Event event) {
+        List<Connection> targets = connections.get(userId);
+        if (targets != null) {
+            for (Connection connection : targets) {
+                connection.offer(event);
+            }
+        }
+    }
+
+    public boolean isConnected(Long userId) {
+        return connections.containsKey(userId);
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (List<Connection> userConnections : connections.values()) {
+            for (Connection connection : userConnections) {
+                // busy streams are proof of life already
+                if (connection.pending.get() == 0) {
+                    connection.offer(HEARTBEAT);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.values().forEach(userConnections -> userConnections.forEach(Connection::close));
+        drains.shutdown();
+    }
+
+    private void remove(Connection connection) {
+        connections.computeIfPresent(connection.userId, (id, current) -> {
+            List<Connection> updated = new ArrayList<>(current);
+            updated.remove(connection);
+            return updated.isEmpty() ? null : List.copyOf(updated);
+        });
+        connectionCount.decrementAndGet();
+    }
+
+    /**
+     * One open stream: its emitter, a bounded queue and a "drain running" flag, so at most one
+     * thread writes to the emitter at a time.
+     */
+    public final class Connection {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final ConcurrentLinkedQueue<Event> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean ready;
+        private volatile long lastSentId;
+
+        private Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        public SseEmitter getEmitter() {
+            return emitter;
+        }
+
+        private void offer(Event event) {
+            if (closed.get()) {
+                return;
+            }
+            if (pending.incrementAndGet() > bufferSize) {
+                // the client is not reading; it will catch up from the database after reconnecting
+                overflows.increment();
+                log.debug("Notification stream of user {} overflowed, closing it", userId);
+                close();
+                return;
+            }
+            queue.add(event);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (ready && !closed.get() && draining.compareAndSet(false, true)) {
+                drains.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Event event;
+                while ((event = queue.poll()) != null) {
+                    pending.decrementAndGet();
+                    if (event.id() > 0 && event.id() <= lastSentId) {
+                        continue; // already sent in the catch-up
+                    }
+                    send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // client went away or the emitter timed out
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // an event may have arrived after the last poll but before the flag was cleared
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(Event event) throws IOException {
+            if (event == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+            SseEmitter.SseEventBuilder builder = SseEmitter.event().name(event.name())
+                    .data(event.data(), MediaType.APPLICATION_JSON);
+            if (event.id() > 0) {
+                builder.id(Long.toString(event.id()));
+                lastSentId = event.id();
+            }
+            emitter.send(builder);
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                remove(this);
+                queue.clear();
+                try {
+                    emitter.complete();
+                } catch (RuntimeException e) {
+                    // already completed by the container
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.learn.brainbridge.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.learn.brainbridge.dtos.NotificationDTO;
+import com.learn.brainbridge.entity.Notification;
+import com.learn.brainbridge.enums.NotificationType;
+import com.learn.brainbridge.repository.NotificationRepository;
+import com.learn.brainbridge.repository.UserRepository;
+import com.learn.brainbridge.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * NotificationService - Creates notifications, keeps unread counts and feeds the SSE streams
+ *
+ * Unread counts live in memory (one AtomicLong per recently active user) so neither the
+ * stream nor the badge polls Postgres: the first read counts on idx_notifications_user_read,
+ * after that create and mark-read adjust the counter atomically. Entries expire after
+ * unread-count-ttl, which also bounds any drift (e.g. rows changed by another instance).
+ *
+ * New notifications are pushed to the user's open streams after the transaction that created
+ * them commits. A reconnecting stream sends Last-Event-ID and gets the missed rows replayed
+ * (up to catch-up-limit; beyond that a "resync" event tells the client to reload the list).
+ */
+@Service
+public class NotificationService {
+
+    public static final String NOTIFICATION_EVENT = "notification";
+    public static final String UNREAD_EVENT = "unread";
+    public static final String RESYNC_EVENT = "resync";
+    public static final String DIGEST_EVENT = "digest";
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final NotificationHub hub;
+    private final TransactionTemplate tx;
+    private final Cache<Long, AtomicLong> unreadCounts;
+    private final int catchUpLimit;
+
+    @Autowired
+    public NotificationService(NotificationRepository notificationRepository,
+                               UserRepository userRepository,
+                               NotificationHub hub,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.notifications.unread-count.max-users:100000}") long maxUsers,
+                               @Value("${app.notifications.unread-count.ttl-ms:600000}") long unreadCountTtlMs,
+                               @Value("${app.notifications.catch-up-limit:200}") int catchUpLimit) {
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.hub = hub;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.unreadCounts = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofMillis(unreadCountTtlMs))
+                .build();
+        this.catchUpLimit = catchUpLimit;
+    }
+
+    /**
+     * Store a notification for the user; it is pushed and counted once the transaction commits
+     * (immediately if there is no surrounding transaction).
+     */
+    public NotificationDTO create(Long userId, NotificationType type, String title, String body) {
+        return create(userId, type, null, null, title, body, 1);
+    }
+
+    /**
+     * Same, about a target (e.g. "PROJECT", 42) and standing for groupCount events.
+     * Producers that may fire in bursts should go through NotificationAggregator instead.
+     */
+    public NotificationDTO create(Long userId, NotificationType type, String targetType, Long targetId,
+                                  String title, String body, int groupCount) {
+        NotificationDTO dto = tx.execute(status -> {
+            Notification notification = new Notification();
+            notification.setUser(userRepository.getReferenceById(userId));
+            notification.setType(type);
+            notification.setTargetType(targetType);
+            notification.setTargetId(targetId);
+            notification.setGroupCount(groupCount);
+            notification.setTitle(title);
+            notification.setBody(body);
+            notification.setIsRead(false);
+            notificationRepository.save(notification);
+            return toDTO(notification);
+        });
+        AfterCommit.run(() -> {
+            long unread = adjustUnread(userId, 1);
+            hub.publish(userId, new NotificationHub.Event(dto.getId(), NOTIFICATION_EVENT, dto));
+            if (unread >= 0) {
+                hub.publish(userId, unreadEvent(unread));
+            }
+        });
+        return dto;
+    }
+
+    /**
+     * @return false if the notification was already read or is not the user's
+     */
+    public boolean markRead(Long userId, Long notificationId) {
+        if (notificationRepository.markRead(userId, notificationId) == 0) {
+            return false;
+        }
+        // only a row that actually flipped changes the count, so repeated calls cannot drive it negative
+        long unread = adjustUnread(userId, -1);
+        hub.publish(userId, unreadEvent(unread >= 0 ? unread : getUnreadCount(userId)));
+        return true;
+    }
+
+    /**
+     * Mark all of the user's notifications up to and including upToId as read (one UPDATE).
+     * Clients pass the newest id they have shown, so anything that arrived since stays unread;
+     * null means everything.
+     *
+     * @return number of notifications marked read
+     */
+    public int markAllRead(Long userId, Long upToId) {
+        int marked = notificationRepository.markAllRead(userId, upToId != null ? upToId : Long.MAX_VALUE);
+        if (marked > 0) {
+            long unread = adjustUnread(userId, -marked);
+            hub.publish(userId, unreadEvent(unread >= 0 ? unread : getUnreadCount(userId)));
+        }
+        return marked;
+    }
+
+    /**
+     * Fold more events into an unread digest row and push the updated row as a "digest" event.
+     *
+     * @return false if the row has been read (or deleted) meanwhile; the caller then creates a new one
+     */
+    public boolean mergeIntoDigest(Long userId, Long notificationId, int added, String title, String body) {
+        if (notificationRepository.mergeIntoDigest(notificationId, added, title, body, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        if (hub.isConnected(userId)) {
+            // same id as before, so it is not a new SSE event id: clients replace the row they have
+            notificationRepository.findDTOById(notificationId)
+                    .ifPresent(dto -> hub.publish(userId, new NotificationHub.Event(0, DIGEST_EVENT, dto)));
+        }
+        return true;
+    }
+
+    public long getUnreadCount(Long userId) {
+        return unreadCounts.get(userId, id -> new AtomicLong(notificationRepository.countUnread(id))).get();
+    }
+
+    /**
+     * Newest first; pass the smallest id of the previous page as beforeId for the next one.
+     */
+    public List<NotificationDTO> getNotifications(Long userId, Long beforeId, int size) {
+        int pageSize = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        return notificationRepository.findPage(userId, beforeId != null ? beforeId : Long.MAX_VALUE,
+                PageRequest.of(0, pageSize));
+    }
+
+    /**
+     * Open a notification stream. The first event is the unread count; with a lastEventId the
+     * notifications created since are replayed before live events.
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        // register first: anything created while the catch-up query runs is buffered, and
+        // duplicates of replayed rows are dropped by id
+        NotificationHub.Connection connection = hub.register(userId);
+        List<NotificationHub.Event> initial = new ArrayList<>();
+        initial.add(unreadEvent(getUnreadCount(userId)));
+        long after = lastEventId != null ? lastEventId : 0;
+        if (after > 0) {
+            List<NotificationDTO> missed = notificationRepository.findAfter(userId, after,
+                    PageRequest.of(0, catchUpLimit + 1));
+            if (missed.size() > catchUpLimit) {
+                // too far behind to replay: the client reloads the list over REST instead
+                initial.add(new NotificationHub.Event(0, RESYNC_EVENT, Map.of("reason", "too many missed notifications")));
+                after = missed.get(missed.size() - 1).getId();
+            } else {
+                for (NotificationDTO dto : missed) {
+                    initial.add(new NotificationHub.Event(dto.getId(), NOTIFICATION_EVENT, dto));
+                }
+            }
+        }
+        hub.start(connection, after, initial);
+        return connection.getEmitter();
+    }
+
+    /**
+     * Add delta to a cached count; a user without a cached count is left alone (the next read
+     * counts in the database, which already includes the change).
+     *
+     * @return the new count, or -1 if the user had none cached
+     */
+    private long adjustUnread(Long userId, long delta) {
+        AtomicLong[] updated = new AtomicLong[1];
+        unreadCounts.asMap().computeIfPresent(userId, (id, count) -> {
+            count.accumulateAndGet(delta, (current, d) -> Math.max(0, current + d));
+            updated[0] = count;
+            return count;
+        });
+        return updated[0] != null ? updated[0].get() : -1;
+    }
+
+    private static NotificationHub.Event unreadEvent(long count) {
+        return new NotificationHub.Event(0, UNREAD_EVENT, Map.of("count", count));
+    }
+
+    private static NotificationDTO toDTO(Notification notification) {
+        return new NotificationDTO(notification.getId(), notification.getType(), notification.getTitle(),
+                notification.getBody(), notification.getIsRead(), notification.getTargetType(),
+                notification.getTargetId(), notification.getGroupCount(), notification.getCreatedAt(),
+                notification.getUpdatedAt());
+    }
+}
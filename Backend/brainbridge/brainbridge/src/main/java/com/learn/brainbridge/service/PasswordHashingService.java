@@ -0,0 +1,199 @@
+package com.learn.brainbridge.service;
+
+import com.learn.brainbridge.Exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordHashingService - BCrypt hashing and verification off the request threads
+ *
+ * BCrypt is deliberately slow (tens of ms of pure CPU per call), so:
+ * - All hashing runs on a small dedicated pool, one thread per core by default.
+ *   More threads than cores would only make every login slower.
+ * - The pool has a bounded queue. When it is full the caller gets a 503 with
+ *   Retry-After straight away instead of piling up behind work it would time out on.
+ * - verify() reports when a stored hash uses a different cost than configured
+ *   (or is a legacy plain-text password) so the caller can store a fresh hash.
+ *
+ * Pick the cost with the benchmarks module's PasswordCostTuner on the production host.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    public enum Verification {
+        MATCH,
+        /** Correct password, but the stored hash should be replaced with hash(rawPassword) */
+        MATCH_NEEDS_REHASH,
+        MISMATCH
+    }
+
+    private final BCryptPasswordEncoder encoder;
+    private final int cost;
+    private final long timeoutMs;
+    private final ThreadPoolExecutor executor;
+    /** Checked against when the account does not exist, so unknown users take as long as wrong passwords */
+    private final String dummyHash;
+
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+    private final Timer queueWait;
+    private final Counter rejections;
+
+    @Autowired
+    public PasswordHashingService(MeterRegistry meterRegistry,
+                                  @Value("${app.password.bcrypt-cost:10}") int cost,
+                                  @Value("${app.password.hashing.threads:0}") int threads,
+                                  @Value("${app.password.hashing.queue-capacity:0}") int queueCapacity,
+                                  @Value("${app.password.hashing.timeout-ms:5000}") long timeoutMs) {
+        this.encoder = new BCryptPasswordEncoder(cost);
+        this.cost = cost;
+        this.timeoutMs = timeoutMs;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        int capacity = queueCapacity > 0 ? queueCapacity : poolSize * 8;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = hashingTimer(meterRegistry, "hash");
+        this.verifyTimer = hashingTimer(meterRegistry, "verify");
+        this.queueWait = Timer.builder("brainbridge.password.hashing.wait")
+                .description("Time hashing requests spend queued before a thread picks them up")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("brainbridge.password.hashing.rejected")
+                .description("Hashing requests turned away because the queue was full or they timed out")
+                .register(meterRegistry);
+        Gauge.builder("brainbridge.password.hashing.queue", executor, pool -> pool.getQueue().size())
+                .description("Hashing requests waiting for a thread")
+                .register(meterRegistry);
+
+        this.dummyHash = encoder.encode("dummy-password-for-unknown-users");
+        log.info("Password hashing: BCrypt cost {}, {} threads, queue {}", cost, poolSize, capacity);
+    }
+
+    private static Timer hashingTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("brainbridge.password.hashing")
+                .description("CPU time of one BCrypt operation")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    public String hash(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword), hashTimer);
+    }
+
+    public Verification verify(String rawPassword, String storedHash) {
+        if (rawPassword == null || storedHash == null) {
+            return Verification.MISMATCH;
+        }
+        if (!isBcrypt(storedHash)) {
+            // account created before passwords were hashed
+            boolean equal = MessageDigest.isEqual(
+                    rawPassword.getBytes(StandardCharsets.UTF_8), storedHash.getBytes(StandardCharsets.UTF_8));
+            return equal ? Verification.MATCH_NEEDS_REHASH : Verification.MISMATCH;
+        }
+        boolean matches = run(() -> encoder.matches(rawPassword, storedHash), verifyTimer);
+        if (!matches) {
+            return Verification.MISMATCH;
+        }
+        return costOf(storedHash) == cost ? Verification.MATCH : Verification.MATCH_NEEDS_REHASH;
+    }
+
+    /**
+     * Spend the same time as a real verification without a real hash
+     * (login for an unknown email/username must not answer faster).
+     */
+    public void verifyAgainstDummy(String rawPassword) {
+        if (rawPassword != null) {
+            run(() -> encoder.matches(rawPassword, dummyHash), verifyTimer);
+        }
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    private <T> T run(Callable<T> task, Timer timer) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new ServiceUnavailableException("Too many sign-ins in progress, please retry shortly", 1);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejections.increment();
+            throw new ServiceUnavailableException("Sign-in is taking too long, please retry shortly", 1);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while checking the password", 1);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * "$2a$10$..." -> 10
+     */
+    static int costOf(String bcryptHash) {
+        try {
+            return Integer.parseInt(bcryptHash.substring(4, 6));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    static boolean isBcrypt(String storedHash) {
+        return storedHash.length() == 60 && storedHash.startsWith("$2") && storedHash.charAt(6) == '$';
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
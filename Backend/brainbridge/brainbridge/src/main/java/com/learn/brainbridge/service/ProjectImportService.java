@@ -0,0 +1,312 @@
+package com.learn.brainbridge.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.brainbridge.Exception.BadRequestException;
+import com.learn.brainbridge.dtos.ProjectDTO;
+import com.learn.brainbridge.dtos.ProjectImportResultDTO;
+import com.learn.brainbridge.entity.Projects;
+import com.learn.brainbridge.repository.ProjectsRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ProjectImportService - Bulk project import from a JSON array or NDJSON
+ *
+ * The input is read as a stream and handled in chunks, so memory stays flat whatever its size:
+ * 1. Parse up to chunk-size rows (a row that does not map to ProjectDTO is an error for that row only)
+ * 2. Validate the chunk in parallel (Bean Validation + the columns Projects requires)
+ * 3. Drop titles already used earlier in the chunk or in the database (one IN query per chunk)
+ * 4. Persist the rest in one transaction: with hibernate.jdbc.batch_size and the pooled projects_seq
+ *    sequence, 50 rows become one INSERT batch and one sequence call; the persistence context is
+ *    flushed and cleared after every batch so it never holds more than 50 entities
+ * 5. Add the saved rows to the search index
+ *
+ * If a chunk still fails (e.g. a title taken concurrently) it is rolled back and retried row by row,
+ * so only the offending rows are reported and the rest of the import continues.
+ */
+@Service
+public class ProjectImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectImportService.class);
+
+    private final ProjectsRepository repo;
+    private final ProjectSearchService searchService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+    private final int flushSize;
+    private final int maxErrors;
+
+    @Autowired
+    public ProjectImportService(ProjectsRepository repo,
+                                ProjectSearchService searchService,
+                                EntityManager entityManager,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.projects.import.chunk-size:1000}") int chunkSize,
+                                @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int flushSize,
+                                @Value("${app.projects.import.max-errors:1000}") int maxErrors) {
+        this.repo = repo;
+        this.searchService = searchService;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.flushSize = Math.max(1, flushSize);
+        this.maxErrors = maxErrors;
+    }
+
+    /** One input row: the DTO, or why it could not be read */
+    private record Row(int number, ProjectDTO project, String parseError) {
+    }
+
+    /**
+     * @param ndjson true for one JSON object per line, false for a single JSON array
+     */
+    public ProjectImportResultDTO importProjects(InputStream in, boolean ndjson) {
+        long started = System.currentTimeMillis();
+        ProjectImportResultDTO result = new ProjectImportResultDTO();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        try {
+            if (ndjson) {
+                readNdjson(in, chunk, result);
+            } else {
+                readArray(in, chunk, result);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        process(chunk, result);
+        result.setDurationMs(System.currentTimeMillis() - started);
+        log.info("Project import: {} received, {} imported, {} failed in {} ms",
+                result.getReceived(), result.getImported(), result.getFailed(), result.getDurationMs());
+        return result;
+    }
+
+    private void readArray(InputStream in, List<Row> chunk, ProjectImportResultDTO result) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestException("Expected a JSON array of projects");
+            }
+            int number = 0;
+            while (true) {
+                JsonNode node;
+                try {
+                    if (parser.nextToken() == JsonToken.END_ARRAY) {
+                        break;
+                    }
+                    node = parser.readValueAsTree();
+                } catch (JsonProcessingException e) {
+                    // syntax error: the parser cannot find the next row
+                    result.setStoppedAt("Malformed JSON after row " + number + ": " + e.getOriginalMessage());
+                    break;
+                }
+                add(chunk, toRow(++number, node), result);
+            }
+        }
+    }
+
+    private void readNdjson(InputStream in, List<Row> chunk, ProjectImportResultDTO result) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        int number = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            number++;
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                add(chunk, new Row(number, null, "Malformed JSON: " + e.getOriginalMessage()), result);
+                continue;
+            }
+            add(chunk, toRow(number, node), result);
+        }
+    }
+
+    private Row toRow(int number, JsonNode node) {
+        if (node == null || !node.isObject()) {
+            return new Row(number, null, "Expected a JSON object");
+        }
+        try {
+            return new Row(number, objectMapper.treeToValue(node, ProjectDTO.class), null);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return new Row(number, null, "Invalid value: " + e.getMessage().lines().findFirst().orElse(""));
+        }
+    }
+
+    private void add(List<Row> chunk, Row row, ProjectImportResultDTO result) {
+        result.setReceived(result.getReceived() + 1);
+        chunk.add(row);
+        if (chunk.size() >= chunkSize) {
+            process(chunk, result);
+        }
+    }
+
+    private void process(List<Row> chunk, ProjectImportResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // validation is CPU only and Validator is thread-safe
+        List<List<String>> problems = chunk.parallelStream().map(this::validate).toList();
+
+        List<Row> valid = new ArrayList<>(chunk.size());
+        Set<String> titles = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Row row = chunk.get(i);
+            if (!problems.get(i).isEmpty()) {
+                fail(result, row, problems.get(i));
+            } else if (!titles.add(row.project().getTitle())) {
+                fail(result, row, List.of("title: duplicate of an earlier row"));
+            } else {
+                valid.add(row);
+            }
+        }
+        if (!titles.isEmpty()) {
+            Set<String> taken = new HashSet<>(repo.findExistingTitles(titles));
+            if (!taken.isEmpty()) {
+                valid.removeIf(row -> {
+                    if (taken.contains(row.project().getTitle())) {
+                        fail(result, row, List.of("title: already exists"));
+                        return true;
+                    }
+                    return false;
+                });
+            }
+        }
+
+        List<Projects> saved;
+        try {
+            saved = tx.execute(status -> persist(valid));
+        } catch (RuntimeException e) {
+            log.debug("Import chunk failed, retrying its {} rows one by one", valid.size(), e);
+            saved = persistOneByOne(valid, result);
+        }
+        saved.forEach(searchService::index);
+        result.setImported(result.getImported() + saved.size());
+        chunk.clear();
+    }
+
+    private List<Projects> persist(List<Row> rows) {
+        List<Projects> saved = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            Projects project = toEntity(row.project());
+            entityManager.persist(project);
+            saved.add(project);
+            if (saved.size() % flushSize == 0) {
+                // send this JDBC batch and forget the entities
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return saved;
+    }
+
+    private List<Projects> persistOneByOne(List<Row> rows, ProjectImportResultDTO result) {
+        List<Projects> saved = new ArrayList<>();
+        for (Row row : rows) {
+            try {
+                saved.addAll(tx.execute(status -> persist(List.of(row))));
+            } catch (RuntimeException e) {
+                if (isConstraintViolation(e)) {
+                    fail(result, row, List.of("title: already exists"));
+                } else {
+                    log.warn("Import row {} could not be saved", row.number(), e);
+                    fail(result, row, List.of("Could not be saved"));
+                }
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Flushes through the EntityManager are not translated by Spring, so look for Hibernate's exception too.
+     */
+    private static boolean isConstraintViolation(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof DataIntegrityViolationException || t instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> validate(Row row) {
+        if (row.parseError() != null) {
+            return List.of(row.parseError());
+        }
+        ProjectDTO dto = row.project();
+        List<String> messages = new ArrayList<>();
+        for (ConstraintViolation<ProjectDTO> violation : validator.validate(dto)) {
+            messages.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        // NOT NULL columns of Projects that ProjectDTO does not annotate
+        requireNonNull(messages, "project_status", dto.getProject_status());
+        requireNonNull(messages, "project_visibility", dto.getProject_visibility());
+        requireNonNull(messages, "owner_id", dto.getOwner_id());
+        requireNonNull(messages, "team_id", dto.getTeam_id());
+        requireNonNull(messages, "source_idea_id", dto.getSource_idea_id());
+        requireNonNull(messages, "cover_image_url", dto.getCover_image_url());
+        requireNonNull(messages, "start_date", dto.getStart_date());
+        requireNonNull(messages, "end_date", dto.getEnd_date());
+        if (dto.getStart_date() != null && dto.getEnd_date() != null && dto.getEnd_date().isBefore(dto.getStart_date())) {
+            messages.add("end_date: must not be before start_date");
+        }
+        return messages;
+    }
+
+    private static void requireNonNull(List<String> messages, String field, Object value) {
+        if (value == null) {
+            messages.add(field + ": must not be null");
+        }
+    }
+
+    private void fail(ProjectImportResultDTO result, Row row, List<String> messages) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxErrors) {
+            String title = row.project() != null ? row.project().getTitle() : null;
+            result.getErrors().add(new ProjectImportResultDTO.RowError(row.number(), title, messages));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private static Projects toEntity(ProjectDTO dto) {
+        return new Projects(dto.getTitle(), dto.getDescription(), dto.getProject_status(),
+                dto.getProject_visibility(), dto.getOwner_id(), dto.getTeam_id(), dto.getSource_idea_id(),
+                dto.getCover_image_url(), dto.getRepo_url(), dto.getStart_date(), dto.getEnd_date());
+    }
+}
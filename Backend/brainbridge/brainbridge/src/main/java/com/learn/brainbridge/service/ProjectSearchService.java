@@ -0,0 +1,166 @@
+package com.learn.brainbridge.service;
+
+import com.learn.brainbridge.Exception.BadRequestException;
+import com.learn.brainbridge.dtos.ProjectSearchResultDTO;
+import com.learn.brainbridge.entity.Projects;
+import com.learn.brainbridge.repository.ProjectsRepository;
+import com.learn.brainbridge.util.InvertedIndex;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ProjectSearchService - Full-text, typo-tolerant project search
+ *
+ * Keeps an in-process InvertedIndex over project title and description
+ * (title weighted x3). The index is built from the database once the
+ * application is ready and then kept current by ProjectsService on every
+ * create/update/delete, so searches never touch the projects table except
+ * to load the handful of rows on the requested page.
+ *
+ * A rebuild streams a snapshot that can be older than writes indexed while it
+ * runs. Ids indexed or removed during a rebuild are remembered, and the rebuild
+ * skips them, so a stale row never overwrites (or resurrects) a newer entry.
+ */
+@Service
+public class ProjectSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectSearchService.class);
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    /** Deepest hit a page may reach (page x size + size); the index ranks that many candidates per query */
+    public static final int MAX_RESULT_WINDOW = 10_000;
+
+    private final InvertedIndex index = new InvertedIndex(TITLE_WEIGHT, DESCRIPTION_WEIGHT);
+    private final ProjectsRepository repo;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTx;
+    /** ids written by index()/remove() while a rebuild runs; value is unused */
+    private final Map<Integer, Boolean> touchedDuringRebuild = new ConcurrentHashMap<>();
+    private volatile boolean rebuilding;
+
+    @Autowired
+    public ProjectSearchService(ProjectsRepository repo,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager) {
+        this.repo = repo;
+        this.entityManager = entityManager;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /**
+     * Build the index by streaming the projects table.
+     * Runs after startup so the HTTP port opens without waiting for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        long started = System.currentTimeMillis();
+        touchedDuringRebuild.clear();
+        // set before the snapshot is taken: any write it misses is then tracked
+        rebuilding = true;
+        try {
+            readOnlyTx.executeWithoutResult(status -> {
+                try (Stream<Projects> rows = repo.streamAllOrdered()) {
+                    rows.forEach(project -> {
+                        indexFromSnapshot(project);
+                        entityManager.detach(project);
+                    });
+                }
+            });
+        } finally {
+            rebuilding = false;
+            touchedDuringRebuild.clear();
+        }
+        log.info("Project search index built: {} projects in {} ms",
+                index.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * compute() locks the id's map entry, so this and a concurrent index()/remove() of the
+     * same id cannot interleave: whichever comes second sees the other.
+     */
+    private void indexFromSnapshot(Projects project) {
+        if (project.getId() == null) {
+            return;
+        }
+        touchedDuringRebuild.compute(project.getId(), (id, touched) -> {
+            if (touched == null) {
+                index.upsert(id, project.getTitle(), project.getDescription());
+            }
+            return touched;
+        });
+    }
+
+    public void index(Projects project) {
+        if (project.getId() == null) {
+            return;
+        }
+        if (!rebuilding) {
+            index.upsert(project.getId(), project.getTitle(), project.getDescription());
+            return;
+        }
+        touchedDuringRebuild.compute(project.getId(), (id, touched) -> {
+            index.upsert(id, project.getTitle(), project.getDescription());
+            return Boolean.TRUE;
+        });
+    }
+
+    public void remove(Integer projectId) {
+        if (projectId == null) {
+            return;
+        }
+        if (!rebuilding) {
+            index.remove(projectId);
+            return;
+        }
+        touchedDuringRebuild.compute(projectId, (id, touched) -> {
+            index.remove(id);
+            return Boolean.TRUE;
+        });
+    }
+
+    public ProjectSearchResultDTO search(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        int pageSize = Math.max(1, Math.min(size, ProjectsService.MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        long end = Math.addExact(Math.multiplyExact((long) pageNumber, pageSize), pageSize);
+        if (end > MAX_RESULT_WINDOW) {
+            throw new BadRequestException("Search results stop at the first " + MAX_RESULT_WINDOW
+                    + " hits; refine the query instead of paging further");
+        }
+
+        InvertedIndex.Result result = index.search(query, pageNumber * pageSize, pageSize);
+
+        List<Integer> ids = result.hits().stream().map(InvertedIndex.Hit::docId).toList();
+        Map<Integer, Projects> byId = repo.findAllById(ids).stream()
+                .collect(Collectors.toMap(Projects::getId, Function.identity()));
+
+        List<ProjectSearchResultDTO.Hit> hits = new ArrayList<>(ids.size());
+        for (InvertedIndex.Hit hit : result.hits()) {
+            Projects project = byId.get(hit.docId());
+            // a row deleted behind our back just drops out of the page
+            if (project != null) {
+                hits.add(new ProjectSearchResultDTO.Hit(project, hit.score()));
+            }
+        }
+        return new ProjectSearchResultDTO(query, pageNumber, pageSize, result.totalHits(), hits);
+    }
+}
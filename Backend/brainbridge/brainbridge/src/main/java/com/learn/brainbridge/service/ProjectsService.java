@@ -1,44 +1,187 @@
 package com.learn.brainbridge.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.brainbridge.Exception.BadRequestException;
+import com.learn.brainbridge.config.CacheConfig;
+import com.learn.brainbridge.dtos.ProjectDTO;
+import com.learn.brainbridge.dtos.ProjectDetailsDTO;
+import com.learn.brainbridge.dtos.ProjectPageDTO;
+import com.learn.brainbridge.dtos.ResourceVersionDTO;
 import com.learn.brainbridge.entity.Projects;
 import com.learn.brainbridge.enums.ProjectStatus;
 import com.learn.brainbridge.enums.ProjectVisibility;
 import com.learn.brainbridge.repository.ProjectsRepository;
+import com.learn.brainbridge.util.AfterCommit;
+import com.learn.brainbridge.util.SingleFlight;
+import com.learn.brainbridge.util.VersionedCache;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class ProjectsService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String CURSOR_VERSION = "v1";
+
     private final ProjectsRepository repo;
+    private final ProjectSearchService searchService;
+    private final Cache projectCache;
+    private final SingleFlight projectLoads;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
 
     @Autowired
-    public ProjectsService(ProjectsRepository repo) {
+    public ProjectsService(ProjectsRepository repo,
+                           ProjectSearchService searchService,
+                           CacheManager cacheManager,
+                           @Qualifier("projectLoads") SingleFlight projectLoads,
+                           EntityManager entityManager,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager) {
         this.repo = repo;
+        this.searchService = searchService;
+        this.projectCache = cacheManager.getCache(CacheConfig.PROJECTS);
+        this.projectLoads = projectLoads;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
     }
 
     public Projects createProject(Projects project) {
-        return repo.save(project);
+        Projects saved = repo.save(project);
+        searchService.index(saved);
+        return saved;
     }
 
-    public List<Projects> getAllProjects() {
-        return repo.findAll();
+    /**
+     * Keyset page of projects ordered by (updatedAt DESC, id DESC).
+     * Fetches size + 1 rows so we know whether another page exists without a COUNT.
+     */
+    public ProjectPageDTO getProjectsPage(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<Projects> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = repo.findFirstPage(limit);
+        } else {
+            Cursor position = decodeCursor(cursor);
+            rows = repo.findPageAfter(position.updatedAt(), position.id(), limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Projects> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encodeCursor(items.get(items.size() - 1)) : null;
+        return new ProjectPageDTO(List.copyOf(items), nextCursor, hasMore);
     }
 
-    public Optional<Projects> getProjectById(Integer id) {
-        return repo.findById(id);
+    /**
+     * Writes every project as a JSON array while the JDBC cursor moves forward.
+     * Each row is detached once written so the persistence context never grows,
+     * keeping heap use flat regardless of table size.
+     */
+    public void writeAllProjects(OutputStream out) {
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<Projects> rows = repo.streamAllOrdered();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                rows.forEach(project -> {
+                    try {
+                        generator.writeObject(project);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    entityManager.detach(project);
+                });
+                generator.writeEndArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
+
+    /**
+     * Read-through: served from the "projects" cache, falling back to the database on a miss.
+     * Missing ids are not cached. Concurrent misses for one id share a single query.
+     * Cached as an immutable ProjectDetailsDTO, since every hit hands out the same instance.
+     * A load never replaces a newer copy put there by an update that committed while it ran.
+     */
+    public Optional<ProjectDetailsDTO> getProjectById(Integer id) {
+        ProjectDetailsDTO cached = projectCache.get(id, ProjectDetailsDTO.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<ProjectDetailsDTO> loaded = projectLoads.execute(id,
+                () -> repo.findById(id).map(ProjectDetailsDTO::from));
+        loaded.ifPresent(this::cache);
+        return loaded;
+    }
+    /**
+     * Current version of a project for conditional GETs: from the cached copy if there is one,
+     * otherwise a single-column primary key lookup. Empty if the project does not exist.
+     */
+    public Optional<ResourceVersionDTO> getProjectVersion(Integer id) {
+        ProjectDetailsDTO cached = projectCache.get(id, ProjectDetailsDTO.class);
+        if (cached != null) {
+            return Optional.of(new ResourceVersionDTO(cached.version(), null));
+        }
+        return repo.findVersionById(id).map(version -> new ResourceVersionDTO(version, null));
+    }
+
     public Optional<Projects> getProjectByTitle(String title) {
         return repo.findProjectsByTitle(title);
     }
+    /**
+     * Saves and refreshes the cached copy once the write is committed; putting it earlier would let
+     * other requests see a version that can still roll back.
+     */
     public Projects updateProject(Projects project) {
-        return repo.save(project);
+        Projects saved = repo.save(project);
+        searchService.index(saved);
+        ProjectDetailsDTO details = ProjectDetailsDTO.from(saved);
+        AfterCommit.run(() -> cache(details));
+        return saved;
+    }
+
+    private void cache(ProjectDetailsDTO details) {
+        VersionedCache.putUnlessNewer(projectCache, details.id(), details, ProjectDetailsDTO.class,
+                ProjectDetailsDTO::version);
     }
 
+    @Transactional
     public void deleteProject(String title) {
+        repo.findProjectsByTitle(title).ifPresent(project -> {
+            Integer id = project.getId();
+            // after commit: an index rebuild or cache load reading before then would otherwise put it back
+            AfterCommit.run(() -> {
+                searchService.remove(id);
+                projectCache.evict(id);
+            });
+        });
         repo.deleteByTitle(title);
     }
 
@@ -50,12 +193,12 @@ public class ProjectsService {
 //        return repo.findByProjectVisibility(visibility);
 //    }
 //
-//    public List<Projects> getProjectsByOwner(Integer ownerId) {
-//        return repo.findByOwnerId(ownerId);
-//    }
+    public List<ProjectDTO> getProjectsByOwner(Integer ownerId) {
+        return repo.findDTOsByOwnerId(ownerId);
+    }
 
-    public List<Projects> getProjectsByTeam(Integer teamId) {
-        return repo.findByTeamId(teamId);
+    public List<ProjectDTO> getProjectsByTeam(Integer teamId) {
+        return repo.findDTOsByTeamId(teamId);
     }
 
 //    public List<Projects> searchProjectsByTitle(String keyword) {
@@ -65,4 +208,25 @@ public class ProjectsService {
 //    public List<Projects> getProjectsByDateRange(LocalDate start, LocalDate end) {
 //        return repo.findByStartDateBetweenAndEndDateBetween(start, start, end, end);
 //    }
+
+    private static String encodeCursor(Projects last) {
+        String raw = CURSOR_VERSION + ":" + last.getUpdatedAt().toEpochDay() + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record Cursor(LocalDate updatedAt, Integer id) {
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3 || !CURSOR_VERSION.equals(parts[0])) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new Cursor(LocalDate.ofEpochDay(Long.parseLong(parts[1])), Integer.valueOf(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
 }
\ No newline at end of file
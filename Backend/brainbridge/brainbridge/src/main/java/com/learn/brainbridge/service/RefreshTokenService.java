@@ -0,0 +1,451 @@
+package com.learn.brainbridge.service;
+
+import com.learn.brainbridge.Exception.BadRequestException;
+import com.learn.brainbridge.dtos.RefreshTokenRecordDTO;
+import com.learn.brainbridge.entity.RefreshToken;
+import com.learn.brainbridge.entity.User;
+import com.learn.brainbridge.repository.RefreshTokenRepository;
+import com.learn.brainbridge.util.AfterCommit;
+import com.learn.brainbridge.util.TimingWheel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * RefreshTokenService - Issues, validates, rotates and revokes refresh tokens from memory
+ *
+ * - Tokens are 256-bit random strings; only their SHA-256 is kept (in memory and in refresh_tokens),
+ *   so a database leak does not hand out sessions.
+ * - The live set sits in a striped map: N shards, each a HashMap behind its own lock,
+ *   so validate answers known tokens without touching Postgres and rarely contends.
+ * - Writes go through to refresh_tokens before they are acknowledged, so a restart loses nothing;
+ *   at startup the table is streamed back into memory.
+ * - refresh_tokens stays the authority: a token missing from memory (issued by another instance, or
+ *   not loaded yet) is looked up in the table, and rotate() only succeeds if its delete of the old row
+ *   hits, so a token revoked or rotated on another instance cannot be used here even while this
+ *   instance still holds a copy.
+ * - Expiry is driven by a TimingWheel (1 s ticks): expired tokens are dropped from memory and their
+ *   rows deleted by id in one batch, no periodic table scan.
+ * - revokeAll(user) bumps a per-user generation counter (O(1)); tokens issued under an older
+ *   generation are invalid from that moment and are cleaned up lazily. Their rows are deleted
+ *   with one statement.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    public record IssuedToken(String token, Long userId, LocalDateTime expiresAt) {
+    }
+
+    private final RefreshTokenRepository repository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readOnlyTx;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    private final Shard[] shards;
+    private final int shardMask;
+    private final TimingWheel<Entry> expiryWheel;
+    /** revokeAll() counter per user; users never revoked are absent (generation 0) */
+    private final ConcurrentHashMap<Long, Long> generations = new ConcurrentHashMap<>();
+    /** Tokens rotated or revoked while load() streams; the stream may still return their rows */
+    private final Set<String> retiredDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+
+    @Autowired
+    public RefreshTokenService(RefreshTokenRepository repository,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.refresh-token.ttl-hours:720}") long ttlHours,
+                               @Value("${app.refresh-token.shards:0}") int shardCount) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.ttl = Duration.ofHours(ttlHours);
+
+        // power of two, about 4 shards per core unless configured
+        int wanted = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors() * 4;
+        int size = Integer.highestOneBit(Math.max(1, wanted - 1)) << 1;
+        this.shards = new Shard[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard();
+        }
+        this.shardMask = size - 1;
+        this.expiryWheel = new TimingWheel<>(1000, System.currentTimeMillis());
+
+        Gauge.builder("brainbridge.refresh_tokens.active", this, RefreshTokenService::size)
+                .description("Refresh tokens held in memory (including revoked ones not yet cleaned up)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stream the unexpired rows into memory. Runs after startup so the HTTP port opens
+     * without waiting; lookups missing in memory fall back to the table meanwhile.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.currentTimeMillis();
+        int removed = repository.deleteExpired(LocalDateTime.now());
+        long[] count = {0};
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<RefreshTokenRecordDTO> rows = repository.streamValid(LocalDateTime.now())) {
+                rows.forEach(row -> {
+                    // the stream reads a snapshot taken when it started; a user revoked since then may still
+                    // show rows that are gone now, so leave their tokens to the table fallback
+                    if (generation(row.userId()) != 0) {
+                        return;
+                    }
+                    Entry entry = new Entry(row.tokenHash(), row.userId(), 0, toMillis(row.expiresAt()), row.id());
+                    if (putLoaded(entry)) {
+                        count[0]++;
+                    }
+                });
+            }
+        });
+        loaded = true;
+        retiredDuringLoad.clear();
+        log.info("Refresh tokens loaded: {} active ({} expired rows removed) in {} ms",
+                count[0], removed, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Create a token for the user and store it (database first, then memory).
+     */
+    public IssuedToken issue(Long userId, String userAgent, String ip) {
+        String token = newToken();
+        String tokenHash = hash(token);
+        long generation = generation(userId);
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+
+        RefreshToken row = tx.execute(status -> insertRow(userId, tokenHash, expiresAt, userAgent, ip));
+        Entry entry = new Entry(tokenHash, userId, generation, toMillis(expiresAt), row.getId());
+        putIfAbsent(entry);
+
+        if (generation(userId) != generation) {
+            // revokeAll() ran between our insert and now; its bulk delete may have missed our row
+            remove(entry);
+            repository.deleteByTokenHash(tokenHash);
+            throw new BadRequestException("Sessions for this account were just revoked, please sign in again");
+        }
+        return new IssuedToken(token, userId, expiresAt);
+    }
+
+    /**
+     * @return the user the token belongs to, if it is known, unexpired and not revoked
+     */
+    public Optional<Long> validate(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        String tokenHash = hash(token);
+        Entry entry = get(tokenHash);
+        if (entry != null) {
+            return isValid(entry, System.currentTimeMillis()) ? Optional.of(entry.userId) : Optional.empty();
+        }
+        // not loaded yet, or issued by another instance: the table decides. revokeAll() deletes the rows
+        // it covers, so a row that is still there is not revoked.
+        return repository.findRecordByTokenHash(tokenHash)
+                .filter(row -> toMillis(row.expiresAt()) > System.currentTimeMillis())
+                .map(RefreshTokenRecordDTO::userId);
+    }
+
+    /**
+     * Exchange a token for a new one. The old token stops working (single use);
+     * old row delete and new row insert share one transaction, and a delete that finds no row
+     * (revoked or rotated on another instance) fails the rotation.
+     */
+    public IssuedToken rotate(String token, String userAgent, String ip) {
+        Optional<Long> userId = validate(token);
+        if (userId.isEmpty()) {
+            throw new BadRequestException("Invalid or expired refresh token");
+        }
+        String oldHash = hash(token);
+        Entry old = get(oldHash);
+        // claim the old token first, so two concurrent rotations cannot both succeed
+        if (old != null && !remove(old)) {
+            throw new BadRequestException("Invalid or expired refresh token");
+        }
+        retireIfLoading(oldHash);
+
+        String newToken = newToken();
+        String newHash = hash(newToken);
+        long generation = generation(userId.get());
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        RefreshToken row = tx.execute(status -> {
+            if (repository.deleteByTokenHash(oldHash) == 0) {
+                throw new BadRequestException("Invalid or expired refresh token");
+            }
+            return insertRow(userId.get(), newHash, expiresAt, userAgent, ip);
+        });
+        putIfAbsent(new Entry(newHash, userId.get(), generation, toMillis(expiresAt), row.getId()));
+        if (generation(userId.get()) != generation) {
+            // same race as in issue(): revokeAll() may have missed the new row
+            revoke(newToken);
+            throw new BadRequestException("Sessions for this account were just revoked, please sign in again");
+        }
+        return new IssuedToken(newToken, userId.get(), expiresAt);
+    }
+
+    /**
+     * Revoke one token (logout on this device).
+     */
+    public void revoke(String token) {
+        if (token == null || token.isBlank()) {
+            return;
+        }
+        String tokenHash = hash(token);
+        Entry entry = get(tokenHash);
+        if (entry != null) {
+            remove(entry);
+        }
+        retireIfLoading(tokenHash);
+        repository.deleteByTokenHash(tokenHash);
+    }
+
+    /**
+     * Revoke every token of the user (logout everywhere, password change, account deletion).
+     * O(1) in memory; stale entries are dropped when looked up or when they expire.
+     * Inside a caller's transaction (account deletion) the rows are deleted with it and the
+     * in-memory bump waits for the commit, so a rollback revokes nothing.
+     */
+    public void revokeAll(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            int deleted = repository.deleteAllByUserId(userId);
+            // the caller deletes the user in the same transaction, so no token can be issued after it
+            AfterCommit.run(() -> generations.merge(userId, 1L, Long::sum));
+            log.debug("Revoking all refresh tokens of user {} on commit ({} rows)", userId, deleted);
+            return;
+        }
+        generations.merge(userId, 1L, Long::sum);
+        int deleted = repository.deleteAllByUserId(userId);
+        log.debug("Revoked all refresh tokens of user {} ({} rows)", userId, deleted);
+    }
+
+    /**
+     * Advance the expiry wheel: drop expired tokens from memory and delete their rows by id.
+     */
+    @Scheduled(fixedDelayString = "${app.refresh-token.expiry-tick-ms:1000}")
+    public void expire() {
+        List<Long> rowIds = new ArrayList<>();
+        expiryWheel.advance(System.currentTimeMillis(), entry -> {
+            if (removeExpired(entry) && entry.rowId != null) {
+                rowIds.add(entry.rowId);
+            }
+        });
+        for (int from = 0; from < rowIds.size(); from += DELETE_BATCH_SIZE) {
+            repository.deleteAllByIdInBatch(rowIds.subList(from, Math.min(rowIds.size(), from + DELETE_BATCH_SIZE)));
+        }
+    }
+
+    public int size() {
+        int total = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                total += shard.tokens.size();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    private boolean isValid(Entry entry, long nowMillis) {
+        if (entry.expiresAtMillis <= nowMillis) {
+            return false;
+        }
+        if (entry.generation != generation(entry.userId)) {
+            // revoked by revokeAll(): clean up now that we have it in hand
+            remove(entry);
+            return false;
+        }
+        return true;
+    }
+
+    private long generation(Long userId) {
+        return generations.getOrDefault(userId, 0L);
+    }
+
+    private RefreshToken insertRow(Long userId, String tokenHash, LocalDateTime expiresAt, String userAgent, String ip) {
+        RefreshToken row = new RefreshToken();
+        row.setUser(entityManager.getReference(User.class, userId));
+        row.setToken(tokenHash);
+        row.setExpiresAt(expiresAt);
+        row.setUserAgent(truncate(userAgent, 255));
+        row.setIp(truncate(ip, 50));
+        return repository.save(row);
+    }
+
+    private Shard shardFor(String tokenHash) {
+        int h = tokenHash.hashCode();
+        return shards[(h ^ (h >>> 16)) & shardMask];
+    }
+
+    private Entry get(String tokenHash) {
+        Shard shard = shardFor(tokenHash);
+        shard.lock.lock();
+        try {
+            return shard.tokens.get(tokenHash);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Add a row streamed by load(), unless the token was rotated or revoked after the stream started.
+     * Checked under the shard lock, which retireIfLoading() also takes.
+     */
+    private boolean putLoaded(Entry entry) {
+        Shard shard = shardFor(entry.tokenHash);
+        shard.lock.lock();
+        try {
+            return !retiredDuringLoad.contains(entry.tokenHash) && putIfAbsent(entry);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private void retireIfLoading(String tokenHash) {
+        if (loaded) {
+            return;
+        }
+        Shard shard = shardFor(tokenHash);
+        shard.lock.lock();
+        try {
+            retiredDuringLoad.add(tokenHash);
+            // load() may have put it between our memory lookup and now
+            Entry loadedEntry = shard.tokens.remove(tokenHash);
+            if (loadedEntry != null && loadedEntry.timeout != null) {
+                expiryWheel.cancel(loadedEntry.timeout);
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private boolean putIfAbsent(Entry entry) {
+        Shard shard = shardFor(entry.tokenHash);
+        shard.lock.lock();
+        try {
+            if (shard.tokens.putIfAbsent(entry.tokenHash, entry) != null) {
+                return false;
+            }
+            entry.timeout = expiryWheel.schedule(entry, entry.expiresAtMillis);
+            return true;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * @return false if the entry was no longer in the map (someone else removed it first)
+     */
+    private boolean remove(Entry entry) {
+        Shard shard = shardFor(entry.tokenHash);
+        shard.lock.lock();
+        try {
+            if (!shard.tokens.remove(entry.tokenHash, entry)) {
+                return false;
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+        if (entry.timeout != null) {
+            expiryWheel.cancel(entry.timeout);
+        }
+        return true;
+    }
+
+    private boolean removeExpired(Entry entry) {
+        Shard shard = shardFor(entry.tokenHash);
+        shard.lock.lock();
+        try {
+            return shard.tokens.remove(entry.tokenHash, entry);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private static final class Shard {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Entry> tokens = new HashMap<>();
+    }
+
+    private static final class Entry {
+        private final String tokenHash;
+        private final Long userId;
+        private final long generation;
+        private final long expiresAtMillis;
+        private final Long rowId;
+        private TimingWheel.Timeout<Entry> timeout;
+
+        private Entry(String tokenHash, Long userId, long generation, long expiresAtMillis, Long rowId) {
+            this.tokenHash = tokenHash;
+            this.userId = userId;
+            this.generation = generation;
+            this.expiresAtMillis = expiresAtMillis;
+            this.rowId = rowId;
+        }
+    }
+}
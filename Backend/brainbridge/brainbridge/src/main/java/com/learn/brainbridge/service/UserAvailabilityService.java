@@ -0,0 +1,391 @@
+package com.learn.brainbridge.service;
+
+import com.learn.brainbridge.dtos.UserIdentityDTO;
+import com.learn.brainbridge.entity.User;
+import com.learn.brainbridge.repository.UserRepository;
+import com.learn.brainbridge.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * UserAvailabilityService - Fast "is this email / username taken?" checks
+ *
+ * Keeps two in-memory Bloom filters (emails, usernames) over the users table:
+ * - Filter says "absent"  -> the value is free, no query needed (the common case
+ *   for registration forms checking as the user types)
+ * - Filter says "maybe"   -> confirmed with existsByEmail / existsByUsername
+ * Until the filters are loaded every check goes to the database.
+ *
+ * Filters are built by streaming id/email/username once the application is ready,
+ * or loaded from a snapshot written on shutdown and caught up with the users
+ * added since. New users are added on registration, and a scheduled sync streams the users
+ * created since the last pass (minus an overlap for late commits and clock skew), which
+ * picks up registrations made on other instances. If that sync has not succeeded within
+ * max-staleness-ms the filters may be missing users, and every check goes to the database.
+ * Deleted users stay in the filters (they only cost an extra query), and a scheduled check
+ * rebuilds the filters once deletions or growth push the false-positive rate up.
+ *
+ * The answer is advisory: the unique constraints still decide a registration.
+ */
+@Service
+public class UserAvailabilityService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserAvailabilityService.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x55534132; // "USA2"
+    private static final double REBUILD_DELETED_RATIO = 0.10;
+    /** Newest users a loaded snapshot must already contain */
+    private static final int SNAPSHOT_SPOT_CHECKS = 100;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final Path snapshotPath;
+    private final Duration syncOverlap;
+    private final long maxStalenessMs;
+
+    private final Counter emailFilterAnswers;
+    private final Counter emailDatabaseAnswers;
+    private final Counter usernameFilterAnswers;
+    private final Counter usernameDatabaseAnswers;
+
+    /** Live filters, null until loaded. */
+    private volatile Filters filters;
+    /** Filters being rebuilt; registrations during a rebuild go into both. */
+    private volatile Filters rebuilding;
+    private final AtomicLong deletedSinceBuild = new AtomicLong();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    @Autowired
+    public UserAvailabilityService(UserRepository userRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.availability.expected-users:1000000}") long expectedUsers,
+                                   @Value("${app.availability.false-positive-rate:0.001}") double falsePositiveRate,
+                                   @Value("${app.availability.snapshot-path:${java.io.tmpdir}/brainbridge-availability.bin}") String snapshotPath,
+                                   @Value("${app.availability.sync-overlap-ms:60000}") long syncOverlapMs,
+                                   @Value("${app.availability.max-staleness-ms:30000}") long maxStalenessMs) {
+        this.userRepository = userRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.snapshotPath = snapshotPath == null || snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        this.syncOverlap = Duration.ofMillis(syncOverlapMs);
+        this.maxStalenessMs = maxStalenessMs;
+
+        this.emailFilterAnswers = checkCounter(meterRegistry, "email", "filter");
+        this.emailDatabaseAnswers = checkCounter(meterRegistry, "email", "database");
+        this.usernameFilterAnswers = checkCounter(meterRegistry, "username", "filter");
+        this.usernameDatabaseAnswers = checkCounter(meterRegistry, "username", "database");
+    }
+
+    private static Counter checkCounter(MeterRegistry registry, String field, String answer) {
+        return Counter.builder("brainbridge.availability.checks")
+                .description("Availability checks by field and by what answered them")
+                .tag("field", field)
+                .tag("answer", answer)
+                .register(registry);
+    }
+
+    /**
+     * Load the snapshot (if any) and catch up, or build from scratch.
+     * Runs after startup so the HTTP port opens without waiting for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.currentTimeMillis();
+        Filters loaded = readSnapshot();
+        if (loaded == null) {
+            rebuild();
+            return;
+        }
+        rebuilding = loaded;
+        long caughtUp = fill(loaded, loaded.createdThrough().get());
+        if (isStale(loaded)) {
+            rebuilding = null;
+            log.info("Availability snapshot {} is out of date, rebuilding", snapshotPath);
+            rebuild();
+            return;
+        }
+        filters = loaded;
+        rebuilding = null;
+        log.info("Availability filters loaded from {} (+{} users since snapshot) in {} ms",
+                snapshotPath, caughtUp, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * A snapshot that missed users (or belongs to another database) would answer "free" for taken
+     * values. After catching up it must have seen at least as many users as the table holds
+     * (deleted users only make the table smaller), and must contain the newest ones.
+     */
+    private boolean isStale(Filters loaded) {
+        if (userRepository.count() > loaded.count().get()) {
+            return true;
+        }
+        for (UserIdentityDTO user : userRepository.findLatestIdentities(PageRequest.of(0, SNAPSHOT_SPOT_CHECKS))) {
+            if (!loaded.emails().mightContain(normalize(user.email()))
+                    || !loaded.usernames().mightContain(normalize(user.username()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Filters to answer from, or null if every check must go to the database: not loaded yet,
+     * or not synced for max-staleness-ms, so users registered on other instances may be missing.
+     */
+    private Filters usableFilters() {
+        Filters current = filters;
+        if (current == null || System.currentTimeMillis() - current.syncedAt().get() > maxStalenessMs) {
+            return null;
+        }
+        return current;
+    }
+
+    public boolean isEmailAvailable(String email) {
+        Filters current = usableFilters();
+        if (current != null && !current.emails().mightContain(normalize(email))) {
+            emailFilterAnswers.increment();
+            return true;
+        }
+        emailDatabaseAnswers.increment();
+        return !userRepository.existsByEmail(email);
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        Filters current = usableFilters();
+        if (current != null && !current.usernames().mightContain(normalize(username))) {
+            usernameFilterAnswers.increment();
+            return true;
+        }
+        usernameDatabaseAnswers.increment();
+        return !userRepository.existsByUsername(username);
+    }
+
+    /**
+     * Add a newly saved user. Called before the transaction commits, so a rollback
+     * leaves a stale entry behind - harmless, it only costs a confirming query.
+     */
+    public void recordUser(User user) {
+        UserIdentityDTO identity = new UserIdentityDTO(user.getId(), user.getEmail(), user.getUsername(),
+                user.getCreatedAt());
+        Filters current = filters;
+        if (current != null) {
+            current.add(identity);
+        }
+        Filters next = rebuilding;
+        if (next != null) {
+            next.add(identity);
+        }
+    }
+
+    public void recordDeletion() {
+        deletedSinceBuild.incrementAndGet();
+    }
+
+    /**
+     * Add the users created since the last pass, including those registered on other instances.
+     * Skipped while a rebuild runs; the rebuild reads the whole table anyway.
+     */
+    @Scheduled(fixedDelayString = "${app.availability.sync-ms:5000}")
+    public void sync() {
+        Filters current = filters;
+        if (current == null || !rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            long added = fill(current, current.createdThrough().get());
+            if (added > 0) {
+                log.debug("Availability filters synced: +{} users", added);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuild when deleted users make up too much of the filters, or when more users
+     * were added than the filters were sized for.
+     */
+    @Scheduled(fixedDelayString = "${app.availability.rebuild-check-ms:600000}")
+    public void rebuildIfDegraded() {
+        Filters current = filters;
+        if (current == null) {
+            return;
+        }
+        long count = current.count().get();
+        boolean tooManyDeleted = deletedSinceBuild.get() > count * REBUILD_DELETED_RATIO;
+        boolean overCapacity = count > current.capacity();
+        if (tooManyDeleted || overCapacity) {
+            log.info("Rebuilding availability filters ({} users, {} deleted, capacity {})",
+                    count, deletedSinceBuild.get(), current.capacity());
+            rebuild();
+        }
+    }
+
+    /**
+     * Build fresh filters from the users table and swap them in.
+     * Checks keep using the old filters (or the database) until the swap.
+     */
+    public void rebuild() {
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            long deletedBefore = deletedSinceBuild.get();
+            // leave headroom so steady growth does not trigger a rebuild straight away
+            long capacity = Math.max(expectedUsers, userRepository.count() * 2);
+            Filters next = Filters.create(capacity, falsePositiveRate);
+            rebuilding = next;
+            fill(next, null);
+            filters = next;
+            rebuilding = null;
+            deletedSinceBuild.addAndGet(-deletedBefore);
+            log.info("Availability filters built: {} users in {} ms ({} bits each)",
+                    next.count().get(), System.currentTimeMillis() - started, next.emails().bitSize());
+        } finally {
+            rebuilding = null;
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Stream the users created since createdThrough - sync-overlap (all users if null) into the
+     * filters. The overlap re-reads rows whose insert committed late; adding them again is a no-op.
+     * On success the filters count as synced as of the start of the pass.
+     *
+     * @return number of users added
+     */
+    private long fill(Filters target, LocalDateTime createdThrough) {
+        long started = System.currentTimeMillis();
+        Long added = readOnlyTx.execute(status -> {
+            long before = target.count().get();
+            try (Stream<UserIdentityDTO> rows = createdThrough == null
+                    ? userRepository.streamIdentitiesAfter(0L)
+                    : userRepository.streamIdentitiesCreatedSince(createdThrough.minus(syncOverlap))) {
+                rows.forEach(target::add);
+            }
+            return target.count().get() - before;
+        });
+        target.syncedAt().accumulateAndGet(started, Math::max);
+        return added == null ? 0 : added;
+    }
+
+    @PreDestroy
+    public void writeSnapshot() {
+        Filters current = filters;
+        if (snapshotPath == null || current == null) {
+            return;
+        }
+        Path temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                LocalDateTime createdThrough = current.createdThrough().get();
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeLong(createdThrough == null ? Long.MIN_VALUE : createdThrough.toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(createdThrough == null ? 0 : createdThrough.getNano());
+                out.writeLong(current.count().get());
+                out.writeLong(current.capacity());
+                current.emails().writeTo(out);
+                current.usernames().writeTo(out);
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Availability filters saved to {}", snapshotPath);
+        } catch (IOException e) {
+            log.warn("Could not save availability filters to {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    private Filters readSnapshot() {
+        if (snapshotPath == null || !Files.isRegularFile(snapshotPath)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("unknown file format");
+            }
+            long createdSeconds = in.readLong();
+            int createdNanos = in.readInt();
+            long count = in.readLong();
+            long capacity = in.readLong();
+            BloomFilter emails = BloomFilter.readFrom(in);
+            BloomFilter usernames = BloomFilter.readFrom(in);
+            LocalDateTime createdThrough = createdSeconds == Long.MIN_VALUE
+                    ? null : LocalDateTime.ofEpochSecond(createdSeconds, createdNanos, ZoneOffset.UTC);
+            // checked against the table by isStale() once caught up
+            return new Filters(emails, usernames, capacity, new AtomicReference<>(createdThrough),
+                    new AtomicLong(count), new AtomicLong());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring availability snapshot {}: {}", snapshotPath, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param createdThrough newest created_at added, where the next sync continues (null = none yet)
+     * @param count          users added; a user seen again by an overlapping sync is not counted twice
+     * @param syncedAt       start (epoch millis) of the last completed pass over the table
+     */
+    private record Filters(BloomFilter emails, BloomFilter usernames, long capacity,
+                           AtomicReference<LocalDateTime> createdThrough, AtomicLong count, AtomicLong syncedAt) {
+
+        static Filters create(long capacity, double falsePositiveRate) {
+            return new Filters(BloomFilter.create(capacity, falsePositiveRate),
+                    BloomFilter.create(capacity, falsePositiveRate),
+                    capacity, new AtomicReference<>(), new AtomicLong(), new AtomicLong());
+        }
+
+        void add(UserIdentityDTO user) {
+            boolean newEmail = emails.put(normalize(user.email()));
+            boolean newUsername = usernames.put(normalize(user.username()));
+            if (newEmail || newUsername) {
+                count.incrementAndGet();
+            }
+            if (user.createdAt() != null) {
+                createdThrough.accumulateAndGet(user.createdAt(),
+                        (current, created) -> current == null || created.isAfter(current) ? created : current);
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.learn.brainbridge.service;
 
 import com.learn.brainbridge.dtos.LoginDTO;
+import com.learn.brainbridge.dtos.ResourceVersionDTO;
 import com.learn.brainbridge.dtos.RegisterUserDTO;
 import com.learn.brainbridge.dtos.UserDTO;
 import com.learn.brainbridge.generics.ApiResponses1;
@@ -41,6 +42,13 @@ public interface UserService {
      * @return User DTO
      */
     UserDTO getUserById(Long id);
+
+    /**
+     * Current version of a user, for conditional GETs (cache first, then a two-column query)
+     * @param id User ID
+     * @return version and last modification time
+     */
+    ResourceVersionDTO getUserVersion(Long id);
     
     /**
      * Get all users
@@ -1,5 +1,379 @@
 package com.learn.brainbridge.serviceImpl;
 
-public class AnalyticsServiceImpl {
-  
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.brainbridge.Exception.BadRequestException;
+import com.learn.brainbridge.Exception.ServiceUnavailableException;
+import com.learn.brainbridge.dtos.analyticsDTO;
+import com.learn.brainbridge.enums.AnalyticsOverflowPolicy;
+import com.learn.brainbridge.service.AnalyticsEventListener;
+import com.learn.brainbridge.service.AnalyticsService;
+import com.learn.brainbridge.util.MpmcRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * AnalyticsServiceImpl - Analytics ingestion through a lock-free ring buffer
+ *
+ * Request threads only validate, serialize the context and offer each event to an MpmcRingBuffer;
+ * they never touch the database. Writer threads drain the buffer and coalesce events into batches
+ * of batch-size (or whatever arrived within max-delay-ms), written with one JDBC batch each; with
+ * reWriteBatchedInserts the Postgres driver turns a batch into a few multi-row INSERTs.
+ *
+ * When the buffer is full the overflow policy decides: drop the new event, drop the oldest, or
+ * make the request wait briefly (block-timeout-ms for the whole request, not per event) and then
+ * answer 503. Queue depth and ingestion lag (age of the oldest queued event) are exported as gauges.
+ *
+ * A batch the database rejects for its data (say a user_id deleted meanwhile fails its foreign key)
+ * is not retried as a whole: it is halved until the offending rows are alone, those are dropped and
+ * counted as failed, and the rest is stored. Other errors retry the batch.
+ *
+ * After a batch is stored it is handed to every AnalyticsEventListener bean (rollups, sketches).
+ */
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsServiceImpl.class);
+
+    private static final String INSERT_SQL = "INSERT INTO analytics_events "
+            + "(user_id, event_type, entity_type, entity_id, context, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final MpmcRingBuffer<Event> buffer;
+    private final AnalyticsOverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final int writerCount;
+    private final int maxContextBytes;
+    private final Duration maxLateness;
+    private final ObjectProvider<AnalyticsEventListener> listeners;
+    private List<AnalyticsEventListener> activeListeners = List.of();
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running;
+
+    private final Counter accepted;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+    private final Timer flushes;
+
+    @Autowired
+    public AnalyticsServiceImpl(DataSource dataSource,
+                                ObjectMapper objectMapper,
+                                MeterRegistry registry,
+                                ObjectProvider<AnalyticsEventListener> listeners,
+                                @Value("${app.analytics.ingest.buffer-size:65536}") int bufferSize,
+                                @Value("${app.analytics.ingest.overflow-policy:DROP_NEWEST}") AnalyticsOverflowPolicy overflowPolicy,
+                                @Value("${app.analytics.ingest.block-timeout-ms:50}") long blockTimeoutMs,
+                                @Value("${app.analytics.ingest.batch-size:1000}") int batchSize,
+                                @Value("${app.analytics.ingest.max-delay-ms:200}") long maxDelayMs,
+                                @Value("${app.analytics.ingest.writers:1}") int writerCount,
+                                @Value("${app.analytics.ingest.max-context-bytes:4096}") int maxContextBytes,
+                                @Value("${app.analytics.ingest.max-lateness-ms:86400000}") long maxLatenessMs) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+        this.listeners = listeners;
+        this.buffer = new MpmcRingBuffer<>(bufferSize);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.writerCount = Math.max(1, writerCount);
+        this.maxContextBytes = maxContextBytes;
+        this.maxLateness = Duration.ofMillis(maxLatenessMs);
+
+        this.accepted = events(registry, "accepted");
+        this.dropped = events(registry, "dropped");
+        this.written = events(registry, "written");
+        this.failed = events(registry, "failed");
+        this.flushes = Timer.builder("brainbridge.analytics.ingest.flush")
+                .description("Time to write one batch of analytics events")
+                .register(registry);
+        Gauge.builder("brainbridge.analytics.ingest.queue", this, AnalyticsServiceImpl::getQueuedEvents)
+                .description("Analytics events accepted but not written yet")
+                .register(registry);
+        Gauge.builder("brainbridge.analytics.ingest.lag", this, AnalyticsServiceImpl::getIngestLagSeconds)
+                .description("Age of the oldest analytics event not written yet")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    private static Counter events(MeterRegistry registry, String outcome) {
+        return Counter.builder("brainbridge.analytics.events")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        activeListeners = listeners.orderedStream().toList();
+        running = true;
+        for (int i = 0; i < writerCount; i++) {
+            Thread writer = new Thread(this::writeLoop, "analytics-writer-" + i);
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // writers drain what is queued before they exit
+        running = false;
+        for (Thread writer : writers) {
+            LockSupport.unpark(writer);
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        if (!buffer.isEmpty()) {
+            log.warn("{} analytics events were not written before shutdown", buffer.size());
+        }
+    }
+
+    @Override
+    public IngestResult ingest(Long userId, List<analyticsDTO> events) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Event> prepared = new ArrayList<>(events.size());
+        for (analyticsDTO dto : events) {
+            prepared.add(toEvent(userId, dto, now));
+        }
+        int queued = 0;
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        for (Event event : prepared) {
+            if (offer(event, deadline)) {
+                queued++;
+            }
+        }
+        int rejected = prepared.size() - queued;
+        accepted.increment(queued);
+        dropped.increment(rejected);
+        if (buffer.size() >= batchSize) {
+            wakeWriters();
+        }
+        if (queued == 0 && rejected > 0 && overflowPolicy == AnalyticsOverflowPolicy.BLOCK) {
+            throw new ServiceUnavailableException("Analytics ingestion is overloaded, please retry", 1);
+        }
+        return new IngestResult(queued, rejected);
+    }
+
+    /**
+     * @param deadline System.nanoTime() until which BLOCK may wait; shared by all events of one request
+     */
+    private boolean offer(Event event, long deadline) {
+        if (buffer.offer(event)) {
+            return true;
+        }
+        switch (overflowPolicy) {
+            case DROP_OLDEST -> {
+                // make room; with concurrent producers it can take a few rounds
+                for (int attempt = 0; attempt < 8; attempt++) {
+                    if (buffer.poll() != null) {
+                        dropped.increment();
+                    }
+                    if (buffer.offer(event)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            case BLOCK -> {
+                wakeWriters();
+                while (System.nanoTime() - deadline < 0) {
+                    LockSupport.parkNanos(100_000);
+                    if (buffer.offer(event)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+
+    private Event toEvent(Long userId, analyticsDTO dto, LocalDateTime now) {
+        String context = null;
+        if (dto.getContext() != null && !dto.getContext().isNull()) {
+            if (!dto.getContext().isObject()) {
+                throw new BadRequestException("context must be a JSON object");
+            }
+            try {
+                context = objectMapper.writeValueAsString(dto.getContext());
+            } catch (JsonProcessingException e) {
+                throw new BadRequestException("context is not valid JSON");
+            }
+            if (context.getBytes(StandardCharsets.UTF_8).length > maxContextBytes) {
+                throw new BadRequestException("context must be at most " + maxContextBytes + " bytes");
+            }
+        }
+        // client clocks run ahead: an event cannot have happened after it arrived
+        LocalDateTime occurredAt = dto.getOccurredAt() == null || dto.getOccurredAt().isAfter(now)
+                ? now : dto.getOccurredAt();
+        // each late event makes the rollups recount its buckets; older ones would also land in
+        // minute buckets already past their retention
+        if (occurredAt.isBefore(now.minus(maxLateness))) {
+            throw new BadRequestException("occurredAt must be within " + maxLateness.toMinutes() + " minutes of now");
+        }
+        return new Event(userId, dto.getEventType(), dto.getEntityType(), dto.getEntityId(), context,
+                occurredAt, System.nanoTime());
+    }
+
+    private void wakeWriters() {
+        for (Thread writer : writers) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void writeLoop() {
+        List<Event> batch = new ArrayList<>(batchSize);
+        while (true) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            boolean stopping = !running;
+            if (batch.isEmpty()) {
+                if (stopping) {
+                    return;
+                }
+                LockSupport.parkNanos(this, maxDelayNanos);
+                continue;
+            }
+            long waited = System.nanoTime() - batch.get(0).acceptedAtNanos();
+            if (batch.size() >= batchSize || waited >= maxDelayNanos || stopping) {
+                write(batch);
+                batch.clear();
+            } else {
+                // coalesce: give the batch until max-delay after its first event to fill up
+                LockSupport.parkNanos(this, maxDelayNanos - waited);
+            }
+        }
+    }
+
+    private void write(List<Event> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                flushes.record(() -> insert(batch));
+                written.increment(batch.size());
+                notifyListeners(batch);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // the same rows would fail again: find them instead of retrying
+                writeIsolatingRejected(batch, e);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_WRITE_ATTEMPTS) {
+                    failed.increment(batch.size());
+                    log.error("Dropping {} analytics events after {} failed writes", batch.size(), attempt, e);
+                    return;
+                }
+                log.warn("Writing {} analytics events failed (attempt {}), retrying", batch.size(), attempt, e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200L << attempt));
+            }
+        }
+    }
+
+    private void writeIsolatingRejected(List<Event> batch, DataIntegrityViolationException cause) {
+        List<Event> stored = new ArrayList<>(batch.size());
+        int half = batch.size() / 2;
+        int rejected = batch.size() == 1 ? 1
+                : insertSplitting(batch.subList(0, half), stored) + insertSplitting(batch.subList(half, batch.size()), stored);
+        written.increment(stored.size());
+        failed.increment(rejected);
+        log.warn("Dropped {} of {} analytics events the database rejected", rejected, batch.size(), cause);
+        if (!stored.isEmpty()) {
+            notifyListeners(stored);
+        }
+    }
+
+    /**
+     * Insert events, halving on failure down to single rows; k bad rows in a batch of n cost
+     * about 2k·log2(n) statements.
+     *
+     * @return number of events that could not be stored
+     */
+    private int insertSplitting(List<Event> events, List<Event> stored) {
+        try {
+            insert(events);
+            stored.addAll(events);
+            return 0;
+        } catch (RuntimeException e) {
+            if (events.size() == 1) {
+                log.debug("Analytics event rejected: {}", e.getMessage());
+                return 1;
+            }
+            int half = events.size() / 2;
+            return insertSplitting(events.subList(0, half), stored)
+                    + insertSplitting(events.subList(half, events.size()), stored);
+        }
+    }
+
+    private void insert(List<Event> events) {
+        jdbc.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Event event = events.get(i);
+                ps.setObject(1, event.userId(), Types.BIGINT);
+                ps.setString(2, event.eventType());
+                // Types.OTHER: sent untyped, so it fits a varchar or the analytics_entity enum / jsonb of main.sql
+                ps.setObject(3, event.entityType() != null ? event.entityType().name() : null, Types.OTHER);
+                ps.setObject(4, event.entityId(), Types.BIGINT);
+                ps.setObject(5, event.context(), Types.OTHER);
+                ps.setTimestamp(6, Timestamp.valueOf(event.occurredAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return events.size();
+            }
+        });
+    }
+
+    private void notifyListeners(List<Event> batch) {
+        List<Event> events = List.copyOf(batch);
+        for (AnalyticsEventListener listener : activeListeners) {
+            try {
+                listener.onEventsWritten(events);
+            } catch (RuntimeException e) {
+                log.warn("Analytics listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    @Override
+    public int getQueuedEvents() {
+        return buffer.size();
+    }
+
+    @Override
+    public double getIngestLagSeconds() {
+        Event oldest = buffer.peek();
+        return oldest == null ? 0 : (System.nanoTime() - oldest.acceptedAtNanos()) / 1e9;
+    }
 }
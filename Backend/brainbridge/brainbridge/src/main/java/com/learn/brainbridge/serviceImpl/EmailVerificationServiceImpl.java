@@ -1,14 +1,17 @@
 package com.learn.brainbridge.serviceImpl;
 
 import com.learn.brainbridge.Exception.BadRequestException;
+import com.learn.brainbridge.config.CacheConfig;
 import com.learn.brainbridge.entity.EmailVerificationToken;
+import com.learn.brainbridge.entity.MailOutbox;
 import com.learn.brainbridge.entity.User;
 import com.learn.brainbridge.repository.EmailVerificationTokenRepository;
+import com.learn.brainbridge.repository.MailOutboxRepository;
+import com.learn.brainbridge.util.AfterCommit;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -20,8 +23,15 @@ public class EmailVerificationServiceImpl implements com.learn.brainbridge.servi
     @Autowired
     private EmailVerificationTokenRepository tokenRepository;
 
+    /**
+     * Emails are queued here and sent by MailOutboxDispatcher, so callers
+     * never wait on the SMTP server
+     */
     @Autowired
-    private JavaMailSender mailSender;
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
 
     @Value("${app.frontend.base-url:http://localhost:5173}")
     private String frontendBaseUrl;
@@ -29,8 +39,8 @@ public class EmailVerificationServiceImpl implements com.learn.brainbridge.servi
     @Override
     @Transactional
     public void sendVerificationEmail(User user) {
-        // remove existing tokens for this user
-        tokenRepository.deleteByUser(user);
+        // remove existing tokens for this user (single bulk DELETE)
+        tokenRepository.deleteAllByUserId(user.getId());
 
         String token = UUID.randomUUID().toString();
         LocalDateTime expiresAt = LocalDateTime.now().plusHours(24);
@@ -44,17 +54,16 @@ public class EmailVerificationServiceImpl implements com.learn.brainbridge.servi
 
         String verificationLink = frontendBaseUrl + "/verify-email?token=" + token;
 
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(user.getEmail());
-        message.setSubject("Verify your BrainBridge account");
-        message.setText("Hi " + (user.getFirstName() != null ? user.getFirstName() : "") + ",\n\n"
+        MailOutbox mail = new MailOutbox();
+        mail.setRecipient(user.getEmail());
+        mail.setSubject("Verify your BrainBridge account");
+        mail.setBody("Hi " + (user.getFirstName() != null ? user.getFirstName() : "") + ",\n\n"
                 + "Please verify your email by clicking the link below:\n"
                 + verificationLink + "\n\n"
                 + "This link will expire in 24 hours.\n\n"
                 + "If you did not create an account, please ignore this email.\n\n"
                 + "BrainBridge Team");
-
-        mailSender.send(message);
+        mailOutboxRepository.save(mail);
     }
 
     @Override
@@ -75,7 +84,14 @@ public class EmailVerificationServiceImpl implements com.learn.brainbridge.servi
         user.setIsEmailVerified(true);
 
         verificationToken.setUsed(true);
+        // used tokens are swept by expiry (ExpiredTokenSweeper); until then "already used" still applies
+        verificationToken.setExpiresAt(LocalDateTime.now());
         tokenRepository.save(verificationToken);
+
+        // the cached user still says isEmailVerified=false; evicting before commit would let a
+        // concurrent read load the old row and cache it again
+        Long userId = user.getId();
+        AfterCommit.run(() -> cacheManager.getCache(CacheConfig.USERS).evict(userId));
     }
 }
 
@@ -2,20 +2,42 @@ package com.learn.brainbridge.serviceImpl;
 
 import com.learn.brainbridge.Exception.BadRequestException;
 import com.learn.brainbridge.Exception.ResourceNotFoundException;
+import com.learn.brainbridge.Exception.ServiceUnavailableException;
+import com.learn.brainbridge.config.CacheConfig;
 import com.learn.brainbridge.dtos.LoginDTO;
 import com.learn.brainbridge.dtos.RegisterUserDTO;
+import com.learn.brainbridge.dtos.ResourceVersionDTO;
+import com.learn.brainbridge.dtos.UserCredentialsDTO;
 import com.learn.brainbridge.dtos.UserDTO;
 import com.learn.brainbridge.entity.User;
 import com.learn.brainbridge.generics.ApiResponses1;
+import com.learn.brainbridge.repository.EmailVerificationTokenRepository;
+import com.learn.brainbridge.repository.PasswordResetTokenRepository;
 import com.learn.brainbridge.repository.UserRepository;
 import com.learn.brainbridge.service.EmailVerificationService;
+import com.learn.brainbridge.service.PasswordHashingService;
+import com.learn.brainbridge.service.JwtService;
+import com.learn.brainbridge.service.RefreshTokenService;
+import com.learn.brainbridge.service.UserAvailabilityService;
 import com.learn.brainbridge.service.UserService;
+import com.learn.brainbridge.util.AfterCommit;
+import com.learn.brainbridge.util.SingleFlight;
+import com.learn.brainbridge.util.VersionedCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * UserServiceImpl - Implementation of UserService
@@ -36,6 +58,8 @@ import java.util.stream.Collectors;
 @Service
 public class UserServiceImpl implements UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserServiceImpl.class);
+
     /**
      * @Autowired - Spring injects UserRepository automatically
      * This is called "Dependency Injection" or "Inversion of Control"
@@ -47,44 +71,90 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private EmailVerificationService emailVerificationService;
 
+    /**
+     * Bloom-filter backed email / username checks (most "free" answers need no query)
+     */
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private EmailVerificationTokenRepository emailVerificationTokenRepository;
+
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+
+    /**
+     * Programmatic transactions, for work that must not run while a connection is held
+     */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Collapses concurrent cache misses for the same user id into one query
+     */
+    @Autowired
+    @Qualifier("userLoads")
+    private SingleFlight userLoads;
+
     /**
      * Register a new user
      * Business logic:
      * 1. Check if email/username already exists
-     * 2. Create new user entity
-     * 3. Save to database
-     * 4. Convert to DTO and return
+     * 2. Hash the password (before the transaction, so no database connection is held while BCrypt runs)
+     * 3. Create new user entity
+     * 4. Save to database
+     * 5. Queue the verification email (same transaction: no user without email, no email without user)
+     * 6. Convert to DTO and return
      */
     @Override
     public ApiResponses1<UserDTO>  registerUser(RegisterUserDTO registerDTO,MultipartFile profileImage) {
-        // Business validation: Check if email already exists
-        if (userRepository.existsByEmail(registerDTO.getEmail())) {
+        // Business validation: Check if email/username already exists
+        if (!userAvailabilityService.isEmailAvailable(registerDTO.getEmail())) {
             throw new BadRequestException("Email already exists: " + registerDTO.getEmail());
-            
         }
-        
-        
-        
+        if (!userAvailabilityService.isUsernameAvailable(registerDTO.getUsername())) {
+            throw new BadRequestException("Username already exists: " + registerDTO.getUsername());
+        }
+
+        String passwordHash = passwordHashingService.hash(registerDTO.getPassword());
+
         // Convert DTO to Entity
         User user = new User();
         user.setEmail(registerDTO.getEmail());
         user.setUsername(registerDTO.getUsername());
-        user.setPasswordHash(registerDTO.getPassword()); // In production, hash this!
+        user.setPasswordHash(passwordHash);
         user.setFirstName(registerDTO.getFirstName());
         user.setLastName(registerDTO.getLastName());
         user.setIsActive(true);
         user.setIsEmailVerified(false);
-        
-        // Save to database (JPA automatically handles the insert)
-        User savedUser = userRepository.save(user);
 
-        // send email verification (best-effort; failures should be visible in logs)
-        try {
-            emailVerificationService.sendVerificationEmail(savedUser);
-        } catch (Exception e) {
-            // log and continue; user can still log in but will not be verified
-            e.printStackTrace();
-        }
+        User savedUser = transactionTemplate.execute(status -> {
+            // Save to database (JPA automatically handles the insert)
+            // the unique constraints still decide races between two registrations of the same email/username
+            User saved;
+            try {
+                saved = userRepository.save(user);
+            } catch (DataIntegrityViolationException e) {
+                throw new BadRequestException("Email or username already exists");
+            }
+            userAvailabilityService.recordUser(saved);
+
+            // queue the verification email in the outbox; it is sent after commit by MailOutboxDispatcher
+            emailVerificationService.sendVerificationEmail(saved);
+            return saved;
+        });
 
         UserDTO userDTO  = convertToDTO(savedUser);
         
@@ -95,53 +165,129 @@ public class UserServiceImpl implements UserService {
     /**
      * Login a user
      * Business logic:
-     * 1. Find user by email or username
-     * 2. Verify password (in production, use password hashing!)
-     * 3. Return user DTO
+     * 1. Load the credentials (id, hash, flags) by email or username in one query
+     * 2. Verify password against the BCrypt hash (on the hashing pool, see PasswordHashingService)
+     * 3. Upgrade the stored hash if it uses an old cost or is a legacy plain-text password
+     * 4. Return user DTO (from the users cache when possible)
      */
     @Override
     public UserDTO loginUser(LoginDTO loginDTO) {
-        // Try to find by email first
-        User user = userRepository.findByEmail(loginDTO.getEmailOrUsername())
-                .orElse(null);
-        
-        // If not found by email, try username
-        if (user == null) {
-            user = userRepository.findByUsername(loginDTO.getEmailOrUsername())
-                    .orElseThrow(() -> new BadRequestException("Invalid email/username or password"));
+        // email match first if one user's email is another user's username
+        List<UserCredentialsDTO> matches = userRepository.findCredentials(loginDTO.getEmailOrUsername());
+        if (matches.isEmpty()) {
+            // same cost as a wrong password, so response time does not reveal which accounts exist
+            passwordHashingService.verifyAgainstDummy(loginDTO.getPassword());
+            throw new BadRequestException("Invalid email/username or password");
         }
-        
-        // Verify password (in production, use BCrypt or similar!)
-        if (!user.getPasswordHash().equals(loginDTO.getPassword())) {
+        UserCredentialsDTO credentials = matches.get(0);
+
+        PasswordHashingService.Verification verification =
+                passwordHashingService.verify(loginDTO.getPassword(), credentials.passwordHash());
+        if (verification == PasswordHashingService.Verification.MISMATCH) {
             throw new BadRequestException("Invalid email/username or password");
         }
         
         // Check if user is active
-        if (!user.getIsActive()) {
+        if (!Boolean.TRUE.equals(credentials.isActive())) {
             throw new BadRequestException("User account is deactivated");
         }
+
+        if (verification == PasswordHashingService.Verification.MATCH_NEEDS_REHASH) {
+            rehash(credentials.id(), loginDTO.getPassword());
+        }
         
-        return convertToDTO(user);
+        return cachedUser(credentials.id());
+    }
+
+    /**
+     * Store a fresh hash at the current cost. Best effort: a busy hashing pool
+     * must not fail a login that already succeeded, the next login tries again.
+     */
+    private void rehash(Long userId, String rawPassword) {
+        try {
+            userRepository.updatePasswordHash(userId, passwordHashingService.hash(rawPassword));
+        } catch (ServiceUnavailableException e) {
+            log.debug("Skipped password rehash for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * What the "users" cache holds: an immutable copy of the user. Every hit hands out the same
+     * instance, so callers get a fresh UserDTO from it and can never change what others are served.
+     */
+    private record CachedUser(Long id, String email, String username, String firstName, String lastName,
+                              String profileImageUrl, Boolean isActive, Boolean isEmailVerified, boolean isAdmin,
+                              LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+
+        static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getEmail(), user.getUsername(), user.getFirstName(),
+                    user.getLastName(), user.getProfileImageUrl(), user.getIsActive(), user.getIsEmailVerified(),
+                    Boolean.TRUE.equals(user.getIsAdmin()), user.getCreatedAt(), user.getUpdatedAt(), user.getVersion());
+        }
+
+        UserDTO toDTO() {
+            UserDTO dto = new UserDTO();
+            dto.setId(id);
+            dto.setEmail(email);
+            dto.setUsername(username);
+            dto.setFirstName(firstName);
+            dto.setLastName(lastName);
+            dto.setProfileImageUrl(profileImageUrl);
+            dto.setIsActive(isActive);
+            dto.setIsEmailVerified(isEmailVerified);
+            dto.setAdmin(isAdmin);
+            dto.setCreatedAt(createdAt);
+            dto.setUpdatedAt(updatedAt);
+            dto.setVersion(version);
+            return dto;
+        }
+    }
+
+    /**
+     * Read-through: the first call loads from the database (concurrent misses share one query),
+     * later calls for the same id are answered from the "users" cache
+     */
+    private UserDTO cachedUser(Long id) {
+        Cache users = cacheManager.getCache(CacheConfig.USERS);
+        CachedUser cached = users.get(id, CachedUser.class);
+        if (cached != null) {
+            return cached.toDTO();
+        }
+        CachedUser loaded = userLoads.execute(id, () -> CachedUser.of(userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User", id))));
+        cache(users, loaded);
+        return loaded.toDTO();
+    }
+
+    /**
+     * Puts a copy unless the cache already holds a newer version, so a load that read the row before
+     * an update committed cannot bring back the old copy after the update refreshed the entry
+     */
+    private static void cache(Cache users, CachedUser user) {
+        VersionedCache.putUnlessNewer(users, user.id(), user, CachedUser.class,
+                cached -> cached.version() == null ? -1 : cached.version());
     }
 
     @Override
     public UserDTO getUserById(Long id) {
-        // findById returns Optional<User>
-        // orElseThrow throws exception if not found
-        User user = userRepository.findById(id)
+        return cachedUser(id);
+    }
+
+    @Override
+    public ResourceVersionDTO getUserVersion(Long id) {
+        // a cached user is current: every write path puts or evicts it, and loads never put back an older copy
+        CachedUser cached = cacheManager.getCache(CacheConfig.USERS).get(id, CachedUser.class);
+        if (cached != null && cached.version() != null) {
+            return new ResourceVersionDTO(cached.version(), cached.updatedAt());
+        }
+        return userRepository.findVersionById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", id));
-        
-        return convertToDTO(user);
     }
 
     @Override
     public List<UserDTO> getAllUsers() {
-        // findAll() returns List<User>
-        // We convert each User to UserDTO using stream
-        return userRepository.findAll()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // projection query: the database returns exactly the UserDTO fields, no User entities are built
+        return userRepository.findAllUserDTOs();
     }
 
     @Override
@@ -163,26 +309,48 @@ public class UserServiceImpl implements UserService {
         
         // Save updated user
         User updatedUser = userRepository.save(user);
-        
-        return convertToDTO(updatedUser);
+
+        // refresh the cache only once the write is committed, so nobody is served a rolled-back version
+        CachedUser snapshot = CachedUser.of(updatedUser);
+        AfterCommit.run(() -> cache(cacheManager.getCache(CacheConfig.USERS), snapshot));
+        return snapshot.toDTO();
     }
 
+    /**
+     * The rows (tokens, then the user) go in one transaction; signing the user out in memory,
+     * the availability count and the cache eviction wait for its commit, so a rollback leaves
+     * the account fully usable.
+     */
     @Override
+    @Transactional
     public void deleteUser(Long id) {
         // Check if user exists
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("User", id);
         }
-        
+        Instant deletedAt = Instant.now();
+
+        // Sign the user out everywhere (clears the refresh_tokens rows referencing the user in this transaction)
+        refreshTokenService.revokeAll(id);
+        // token rows reference the user; one bulk DELETE each
+        emailVerificationTokenRepository.deleteAllByUserId(id);
+        passwordResetTokenRepository.deleteAllByUserId(id);
+
         // Delete user
         userRepository.deleteById(id);
+        AfterCommit.run(() -> {
+            jwtService.revokeAllIssuedBefore(id, deletedAt);
+            userAvailabilityService.recordDeletion();
+            cacheManager.getCache(CacheConfig.USERS).evict(id);
+        });
     }
 
     /**
      * Helper method to convert Entity to DTO
      * This separates internal entity structure from API response
+     * (package-private so the mapping benchmark can call it directly)
      */
-    private UserDTO convertToDTO(User user) {
+    UserDTO convertToDTO(User user) {
         UserDTO dto = new UserDTO();
         dto.setId(user.getId());
         dto.setEmail(user.getEmail());
@@ -192,8 +360,10 @@ public class UserServiceImpl implements UserService {
         dto.setProfileImageUrl(user.getProfileImageUrl());
         dto.setIsActive(user.getIsActive());
         dto.setIsEmailVerified(user.getIsEmailVerified());
+        dto.setAdmin(Boolean.TRUE.equals(user.getIsAdmin()));
         dto.setCreatedAt(user.getCreatedAt());
         dto.setUpdatedAt(user.getUpdatedAt());
+        dto.setVersion(user.getVersion());
         return dto;
     }
 }
@@ -0,0 +1,28 @@
+package com.learn.brainbridge.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * AfterCommit - Defers in-memory side effects (cache evictions, index updates, pushes) until the
+ * surrounding transaction has committed, so nothing acts on a change that may still roll back
+ * or that concurrent readers cannot see yet. Runs immediately outside a transaction.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
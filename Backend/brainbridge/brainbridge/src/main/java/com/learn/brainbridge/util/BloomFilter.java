@@ -0,0 +1,170 @@
+package com.learn.brainbridge.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BloomFilter - Compact set of strings that answers "definitely absent" or "maybe present"
+ *
+ * - No false negatives: after put(x), mightContain(x) is always true
+ * - False positives at roughly the configured rate, so "maybe present" must be confirmed elsewhere
+ * - No deletes: removed values keep answering "maybe", which is safe but slowly raises the
+ *   false-positive rate; rebuild the filter when that matters
+ *
+ * Bits live in an AtomicLongArray and are set with CAS, so put() and mightContain()
+ * are lock-free and safe from any number of threads.
+ * Positions use double hashing (h1 + i * h2) over one 64-bit hash of the value.
+ */
+public final class BloomFilter {
+
+    private static final int MAGIC = 0x424C4F4D; // "BLOM"
+
+    private final AtomicLongArray words;
+    private final long numBits;
+    private final int numHashes;
+    private final LongAdder bitsSet = new LongAdder();
+
+    private BloomFilter(long numBits, int numHashes) {
+        long wordCount = (numBits + 63) / 64;
+        if (wordCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom filter too large: " + numBits + " bits");
+        }
+        this.words = new AtomicLongArray((int) wordCount);
+        this.numBits = wordCount * 64;
+        this.numHashes = numHashes;
+    }
+
+    /**
+     * Size a filter for the expected number of values and target false-positive probability.
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be > 0 and falsePositiveRate in (0, 1)");
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * ln2));
+        return new BloomFilter(Math.max(64, bits), hashes);
+    }
+
+    /**
+     * Add a value.
+     *
+     * @return true if any bit changed, i.e. the value was definitely not present before
+     */
+    public boolean put(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = mix(hash + 0x9E3779B97F4A7C15L) | 1;
+        boolean changed = false;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % numBits;
+            changed |= setBit(bit);
+        }
+        return changed;
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = mix(hash + 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % numBits;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of distinct values added, estimated from the share of bits set.
+     */
+    public long approximateCount() {
+        double setRatio = (double) bitsSet.sum() / numBits;
+        if (setRatio >= 1) {
+            return Long.MAX_VALUE;
+        }
+        return Math.round(-(double) numBits / numHashes * Math.log(1 - setRatio));
+    }
+
+    /**
+     * Current probability that mightContain() is true for a value never added.
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) bitsSet.sum() / numBits, numHashes);
+    }
+
+    public long bitSize() {
+        return numBits;
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeLong(numBits);
+        out.writeInt(numHashes);
+        for (int i = 0; i < words.length(); i++) {
+            out.writeLong(words.get(i));
+        }
+    }
+
+    public static BloomFilter readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a Bloom filter snapshot");
+        }
+        long numBits = in.readLong();
+        int numHashes = in.readInt();
+        BloomFilter filter = new BloomFilter(numBits, numHashes);
+        if (filter.numBits != numBits) {
+            throw new IOException("Corrupt Bloom filter snapshot");
+        }
+        long set = 0;
+        for (int i = 0; i < filter.words.length(); i++) {
+            long word = in.readLong();
+            filter.words.set(i, word);
+            set += Long.bitCount(word);
+        }
+        filter.bitsSet.add(set);
+        return filter;
+    }
+
+    private boolean setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        while (true) {
+            long word = words.get(index);
+            if ((word & mask) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(index, word, word | mask)) {
+                bitsSet.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * FNV-1a over the UTF-16 chars, finished with the MurmurHash3 64-bit mixer
+     * so every input bit affects every output bit.
+     */
+    static long hash(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,138 @@
+package com.learn.brainbridge.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * CountMinSketch - Approximate frequency of every value in a fixed depth x width table of counters
+ *
+ * Each value is counted in one counter per row (position from double hashing, as in BloomFilter);
+ * its estimate is the smallest of those counters. Collisions only ever add, so:
+ * - estimates never undercount
+ * - they overcount by at most e / width * total with probability 1 - e^-depth
+ *
+ * merge() adds the tables counter by counter, which gives exactly the sketch of both streams.
+ * Snapshots write the counters as variable-length integers, so mostly empty tables stay small.
+ * Reading one takes the largest dimensions the caller expects, so a corrupt or hostile blob cannot
+ * make it allocate more than that.
+ * Not thread-safe; callers synchronize.
+ */
+public final class CountMinSketch {
+
+    private static final byte FORMAT = 1;
+
+    private final int depth;
+    private final int width;
+    private final long[] counts;
+    private long total;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > 16 || width < 1 || (long) depth * width > (1 << 24)) {
+            throw new IllegalArgumentException("depth must be 1..16 and depth * width at most 2^24");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counts = new long[depth * width];
+    }
+
+    public void add(long value, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        long h1 = BloomFilter.mix(value);
+        long h2 = BloomFilter.mix(h1 + 0x9E3779B97F4A7C15L) | 1;
+        for (int row = 0; row < depth; row++) {
+            counts[row * width + column(h1, h2, row)] += count;
+        }
+        total += count;
+    }
+
+    /**
+     * @return upper bound of how often value was added
+     */
+    public long estimate(long value) {
+        long h1 = BloomFilter.mix(value);
+        long h2 = BloomFilter.mix(h1 + 0x9E3779B97F4A7C15L) | 1;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counts[row * width + column(h1, h2, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * Scales the high 32 bits into [0, width): with a power-of-two width a plain modulo would only
+     * look at the low bits of h1 and h2, and values agreeing there would collide in every row.
+     */
+    private int column(long h1, long h2, int row) {
+        return (int) ((((h1 + row * h2) >>> 32) * width) >>> 32);
+    }
+
+    public void merge(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("Cannot merge CountMinSketch " + other.depth + "x" + other.width
+                    + " into " + depth + "x" + width);
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+    }
+
+    /** Sum of all counts added */
+    public long getTotal() {
+        return total;
+    }
+
+    /** Largest overcount of estimate() to expect (with probability 1 - e^-depth) */
+    public long errorBound() {
+        return (long) Math.ceil(Math.E / width * total);
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + counts.length);
+        out.write(FORMAT);
+        SketchEncoding.writeVarLong(out, depth);
+        SketchEncoding.writeVarLong(out, width);
+        SketchEncoding.writeVarLong(out, total);
+        for (long count : counts) {
+            SketchEncoding.writeVarLong(out, count);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the snapshot is unreadable or larger than maxDepth x maxWidth
+     */
+    public static CountMinSketch fromBytes(byte[] bytes, int maxDepth, int maxWidth) {
+        return readFrom(ByteBuffer.wrap(bytes), maxDepth, maxWidth);
+    }
+
+    static CountMinSketch readFrom(ByteBuffer in, int maxDepth, int maxWidth) {
+        try {
+            if (in.get() != FORMAT) {
+                throw new IllegalArgumentException("Not a CountMinSketch snapshot");
+            }
+            int depth = SketchEncoding.readVarInt(in);
+            int width = SketchEncoding.readVarInt(in);
+            // every counter takes at least one byte, so a short blob cannot claim a big table either
+            if (depth > maxDepth || width > maxWidth || (long) depth * width > in.remaining()) {
+                throw new IllegalArgumentException("CountMinSketch snapshot of " + depth + "x" + width
+                        + " exceeds " + maxDepth + "x" + maxWidth + " or its own length");
+            }
+            CountMinSketch sketch = new CountMinSketch(depth, width);
+            sketch.total = SketchEncoding.readVarLong(in);
+            for (int i = 0; i < sketch.counts.length; i++) {
+                sketch.counts[i] = SketchEncoding.readVarLong(in);
+            }
+            return sketch;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated CountMinSketch snapshot", e);
+        }
+    }
+
+    void writeTo(ByteArrayOutputStream out) {
+        out.writeBytes(toBytes());
+    }
+}
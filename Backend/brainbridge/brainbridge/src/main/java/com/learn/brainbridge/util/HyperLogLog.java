@@ -0,0 +1,265 @@
+package com.learn.brainbridge.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog - Approximate count of distinct values in a few kilobytes
+ *
+ * The top p bits of a value's 64-bit hash pick one of m = 2^p registers; the register keeps the
+ * longest run of leading zeros (+1) seen in the remaining bits. The harmonic mean of the
+ * registers estimates the number of distinct values with a standard error of 1.04 / sqrt(m)
+ * (1.6% at p = 12), however many values were added. Small counts use linear counting over the
+ * empty registers instead.
+ *
+ * - Adding the same value twice changes nothing, and order does not matter
+ * - merge() takes the register-wise maximum: the result is exactly the sketch of the union,
+ *   so hourly sketches combine into the distinct count of any range
+ *
+ * While few registers are set they are kept as a sorted list of (index, value) entries and only
+ * switched to a byte per register when that gets bigger. Snapshots (toBytes) keep the sparse
+ * form, or pack dense registers into 6 bits each.
+ * Not thread-safe; callers synchronize.
+ */
+public final class HyperLogLog {
+
+    private static final byte FORMAT_SPARSE = 1;
+    private static final byte FORMAT_DENSE = 2;
+    private static final int REGISTER_BITS = 6;
+
+    private final int precision;
+    private final int registerCount;
+    /** (index << 8) | value, sorted by index; null once dense */
+    private int[] sparse;
+    private int sparseSize;
+    /** one register per byte; null while sparse */
+    private byte[] dense;
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("precision must be between 4 and 18");
+        }
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        this.sparse = new int[8];
+    }
+
+    public void add(long value) {
+        addHash(BloomFilter.mix(value));
+    }
+
+    public void add(String value) {
+        addHash(BloomFilter.hash(value));
+    }
+
+    private void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // the guard bit caps the run at 64 - precision zeros, so the value always fits in 6 bits
+        long rest = (hash << precision) | (1L << (precision - 1));
+        set(index, Long.numberOfLeadingZeros(rest) + 1);
+    }
+
+    private void set(int index, int value) {
+        if (dense != null) {
+            if (dense[index] < value) {
+                dense[index] = (byte) value;
+            }
+            return;
+        }
+        int position = findSparse(index);
+        if (position >= 0) {
+            if ((sparse[position] & 0xFF) < value) {
+                sparse[position] = (index << 8) | value;
+            }
+            return;
+        }
+        if (sparseSize >= sparseLimit()) {
+            toDense();
+            dense[index] = (byte) value;
+            return;
+        }
+        int insertAt = -position - 1;
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, Math.min(sparse.length * 2, sparseLimit()));
+        }
+        System.arraycopy(sparse, insertAt, sparse, insertAt + 1, sparseSize - insertAt);
+        sparse[insertAt] = (index << 8) | value;
+        sparseSize++;
+    }
+
+    /** Binary search by index; -(insertion point) - 1 if absent */
+    private int findSparse(int index) {
+        int low = 0;
+        int high = sparseSize - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midIndex = sparse[mid] >>> 8;
+            if (midIndex < index) {
+                low = mid + 1;
+            } else if (midIndex > index) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -low - 1;
+    }
+
+    /** Past this many entries (4 bytes each) the dense form (1 byte per register) is smaller */
+    private int sparseLimit() {
+        return registerCount / 4;
+    }
+
+    private void toDense() {
+        byte[] registers = new byte[registerCount];
+        for (int i = 0; i < sparseSize; i++) {
+            registers[sparse[i] >>> 8] = (byte) (sparse[i] & 0xFF);
+        }
+        dense = registers;
+        sparse = null;
+        sparseSize = 0;
+    }
+
+    /**
+     * Fold other into this sketch; afterwards this estimates the distinct values of both.
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLog of precision "
+                    + other.precision + " into " + precision);
+        }
+        if (other.dense != null) {
+            if (dense == null) {
+                toDense();
+            }
+            for (int i = 0; i < registerCount; i++) {
+                if (dense[i] < other.dense[i]) {
+                    dense[i] = other.dense[i];
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < other.sparseSize; i++) {
+            set(other.sparse[i] >>> 8, other.sparse[i] & 0xFF);
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        if (dense != null) {
+            for (byte register : dense) {
+                sum += Math.scalb(1.0, -register);
+                if (register == 0) {
+                    zeros++;
+                }
+            }
+        } else {
+            zeros = registerCount - sparseSize;
+            sum = zeros;
+            for (int i = 0; i < sparseSize; i++) {
+                sum += Math.scalb(1.0, -(sparse[i] & 0xFF));
+            }
+        }
+        double m = registerCount;
+        double raw = alpha() * m * m / sum;
+        if (raw <= 2.5 * m && zeros > 0) {
+            return Math.round(m * Math.log(m / zeros)); // linear counting
+        }
+        return Math.round(raw);
+    }
+
+    private double alpha() {
+        return switch (registerCount) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / registerCount);
+        };
+    }
+
+    /** Relative standard error of estimate() */
+    public double standardError() {
+        return 1.04 / Math.sqrt(registerCount);
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(dense != null
+                ? 2 + registerCount * REGISTER_BITS / 8 : 4 + sparseSize * 3);
+        if (dense == null) {
+            out.write(FORMAT_SPARSE);
+            out.write(precision);
+            SketchEncoding.writeVarLong(out, sparseSize);
+            int previous = 0;
+            for (int i = 0; i < sparseSize; i++) {
+                int index = sparse[i] >>> 8;
+                SketchEncoding.writeVarLong(out, index - previous);
+                out.write(sparse[i] & 0xFF);
+                previous = index;
+            }
+            return out.toByteArray();
+        }
+        out.write(FORMAT_DENSE);
+        out.write(precision);
+        int buffer = 0;
+        int buffered = 0;
+        for (byte register : dense) {
+            buffer = (buffer << REGISTER_BITS) | register;
+            buffered += REGISTER_BITS;
+            while (buffered >= 8) {
+                buffered -= 8;
+                out.write(buffer >>> buffered);
+                buffer &= (1 << buffered) - 1;
+            }
+        }
+        if (buffered > 0) {
+            out.write(buffer << (8 - buffered));
+        }
+        return out.toByteArray();
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            byte format = in.get();
+            HyperLogLog sketch = new HyperLogLog(in.get());
+            if (format == FORMAT_SPARSE) {
+                int size = SketchEncoding.readVarInt(in);
+                int index = 0;
+                for (int i = 0; i < size; i++) {
+                    index += SketchEncoding.readVarInt(in);
+                    int value = in.get() & 0xFF;
+                    if (index >= sketch.registerCount || value > 65 - sketch.precision) {
+                        throw new IllegalArgumentException("Corrupt HyperLogLog snapshot");
+                    }
+                    sketch.set(index, value);
+                }
+                return sketch;
+            }
+            if (format != FORMAT_DENSE) {
+                throw new IllegalArgumentException("Not a HyperLogLog snapshot");
+            }
+            sketch.toDense();
+            int buffer = 0;
+            int buffered = 0;
+            for (int i = 0; i < sketch.registerCount; i++) {
+                while (buffered < REGISTER_BITS) {
+                    buffer = (buffer << 8) | (in.get() & 0xFF);
+                    buffered += 8;
+                }
+                buffered -= REGISTER_BITS;
+                sketch.dense[i] = (byte) ((buffer >>> buffered) & 0x3F);
+                buffer &= (1 << buffered) - 1;
+            }
+            return sketch;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated HyperLogLog snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.learn.brainbridge.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * InvertedIndex - In-memory full-text index with BM25 ranking and trigram typo tolerance
+ *
+ * - Each document has a few weighted text fields (e.g. title x3, description x1).
+ *   A term's frequency is the weighted sum over fields, so title hits rank higher.
+ * - Query terms missing from the dictionary are expanded to the closest known terms
+ *   by trigram Jaccard similarity ("projcet" still finds "project").
+ * - Updates are incremental: upsert() replaces a document, remove() drops it.
+ *
+ * Thread-safe: searches share a read lock, updates take the write lock.
+ */
+public class InvertedIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float MIN_SIMILARITY = 0.25f;
+    private static final int MAX_EXPANSIONS = 3;
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "that", "the", "this", "to", "was", "with");
+
+    private final float[] fieldWeights;
+
+    private final Map<String, IntFloatMap> postings = new HashMap<>();
+    private final Map<String, Set<String>> gramToTerms = new HashMap<>();
+    private final Map<Integer, Doc> docs = new HashMap<>();
+    private final IntFloatMap docLengths = new IntFloatMap();
+    private double totalLength;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public InvertedIndex(float... fieldWeights) {
+        this.fieldWeights = fieldWeights.clone();
+    }
+
+    public record Hit(int docId, double score) {
+    }
+
+    public record Result(int totalHits, List<Hit> hits) {
+    }
+
+    /**
+     * Index (or re-index) a document. fieldTexts line up with the weights given to
+     * the constructor; null fields are skipped.
+     */
+    public void upsert(int docId, String... fieldTexts) {
+        Map<String, Float> termFreqs = new HashMap<>();
+        float length = 0;
+        for (int f = 0; f < fieldTexts.length && f < fieldWeights.length; f++) {
+            for (String token : tokenize(fieldTexts[f])) {
+                termFreqs.merge(token, fieldWeights[f], Float::sum);
+                length += fieldWeights[f];
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+            String[] terms = termFreqs.keySet().toArray(new String[0]);
+            for (String term : terms) {
+                IntFloatMap posting = postings.get(term);
+                if (posting == null) {
+                    posting = new IntFloatMap();
+                    postings.put(term, posting);
+                    for (String gram : trigrams(term)) {
+                        gramToTerms.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+                    }
+                }
+                posting.put(docId, termFreqs.get(term));
+            }
+            docs.put(docId, new Doc(terms, length));
+            docLengths.put(docId, length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int docId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rank documents for a free-text query and return the [offset, offset + limit) slice.
+     * Only offset + limit candidates are kept in a heap, so deep result sets are never sorted.
+     * Callers bound offset + limit; the heap grows with the matches, never with the requested depth.
+     */
+    public Result search(String query, int offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative: " + offset);
+        }
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return new Result(0, Collections.emptyList());
+        }
+
+        lock.readLock().lock();
+        try {
+            int docCount = docs.size();
+            if (docCount == 0) {
+                return new Result(0, Collections.emptyList());
+            }
+            double avgLength = totalLength / docCount;
+            IntFloatMap scores = new IntFloatMap();
+
+            for (String token : new HashSet<>(tokens)) {
+                Map<String, Float> expansions = expand(token);
+                // a single expansion (the common exact-match case) scores straight into the totals
+                boolean direct = expansions.size() == 1;
+                IntFloatMap tokenScores = direct ? scores : new IntFloatMap();
+                for (Map.Entry<String, Float> expansion : expansions.entrySet()) {
+                    IntFloatMap posting = postings.get(expansion.getKey());
+                    double idf = Math.log(1 + (docCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                    float weight = (float) (expansion.getValue() * idf * (K1 + 1));
+                    posting.forEach((docId, tf) -> {
+                        double norm = K1 * (1 - B + B * docLengths.get(docId) / avgLength);
+                        float score = (float) (weight * tf / (tf + norm));
+                        if (direct) {
+                            scores.add(docId, score);
+                        } else {
+                            // several expansions of one token must not add up: keep the best match
+                            tokenScores.max(docId, score);
+                        }
+                    });
+                }
+                if (!direct) {
+                    tokenScores.forEach(scores::add);
+                }
+            }
+
+            if (offset >= scores.size()) {
+                return new Result(scores.size(), Collections.emptyList());
+            }
+            int keep = (int) Math.min(scores.size(), (long) offset + limit);
+            PriorityQueue<Hit> top = new PriorityQueue<>((a, b) -> Double.compare(a.score(), b.score()));
+            scores.forEach((docId, score) -> {
+                if (top.size() < keep) {
+                    top.add(new Hit(docId, score));
+                } else if (top.peek().score() < score) {
+                    top.poll();
+                    top.add(new Hit(docId, score));
+                }
+            });
+
+            List<Hit> ranked = new ArrayList<>(top);
+            ranked.sort((a, b) -> Double.compare(b.score(), a.score()));
+            List<Hit> page = ranked.subList(offset, keep);
+            return new Result(scores.size(), List.copyOf(page));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Known terms to score for one query token, with a similarity weight in (0, 1].
+     * Exact matches win outright; otherwise the closest terms by trigram overlap.
+     */
+    private Map<String, Float> expand(String token) {
+        if (postings.containsKey(token)) {
+            return Map.of(token, 1.0f);
+        }
+        Set<String> grams = trigrams(token);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            Set<String> terms = gramToTerms.get(gram);
+            if (terms != null) {
+                for (String term : terms) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+
+        PriorityQueue<Map.Entry<String, Float>> best = new PriorityQueue<>(
+                (a, b) -> Float.compare(a.getValue(), b.getValue()));
+        shared.forEach((term, common) -> {
+            int termGrams = Math.max(1, term.length());
+            float similarity = (float) common / (grams.size() + termGrams - common);
+            if (similarity >= MIN_SIMILARITY) {
+                best.add(Map.entry(term, similarity));
+                if (best.size() > MAX_EXPANSIONS) {
+                    best.poll();
+                }
+            }
+        });
+
+        Map<String, Float> expansions = new HashMap<>();
+        for (Map.Entry<String, Float> entry : best) {
+            expansions.put(entry.getKey(), entry.getValue());
+        }
+        return expansions;
+    }
+
+    private void removeLocked(int docId) {
+        Doc doc = docs.remove(docId);
+        if (doc == null) {
+            return;
+        }
+        totalLength -= doc.length();
+        docLengths.remove(docId);
+        for (String term : doc.terms()) {
+            IntFloatMap posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+            posting.remove(docId);
+            if (posting.size() == 0) {
+                postings.remove(term);
+                for (String gram : trigrams(term)) {
+                    Set<String> terms = gramToTerms.get(gram);
+                    if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                        gramToTerms.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+            if (token.length() >= MIN_TOKEN_LENGTH && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Trigrams of the term padded with '$' so short terms and word edges still count.
+     * A term of length n yields n grams (duplicates aside).
+     */
+    static Set<String> trigrams(String term) {
+        String padded = "$" + term + "$";
+        Set<String> grams = new HashSet<>();
+        if (padded.length() < 3) {
+            grams.add(padded);
+            return grams;
+        }
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private record Doc(String[] terms, float length) {
+    }
+
+    /**
+     * Open-addressing int -> float map for posting lists. Much smaller than
+     * HashMap<Integer, Float> once an index holds millions of postings.
+     */
+    static final class IntFloatMap {
+        private static final int EMPTY = Integer.MIN_VALUE;
+        private static final int TOMBSTONE = Integer.MIN_VALUE + 1;
+
+        private int[] keys = newKeys(4);
+        private float[] values = new float[4];
+        private int size;
+        private int used;
+
+        interface Visitor {
+            void accept(int key, float value);
+        }
+
+        int size() {
+            return size;
+        }
+
+        void put(int key, float value) {
+            int slot = slotFor(key);
+            values[slot] = value;
+        }
+
+        float get(int key) {
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return 0f;
+        }
+
+        void add(int key, float delta) {
+            int slot = slotFor(key);
+            values[slot] += delta;
+        }
+
+        void max(int key, float value) {
+            int slot = slotFor(key);
+            values[slot] = Math.max(values[slot], value);
+        }
+
+        /**
+         * Slot holding key, inserting it with value 0 when absent.
+         */
+        private int slotFor(int key) {
+            if ((used + 1) * 2 > keys.length) {
+                rehash(size * 4 >= keys.length ? keys.length * 2 : keys.length);
+            }
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            int firstTombstone = -1;
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                if (keys[slot] == TOMBSTONE && firstTombstone < 0) {
+                    firstTombstone = slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (firstTombstone >= 0) {
+                slot = firstTombstone;
+            } else {
+                used++;
+            }
+            keys[slot] = key;
+            values[slot] = 0f;
+            size++;
+            return slot;
+        }
+
+        void remove(int key) {
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    keys[slot] = TOMBSTONE;
+                    size--;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        void forEach(Visitor visitor) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY && keys[i] != TOMBSTONE) {
+                    visitor.accept(keys[i], values[i]);
+                }
+            }
+        }
+
+        private void rehash(int capacity) {
+            int[] oldKeys = keys;
+            float[] oldValues = values;
+            keys = newKeys(capacity);
+            values = new float[capacity];
+            size = 0;
+            used = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY && oldKeys[i] != TOMBSTONE) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int[] newKeys(int capacity) {
+            int[] keys = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
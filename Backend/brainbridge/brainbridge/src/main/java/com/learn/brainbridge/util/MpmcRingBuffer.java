@@ -0,0 +1,204 @@
+package com.learn.brainbridge.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+
+/**
+ * MpmcRingBuffer - Bounded lock-free multi-producer / multi-consumer queue (Dmitry Vyukov's design)
+ *
+ * A power-of-two array of slots, each with a sequence number that says whose turn it is:
+ * - sequence == position       the slot is free for the producer claiming that position
+ * - sequence == position + 1   the slot holds an element for the consumer claiming that position
+ * Producers claim positions by CAS on tail, consumers by CAS on head; after writing (or reading)
+ * a slot they publish it by advancing its sequence with a release store. There are no locks, no
+ * allocation per element, and producers and consumers only contend on their own counter.
+ *
+ * offer() returns false when full instead of waiting; the caller decides what to drop.
+ * head and tail are padded onto separate cache lines so producers and consumers do not
+ * invalidate each other's line.
+ */
+public final class MpmcRingBuffer<E> extends MpmcRingBufferCounters {
+
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private final int mask;
+    private final long[] sequences;
+    private final Object[] elements;
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    public MpmcRingBuffer(int capacity) {
+        if (capacity < 2 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be between 2 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.sequences = new long[size];
+        this.elements = new Object[size];
+        for (int i = 0; i < size; i++) {
+            sequences[i] = i;
+        }
+        VarHandle.releaseFence();
+    }
+
+    /**
+     * @return false if the buffer is full
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        long position = getTail();
+        while (true) {
+            int slot = (int) position & mask;
+            long sequence = (long) SEQUENCE.getAcquire(sequences, slot);
+            long difference = sequence - position;
+            if (difference == 0) {
+                if (casTail(position, position + 1)) {
+                    ELEMENT.set(elements, slot, element);
+                    SEQUENCE.setRelease(sequences, slot, position + 1);
+                    return true;
+                }
+                position = getTail();
+            } else if (difference < 0) {
+                return false; // the slot still holds an element from one lap ago: full
+            } else {
+                position = getTail(); // another producer took this position
+            }
+        }
+    }
+
+    /**
+     * @return the oldest element, or null if the buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long position = getHead();
+        while (true) {
+            int slot = (int) position & mask;
+            long sequence = (long) SEQUENCE.getAcquire(sequences, slot);
+            long difference = sequence - (position + 1);
+            if (difference == 0) {
+                if (casHead(position, position + 1)) {
+                    E element = (E) ELEMENT.get(elements, slot);
+                    ELEMENT.set(elements, slot, null);
+                    // free the slot for the producer one lap ahead
+                    SEQUENCE.setRelease(sequences, slot, position + mask + 1);
+                    return element;
+                }
+                position = getHead();
+            } else if (difference < 0) {
+                return null; // not written yet: empty
+            } else {
+                position = getHead(); // another consumer took this position
+            }
+        }
+    }
+
+    /**
+     * The oldest element without removing it. Only a snapshot: with other consumers running it
+     * may already be gone when the caller looks at it (good enough for monitoring).
+     */
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        long position = getHead();
+        int slot = (int) position & mask;
+        if ((long) SEQUENCE.getAcquire(sequences, slot) != position + 1) {
+            return null;
+        }
+        return (E) ELEMENT.getOpaque(elements, slot);
+    }
+
+    /**
+     * Move up to max elements into target, oldest first.
+     *
+     * @return number of elements moved
+     */
+    public int drainTo(List<? super E> target, int max) {
+        int moved = 0;
+        E element;
+        while (moved < max && (element = poll()) != null) {
+            target.add(element);
+            moved++;
+        }
+        return moved;
+    }
+
+    /** Approximate number of elements (exact when no offer / poll is in progress) */
+    public int size() {
+        while (true) {
+            long head = getHead();
+            long tail = getTail();
+            if (head == getHead()) {
+                return (int) Math.max(0, Math.min(tail - head, capacity()));
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
+
+/**
+ * head and tail with 7 longs of padding around each, so each sits alone on its 64-byte cache line
+ * (field layout follows the class hierarchy: superclass fields come first).
+ */
+abstract class MpmcRingBufferPad0 {
+    long p00, p01, p02, p03, p04, p05, p06;
+}
+
+abstract class MpmcRingBufferHead extends MpmcRingBufferPad0 {
+    volatile long head;
+}
+
+abstract class MpmcRingBufferPad1 extends MpmcRingBufferHead {
+    long p10, p11, p12, p13, p14, p15, p16;
+}
+
+abstract class MpmcRingBufferTail extends MpmcRingBufferPad1 {
+    volatile long tail;
+}
+
+abstract class MpmcRingBufferPad2 extends MpmcRingBufferTail {
+    long p20, p21, p22, p23, p24, p25, p26;
+}
+
+abstract class MpmcRingBufferCounters extends MpmcRingBufferPad2 {
+
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(MpmcRingBufferHead.class, "head", long.class);
+            TAIL = lookup.findVarHandle(MpmcRingBufferTail.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    final long getHead() {
+        return head;
+    }
+
+    final long getTail() {
+        return tail;
+    }
+
+    final boolean casHead(long expected, long next) {
+        return HEAD.compareAndSet(this, expected, next);
+    }
+
+    final boolean casTail(long expected, long next) {
+        return TAIL.compareAndSet(this, expected, next);
+    }
+}
@@ -0,0 +1,34 @@
+package com.learn.brainbridge.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * RequestPaths - The path a request is routed by, for filters that pick requests by path
+ *
+ * getRequestURI() is the path exactly as the client sent it. Spring MVC strips ";" path parameters
+ * and percent-decodes before it looks for a handler, so "/api/export;a/projects" and
+ * "/api/%65xport/projects" both reach the export controller while neither starts with "/api/export/".
+ * Filters run before routing and must compare against the same normalized path, or a rule keyed on
+ * a prefix can be walked around by re-spelling the URL.
+ */
+public final class RequestPaths {
+
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    static {
+        PATH_HELPER.setRemoveSemicolonContent(true);
+        PATH_HELPER.setUrlDecode(true);
+    }
+
+    private RequestPaths() {
+    }
+
+    /**
+     * Path within the application (context path removed), without ";" parameters, percent-decoded
+     * and with duplicate slashes collapsed.
+     */
+    public static String lookupPath(HttpServletRequest request) {
+        return PATH_HELPER.getPathWithinApplication(request);
+    }
+}
@@ -0,0 +1,104 @@
+package com.learn.brainbridge.util;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * SingleFlight - Collapses concurrent loads of the same key into one
+ *
+ * The first caller for a key (the "leader") runs the loader on its own thread;
+ * callers arriving while that load is in flight wait for and share its result
+ * instead of issuing their own query. A waiter that is not answered within
+ * the timeout stops waiting and loads for itself, so a stuck leader can slow
+ * requests down but never hang them.
+ *
+ * Nothing is remembered once the load completes - caching is a separate layer.
+ */
+public class SingleFlight {
+
+    private final String name;
+    private final Duration defaultTimeout;
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder leaderLoads = new LongAdder();
+    private final LongAdder collapsedLoads = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public SingleFlight(String name, Duration defaultTimeout) {
+        this.name = name;
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    public <T> T execute(Object key, Supplier<T> loader) {
+        return execute(key, defaultTimeout, loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Duration timeout, Supplier<T> loader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing == null) {
+            leaderLoads.increment();
+            try {
+                T value = loader.get();
+                mine.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, mine);
+            }
+        }
+
+        collapsedLoads.increment();
+        try {
+            return (T) existing.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return loader.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + name + " load of " + key, e);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Loads that actually ran. */
+    public long getLeaderLoads() {
+        return leaderLoads.sum();
+    }
+
+    /** Callers that joined another caller's load instead of running their own. */
+    public long getCollapsedLoads() {
+        return collapsedLoads.sum();
+    }
+
+    /** Joined callers that gave up waiting and loaded for themselves. */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
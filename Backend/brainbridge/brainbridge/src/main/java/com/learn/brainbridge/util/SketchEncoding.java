@@ -0,0 +1,42 @@
+package com.learn.brainbridge.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Variable-length integers for the sketch snapshots (7 bits per byte, high bit = more follows),
+ * so the mostly small numbers in a sketch take one or two bytes instead of eight.
+ */
+final class SketchEncoding {
+
+    private SketchEncoding() {
+    }
+
+    static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable-length integer");
+    }
+
+    static int readVarInt(ByteBuffer in) {
+        long value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Value out of range: " + value);
+        }
+        return (int) value;
+    }
+}
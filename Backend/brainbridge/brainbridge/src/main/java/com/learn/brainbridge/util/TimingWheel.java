@@ -0,0 +1,229 @@
+package com.learn.brainbridge.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * TimingWheel - Hierarchical timing wheel: O(1) schedule / cancel, expiry without scanning
+ *
+ * Time is cut into ticks. Level 0 has 64 slots of one tick, level 1 has 64 slots of 64 ticks,
+ * and so on for 4 levels (with 1 s ticks: 64 s, 68 min, 72 h, 194 days). A deadline goes into the
+ * coarsest level it needs; when the clock enters a coarse slot, that slot's entries are cascaded
+ * down to finer levels, so every entry is moved at most 3 times before it fires.
+ * Deadlines past the top level wait in an overflow list that is re-checked on every top-level cascade.
+ *
+ * advance() fires everything due up to "now"; callbacks run after the lock is released.
+ * Thread-safe: all mutations take one ReentrantLock (they are a handful of pointer updates).
+ */
+public class TimingWheel<T> {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int SLOTS = 1 << WHEEL_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final Bucket<T>[][] wheels;
+    private final Bucket<T> overflow = new Bucket<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Next tick to be processed */
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be > 0");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.wheels = new Bucket[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheels[level][slot] = new Bucket<>();
+            }
+        }
+    }
+
+    /**
+     * Handle to a scheduled entry, used to cancel it.
+     */
+    public static final class Timeout<T> {
+        private final T value;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private Bucket<T> bucket;
+
+        private Timeout(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T value() {
+            return value;
+        }
+    }
+
+    /**
+     * Fire value once the clock passed deadlineMillis (at most one tick late).
+     */
+    public Timeout<T> schedule(T value, long deadlineMillis) {
+        // round up, so an entry never fires before its deadline
+        Timeout<T> timeout = new Timeout<>(value, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis));
+        lock.lock();
+        try {
+            place(timeout);
+            size++;
+        } finally {
+            lock.unlock();
+        }
+        return timeout;
+    }
+
+    /**
+     * @return false if the entry already fired or was cancelled
+     */
+    public boolean cancel(Timeout<T> timeout) {
+        lock.lock();
+        try {
+            if (timeout.bucket == null) {
+                return false;
+            }
+            timeout.bucket.remove(timeout);
+            size--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Move the clock to nowMillis and hand every entry that came due to onExpired.
+     *
+     * @return number of entries fired
+     */
+    public int advance(long nowMillis, Consumer<T> onExpired) {
+        List<T> expired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        lock.lock();
+        try {
+            while (currentTick <= targetTick) {
+                cascade();
+                Bucket<T> bucket = wheels[0][(int) (currentTick & MASK)];
+                for (Timeout<T> timeout = bucket.takeAll(); timeout != null; ) {
+                    Timeout<T> next = timeout.next;
+                    timeout.prev = null;
+                    timeout.next = null;
+                    expired.add(timeout.value);
+                    size--;
+                    timeout = next;
+                }
+                currentTick++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        expired.forEach(onExpired);
+        return expired.size();
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Entering a new slot of a coarser level: spread that slot's entries over the finer levels.
+     * Coarsest first, so entries can fall through several levels in one tick.
+     */
+    private void cascade() {
+        int level = 1;
+        while (level < LEVELS && (currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+            level++;
+        }
+        // levels 1 .. level-1 all start a new slot at this tick
+        if (level == LEVELS) {
+            replace(overflow);
+        }
+        for (int l = level - 1; l >= 1; l--) {
+            replace(wheels[l][(int) ((currentTick >>> (WHEEL_BITS * l)) & MASK)]);
+        }
+    }
+
+    private void replace(Bucket<T> bucket) {
+        for (Timeout<T> timeout = bucket.takeAll(); timeout != null; ) {
+            Timeout<T> next = timeout.next;
+            timeout.prev = null;
+            timeout.next = null;
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        if (delta < 0) {
+            // already due: fire on the next processed tick
+            wheels[0][(int) (currentTick & MASK)].add(timeout);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (WHEEL_BITS * (level + 1))) {
+                wheels[level][(int) ((timeout.deadlineTick >>> (WHEEL_BITS * level)) & MASK)].add(timeout);
+                return;
+            }
+        }
+        overflow.add(timeout);
+    }
+
+    /**
+     * Intrusive doubly-linked list, so cancel() unlinks in O(1).
+     */
+    private static final class Bucket<T> {
+        private Timeout<T> head;
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        /**
+         * Detach and return the whole chain (entries keep their next links, bucket cleared).
+         */
+        Timeout<T> takeAll() {
+            Timeout<T> first = head;
+            head = null;
+            for (Timeout<T> t = first; t != null; t = t.next) {
+                t.bucket = null;
+            }
+            return first;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.learn.brainbridge.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TokenBucket - Lock-free token bucket in a single AtomicLong
+ *
+ * A bucket holds up to capacity tokens and refills one token every (period / capacity).
+ * Instead of storing "tokens" and "last refill time" (two fields, needs a lock), the whole
+ * state is one number: the nanoTime at which the bucket will be full again.
+ * - tokens now   = capacity - (fullAt - now) / interval   (fractional refill is exact)
+ * - taking one   = fullAt := max(fullAt, now) + interval, allowed while that stays within
+ *                  capacity * interval of now
+ * So tryAcquire is one CAS loop and never blocks. This is the same arithmetic as GCRA.
+ *
+ * Callers pass the clock (System.nanoTime()) so all buckets of one request see the same instant.
+ */
+public class TokenBucket {
+
+    private final int capacity;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(int capacity, Duration refillPeriod, long nowNanos) {
+        if (capacity <= 0 || refillPeriod.isNegative() || refillPeriod.isZero()) {
+            throw new IllegalArgumentException("capacity and refill period must be > 0");
+        }
+        this.capacity = capacity;
+        this.intervalNanos = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.burstNanos = intervalNanos * capacity;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Take one token.
+     *
+     * @return 0 if a token was taken, otherwise nanos until one will be available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            // nanoTime may wrap: compare by difference, never by value
+            long base = current - nowNanos > 0 ? current : nowNanos;
+            long next = base + intervalNanos;
+            long debt = next - nowNanos;
+            if (debt > burstNanos) {
+                return debt - burstNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Give back one token taken earlier (never beyond capacity), e.g. when the attempt turned out
+     * not to count.
+     */
+    public void release(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            if (current - nowNanos <= 0) {
+                return;
+            }
+            long next = current - intervalNanos;
+            if (next - nowNanos < 0) {
+                next = nowNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return whole tokens left right now
+     */
+    public int available(long nowNanos) {
+        long debt = Math.max(0, fullAt.get() - nowNanos);
+        return (int) Math.max(0, capacity - (debt + intervalNanos - 1) / intervalNanos);
+    }
+
+    /**
+     * @return true if the bucket is full, i.e. forgetting it would change nothing
+     */
+    public boolean isFull(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,196 @@
+package com.learn.brainbridge.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TopK - The k most frequent ids of a stream (heavy hitters), in constant memory
+ *
+ * Every id is counted in a CountMinSketch; the k ids with the highest estimates are kept in a
+ * min-heap, so a new id only displaces the current minimum when its estimate is larger. Counts are
+ * the sketch's estimates, i.e. upper bounds within CountMinSketch.errorBound().
+ *
+ * merge() adds the sketches and re-ranks the candidates of both sides against the merged counts.
+ * An id that was below the top k on both sides is lost, so give capacity some headroom over the
+ * number of ids that are actually asked for.
+ * Snapshots are read with the largest capacity and sketch dimensions the caller expects.
+ * Not thread-safe; callers synchronize.
+ */
+public final class TopK {
+
+    private static final byte FORMAT = 1;
+
+    public record Entry(long item, long count) {
+    }
+
+    private final int capacity;
+    private final CountMinSketch sketch;
+    private final long[] items;
+    private final long[] counts;
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private int size;
+
+    public TopK(int capacity, int depth, int width) {
+        this(capacity, new CountMinSketch(depth, width));
+    }
+
+    private TopK(int capacity, CountMinSketch sketch) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.sketch = sketch;
+        this.items = new long[capacity];
+        this.counts = new long[capacity];
+    }
+
+    public void add(long item, long count) {
+        sketch.add(item, count);
+        offer(item, sketch.estimate(item));
+    }
+
+    private void offer(long item, long count) {
+        Integer position = positions.get(item);
+        if (position != null) {
+            counts[position] = count; // estimates only grow: move towards the leaves
+            siftDown(position);
+        } else if (size < capacity) {
+            items[size] = item;
+            counts[size] = count;
+            positions.put(item, size);
+            siftUp(size++);
+        } else if (count > counts[0]) {
+            positions.remove(items[0]);
+            items[0] = item;
+            counts[0] = count;
+            positions.put(item, 0);
+            siftDown(0);
+        }
+    }
+
+    public void merge(TopK other) {
+        sketch.merge(other.sketch);
+        Set<Long> candidates = new LinkedHashSet<>(positions.keySet());
+        candidates.addAll(other.positions.keySet());
+        positions.clear();
+        size = 0;
+        for (long item : candidates) {
+            offer(item, sketch.estimate(item));
+        }
+    }
+
+    /**
+     * @return up to limit ids, most frequent first, with their current estimates (the heap holds
+     *         the estimate from an id's last add, which later collisions may have raised)
+     */
+    public List<Entry> top(int limit) {
+        List<Entry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new Entry(items[i], sketch.estimate(items[i])));
+        }
+        entries.sort(Comparator.comparingLong(Entry::count).reversed().thenComparingLong(Entry::item));
+        return entries.size() > limit ? entries.subList(0, limit) : entries;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public CountMinSketch getSketch() {
+        return sketch;
+    }
+
+    /** Candidate ids followed by the sketch; counts are taken from the sketch again on read */
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(FORMAT);
+        SketchEncoding.writeVarLong(out, capacity);
+        SketchEncoding.writeVarLong(out, size);
+        for (int i = 0; i < size; i++) {
+            SketchEncoding.writeVarLong(out, items[i]);
+        }
+        sketch.writeTo(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the snapshot is unreadable or exceeds maxCapacity or
+     *                                  maxDepth x maxWidth
+     */
+    public static TopK fromBytes(byte[] bytes, int maxCapacity, int maxDepth, int maxWidth) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            if (in.get() != FORMAT) {
+                throw new IllegalArgumentException("Not a TopK snapshot");
+            }
+            int capacity = SketchEncoding.readVarInt(in);
+            int size = SketchEncoding.readVarInt(in);
+            if (capacity > maxCapacity) {
+                throw new IllegalArgumentException("TopK snapshot capacity " + capacity + " exceeds " + maxCapacity);
+            }
+            if (size > capacity || size > in.remaining()) {
+                throw new IllegalArgumentException("Corrupt TopK snapshot");
+            }
+            long[] candidates = new long[size];
+            for (int i = 0; i < size; i++) {
+                candidates[i] = SketchEncoding.readVarLong(in);
+            }
+            TopK topK = new TopK(capacity, CountMinSketch.readFrom(in, maxDepth, maxWidth));
+            for (long item : candidates) {
+                topK.offer(item, topK.sketch.estimate(item));
+            }
+            return topK;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated TopK snapshot", e);
+        }
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (counts[parent] <= counts[position]) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long item = items[a];
+        long count = counts[a];
+        items[a] = items[b];
+        counts[a] = counts[b];
+        items[b] = item;
+        counts[b] = count;
+        positions.put(items[a], a);
+        positions.put(items[b], b);
+    }
+}
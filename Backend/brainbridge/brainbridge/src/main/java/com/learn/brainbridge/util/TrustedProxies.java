@@ -0,0 +1,131 @@
+package com.learn.brainbridge.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * TrustedProxies - Client address of a request, looking through configured reverse proxies only
+ *
+ * X-Forwarded-For is only believed when the connection comes from a trusted proxy, and is then read
+ * right to left: every hop that is itself a trusted proxy is skipped and the first other address is
+ * the client. Anything further left was written by the client and could be forged.
+ * With no proxies configured this is request.getRemoteAddr().
+ *
+ * Proxies are given as addresses or CIDR ranges ("10.0.0.0/8", "fd00::/8", "192.168.1.7").
+ */
+public class TrustedProxies {
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+    /** Only IP literals are parsed, so a header value can never trigger a DNS lookup */
+    private static final Pattern IP_LITERAL = Pattern.compile("[0-9A-Fa-f:.]+");
+
+    private final List<Range> ranges;
+
+    private TrustedProxies(List<Range> ranges) {
+        this.ranges = ranges;
+    }
+
+    /**
+     * @param spec comma-separated addresses or CIDR ranges; blank for none
+     */
+    public static TrustedProxies parse(String spec) {
+        List<Range> ranges = new ArrayList<>();
+        if (spec != null) {
+            for (String part : spec.split(",")) {
+                String entry = part.trim();
+                if (!entry.isEmpty()) {
+                    ranges.add(Range.parse(entry));
+                }
+            }
+        }
+        return new TrustedProxies(List.copyOf(ranges));
+    }
+
+    public String clientAddress(HttpServletRequest request) {
+        String remote = request.getRemoteAddr();
+        if (ranges.isEmpty() || !isTrusted(remote)) {
+            return remote;
+        }
+        String forwarded = request.getHeader(FORWARDED_FOR);
+        if (forwarded == null || forwarded.isBlank()) {
+            return remote;
+        }
+        String[] hops = forwarded.split(",");
+        String client = remote;
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!IP_LITERAL.matcher(hop).matches()) {
+                // garbage or an obfuscated hop: the last address we could check is as far as we can see
+                return client;
+            }
+            client = hop;
+            if (!isTrusted(hop)) {
+                return hop;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrusted(String address) {
+        byte[] bytes = toBytes(address);
+        if (bytes == null) {
+            return false;
+        }
+        for (Range range : ranges) {
+            if (range.contains(bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] toBytes(String address) {
+        if (address == null || !IP_LITERAL.matcher(address).matches()) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(address).getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private record Range(byte[] network, int prefixBits) {
+
+        static Range parse(String entry) {
+            int slash = entry.indexOf('/');
+            byte[] network = toBytes(slash < 0 ? entry : entry.substring(0, slash));
+            if (network == null) {
+                throw new IllegalArgumentException("Not an IP address or CIDR range: " + entry);
+            }
+            int bits = slash < 0 ? network.length * 8 : Integer.parseInt(entry.substring(slash + 1));
+            if (bits < 0 || bits > network.length * 8) {
+                throw new IllegalArgumentException("Bad prefix length: " + entry);
+            }
+            return new Range(network, bits);
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int full = prefixBits / 8;
+            for (int i = 0; i < full; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int rest = prefixBits % 8;
+            if (rest == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - rest);
+            return (address[full] & mask) == (network[full] & mask);
+        }
+    }
+}
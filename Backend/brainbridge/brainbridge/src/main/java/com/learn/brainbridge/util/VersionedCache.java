@@ -0,0 +1,48 @@
+package com.learn.brainbridge.util;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * VersionedCache - Cache puts that never replace a newer copy of a row with an older one
+ *
+ * A read-through load reads the row and caches it afterwards. An update that commits in between
+ * refreshes (or evicts) the entry first, and a plain put from the load would then bring back the
+ * snapshot it read before the update, to be served - and trusted for ETags - until it expires.
+ * Comparing the row's @Version inside one atomic merge keeps whichever copy is newer.
+ */
+public final class VersionedCache {
+
+    private VersionedCache() {
+    }
+
+    /**
+     * Caches value under key unless the entry already holds a copy with a higher version;
+     * on equal versions the new value wins. Caches that are neither Caffeine nor ConcurrentMap
+     * backed get a plain put.
+     */
+    public static <T> void putUnlessNewer(Cache cache, Object key, T value, Class<T> type, ToLongFunction<T> version) {
+        ConcurrentMap<Object, Object> entries = entries(cache);
+        if (entries == null) {
+            cache.put(key, value);
+            return;
+        }
+        long candidate = version.applyAsLong(value);
+        entries.merge(key, value, (current, proposed) ->
+                type.isInstance(current) && version.applyAsLong(type.cast(current)) > candidate ? current : proposed);
+    }
+
+    private static ConcurrentMap<Object, Object> entries(Cache cache) {
+        if (cache instanceof CaffeineCache caffeine) {
+            return caffeine.getNativeCache().asMap();
+        }
+        if (cache instanceof ConcurrentMapCache map) {
+            return map.getNativeCache();
+        }
+        return null;
+    }
+}
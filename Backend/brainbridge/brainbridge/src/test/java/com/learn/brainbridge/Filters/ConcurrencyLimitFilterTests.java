@@ -0,0 +1,86 @@
+package com.learn.brainbridge.Filters;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A permit is held for as long as the response is being produced, including async responses;
+ * the SSE stream is capped elsewhere and takes none.
+ */
+class ConcurrencyLimitFilterTests {
+
+	private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(null, 1, 4, 10);
+
+	@Test
+	void synchronousRequestsReleaseWhenTheChainReturns() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/projects"), response, new MockFilterChain());
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(filter.getAvailablePermits()).isEqualTo(1);
+	}
+
+	@Test
+	void asyncRequestsKeepThePermitUntilTheyComplete() throws Exception {
+		MockHttpServletRequest request = startAsync();
+		assertThat(filter.getAvailablePermits()).isZero();
+
+		// a second request finds no slot while the stream is still open
+		MockHttpServletResponse busy = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/projects"), busy, new MockFilterChain());
+		assertThat(busy.getStatus()).isEqualTo(503);
+
+		((MockAsyncContext) request.getAsyncContext()).complete();
+		assertThat(filter.getAvailablePermits()).isEqualTo(1);
+	}
+
+	@Test
+	void timedOutAsyncRequestsReleaseOnce() throws Exception {
+		MockHttpServletRequest request = startAsync();
+		MockAsyncContext context = (MockAsyncContext) request.getAsyncContext();
+
+		context.getListeners().forEach(listener -> {
+			try {
+				listener.onTimeout(null);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		context.complete();
+
+		assertThat(filter.getAvailablePermits()).isEqualTo(1);
+	}
+
+	@Test
+	void notificationStreamTakesNoPermit() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notifications/stream");
+		request.setAsyncSupported(true);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+			@Override
+			public void doFilter(ServletRequest req, ServletResponse res) {
+				req.startAsync();
+			}
+		});
+
+		assertThat(filter.getAvailablePermits()).isEqualTo(1);
+	}
+
+	private MockHttpServletRequest startAsync() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/projects/api/all");
+		request.setAsyncSupported(true);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+			@Override
+			public void doFilter(ServletRequest req, ServletResponse res) {
+				req.startAsync();
+			}
+		});
+		return request;
+	}
+}
@@ -0,0 +1,121 @@
+package com.learn.brainbridge.Filters;
+
+import com.learn.brainbridge.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTests {
+
+	private JwtService jwtService;
+	private JwtAuthenticationFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		jwtService = new JwtService(new SimpleMeterRegistry(), "test-secret-that-is-long-enough-for-hs256",
+				"brainbridge", 15, 1000);
+		filter = new JwtAuthenticationFilter(jwtService, false);
+	}
+
+	@Test
+	void operatorPathsNeedATokenEvenWhenNotEnforced() throws Exception {
+		MockHttpServletResponse response = run(get("/actuator/prometheus", null));
+
+		assertThat(response.getStatus()).isEqualTo(401);
+	}
+
+	@Test
+	void operatorPathsRejectNonAdmins() throws Exception {
+		String token = jwtService.issueAccessToken(1L, "ada");
+
+		assertThat(run(get("/actuator/prometheus", token)).getStatus()).isEqualTo(403);
+		assertThat(run(get("/api/cache/stats", token)).getStatus()).isEqualTo(403);
+	}
+
+	@Test
+	void exportsAreForAdminsOnly() throws Exception {
+		assertThat(run(get("/api/export/users", null)).getStatus()).isEqualTo(401);
+		assertThat(run(get("/api/export/users", jwtService.issueAccessToken(1L, "ada"))).getStatus()).isEqualTo(403);
+		assertThat(run(get("/api/export/users", jwtService.issueAccessToken(1L, "ada", true))).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void exportsCannotBeReachedByRespellingThePath() throws Exception {
+		// Spring MVC routes both of these to the export controller
+		assertThat(run(get("/api/export;a/projects", null)).getStatus()).isEqualTo(401);
+		assertThat(run(get("/api/%65xport/projects", null)).getStatus()).isEqualTo(401);
+		assertThat(run(get("/api/export;a/projects", jwtService.issueAccessToken(1L, "ada"))).getStatus()).isEqualTo(403);
+	}
+
+	@Test
+	void operatorPathsAdmitAdmins() throws Exception {
+		String token = jwtService.issueAccessToken(1L, "ada", true);
+
+		assertThat(run(get("/actuator/prometheus", token)).getStatus()).isEqualTo(200);
+		assertThat(run(get("/api/cache/stats", token)).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void operatorPathsCannotBeReachedByRespellingThePath() throws Exception {
+		assertThat(run(get("/api/cache;x=1/stats", null)).getStatus()).isEqualTo(401);
+		assertThat(run(get("/api/%63ache/stats", null)).getStatus()).isEqualTo(401);
+		assertThat(run(get("/%61ctuator/metrics", null)).getStatus()).isEqualTo(401);
+		assertThat(run(get("/actuator;x=1/metrics", jwtService.issueAccessToken(1L, "ada"))).getStatus()).isEqualTo(403);
+	}
+
+	@Test
+	void healthStaysPublic() throws Exception {
+		assertThat(run(get("/actuator/health", null)).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void otherPathsPassWithoutATokenWhenNotEnforced() throws Exception {
+		assertThat(run(get("/projects/api/fetch/1", null)).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void badTokenIsIgnoredOnPublicPaths() throws Exception {
+		MockHttpServletRequest request = get("/api/auth/refresh", "not-a-jwt");
+
+		assertThat(run(request).getStatus()).isEqualTo(200);
+		assertThat(request.getAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER)).isNull();
+	}
+
+	@Test
+	void notificationStreamIsLeftToItsTicketWhenEnforced() throws Exception {
+		JwtAuthenticationFilter enforcing = new JwtAuthenticationFilter(jwtService, true);
+		MockHttpServletRequest request = get("/api/notifications/stream", null);
+		request.setParameter("ticket", "anything");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		enforcing.doFilter(request, response, new MockFilterChain());
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(request.getAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER)).isNull();
+	}
+
+	@Test
+	void badTokenIsRejectedElsewhere() throws Exception {
+		assertThat(run(get("/projects/api/fetch/1", "not-a-jwt")).getStatus()).isEqualTo(401);
+	}
+
+	private static MockHttpServletRequest get(String path, String token) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		if (token != null) {
+			request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+		}
+		return request;
+	}
+
+	private MockHttpServletResponse run(MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+}
@@ -0,0 +1,147 @@
+package com.learn.brainbridge.Filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTests {
+
+	private static final String LOGIN = "{\"emailOrUsername\":\"ada\",\"password\":\"x\"}";
+
+	private static RateLimitFilter filter(String trustedProxies) {
+		// ip 1000/min, account 2 per 5 min
+		return new RateLimitFilter(new ObjectMapper(), new SimpleMeterRegistry(), true, 1000, 16384,
+				1000, 60, 2, 300, 50, 3600, trustedProxies);
+	}
+
+	@Test
+	void successfulLoginsDoNotDrainTheAccount() throws Exception {
+		RateLimitFilter filter = filter("");
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(login(filter, "203.0.113.1", null, 200)).isEqualTo(200);
+		}
+	}
+
+	@Test
+	void failedLoginsDrainTheAccount() throws Exception {
+		RateLimitFilter filter = filter("");
+
+		assertThat(login(filter, "203.0.113.1", null, 400)).isEqualTo(400);
+		assertThat(login(filter, "203.0.113.2", null, 400)).isEqualTo(400);
+		assertThat(login(filter, "203.0.113.3", null, 200)).isEqualTo(429);
+	}
+
+	@Test
+	void respelledLoginPathsShareTheBuckets() throws Exception {
+		RateLimitFilter filter = filter("");
+
+		assertThat(login(filter, "/api/users;a=1/login", 400)).isEqualTo(400);
+		assertThat(login(filter, "/api/users/login;a=2", 400)).isEqualTo(400);
+		assertThat(login(filter, "/api/%75sers/login", 200)).isEqualTo(429);
+	}
+
+	@Test
+	void forwardedForIsOnlyFollowedThroughTrustedProxies() throws Exception {
+		RateLimitFilter filter = new RateLimitFilter(new ObjectMapper(), new SimpleMeterRegistry(), true, 1000,
+				16384, 1, 60, 100, 300, 50, 3600, "10.0.0.0/8");
+
+		// two clients behind the proxy get separate IP buckets
+		assertThat(login(filter, "10.0.0.5", "198.51.100.1", 200)).isEqualTo(200);
+		assertThat(login(filter, "10.0.0.5", "198.51.100.2", 200)).isEqualTo(200);
+		// a client-supplied hop left of the real one is ignored
+		assertThat(login(filter, "10.0.0.5", "192.0.2.99, 198.51.100.1", 200)).isEqualTo(429);
+		// an untrusted peer cannot choose its bucket with the header
+		assertThat(login(filter, "203.0.113.7", "192.0.2.1", 200)).isEqualTo(200);
+		assertThat(login(filter, "203.0.113.7", "192.0.2.2", 200)).isEqualTo(429);
+	}
+
+	@Test
+	void bufferedBodySupportsAsyncReads() throws Exception {
+		MockHttpServletRequest request = request("203.0.113.1", null);
+		ByteArrayOutputStream read = new ByteArrayOutputStream();
+		AtomicBoolean allRead = new AtomicBoolean();
+		MockFilterChain chain = new MockFilterChain() {
+			@Override
+			public void doFilter(ServletRequest req, ServletResponse res) throws IOException {
+				ServletInputStream in = req.getInputStream();
+				in.setReadListener(new ReadListener() {
+					@Override
+					public void onDataAvailable() throws IOException {
+						byte[] buffer = new byte[16];
+						int n;
+						while (in.isReady() && (n = in.read(buffer)) >= 0) {
+							read.write(buffer, 0, n);
+						}
+					}
+
+					@Override
+					public void onAllDataRead() {
+						allRead.set(true);
+					}
+
+					@Override
+					public void onError(Throwable t) {
+						throw new AssertionError(t);
+					}
+				});
+			}
+		};
+
+		filter("").doFilter(request, new MockHttpServletResponse(), chain);
+
+		assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(LOGIN);
+		assertThat(allRead).isTrue();
+	}
+
+	private static int login(RateLimitFilter filter, String remoteAddr, String forwardedFor, int controllerStatus)
+			throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request(remoteAddr, forwardedFor), response, new MockFilterChain() {
+			@Override
+			public void doFilter(ServletRequest req, ServletResponse res) {
+				((HttpServletResponse) res).setStatus(controllerStatus);
+			}
+		});
+		return response.getStatus();
+	}
+
+	private static int login(RateLimitFilter filter, String path, int controllerStatus) throws Exception {
+		MockHttpServletRequest request = request("203.0.113.1", null);
+		request.setRequestURI(path);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain() {
+			@Override
+			public void doFilter(ServletRequest req, ServletResponse res) {
+				((HttpServletResponse) res).setStatus(controllerStatus);
+			}
+		});
+		return response.getStatus();
+	}
+
+	private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+		request.setRemoteAddr(remoteAddr);
+		if (forwardedFor != null) {
+			request.addHeader("X-Forwarded-For", forwardedFor);
+		}
+		request.setContentType("application/json");
+		request.setContent(LOGIN.getBytes(StandardCharsets.UTF_8));
+		return request;
+	}
+}
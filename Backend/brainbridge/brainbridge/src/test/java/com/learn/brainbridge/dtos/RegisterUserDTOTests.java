@@ -0,0 +1,130 @@
+package com.learn.brainbridge.dtos;
+
+import com.learn.brainbridge.annotations.MaxUtf8Bytes;
+import com.learn.brainbridge.annotations.MaxUtf8BytesValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Payload;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Annotation;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegisterUserDTOTests {
+
+	private static final String STRONG = "Str0ng!Passw0rd";
+
+	private static ValidatorFactory factory;
+	private static Validator validator;
+
+	@BeforeAll
+	static void setUp() {
+		factory = Validation.buildDefaultValidatorFactory();
+		validator = factory.getValidator();
+	}
+
+	@AfterAll
+	static void tearDown() {
+		factory.close();
+	}
+
+	@Test
+	void strongPasswordIsAccepted() {
+		assertThat(invalidFields(registration(STRONG))).isEmpty();
+	}
+
+	@Test
+	void anySymbolSpaceOrNonAsciiLetterIsAllowed() {
+		assertThat(invalidFields(registration("Grüße aus Köln #2024"))).isEmpty();
+		assertThat(invalidFields(registration("correct-horse_Battery 9"))).isEmpty();
+		assertThat(invalidFields(registration("Ünïcødé1 pässwörd"))).isEmpty();
+	}
+
+	@Test
+	void weakPasswordIsRejectedOnThePasswordField() {
+		assertThat(invalidFields(registration("alllowercase1"))).contains("password");
+	}
+
+	@Test
+	void passwordOver72BytesIsRejected() {
+		String seventyTwo = "Aa1!" + "a".repeat(68);
+
+		assertThat(invalidFields(registration(seventyTwo))).doesNotContain("password");
+		assertThat(invalidFields(registration(seventyTwo + "a"))).contains("password");
+	}
+
+	@Test
+	void byteLimitIsReachableWithMultiByteCharacters() {
+		String seventyTwoBytes = "Aa1!" + "é".repeat(34);   // 38 characters
+
+		assertThat(invalidFields(registration(seventyTwoBytes))).doesNotContain("password");
+		assertThat(invalidFields(registration(seventyTwoBytes + "é"))).contains("password");
+	}
+
+	@Test
+	void byteLimitCountsEncodedBytesNotCharacters() {
+		MaxUtf8BytesValidator limit = validator(72);
+
+		assertThat(limit.isValid("€".repeat(24), null)).isTrue();   // 3 bytes each
+		assertThat(limit.isValid("€".repeat(25), null)).isFalse();
+		assertThat(limit.isValid("😀".repeat(18), null)).isTrue();  // 4 bytes, 2 chars each
+		assertThat(limit.isValid("😀".repeat(18) + "a", null)).isFalse();
+		assertThat(limit.isValid(null, null)).isTrue();
+	}
+
+	private static RegisterUserDTO registration(String password) {
+		RegisterUserDTO dto = new RegisterUserDTO();
+		dto.setEmail("ada@example.com");
+		dto.setUsername("ada");
+		dto.setPassword(password);
+		dto.setConfirmPassword(password);
+		dto.setOrganizationName("BrainBridge");
+		return dto;
+	}
+
+	private static Set<String> invalidFields(RegisterUserDTO dto) {
+		return validator.validate(dto).stream()
+				.map(ConstraintViolation::getPropertyPath)
+				.map(Object::toString)
+				.collect(Collectors.toSet());
+	}
+
+	private static MaxUtf8BytesValidator validator(int maxBytes) {
+		MaxUtf8BytesValidator limit = new MaxUtf8BytesValidator();
+		limit.initialize(new MaxUtf8Bytes() {
+			@Override
+			public int value() {
+				return maxBytes;
+			}
+
+			@Override
+			public String message() {
+				return "";
+			}
+
+			@Override
+			public Class<?>[] groups() {
+				return new Class<?>[0];
+			}
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public Class<? extends Payload>[] payload() {
+				return new Class[0];
+			}
+
+			@Override
+			public Class<? extends Annotation> annotationType() {
+				return MaxUtf8Bytes.class;
+			}
+		});
+		return limit;
+	}
+}
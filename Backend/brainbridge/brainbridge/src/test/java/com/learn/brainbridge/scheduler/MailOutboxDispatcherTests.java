@@ -0,0 +1,96 @@
+package com.learn.brainbridge.scheduler;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.learn.brainbridge.entity.MailOutbox;
+import com.learn.brainbridge.enums.MailStatus;
+import com.learn.brainbridge.repository.MailOutboxRepository;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs MailOutboxDispatcher against GreenMail, an SMTP server living inside the test JVM.
+ * The repository and transaction manager are mocks, so no database is needed.
+ */
+class MailOutboxDispatcherTests {
+
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	private MailOutboxRepository outboxRepository;
+
+	@BeforeEach
+	void setUp() {
+		outboxRepository = mock(MailOutboxRepository.class);
+		when(outboxRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@Test
+	void sendsDueMailAndMarksItSent() throws Exception {
+		List<MailOutbox> due = List.of(mail(1L, "ada@example.com"), mail(2L, "alan@example.com"));
+		when(outboxRepository.lockDueBatch(any(), anyInt())).thenReturn(due);
+
+		int claimed = dispatcher(ServerSetupTest.SMTP.getPort(), 3).dispatchBatch();
+
+		assertThat(claimed).isEqualTo(2);
+		MimeMessage[] received = greenMail.getReceivedMessages();
+		assertThat(received).hasSize(2);
+		assertThat(received[0].getSubject()).isEqualTo("Verify your BrainBridge account");
+		assertThat(due).allSatisfy(mail -> {
+			assertThat(mail.getStatus()).isEqualTo(MailStatus.SENT);
+			assertThat(mail.getAttempts()).isEqualTo(1);
+			assertThat(mail.getSentAt()).isNotNull();
+		});
+	}
+
+	@Test
+	void unreachableServerSchedulesRetryThenGivesUp() {
+		MailOutbox mail = mail(3L, "grace@example.com");
+		when(outboxRepository.lockDueBatch(any(), anyInt())).thenReturn(List.of(mail));
+		// nothing listens on this port
+		MailOutboxDispatcher dispatcher = dispatcher(ServerSetupTest.SMTP.getPort() + 1, 2);
+
+		dispatcher.dispatchBatch();
+
+		assertThat(mail.getStatus()).isEqualTo(MailStatus.PENDING);
+		assertThat(mail.getAttempts()).isEqualTo(1);
+		assertThat(mail.getNextAttemptAt()).isAfter(LocalDateTime.now());
+		assertThat(mail.getLastError()).isNotBlank();
+
+		dispatcher.dispatchBatch();
+
+		assertThat(mail.getStatus()).isEqualTo(MailStatus.FAILED);
+		assertThat(mail.getAttempts()).isEqualTo(2);
+	}
+
+	private MailOutboxDispatcher dispatcher(int smtpPort, int maxAttempts) {
+		JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("localhost");
+		mailSender.setPort(smtpPort);
+		return new MailOutboxDispatcher(outboxRepository, mailSender, mock(PlatformTransactionManager.class),
+				50, maxAttempts, 30_000, 3_600_000, 300_000);
+	}
+
+	private static MailOutbox mail(Long id, String recipient) {
+		MailOutbox mail = new MailOutbox();
+		mail.setId(id);
+		mail.setRecipient(recipient);
+		mail.setSubject("Verify your BrainBridge account");
+		mail.setBody("Please verify your email");
+		mail.setNextAttemptAt(LocalDateTime.now());
+		return mail;
+	}
+}
@@ -0,0 +1,73 @@
+package com.learn.brainbridge.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.brainbridge.enums.ExportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExportServiceTests {
+
+	private ResultSet rows;
+	private ExportService service;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		DataSource dataSource = mock(DataSource.class);
+		Connection connection = mock(Connection.class);
+		PreparedStatement statement = mock(PreparedStatement.class);
+		rows = mock(ResultSet.class);
+		ResultSetMetaData meta = mock(ResultSetMetaData.class);
+		when(dataSource.getConnection()).thenReturn(connection);
+		when(connection.prepareStatement(anyString())).thenReturn(statement);
+		when(statement.executeQuery()).thenReturn(rows);
+		when(rows.getMetaData()).thenReturn(meta);
+		when(meta.getColumnCount()).thenReturn(2);
+		when(meta.getColumnLabel(anyInt())).thenAnswer(invocation -> invocation.<Integer>getArgument(0) == 1 ? "id" : "email");
+		service = new ExportService(dataSource, new ObjectMapper(), mock(PlatformTransactionManager.class), 1000);
+	}
+
+	@Test
+	void emptyCsvExportStillHasItsHeader() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		service.exportUsers(new ExportService.UserFilter(null, null, null, null), ExportFormat.CSV, out);
+
+		assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("id,email\r\n");
+	}
+
+	@Test
+	void csvRowsFollowTheHeader() throws Exception {
+		when(rows.next()).thenReturn(true, false);
+		when(rows.getObject(1)).thenReturn(7L);
+		when(rows.getObject(2)).thenReturn("=ada@example.com");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		service.exportUsers(new ExportService.UserFilter(null, null, null, null), ExportFormat.CSV, out);
+
+		assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("id,email\r\n7,'=ada@example.com\r\n");
+	}
+
+	@Test
+	void emptyNdjsonExportIsEmpty() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		service.exportUsers(new ExportService.UserFilter(null, null, null, null), ExportFormat.NDJSON, out);
+
+		assertThat(out.size()).isZero();
+	}
+}
@@ -0,0 +1,53 @@
+package com.learn.brainbridge.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stream tickets and access tokens are signed with the same key but never stand in for each other.
+ */
+class JwtServiceTests {
+
+	private JwtService jwtService;
+	private JwtService.TokenClaims caller;
+
+	@BeforeEach
+	void setUp() {
+		jwtService = new JwtService(new SimpleMeterRegistry(), "test-secret-that-is-long-enough-for-hs256",
+				"brainbridge", 15, 1000);
+		caller = jwtService.verify(jwtService.issueAccessToken(7L, "ada")).orElseThrow();
+	}
+
+	@Test
+	void ticketIsRedeemedOnce() {
+		String ticket = jwtService.issueStreamTicket(caller);
+
+		assertThat(jwtService.redeemStreamTicket(ticket)).contains(7L);
+		assertThat(jwtService.redeemStreamTicket(ticket)).isEmpty();
+	}
+
+	@Test
+	void ticketIsNotAnAccessToken() {
+		assertThat(jwtService.verify(jwtService.issueStreamTicket(caller))).isEmpty();
+	}
+
+	@Test
+	void accessTokenIsNotATicket() {
+		assertThat(jwtService.redeemStreamTicket(jwtService.issueAccessToken(7L, "ada"))).isEmpty();
+		assertThat(jwtService.redeemStreamTicket(null)).isEmpty();
+	}
+
+	@Test
+	void logoutEverywhereInvalidatesOutstandingTickets() {
+		String ticket = jwtService.issueStreamTicket(caller);
+
+		jwtService.revokeAllIssuedBefore(7L, Instant.now().plusSeconds(1));
+
+		assertThat(jwtService.redeemStreamTicket(ticket)).isEmpty();
+	}
+}
@@ -0,0 +1,112 @@
+package com.learn.brainbridge.service;
+
+import com.learn.brainbridge.dtos.NotificationDTO;
+import com.learn.brainbridge.enums.NotificationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationAggregatorTests {
+
+	private NotificationService notificationService;
+
+	@BeforeEach
+	void setUp() {
+		notificationService = mock(NotificationService.class);
+		AtomicLong ids = new AtomicLong(100);
+		when(notificationService.create(anyLong(), any(), any(), any(), anyString(), anyString(), anyInt()))
+				.thenAnswer(invocation -> {
+					NotificationDTO dto = new NotificationDTO();
+					dto.setId(ids.incrementAndGet());
+					return dto;
+				});
+	}
+
+	private NotificationAggregator aggregator(long windowMs) {
+		return new NotificationAggregator(notificationService, new SimpleMeterRegistry(),
+				Set.of(NotificationType.COMMENT), windowMs);
+	}
+
+	@Test
+	void burstInsideTheWindowIsOneRowUntilItCloses() {
+		NotificationAggregator aggregator = aggregator(300_000);
+
+		aggregator.notify(7L, NotificationType.COMMENT, "PROJECT", 42L, "Comment 1", "a");
+		aggregator.notify(7L, NotificationType.COMMENT, "PROJECT", 42L, "Comment 2", "b");
+		aggregator.notify(7L, NotificationType.COMMENT, "PROJECT", 42L, "Comment 3", "c");
+		aggregator.flushExpired();
+
+		verify(notificationService, times(1)).create(7L, NotificationType.COMMENT, "PROJECT", 42L, "Comment 1", "a", 1);
+		verify(notificationService, never()).mergeIntoDigest(anyLong(), anyLong(), anyInt(), anyString(), anyString());
+	}
+
+	@Test
+	void closedWindowIsMergedIntoTheFirstRow() throws InterruptedException {
+		when(notificationService.mergeIntoDigest(7L, 101L, 2, "Comment 3", "c")).thenReturn(true);
+		NotificationAggregator aggregator = aggregator(1);
+
+		aggregator.notify(7L, NotificationType.COMMENT, "PROJECT", 42L, "Comment 1", "a");
+		aggregator.notify(7L, NotificationType.COMMENT, "PROJECT", 42L, "Comment 2", "b");
+		aggregator.notify(7L, NotificationType.COMMENT, "PROJECT", 42L, "Comment 3", "c");
+		Thread.sleep(5);
+		aggregator.flushExpired();
+		// the window is gone, so the next event starts a new row
+		aggregator.notify(7L, NotificationType.COMMENT, "PROJECT", 42L, "Comment 4", "d");
+
+		verify(notificationService).mergeIntoDigest(7L, 101L, 2, "Comment 3", "c");
+		verify(notificationService).create(7L, NotificationType.COMMENT, "PROJECT", 42L, "Comment 4", "d", 1);
+	}
+
+	@Test
+	void restOfABurstWhoseFirstRowWasReadBecomesANewRow() {
+		when(notificationService.mergeIntoDigest(anyLong(), anyLong(), anyInt(), anyString(), anyString()))
+				.thenReturn(false);
+		NotificationAggregator aggregator = aggregator(300_000);
+
+		aggregator.notify(7L, NotificationType.COMMENT, "PROJECT", 42L, "Comment 1", "a");
+		aggregator.notify(7L, NotificationType.COMMENT, "PROJECT", 42L, "Comment 2", "b");
+		aggregator.notify(7L, NotificationType.COMMENT, "PROJECT", 42L, "Comment 3", "c");
+		aggregator.flushAll();
+
+		verify(notificationService).create(7L, NotificationType.COMMENT, "PROJECT", 42L, "Comment 3", "c", 2);
+	}
+
+	@Test
+	void singleEventNeedsNoDigest() {
+		NotificationAggregator aggregator = aggregator(300_000);
+
+		aggregator.notify(7L, NotificationType.COMMENT, "PROJECT", 42L, "Comment 1", "a");
+		aggregator.flushAll();
+
+		verify(notificationService, never()).mergeIntoDigest(anyLong(), anyLong(), anyInt(), anyString(), anyString());
+	}
+
+	@Test
+	void otherTypesAndTargetsAreNotMerged() {
+		NotificationAggregator aggregator = aggregator(300_000);
+
+		aggregator.notify(7L, NotificationType.SYSTEM, "USER", 7L, "New sign-in", "x");
+		aggregator.notify(7L, NotificationType.SYSTEM, "USER", 7L, "New sign-in", "x");
+		aggregator.notify(7L, NotificationType.COMMENT, "PROJECT", 42L, "Comment", "a");
+		aggregator.notify(7L, NotificationType.COMMENT, "PROJECT", 43L, "Comment", "a");
+		aggregator.notify(8L, NotificationType.COMMENT, "PROJECT", 42L, "Comment", "a");
+
+		verify(notificationService, times(2)).create(7L, NotificationType.SYSTEM, "USER", 7L, "New sign-in", "x", 1);
+		verify(notificationService, times(3)).create(anyLong(), eq(NotificationType.COMMENT), eq("PROJECT"), anyLong(),
+				eq("Comment"), eq("a"), eq(1));
+	}
+}
@@ -0,0 +1,103 @@
+package com.learn.brainbridge.service;
+
+import com.learn.brainbridge.Exception.BadRequestException;
+import com.learn.brainbridge.entity.Projects;
+import com.learn.brainbridge.repository.ProjectsRepository;
+import com.learn.brainbridge.util.InvertedIndex;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Writes that happen while the index is rebuilt from an older snapshot must win over the snapshot,
+ * and paging stops at a bounded depth.
+ */
+class ProjectSearchServiceTests {
+
+	private ProjectsRepository repo;
+	private ProjectSearchService searchService;
+
+	@BeforeEach
+	void setUp() {
+		repo = mock(ProjectsRepository.class);
+		searchService = new ProjectSearchService(repo, mock(EntityManager.class), mock(PlatformTransactionManager.class));
+	}
+
+	@Test
+	void updateDuringRebuildIsNotOverwrittenByTheSnapshot() {
+		Projects stale = project(1, "Old title");
+		Projects fresh = project(1, "Renamed rocket");
+		// the live update lands while the rebuild is still streaming, before it reaches row 1
+		when(repo.streamAllOrdered()).thenReturn(Stream.of(project(2, "Other"), stale)
+				.peek(row -> liveWriteAt(row, 2, () -> searchService.index(fresh))));
+
+		searchService.rebuildIndex();
+
+		assertThat(hits("rocket")).containsExactly(1);
+		assertThat(hits("old")).isEmpty();
+	}
+
+	@Test
+	void deleteDuringRebuildIsNotResurrectedByTheSnapshot() {
+		Projects deleted = project(1, "Deleted rocket");
+		when(repo.streamAllOrdered()).thenReturn(Stream.of(project(2, "Other"), deleted)
+				.peek(row -> liveWriteAt(row, 2, () -> searchService.remove(1))));
+
+		searchService.rebuildIndex();
+
+		assertThat(hits("rocket")).isEmpty();
+		assertThat(hits("other")).containsExactly(2);
+	}
+
+	@Test
+	void writesAfterTheRebuildApplyDirectly() {
+		when(repo.streamAllOrdered()).thenReturn(Stream.of(project(1, "Old title")));
+		searchService.rebuildIndex();
+
+		searchService.index(project(1, "New rocket"));
+
+		assertThat(hits("rocket")).containsExactly(1);
+		assertThat(hits("old")).isEmpty();
+	}
+
+	@Test
+	void deepPagesAreRejected() {
+		searchService.index(project(1, "Solar panel"));
+
+		assertThat(searchService.search("solar", 99, 100).getHits()).isEmpty();
+		assertThatThrownBy(() -> searchService.search("solar", 100, 100)).isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> searchService.search("solar", 10_000_000, 100)).isInstanceOf(BadRequestException.class);
+		// page x size overflows int
+		assertThatThrownBy(() -> searchService.search("solar", 30_000_000, 100)).isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> searchService.search("solar", Integer.MAX_VALUE, 100)).isInstanceOf(BadRequestException.class);
+	}
+
+	private static void liveWriteAt(Projects row, int id, Runnable write) {
+		if (row.getId() == id) {
+			write.run();
+		}
+	}
+
+	private List<Integer> hits(String query) {
+		InvertedIndex index = (InvertedIndex) ReflectionTestUtils.getField(searchService, "index");
+		return index.search(query, 0, 10).hits().stream().map(InvertedIndex.Hit::docId).toList();
+	}
+
+	private static Projects project(int id, String title) {
+		Projects project = new Projects();
+		project.setTitle(title);
+		project.setDescription("");
+		ReflectionTestUtils.setField(project, "id", id);
+		return project;
+	}
+}
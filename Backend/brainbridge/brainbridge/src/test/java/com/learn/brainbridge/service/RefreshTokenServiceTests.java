@@ -0,0 +1,124 @@
+package com.learn.brainbridge.service;
+
+import com.learn.brainbridge.Exception.BadRequestException;
+import com.learn.brainbridge.dtos.RefreshTokenRecordDTO;
+import com.learn.brainbridge.entity.RefreshToken;
+import com.learn.brainbridge.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * refresh_tokens decides whenever memory does not know a token or another instance may have changed it.
+ */
+class RefreshTokenServiceTests {
+
+	private RefreshTokenRepository repository;
+	private RefreshTokenService service;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(RefreshTokenRepository.class);
+		AtomicLong ids = new AtomicLong(100);
+		when(repository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+			RefreshToken row = invocation.getArgument(0);
+			row.setId(ids.incrementAndGet());
+			return row;
+		});
+		when(repository.deleteByTokenHash(anyString())).thenReturn(1);
+		service = new RefreshTokenService(repository, mock(EntityManager.class), mock(PlatformTransactionManager.class),
+				new SimpleMeterRegistry(), 720, 4);
+	}
+
+	@Test
+	void tokenIssuedElsewhereIsFoundInTheTableAfterLoad() {
+		when(repository.streamValid(any())).thenReturn(Stream.empty());
+		service.load();
+		when(repository.findRecordByTokenHash(RefreshTokenService.hash("elsewhere")))
+				.thenReturn(Optional.of(row(1L, "elsewhere", 7L)));
+
+		assertThat(service.validate("elsewhere")).contains(7L);
+		assertThat(service.validate("unknown")).isEmpty();
+	}
+
+	@Test
+	void tokenRotatedWhileLoadingIsNotResurrected() {
+		RefreshTokenRecordDTO row = row(1L, "old", 7L);
+		when(repository.findRecordByTokenHash(RefreshTokenService.hash("old")))
+				.thenReturn(Optional.of(row))
+				.thenReturn(Optional.empty());
+		// the stream already read the row when the rotation deletes it
+		when(repository.streamValid(any())).thenReturn(Stream.of(row).peek(r -> service.rotate("old", null, null)));
+
+		service.load();
+
+		assertThat(service.validate("old")).isEmpty();
+		assertThat(service.size()).isEqualTo(1); // only the new token
+	}
+
+	@Test
+	void rotationFailsWhenAnotherInstanceAlreadyDeletedTheRow() {
+		when(repository.streamValid(any())).thenReturn(Stream.of(row(1L, "revoked-elsewhere", 7L)));
+		service.load();
+		assertThat(service.validate("revoked-elsewhere")).contains(7L);
+		when(repository.deleteByTokenHash(RefreshTokenService.hash("revoked-elsewhere"))).thenReturn(0);
+
+		assertThatThrownBy(() -> service.rotate("revoked-elsewhere", null, null))
+				.isInstanceOf(BadRequestException.class);
+		assertThat(service.validate("revoked-elsewhere")).isEmpty();
+	}
+
+	@Test
+	void loadSkipsUsersRevokedSinceTheStreamStarted() {
+		when(repository.streamValid(any())).thenAnswer(invocation -> {
+			service.revokeAll(7L);
+			return Stream.of(row(1L, "before-revoke", 7L));
+		});
+
+		service.load();
+
+		assertThat(service.size()).isZero();
+		assertThat(service.validate("before-revoke")).isEmpty();
+	}
+
+	@Test
+	void revokeAllInsideATransactionWaitsForTheCommit() {
+		when(repository.streamValid(any())).thenReturn(Stream.of(row(1L, "live", 7L)));
+		service.load();
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			service.revokeAll(7L);
+			verify(repository).deleteAllByUserId(7L);
+			assertThat(service.validate("live")).contains(7L);
+
+			for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCommit();
+			}
+			assertThat(service.validate("live")).isEmpty();
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	private static RefreshTokenRecordDTO row(Long id, String token, Long userId) {
+		return new RefreshTokenRecordDTO(id, RefreshTokenService.hash(token), userId, LocalDateTime.now().plusDays(1));
+	}
+}
@@ -0,0 +1,74 @@
+package com.learn.brainbridge.service;
+
+import com.learn.brainbridge.dtos.UserIdentityDTO;
+import com.learn.brainbridge.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The filters must learn about users registered on other instances before answering "free" for them.
+ */
+class UserAvailabilityServiceTests {
+
+	private static final LocalDateTime NOON = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+	private UserRepository userRepository;
+
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		when(userRepository.streamIdentitiesAfter(0L)).thenReturn(Stream.of(
+				new UserIdentityDTO(1L, "ada@example.com", "ada", NOON)));
+	}
+
+	private UserAvailabilityService service(long maxStalenessMs) {
+		return new UserAvailabilityService(userRepository, mock(PlatformTransactionManager.class),
+				new SimpleMeterRegistry(), 1000, 0.001, "", 60_000, maxStalenessMs);
+	}
+
+	@Test
+	void freeValuesAreAnsweredByTheFilter() {
+		UserAvailabilityService service = service(30_000);
+		service.rebuild();
+
+		assertThat(service.isEmailAvailable("grace@example.com")).isTrue();
+		verify(userRepository, never()).existsByEmail(any());
+	}
+
+	@Test
+	void syncPicksUpUsersRegisteredElsewhere() {
+		UserAvailabilityService service = service(30_000);
+		service.rebuild();
+		// registered on another instance; the sync reaches back by the overlap
+		when(userRepository.streamIdentitiesCreatedSince(NOON.minusMinutes(1))).thenReturn(Stream.of(
+				new UserIdentityDTO(2L, "grace@example.com", "grace", NOON.plusSeconds(5))));
+		when(userRepository.existsByEmail("grace@example.com")).thenReturn(true);
+
+		service.sync();
+
+		assertThat(service.isEmailAvailable("grace@example.com")).isFalse();
+		verify(userRepository).existsByEmail("grace@example.com");
+	}
+
+	@Test
+	void staleFiltersAreBypassed() throws InterruptedException {
+		UserAvailabilityService service = service(1);
+		service.rebuild();
+		Thread.sleep(5);
+		when(userRepository.existsByUsername("grace")).thenReturn(true);
+
+		assertThat(service.isUsernameAvailable("grace")).isFalse();
+	}
+}
@@ -0,0 +1,139 @@
+package com.learn.brainbridge.serviceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.brainbridge.Exception.BadRequestException;
+import com.learn.brainbridge.dtos.analyticsDTO;
+import com.learn.brainbridge.enums.AnalyticsOverflowPolicy;
+import com.learn.brainbridge.service.AnalyticsEventListener;
+import com.learn.brainbridge.service.AnalyticsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AnalyticsServiceImplTests {
+
+	private static final long DELETED_USER = 5L;
+
+	private DataSource dataSource;
+	/** user_id of every row the fake database stored */
+	private final List<Long> stored = Collections.synchronizedList(new ArrayList<>());
+	private final List<AnalyticsService.Event> notified = Collections.synchronizedList(new ArrayList<>());
+	private final MeterRegistry registry = new SimpleMeterRegistry();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		dataSource = mock(DataSource.class);
+		Connection connection = mock(Connection.class);
+		DatabaseMetaData meta = mock(DatabaseMetaData.class);
+		PreparedStatement statement = mock(PreparedStatement.class);
+		when(dataSource.getConnection()).thenReturn(connection);
+		when(connection.getMetaData()).thenReturn(meta);
+		when(meta.supportsBatchUpdates()).thenReturn(true);
+		when(connection.prepareStatement(anyString())).thenReturn(statement);
+		when(statement.getConnection()).thenReturn(connection);
+
+		// a batch holding a row of the deleted user fails as a whole, like a foreign key violation in Postgres
+		Long[] current = new Long[1];
+		List<Long> pending = new ArrayList<>();
+		doAnswer(invocation -> current[0] = invocation.getArgument(1))
+				.when(statement).setObject(eq(1), any(), eq(Types.BIGINT));
+		doAnswer(invocation -> pending.add(current[0])).when(statement).addBatch();
+		when(statement.executeBatch()).thenAnswer(invocation -> {
+			try {
+				if (pending.contains(DELETED_USER)) {
+					throw new BatchUpdateException("violates foreign key constraint", "23503", new int[0]);
+				}
+				stored.addAll(pending);
+				int[] counts = new int[pending.size()];
+				Arrays.fill(counts, 1);
+				return counts;
+			} finally {
+				pending.clear();
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private AnalyticsServiceImpl service(int bufferSize, AnalyticsOverflowPolicy policy, long blockTimeoutMs) {
+		AnalyticsEventListener listener = notified::addAll;
+		ObjectProvider<AnalyticsEventListener> listeners = mock(ObjectProvider.class);
+		when(listeners.orderedStream()).thenAnswer(invocation -> Stream.of(listener));
+		return new AnalyticsServiceImpl(dataSource, new ObjectMapper(), registry, listeners, bufferSize, policy,
+				blockTimeoutMs, 8, 10, 1, 4096, 86_400_000);
+	}
+
+	@Test
+	void rowTheDatabaseRejectsDoesNotTakeItsBatchDown() throws InterruptedException {
+		AnalyticsServiceImpl service = service(1024, AnalyticsOverflowPolicy.DROP_NEWEST, 50);
+		service.start();
+
+		for (long user = 1; user <= 8; user++) {
+			service.ingest(user, List.of(event()));
+		}
+		service.stop();
+
+		assertThat(stored).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 6L, 7L, 8L);
+		assertThat(notified).extracting(AnalyticsService.Event::userId).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 6L, 7L, 8L);
+		assertThat(count("written")).isEqualTo(7);
+		assertThat(count("failed")).isEqualTo(1);
+	}
+
+	@Test
+	void blockWaitsOncePerRequestNotPerEvent() {
+		// no writers running: nothing makes room
+		AnalyticsServiceImpl service = service(2, AnalyticsOverflowPolicy.BLOCK, 100);
+		List<analyticsDTO> events = Collections.nCopies(10, event());
+
+		long started = System.nanoTime();
+		AnalyticsService.IngestResult result = service.ingest(1L, events);
+		long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+		assertThat(result).isEqualTo(new AnalyticsService.IngestResult(2, 8));
+		assertThat(elapsedMs).isGreaterThanOrEqualTo(100).isLessThan(400); // 8 separate waits would take 800
+	}
+
+	@Test
+	void eventsOlderThanTheMaxLatenessAreRejected() {
+		AnalyticsServiceImpl service = service(1024, AnalyticsOverflowPolicy.DROP_NEWEST, 50);
+		analyticsDTO old = event();
+		old.setOccurredAt(LocalDateTime.now().minusDays(2));
+		analyticsDTO recent = event();
+		recent.setOccurredAt(LocalDateTime.now().minusHours(2));
+
+		assertThatThrownBy(() -> service.ingest(1L, List.of(recent, old))).isInstanceOf(BadRequestException.class);
+		assertThat(service.getQueuedEvents()).isZero();
+		assertThat(service.ingest(1L, List.of(recent)).accepted()).isEqualTo(1);
+	}
+
+	private double count(String outcome) {
+		return registry.get("brainbridge.analytics.events").tag("outcome", outcome).counter().count();
+	}
+
+	private static analyticsDTO event() {
+		return new analyticsDTO("project_view", null, null, null, null);
+	}
+}
@@ -0,0 +1,176 @@
+package com.learn.brainbridge.serviceImpl;
+
+import com.learn.brainbridge.config.CacheConfig;
+import com.learn.brainbridge.dtos.UserDTO;
+import com.learn.brainbridge.entity.User;
+import com.learn.brainbridge.repository.EmailVerificationTokenRepository;
+import com.learn.brainbridge.repository.PasswordResetTokenRepository;
+import com.learn.brainbridge.repository.UserRepository;
+import com.learn.brainbridge.service.JwtService;
+import com.learn.brainbridge.service.RefreshTokenService;
+import com.learn.brainbridge.service.UserAvailabilityService;
+import com.learn.brainbridge.util.SingleFlight;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The "users" cache holds immutable copies, is only written once the change is committed and never
+ * goes back to an older version.
+ */
+class UserServiceImplTests {
+
+	private UserRepository userRepository;
+	private CacheManager cacheManager;
+	private UserServiceImpl service;
+
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		cacheManager = new ConcurrentMapCacheManager(CacheConfig.USERS);
+		service = new UserServiceImpl();
+		ReflectionTestUtils.setField(service, "userRepository", userRepository);
+		ReflectionTestUtils.setField(service, "cacheManager", cacheManager);
+		ReflectionTestUtils.setField(service, "userLoads", new SingleFlight("userLoads", Duration.ofSeconds(5)));
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void changingAReturnedUserDoesNotChangeTheCachedOne() {
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, "Ada")));
+
+		UserDTO first = service.getUserById(1L);
+		first.setFirstName("Mallory");
+		UserDTO second = service.getUserById(1L);
+
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getFirstName()).isEqualTo("Ada");
+		verify(userRepository, times(1)).findById(1L);
+	}
+
+	@Test
+	void updateRefreshesTheCacheOnlyAfterCommit() {
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, "Ada")));
+		service.getUserById(1L);
+		when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		UserDTO changes = new UserDTO();
+		changes.setFirstName("Grace");
+
+		TransactionSynchronizationManager.initSynchronization();
+		service.updateUser(1L, changes);
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, "Grace")));
+		assertThat(cachedFirstName(1L)).isEqualTo("Ada");
+
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCommit();
+		}
+		assertThat(cachedFirstName(1L)).isEqualTo("Grace");
+	}
+
+	@Test
+	void loadThatReadBeforeAnUpdateDoesNotPutTheOldCopyBack() {
+		when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+			User saved = invocation.getArgument(0);
+			saved.setVersion(saved.getVersion() + 1);
+			return saved;
+		});
+		AtomicBoolean updated = new AtomicBoolean();
+		when(userRepository.findById(1L)).thenAnswer(invocation -> {
+			User snapshot = user(1L, "Ada");
+			if (updated.compareAndSet(false, true)) {
+				// the load has read the row; an update commits and refreshes the cache before the load caches it
+				UserDTO changes = new UserDTO();
+				changes.setFirstName("Grace");
+				service.updateUser(1L, changes);
+			}
+			return Optional.of(snapshot);
+		});
+
+		assertThat(service.getUserById(1L).getFirstName()).isEqualTo("Ada");
+
+		assertThat(cachedFirstName(1L)).isEqualTo("Grace");
+		assertThat(service.getUserVersion(1L).version()).isEqualTo(1L);
+		verify(userRepository, times(2)).findById(1L);
+	}
+
+	@Test
+	void rolledBackUpdateLeavesTheCacheAlone() {
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, "Ada")));
+		service.getUserById(1L);
+		when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		UserDTO changes = new UserDTO();
+		changes.setFirstName("Grace");
+
+		TransactionSynchronizationManager.initSynchronization();
+		service.updateUser(1L, changes);
+		TransactionSynchronizationManager.clearSynchronization(); // rollback: afterCommit never runs
+
+		assertThat(cachedFirstName(1L)).isEqualTo("Ada");
+	}
+
+	@Test
+	void deleteSignsTheUserOutOnlyAfterCommit() {
+		JwtService jwtService = mock(JwtService.class);
+		UserAvailabilityService availability = mock(UserAvailabilityService.class);
+		ReflectionTestUtils.setField(service, "jwtService", jwtService);
+		ReflectionTestUtils.setField(service, "userAvailabilityService", availability);
+		ReflectionTestUtils.setField(service, "refreshTokenService", mock(RefreshTokenService.class));
+		ReflectionTestUtils.setField(service, "emailVerificationTokenRepository", mock(EmailVerificationTokenRepository.class));
+		ReflectionTestUtils.setField(service, "passwordResetTokenRepository", mock(PasswordResetTokenRepository.class));
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, "Ada")));
+		when(userRepository.existsById(1L)).thenReturn(true);
+		service.getUserById(1L);
+
+		TransactionSynchronizationManager.initSynchronization();
+		service.deleteUser(1L);
+		verify(userRepository).deleteById(1L);
+		verify(jwtService, never()).revokeAllIssuedBefore(any(), any());
+		verify(availability, never()).recordDeletion();
+		assertThat(cacheManager.getCache(CacheConfig.USERS).get(1L)).isNotNull();
+
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCommit();
+		}
+		verify(jwtService).revokeAllIssuedBefore(eq(1L), any());
+		verify(availability).recordDeletion();
+		assertThat(cacheManager.getCache(CacheConfig.USERS).get(1L)).isNull();
+	}
+
+	private String cachedFirstName(Long id) {
+		return service.getUserById(id).getFirstName();
+	}
+
+	private static User user(Long id, String firstName) {
+		User user = new User();
+		user.setId(id);
+		user.setEmail("user" + id + "@example.com");
+		user.setUsername("user" + id);
+		user.setFirstName(firstName);
+		user.setVersion(0L);
+		return user;
+	}
+}
@@ -0,0 +1,99 @@
+package com.learn.brainbridge.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTests {
+
+	@Test
+	void neverForgetsAnAddedValue() {
+		BloomFilter filter = BloomFilter.create(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("user" + i + "@example.com");
+		}
+
+		for (int i = 0; i < 10_000; i++) {
+			assertThat(filter.mightContain("user" + i + "@example.com")).isTrue();
+		}
+	}
+
+	@Test
+	void falsePositivesStayNearTheConfiguredRate() {
+		BloomFilter filter = BloomFilter.create(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("user" + i);
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("other" + i)) {
+				falsePositives++;
+			}
+		}
+
+		assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+		assertThat(filter.expectedFalsePositiveRate()).isBetween(0.005, 0.02);
+	}
+
+	@Test
+	void putReportsWhetherTheValueWasNew() {
+		BloomFilter filter = BloomFilter.create(1000, 0.001);
+
+		assertThat(filter.put("ada")).isTrue();
+		assertThat(filter.put("ada")).isFalse();
+	}
+
+	@Test
+	void approximateCountIsCloseToTheDistinctValuesAdded() {
+		BloomFilter filter = BloomFilter.create(100_000, 0.001);
+		for (int i = 0; i < 50_000; i++) {
+			filter.put("user" + i);
+			filter.put("user" + i);
+		}
+
+		assertThat(filter.approximateCount()).isBetween(48_500L, 51_500L);
+	}
+
+	@Test
+	void snapshotRoundTripKeepsEveryBit() throws IOException {
+		BloomFilter filter = BloomFilter.create(5000, 0.01);
+		for (int i = 0; i < 5000; i++) {
+			filter.put("user" + i);
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		filter.writeTo(new DataOutputStream(bytes));
+
+		BloomFilter copy = BloomFilter.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+		assertThat(copy.bitSize()).isEqualTo(filter.bitSize());
+		assertThat(copy.approximateCount()).isEqualTo(filter.approximateCount());
+		for (int i = 0; i < 5000; i++) {
+			assertThat(copy.mightContain("user" + i)).isTrue();
+		}
+		for (int i = 0; i < 1000; i++) {
+			assertThat(copy.mightContain("other" + i)).isEqualTo(filter.mightContain("other" + i));
+		}
+	}
+
+	@Test
+	void rejectsSomethingThatIsNotASnapshot() {
+		byte[] garbage = {1, 2, 3, 4, 5, 6, 7, 8};
+
+		assertThatThrownBy(() -> BloomFilter.readFrom(new DataInputStream(new ByteArrayInputStream(garbage))))
+				.isInstanceOf(IOException.class);
+	}
+
+	@Test
+	void rejectsImpossibleSizes() {
+		assertThatThrownBy(() -> BloomFilter.create(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> BloomFilter.create(100, 1.0)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,86 @@
+package com.learn.brainbridge.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CountMinSketchTests {
+
+	/** item i is added 1 + 10000 / i times: a few heavy items and a long tail */
+	private static long trueCount(long item) {
+		return 1 + 10_000 / item;
+	}
+
+	private static CountMinSketch skewed(long from, long to) {
+		CountMinSketch sketch = new CountMinSketch(4, 256);
+		for (long item = from; item < to; item++) {
+			sketch.add(item, trueCount(item));
+		}
+		return sketch;
+	}
+
+	@Test
+	void neverUndercountsAndRarelyExceedsTheErrorBound() {
+		CountMinSketch sketch = skewed(1, 20_001);
+
+		int beyondBound = 0;
+		for (long item = 1; item <= 20_000; item++) {
+			long estimate = sketch.estimate(item);
+			assertThat(estimate).isGreaterThanOrEqualTo(trueCount(item));
+			if (estimate - trueCount(item) > sketch.errorBound()) {
+				beyondBound++;
+			}
+		}
+		// bound holds with probability 1 - e^-4 (98%) per item
+		assertThat(beyondBound).isLessThan(20_000 / 50);
+	}
+
+	@Test
+	void mergeEqualsCountingBothStreams() {
+		CountMinSketch merged = skewed(1, 5_000);
+		merged.merge(skewed(5_000, 10_000));
+
+		CountMinSketch both = skewed(1, 10_000);
+
+		assertThat(merged.getTotal()).isEqualTo(both.getTotal());
+		assertThat(merged.toBytes()).isEqualTo(both.toBytes());
+		assertThatThrownBy(() -> merged.merge(new CountMinSketch(4, 512)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void snapshotRoundTrips() {
+		CountMinSketch sketch = skewed(1, 1_000);
+
+		CountMinSketch read = CountMinSketch.fromBytes(sketch.toBytes(), 4, 256);
+
+		assertThat(read.toBytes()).isEqualTo(sketch.toBytes());
+		assertThat(read.estimate(7)).isEqualTo(sketch.estimate(7));
+	}
+
+	@Test
+	void refusesSnapshotsLargerThanTheCallerExpects() {
+		byte[] bytes = new CountMinSketch(8, 256).toBytes();
+
+		assertThatThrownBy(() -> CountMinSketch.fromBytes(bytes, 4, 256))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CountMinSketch.fromBytes(bytes, 8, 128))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void headerCannotClaimMoreCountersThanTheBlobHolds() {
+		// claims 16 x 2^20 counters, carries none
+		ByteArrayOutputStream forged = new ByteArrayOutputStream();
+		forged.write(1);
+		SketchEncoding.writeVarLong(forged, 16);
+		SketchEncoding.writeVarLong(forged, 1 << 20);
+		SketchEncoding.writeVarLong(forged, 0);
+
+		assertThatThrownBy(() -> CountMinSketch.fromBytes(forged.toByteArray(), 16, 1 << 20))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
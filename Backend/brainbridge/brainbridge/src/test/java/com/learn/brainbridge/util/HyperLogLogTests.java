@@ -0,0 +1,117 @@
+package com.learn.brainbridge.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HyperLogLogTests {
+
+	private static HyperLogLog of(long from, long to) {
+		HyperLogLog sketch = new HyperLogLog(12);
+		for (long value = from; value < to; value++) {
+			sketch.add(value);
+		}
+		return sketch;
+	}
+
+	@Test
+	void estimatesStayWithinThreeStandardErrors() {
+		for (long n : new long[]{10, 100, 1_000, 10_000, 100_000, 1_000_000}) {
+			HyperLogLog sketch = of(0, n);
+
+			assertThat(Math.abs(sketch.estimate() - n) / (double) n)
+					.as("error at n = %d", n)
+					.isLessThanOrEqualTo(3 * sketch.standardError());
+		}
+	}
+
+	@Test
+	void duplicatesAreNotCounted() {
+		HyperLogLog sketch = of(0, 1_000);
+		long estimate = sketch.estimate();
+
+		for (long value = 0; value < 1_000; value++) {
+			sketch.add(value);
+		}
+
+		assertThat(sketch.estimate()).isEqualTo(estimate);
+	}
+
+	@Test
+	void switchesFromSparseToDenseWithoutAJump() {
+		HyperLogLog sketch = new HyperLogLog(12);
+		long previous = 0;
+		boolean sawDense = false;
+		for (long value = 0; value < 5_000; value++) {
+			sketch.add(value);
+			long estimate = sketch.estimate();
+			// one more distinct value moves the estimate by a few at most, also across the switch
+			assertThat(estimate - previous).isBetween(-5L, 5L);
+			previous = estimate;
+			sawDense |= sketch.toBytes()[0] == 2;
+		}
+
+		assertThat(of(0, 500).toBytes()[0]).isEqualTo((byte) 1);
+		assertThat(sawDense).isTrue();
+	}
+
+	@Test
+	void mergeEqualsTheSketchOfTheUnion() {
+		// sparse + sparse, sparse + dense, dense + sparse, dense + dense
+		long[][] halves = {{0, 300, 200, 600}, {0, 300, 100, 50_000}, {0, 50_000, 40_000, 40_300}, {0, 60_000, 40_000, 100_000}};
+		for (long[] half : halves) {
+			HyperLogLog merged = of(half[0], half[1]);
+			merged.merge(of(half[2], half[3]));
+			HyperLogLog union = of(Math.min(half[0], half[2]), Math.max(half[1], half[3]));
+
+			assertThat(merged.estimate()).isEqualTo(union.estimate());
+			assertThat(merged.toBytes()).isEqualTo(union.toBytes());
+		}
+	}
+
+	@Test
+	void mergeRejectsOtherPrecisions() {
+		assertThatThrownBy(() -> new HyperLogLog(12).merge(new HyperLogLog(14)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void sparseSnapshotRoundTrips() {
+		HyperLogLog sketch = of(0, 300);
+		byte[] bytes = sketch.toBytes();
+
+		HyperLogLog read = HyperLogLog.fromBytes(bytes);
+
+		assertThat(bytes[0]).isEqualTo((byte) 1);
+		assertThat(read.estimate()).isEqualTo(sketch.estimate());
+		assertThat(read.toBytes()).isEqualTo(bytes);
+	}
+
+	@Test
+	void denseSnapshotRoundTripsInSixBitsPerRegister() {
+		HyperLogLog sketch = of(0, 100_000);
+		byte[] bytes = sketch.toBytes();
+
+		HyperLogLog read = HyperLogLog.fromBytes(bytes);
+
+		assertThat(bytes[0]).isEqualTo((byte) 2);
+		assertThat(bytes).hasSize(2 + 4096 * 6 / 8);
+		assertThat(read.estimate()).isEqualTo(sketch.estimate());
+		assertThat(read.toBytes()).isEqualTo(bytes);
+	}
+
+	@Test
+	void rejectsBrokenSnapshots() {
+		byte[] dense = of(0, 100_000).toBytes();
+
+		assertThatThrownBy(() -> HyperLogLog.fromBytes(Arrays.copyOf(dense, dense.length / 2)))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[]{9, 12}))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[]{1, 30}))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,120 @@
+package com.learn.brainbridge.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTests {
+
+	private final InvertedIndex index = new InvertedIndex(3f, 1f);
+
+	@Test
+	void titleMatchesOutrankDescriptionMatches() {
+		index.upsert(1, "Weather station", "Collects rainfall data with a robot arm");
+		index.upsert(2, "Robot arm", "Open hardware for the lab");
+		index.upsert(3, "Recipe book", "Nothing to see here");
+
+		InvertedIndex.Result result = index.search("robot", 0, 10);
+
+		assertThat(result.totalHits()).isEqualTo(2);
+		assertThat(ids(result)).containsExactly(2, 1);
+	}
+
+	@Test
+	void misspelledTermsFindTheClosestKnownTerm() {
+		index.upsert(1, "Project tracker", null);
+		index.upsert(2, "Garden planner", null);
+
+		assertThat(ids(index.search("projcet", 0, 10))).containsExactly(1);
+		assertThat(ids(index.search("gardn planer", 0, 10))).containsExactly(2);
+	}
+
+	@Test
+	void termsSharingNoTrigramsDoNotMatch() {
+		index.upsert(1, "Project tracker", null);
+
+		assertThat(index.search("xyz", 0, 10).totalHits()).isZero();
+	}
+
+	@Test
+	void stopWordsAndShortTokensAreIgnored() {
+		index.upsert(1, "The art of the deal", null);
+
+		assertThat(InvertedIndex.tokenize("The art of a X")).containsExactly("art");
+		assertThat(index.search("the of a", 0, 10).totalHits()).isZero();
+	}
+
+	@Test
+	void upsertReplacesThePreviousText() {
+		index.upsert(1, "Solar panel", null);
+		index.upsert(1, "Wind turbine", null);
+
+		assertThat(index.size()).isEqualTo(1);
+		assertThat(index.search("solar", 0, 10).totalHits()).isZero();
+		assertThat(ids(index.search("turbine", 0, 10))).containsExactly(1);
+	}
+
+	@Test
+	void removeDropsTheDocumentAndItsTerms() {
+		index.upsert(1, "Solar panel", null);
+		index.upsert(2, "Solar oven", null);
+
+		index.remove(1);
+
+		assertThat(index.size()).isEqualTo(1);
+		assertThat(ids(index.search("solar", 0, 10))).containsExactly(2);
+		// "panel" left the dictionary, so it is no longer an exact match for anything
+		assertThat(index.search("panel", 0, 10).totalHits()).isZero();
+	}
+
+	@Test
+	void pagesSliceTheRanking() {
+		for (int id = 1; id <= 25; id++) {
+			// more occurrences of "data" rank higher
+			index.upsert(id, "data ".repeat(id), "filler text number " + id);
+		}
+
+		InvertedIndex.Result first = index.search("data", 0, 10);
+		InvertedIndex.Result third = index.search("data", 20, 10);
+
+		assertThat(first.totalHits()).isEqualTo(25);
+		assertThat(ids(first)).startsWith(25, 24, 23).hasSize(10);
+		assertThat(ids(third)).containsExactly(5, 4, 3, 2, 1);
+		assertThat(index.search("data", 30, 10).hits()).isEmpty();
+	}
+
+	@Test
+	void requestedDepthDoesNotSizeTheHeap() {
+		for (int id = 1; id <= 5; id++) {
+			index.upsert(id, "data ".repeat(id), null);
+		}
+
+		assertThat(index.search("data", Integer.MAX_VALUE - 1, 100).hits()).isEmpty();
+		assertThat(ids(index.search("data", 3, Integer.MAX_VALUE))).containsExactly(2, 1);
+	}
+
+	@Test
+	void postingMapSurvivesGrowthAndTombstones() {
+		InvertedIndex.IntFloatMap map = new InvertedIndex.IntFloatMap();
+		for (int key = 0; key < 1000; key++) {
+			map.put(key, key);
+		}
+		for (int key = 0; key < 1000; key += 2) {
+			map.remove(key);
+		}
+		map.add(7, 0.5f);
+		map.max(9, 3f);
+
+		assertThat(map.size()).isEqualTo(500);
+		assertThat(map.get(4)).isZero();
+		assertThat(map.get(7)).isEqualTo(7.5f);
+		assertThat(map.get(9)).isEqualTo(9f);
+		assertThat(map.get(999)).isEqualTo(999f);
+	}
+
+	private static List<Integer> ids(InvertedIndex.Result result) {
+		return result.hits().stream().map(InvertedIndex.Hit::docId).toList();
+	}
+}
@@ -0,0 +1,125 @@
+package com.learn.brainbridge.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MpmcRingBufferTests {
+
+	@Test
+	void capacityIsRoundedUpToAPowerOfTwo() {
+		assertThat(new MpmcRingBuffer<Integer>(2).capacity()).isEqualTo(2);
+		assertThat(new MpmcRingBuffer<Integer>(5).capacity()).isEqualTo(8);
+		assertThat(new MpmcRingBuffer<Integer>(1024).capacity()).isEqualTo(1024);
+		assertThatThrownBy(() -> new MpmcRingBuffer<Integer>(1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void emptyBufferHasNothingToGive() {
+		MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(4);
+
+		assertThat(buffer.poll()).isNull();
+		assertThat(buffer.peek()).isNull();
+		assertThat(buffer.isEmpty()).isTrue();
+	}
+
+	@Test
+	void fullBufferRefusesUntilAnElementIsTaken() {
+		MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(4);
+		for (int i = 0; i < 4; i++) {
+			assertThat(buffer.offer(i)).isTrue();
+		}
+
+		assertThat(buffer.offer(4)).isFalse();
+		assertThat(buffer.size()).isEqualTo(4);
+		assertThat(buffer.poll()).isZero();
+		assertThat(buffer.offer(4)).isTrue();
+		assertThat(buffer.peek()).isEqualTo(1);
+	}
+
+	@Test
+	void staysFifoAcrossManyLaps() {
+		MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(4);
+		int next = 0;
+		int expected = 0;
+		for (int round = 0; round < 1000; round++) {
+			// alternate fill levels so head and tail wrap at different slots
+			int count = 1 + round % 4;
+			for (int i = 0; i < count; i++) {
+				assertThat(buffer.offer(next++)).isTrue();
+			}
+			List<Integer> drained = new ArrayList<>();
+			assertThat(buffer.drainTo(drained, count)).isEqualTo(count);
+			for (Integer value : drained) {
+				assertThat(value).isEqualTo(expected++);
+			}
+		}
+		assertThat(buffer.isEmpty()).isTrue();
+	}
+
+	@Test
+	void rejectsNull() {
+		assertThatThrownBy(() -> new MpmcRingBuffer<Integer>(4).offer(null)).isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	void concurrentProducersAndConsumersLoseAndDuplicateNothing() throws InterruptedException {
+		int producers = 4;
+		int consumers = 4;
+		int perProducer = 20_000;
+		MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(64);
+		ConcurrentLinkedQueue<Integer> taken = new ConcurrentLinkedQueue<>();
+		AtomicInteger remaining = new AtomicInteger(producers * perProducer);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int p = 0; p < producers; p++) {
+			int base = p * perProducer;
+			threads.add(new Thread(() -> {
+				await(start);
+				for (int i = 0; i < perProducer; i++) {
+					while (!buffer.offer(base + i)) {
+						Thread.yield();
+					}
+				}
+			}));
+		}
+		for (int c = 0; c < consumers; c++) {
+			threads.add(new Thread(() -> {
+				await(start);
+				while (remaining.get() > 0) {
+					Integer value = buffer.poll();
+					if (value == null) {
+						Thread.yield();
+						continue;
+					}
+					remaining.decrementAndGet();
+					taken.add(value);
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join(30_000);
+		}
+
+		assertThat(taken).hasSize(producers * perProducer);
+		assertThat(taken.stream().distinct().count()).isEqualTo(producers * perProducer);
+		assertThat(buffer.isEmpty()).isTrue();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
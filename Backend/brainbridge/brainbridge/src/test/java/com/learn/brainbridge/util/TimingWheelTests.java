@@ -0,0 +1,87 @@
+package com.learn.brainbridge.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimingWheelTests {
+
+	private static final long TICK = 1000;
+
+	@Test
+	void firesOnlyOnceTheDeadlinePassed() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+		wheel.schedule("a", 5_500);
+		List<String> fired = new ArrayList<>();
+
+		wheel.advance(5_000, fired::add);
+		assertThat(fired).isEmpty();
+
+		wheel.advance(6_000, fired::add);
+		assertThat(fired).containsExactly("a");
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void cancelledEntriesNeverFire() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+		TimingWheel.Timeout<String> timeout = wheel.schedule("a", 3_000);
+		wheel.schedule("b", 3_000);
+
+		assertThat(wheel.cancel(timeout)).isTrue();
+		assertThat(wheel.cancel(timeout)).isFalse();
+
+		List<String> fired = new ArrayList<>();
+		wheel.advance(10_000, fired::add);
+		assertThat(fired).containsExactly("b");
+	}
+
+	@Test
+	void deadlinesOnCoarserLevelsCascadeDownAndFireOnTime() {
+		TimingWheel<Long> wheel = new TimingWheel<>(TICK, 0);
+		// level 1 (minutes), level 2 (hours), level 3 (days) and the overflow list
+		long[] deadlines = {100_000, 5_000_000, 300_000_000, 20_000_000_000L};
+		for (long deadline : deadlines) {
+			wheel.schedule(deadline, deadline);
+		}
+
+		for (long deadline : deadlines) {
+			List<Long> fired = new ArrayList<>();
+			wheel.advance(deadline - TICK, fired::add);
+			assertThat(fired).as("before %d", deadline).isEmpty();
+			wheel.advance(deadline, fired::add);
+			assertThat(fired).as("at %d", deadline).containsExactly(deadline);
+		}
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void pastDeadlinesFireOnTheNextAdvance() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK, 10_000);
+		wheel.schedule("late", 1_000);
+		List<String> fired = new ArrayList<>();
+
+		wheel.advance(10_000, fired::add);
+
+		assertThat(fired).containsExactly("late");
+	}
+
+	@Test
+	void cancelWorksAfterAnEntryWasCascaded() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+		TimingWheel.Timeout<String> timeout = wheel.schedule("a", 200_000);
+		wheel.advance(150_000, value -> { });
+
+		assertThat(wheel.cancel(timeout)).isTrue();
+		assertThat(wheel.advance(300_000, value -> { })).isZero();
+	}
+
+	@Test
+	void rejectsNonPositiveTicks() {
+		assertThatThrownBy(() -> new TimingWheel<String>(0, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,112 @@
+package com.learn.brainbridge.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketTests {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	void burstUpToCapacityThenWaitForOneInterval() {
+		TokenBucket bucket = new TokenBucket(5, Duration.ofSeconds(5), 0);
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(bucket.tryAcquire(0)).isZero();
+		}
+		assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND);
+		assertThat(bucket.available(0)).isZero();
+	}
+
+	@Test
+	void refillsOneTokenPerInterval() {
+		TokenBucket bucket = new TokenBucket(5, Duration.ofSeconds(5), 0);
+		for (int i = 0; i < 5; i++) {
+			bucket.tryAcquire(0);
+		}
+
+		assertThat(bucket.tryAcquire(SECOND / 2)).isEqualTo(SECOND / 2);
+		assertThat(bucket.tryAcquire(SECOND)).isZero();
+		assertThat(bucket.available(3 * SECOND)).isEqualTo(2);
+		assertThat(bucket.isFull(6 * SECOND)).isTrue();
+	}
+
+	@Test
+	void idleTimeDoesNotStoreMoreThanCapacity() {
+		TokenBucket bucket = new TokenBucket(3, Duration.ofSeconds(3), 0);
+		long later = 3600 * SECOND;
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(bucket.tryAcquire(later)).isZero();
+		}
+		assertThat(bucket.tryAcquire(later)).isPositive();
+	}
+
+	@Test
+	void releaseGivesATokenBackButNeverBeyondCapacity() {
+		TokenBucket bucket = new TokenBucket(2, Duration.ofSeconds(2), 0);
+		bucket.tryAcquire(0);
+		bucket.tryAcquire(0);
+
+		bucket.release(0);
+		assertThat(bucket.available(0)).isEqualTo(1);
+		bucket.release(0);
+		bucket.release(0);
+		assertThat(bucket.isFull(0)).isTrue();
+		assertThat(bucket.available(0)).isEqualTo(2);
+	}
+
+	@Test
+	void survivesNanoTimeWrapAround() {
+		long start = Long.MAX_VALUE - SECOND / 2;
+		TokenBucket bucket = new TokenBucket(1, Duration.ofSeconds(1), start);
+
+		assertThat(bucket.tryAcquire(start)).isZero();
+		assertThat(bucket.tryAcquire(start + SECOND / 2)).isEqualTo(SECOND / 2); // now past Long.MAX_VALUE
+		assertThat(bucket.tryAcquire(start + SECOND)).isZero();
+	}
+
+	@Test
+	void concurrentCallersNeverTakeMoreThanCapacity() throws InterruptedException {
+		TokenBucket bucket = new TokenBucket(1000, Duration.ofHours(1), 0);
+		AtomicInteger granted = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < 1000; i++) {
+					if (bucket.tryAcquire(0) == 0) {
+						granted.incrementAndGet();
+					}
+				}
+			});
+			threads[t].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertThat(granted.get()).isEqualTo(1000);
+	}
+
+	@Test
+	void rejectsEmptyBuckets() {
+		assertThatThrownBy(() -> new TokenBucket(0, Duration.ofSeconds(1), 0))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new TokenBucket(1, Duration.ZERO, 0))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
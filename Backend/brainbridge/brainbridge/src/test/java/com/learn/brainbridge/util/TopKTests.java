@@ -0,0 +1,90 @@
+package com.learn.brainbridge.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TopKTests {
+
+	/** items 1..10 are hot (1000, 950, ...); 5000 others are hit once each */
+	private static void feed(TopK topK, long from, long to) {
+		for (long item = from; item < to; item++) {
+			topK.add(item, item <= 10 ? 1_050 - item * 50 : 1);
+		}
+	}
+
+	private static List<Long> ids(List<TopK.Entry> entries) {
+		return entries.stream().map(TopK.Entry::item).toList();
+	}
+
+	@Test
+	void findsTheHeaviestItemsInOrder() {
+		TopK topK = new TopK(100, 4, 1024);
+		feed(topK, 1, 5_011);
+
+		List<TopK.Entry> top = topK.top(10);
+
+		assertThat(ids(top)).containsExactlyElementsOf(LongStream.rangeClosed(1, 10).boxed().toList());
+		for (TopK.Entry entry : top) {
+			assertThat(entry.count()).isGreaterThanOrEqualTo(1_050 - entry.item() * 50);
+		}
+	}
+
+	@Test
+	void mergeMatchesOneSketchOverBothStreams() {
+		TopK left = new TopK(100, 4, 1024);
+		TopK right = new TopK(100, 4, 1024);
+		TopK both = new TopK(100, 4, 1024);
+		// the hot items are split over both sides
+		feed(left, 1, 2_500);
+		feed(right, 2_500, 5_011);
+		feed(both, 1, 5_011);
+		for (long item = 1; item <= 10; item += 2) {
+			left.add(item, 100);
+			right.add(item + 1, 100);
+			both.add(item, 100);
+			both.add(item + 1, 100);
+		}
+
+		left.merge(right);
+
+		assertThat(left.top(10)).isEqualTo(both.top(10));
+	}
+
+	@Test
+	void snapshotRoundTrips() {
+		TopK topK = new TopK(100, 4, 1024);
+		feed(topK, 1, 5_011);
+
+		TopK read = TopK.fromBytes(topK.toBytes(), 100, 4, 1024);
+
+		assertThat(read.top(50)).isEqualTo(topK.top(50));
+		assertThat(read.toBytes()).hasSameSizeAs(topK.toBytes());
+	}
+
+	@Test
+	void refusesSnapshotsLargerThanTheCallerExpects() {
+		byte[] bytes = new TopK(200, 4, 1024).toBytes();
+
+		assertThatThrownBy(() -> TopK.fromBytes(bytes, 100, 4, 1024))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> TopK.fromBytes(new TopK(100, 8, 1024).toBytes(), 100, 4, 1024))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void headerCannotClaimAHugeCapacity() {
+		ByteArrayOutputStream forged = new ByteArrayOutputStream();
+		forged.write(1);
+		SketchEncoding.writeVarLong(forged, Integer.MAX_VALUE);
+		SketchEncoding.writeVarLong(forged, 0);
+
+		assertThatThrownBy(() -> TopK.fromBytes(forged.toByteArray(), 100, 4, 1024))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
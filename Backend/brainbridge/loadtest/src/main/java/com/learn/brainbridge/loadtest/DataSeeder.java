@@ -0,0 +1,157 @@
+package com.learn.brainbridge.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * DataSeeder - Fills the database with realistic volumes through batched JDBC inserts
+ *
+ * Seeding through the REST API would take longer than the test itself, so rows go straight
+ * into the tables Hibernate created at startup. Generation is deterministic (fixed seed),
+ * so two runs with the same options see the same data.
+ */
+public class DataSeeder {
+
+    static final String PASSWORD = "Str0ng!Passw0rd";
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] ORG_TYPES = {"SCHOOL", "HUB", "COMPANY", "OTHER"};
+    private static final String[] STATUSES = {"DRAFT", "ACTIVE", "ARCHIVED", "DELETED"};
+    private static final String[] VISIBILITIES = {"PUBLIC", "ORG_ONLY", "PRIVATE"};
+    private static final String[] ADJECTIVES = {
+            "smart", "open", "green", "rapid", "shared", "mobile", "secure", "social", "visual", "local",
+            "adaptive", "connected", "digital", "friendly", "quantum", "modular"};
+    private static final String[] NOUNS = {
+            "campus", "library", "tracker", "marketplace", "planner", "tutor", "clinic", "garden", "wallet",
+            "forum", "dashboard", "scheduler", "translator", "portfolio", "mentor", "hackathon"};
+    private static final String[] DOMAINS = {
+            "students", "farmers", "startups", "teachers", "volunteers", "researchers", "communities", "makers"};
+    private static final String[] FIRST_NAMES = {"Ada", "Alan", "Grace", "Linus", "Margaret", "Dennis", "Barbara", "Ken"};
+    private static final String[] LAST_NAMES = {"Lovelace", "Turing", "Hopper", "Torvalds", "Hamilton", "Ritchie", "Liskov", "Thompson"};
+
+    private final JdbcTemplate jdbc;
+    private final String passwordHash;
+    private final Random random = new Random(42);
+
+    /**
+     * @param passwordHash stored hash of PASSWORD, used for every seeded user
+     */
+    public DataSeeder(JdbcTemplate jdbc, String passwordHash) {
+        this.jdbc = jdbc;
+        this.passwordHash = passwordHash;
+    }
+
+    public SeedData seed(int organizations, int users, int projects) {
+        List<Long> orgIds = seedOrganizations(organizations);
+        List<Long> userIds = new ArrayList<>(users);
+        List<String> usernames = new ArrayList<>(users);
+        seedUsers(users, orgIds, userIds, usernames);
+        List<Integer> projectIds = seedProjects(projects, userIds);
+        jdbc.execute("ANALYZE");
+
+        List<String> searchTerms = new ArrayList<>();
+        for (String adjective : ADJECTIVES) {
+            searchTerms.add(adjective);
+        }
+        for (String noun : NOUNS) {
+            searchTerms.add(noun);
+            searchTerms.add(ADJECTIVES[random.nextInt(ADJECTIVES.length)] + "+" + noun);
+        }
+        // a few typos, to exercise the trigram expansion
+        searchTerms.add("libary");
+        searchTerms.add("dashbaord");
+        searchTerms.add("markteplace");
+        return new SeedData(userIds, usernames, projectIds, searchTerms, PASSWORD);
+    }
+
+    private List<Long> seedOrganizations(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"Organization " + i, ORG_TYPES[i % ORG_TYPES.length],
+                    "https://cdn.brainbridge.dev/logos/" + i + ".png", Timestamp.valueOf(now), Timestamp.valueOf(now)});
+        }
+        insert("INSERT INTO organizations (name, type, logo_url, created_at, updated_at) VALUES (?, ?, ?, ?, ?)", rows);
+        return jdbc.queryForList("SELECT id FROM organizations ORDER BY id", Long.class);
+    }
+
+    private void seedUsers(int count, List<Long> orgIds, List<Long> userIds, List<String> usernames) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            String username = "loaduser" + i;
+            Timestamp created = Timestamp.valueOf(now.minusDays(random.nextInt(720)));
+            rows.add(new Object[]{
+                    username + "@brainbridge.dev", username, passwordHash,
+                    FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    "https://cdn.brainbridge.dev/avatars/" + i + ".png", "+25078" + String.format("%07d", i),
+                    "I build " + NOUNS[random.nextInt(NOUNS.length)] + " apps for " + DOMAINS[random.nextInt(DOMAINS.length)] + ".",
+                    orgIds.isEmpty() ? null : orgIds.get(random.nextInt(orgIds.size())),
+                    true, random.nextInt(10) < 8, created, created});
+            usernames.add(username);
+            if (rows.size() == BATCH_SIZE) {
+                insertUsers(rows);
+                rows.clear();
+            }
+        }
+        insertUsers(rows);
+        userIds.addAll(jdbc.queryForList("SELECT id FROM users ORDER BY id", Long.class));
+    }
+
+    private void insertUsers(List<Object[]> rows) {
+        insert("INSERT INTO users (email, username, password_hash, first_name, last_name, profile_image_url, phone, "
+                + "biography, organization_id, is_active, is_email_verified, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private List<Integer> seedProjects(int count, List<Long> userIds) {
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+            String noun = NOUNS[random.nextInt(NOUNS.length)];
+            String domain = DOMAINS[random.nextInt(DOMAINS.length)];
+            LocalDate start = today.minusDays(random.nextInt(1000));
+            LocalDate updated = start.plusDays(random.nextInt(120));
+            rows.add(new Object[]{
+                    capitalize(adjective) + " " + noun + " for " + domain + " #" + i,
+                    "A " + adjective + " " + noun + " that helps " + domain + " collaborate, share progress and "
+                            + "find mentors. Built during the BrainBridge " + NOUNS[random.nextInt(NOUNS.length)] + " program.",
+                    STATUSES[random.nextInt(STATUSES.length)], VISIBILITIES[random.nextInt(VISIBILITIES.length)],
+                    (int) (long) userIds.get(random.nextInt(userIds.size())), 1 + random.nextInt(500), 1 + random.nextInt(200),
+                    "https://cdn.brainbridge.dev/covers/" + i + ".png", "https://github.com/brainbridge/project-" + i,
+                    Date.valueOf(start), Date.valueOf(start.plusDays(30 + random.nextInt(300))),
+                    Date.valueOf(start), Date.valueOf(updated.isAfter(today) ? today : updated)});
+            if (rows.size() == BATCH_SIZE) {
+                insertProjects(rows);
+                rows.clear();
+            }
+        }
+        insertProjects(rows);
+        return jdbc.queryForList("SELECT id FROM projects", Integer.class);
+    }
+
+    private void insertProjects(List<Object[]> rows) {
+        // ids come from the same sequence Hibernate's pooled optimizer uses, so later inserts never collide
+        insert("INSERT INTO projects (id, title, description, project_status, project_visibility, owner_id, team_id, "
+                + "source_idea_id, cover_image_url, repo_url, start_date, end_date, created_at, updated_at) "
+                + "VALUES (nextval('projects_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbc.batchUpdate(sql, rows);
+        }
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
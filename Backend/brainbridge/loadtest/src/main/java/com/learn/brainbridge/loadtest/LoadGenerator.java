@@ -0,0 +1,148 @@
+package com.learn.brainbridge.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LoadGenerator - Replays a scenario against the running application
+ *
+ * Two modes:
+ * - Closed loop (rate = 0): {@code concurrency} clients each send the next request as soon as
+ *   the previous one answers. Measures capacity, but a slow server also slows the load down.
+ * - Open loop (rate > 0): requests are started on a fixed schedule, whether or not earlier ones
+ *   finished, and latency is measured from the scheduled start. This avoids coordinated omission,
+ *   so queueing inside the server shows up in p99/p999. At most {@code concurrency} requests are in flight.
+ */
+public class LoadGenerator {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUri;
+    private final Scenario scenario;
+    private final SeedData data;
+    private final int concurrency;
+    private final int rate;
+    private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient http;
+
+    public LoadGenerator(URI baseUri, Scenario scenario, SeedData data, int concurrency, int rate) {
+        this.baseUri = baseUri;
+        this.scenario = scenario;
+        this.data = data;
+        this.concurrency = concurrency;
+        this.rate = rate;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(threads)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Send traffic for the given time.
+     *
+     * @return stats per operation name, in scenario order
+     */
+    public Map<String, OperationStats> run(Duration duration) throws InterruptedException {
+        Map<String, OperationStats> stats = new LinkedHashMap<>();
+        for (Scenario.Operation operation : scenario.operations()) {
+            stats.put(operation.name(), new OperationStats());
+        }
+        long deadline = System.nanoTime() + duration.toNanos();
+        if (rate > 0) {
+            runOpenLoop(stats, deadline);
+        } else {
+            runClosedLoop(stats, deadline);
+        }
+        return stats;
+    }
+
+    private void runClosedLoop(Map<String, OperationStats> stats, long deadline) throws InterruptedException {
+        Thread[] clients = new Thread[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            clients[i] = Thread.ofVirtual().name("load-client-" + i).start(() -> {
+                while (System.nanoTime() < deadline) {
+                    Scenario.Operation operation = scenario.pick();
+                    send(operation, stats.get(operation.name()), System.nanoTime());
+                }
+            });
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+    }
+
+    private void runOpenLoop(Map<String, OperationStats> stats, long deadline) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger pending = new AtomicInteger();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= deadline) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Scenario.Operation operation = scenario.pick();
+            pending.incrementAndGet();
+            threads.execute(() -> {
+                try {
+                    inFlight.acquire();
+                    try {
+                        // measured from the scheduled start: waiting for a slot counts as latency
+                        send(operation, stats.get(operation.name()), scheduled);
+                    } finally {
+                        inFlight.release();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    pending.decrementAndGet();
+                }
+            });
+        }
+        // let requests already scheduled finish before the numbers are read
+        while (pending.get() > 0) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void send(Scenario.Operation operation, OperationStats stats, long startNanos) {
+        URI uri = baseUri.resolve(operation.resolvePath(data));
+        String body = operation.resolveBody(data);
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT);
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(operation.method(), HttpRequest.BodyPublishers.ofString(body));
+        } else {
+            request.method(operation.method(), HttpRequest.BodyPublishers.noBody());
+        }
+        try {
+            HttpResponse<Void> response = http.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            stats.record(response.statusCode(), System.nanoTime() - startNanos);
+        } catch (IOException e) {
+            stats.recordFailure(System.nanoTime() - startNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void close() {
+        threads.shutdownNow();
+    }
+}
@@ -0,0 +1,54 @@
+package com.learn.brainbridge.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * LoadTestComparison - Side-by-side diff of two result files
+ *
+ * java -cp target/loadtest.jar -Dloader.main=com.learn.brainbridge.loadtest.LoadTestComparison \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher old.json new.json
+ */
+public class LoadTestComparison {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: LoadTestComparison <before.json> <after.json>");
+            System.exit(2);
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode before = mapper.readTree(Path.of(args[0]).toFile());
+        JsonNode after = mapper.readTree(Path.of(args[1]).toFile());
+
+        System.out.printf("%-22s %25s %25s %25s %17s%n",
+                "operation", "req/s", "p50 ms", "p99 ms", "error rate");
+        Iterator<Map.Entry<String, JsonNode>> operations = after.path("operations").fields();
+        while (operations.hasNext()) {
+            Map.Entry<String, JsonNode> op = operations.next();
+            row(op.getKey(), before.path("operations").path(op.getKey()), op.getValue());
+        }
+        row("TOTAL", before.path("overall"), after.path("overall"));
+    }
+
+    private static void row(String name, JsonNode before, JsonNode after) {
+        if (before.isMissingNode()) {
+            System.out.printf("%-22s (new)%n", name);
+            return;
+        }
+        System.out.printf("%-22s %s %s %s %8.2f%% -> %5.2f%%%n", name,
+                change(before.path("throughput").asDouble(), after.path("throughput").asDouble()),
+                change(before.path("latencyMs").path("p50").asDouble(), after.path("latencyMs").path("p50").asDouble()),
+                change(before.path("latencyMs").path("p99").asDouble(), after.path("latencyMs").path("p99").asDouble()),
+                before.path("errorRate").asDouble() * 100, after.path("errorRate").asDouble() * 100);
+    }
+
+    private static String change(double before, double after) {
+        double percent = before == 0 ? 0 : (after - before) / before * 100;
+        return String.format("%8.1f->%8.1f %+5.0f%%", before, after, percent);
+    }
+}
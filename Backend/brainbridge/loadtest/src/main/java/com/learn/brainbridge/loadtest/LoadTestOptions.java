@@ -0,0 +1,57 @@
+package com.learn.brainbridge.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * LoadTestOptions - Command line options, all given as --name=value
+ *
+ * @param scenario        scenario name (classpath scenarios/NAME.json) or path to a scenario file
+ * @param warmup          traffic sent before measuring (JIT, caches, connection pools)
+ * @param duration        measured traffic
+ * @param concurrency     closed loop: number of clients; open loop: max requests in flight
+ * @param rate            open-loop target requests/second; 0 = closed loop
+ * @param users           users to seed
+ * @param organizations   organizations to seed
+ * @param projects        projects to seed
+ * @param poolSize        Hikari maximumPoolSize of the app under test
+ * @param virtualThreads  run the app with spring.threads.virtual.enabled
+ * @param output          where the JSON result is written
+ */
+public record LoadTestOptions(String scenario,
+                              Duration warmup,
+                              Duration duration,
+                              int concurrency,
+                              int rate,
+                              int users,
+                              int organizations,
+                              int projects,
+                              int poolSize,
+                              boolean virtualThreads,
+                              Path output) {
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new LoadTestOptions(
+                values.getOrDefault("scenario", "mixed"),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "15"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                Integer.parseInt(values.getOrDefault("concurrency", "64")),
+                Integer.parseInt(values.getOrDefault("rate", "0")),
+                Integer.parseInt(values.getOrDefault("users", "10000")),
+                Integer.parseInt(values.getOrDefault("organizations", "100")),
+                Integer.parseInt(values.getOrDefault("projects", "50000")),
+                Integer.parseInt(values.getOrDefault("pool-size", "10")),
+                Boolean.parseBoolean(values.getOrDefault("virtual-threads", "false")),
+                Path.of(values.getOrDefault("out", "target/loadtest-result.json")));
+    }
+}
@@ -0,0 +1,119 @@
+package com.learn.brainbridge.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LoadTestResult - Turns the measured stats into the JSON result file and a console summary
+ *
+ * Latencies are in milliseconds. Each operation also carries its full histogram
+ * (HdrHistogram compressed, base64) so results can be merged or re-plotted later.
+ */
+public final class LoadTestResult {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private LoadTestResult() {
+    }
+
+    public static Map<String, Object> build(LoadTestOptions options, Scenario scenario, SeedData data,
+                                            Map<String, OperationStats> stats, double elapsedSeconds) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("timestamp", Instant.now().toString());
+        result.put("scenario", scenario.name());
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("mode", options.rate() > 0 ? "open-loop" : "closed-loop");
+        config.put("rate", options.rate());
+        config.put("concurrency", options.concurrency());
+        config.put("warmupSeconds", options.warmup().toSeconds());
+        config.put("durationSeconds", options.duration().toSeconds());
+        config.put("virtualThreads", options.virtualThreads());
+        config.put("poolSize", options.poolSize());
+        config.put("users", data.userIds().size());
+        config.put("projects", data.projectIds().size());
+        config.put("organizations", options.organizations());
+        config.put("java", System.getProperty("java.version"));
+        config.put("cpus", Runtime.getRuntime().availableProcessors());
+        result.put("config", config);
+
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Map.Entry<String, OperationStats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().histogram();
+            total.add(histogram);
+            totalErrors += entry.getValue().errors();
+            Map<String, Object> op = summary(histogram, entry.getValue().errors(), elapsedSeconds);
+            op.put("statusCounts", entry.getValue().statusCounts());
+            op.put("histogram", encode(histogram));
+            operations.put(entry.getKey(), op);
+        }
+        result.put("overall", summary(total, totalErrors, elapsedSeconds));
+        result.put("operations", operations);
+        return result;
+    }
+
+    public static void write(Map<String, Object> result, Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), result);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void print(Map<String, Object> result) {
+        System.out.printf("%n%-22s %9s %9s %8s %9s %9s %9s %9s%n",
+                "operation", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        Map<String, Object> operations = (Map<String, Object>) result.get("operations");
+        operations.forEach((name, op) -> printRow(name, (Map<String, Object>) op));
+        printRow("TOTAL", (Map<String, Object>) result.get("overall"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printRow(String name, Map<String, Object> op) {
+        Map<String, Object> latency = (Map<String, Object>) op.get("latencyMs");
+        System.out.printf("%-22s %9d %9.1f %7.2f%% %9.2f %9.2f %9.2f %9.2f%n",
+                name, (long) op.get("requests"), (double) op.get("throughput"), (double) op.get("errorRate") * 100,
+                (double) latency.get("p50"), (double) latency.get("p99"), (double) latency.get("p999"),
+                (double) latency.get("max"));
+    }
+
+    private static Map<String, Object> summary(Histogram histogram, long errors, double elapsedSeconds) {
+        long count = histogram.getTotalCount();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("throughput", elapsedSeconds > 0 ? count / elapsedSeconds : 0.0);
+        summary.put("errors", errors);
+        summary.put("errorRate", count == 0 ? 0.0 : (double) errors / count);
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", count == 0 ? 0.0 : histogram.getMean() / 1000.0);
+        for (double percentile : PERCENTILES) {
+            String key = "p" + (percentile == Math.floor(percentile)
+                    ? Integer.toString((int) percentile)
+                    : Double.toString(percentile).replace(".", ""));
+            latency.put(key, count == 0 ? 0.0 : histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        latency.put("max", count == 0 ? 0.0 : histogram.getMaxValue() / 1000.0);
+        summary.put("latencyMs", latency);
+        return summary;
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+}
@@ -0,0 +1,100 @@
+package com.learn.brainbridge.loadtest;
+
+import com.learn.brainbridge.BrainbridgeApplication;
+import com.learn.brainbridge.service.PasswordHashingService;
+import com.learn.brainbridge.service.ProjectSearchService;
+import com.learn.brainbridge.service.UserAvailabilityService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * LoadTestRunner - Boots BrainBridge against an embedded Postgres, seeds it and replays a scenario
+ *
+ * 1. Start a throwaway Postgres server (zonky embedded-postgres, real Postgres binaries)
+ * 2. Boot the application on a random port, schema created by Hibernate (ddl-auto=update),
+ *    mail dispatching off, SQL logging off
+ * 3. Seed organizations, users and projects with batched JDBC inserts and rebuild the search index
+ * 4. Warm up, then measure the scenario and write the JSON result (see README.md)
+ *
+ * Everything is torn down at the end; nothing touches the developer's database.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Scenario scenario = Scenario.load(options.scenario());
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            String jdbcUrl = postgres.getJdbcUrl("postgres", "postgres");
+            ConfigurableApplicationContext app = startApplication(jdbcUrl, options);
+            try {
+                log("Seeding %d organizations, %d users, %d projects",
+                        options.organizations(), options.users(), options.projects());
+                long seedStart = System.nanoTime();
+                // one real BCrypt hash shared by every seeded user: logins pay the production verify cost
+                String passwordHash = app.getBean(PasswordHashingService.class).hash(DataSeeder.PASSWORD);
+                SeedData data = new DataSeeder(new JdbcTemplate(app.getBean(DataSource.class)), passwordHash)
+                        .seed(options.organizations(), options.users(), options.projects());
+                app.getBean(ProjectSearchService.class).rebuildIndex();
+                app.getBean(UserAvailabilityService.class).rebuild();
+                log("Seeded in %.1f s", (System.nanoTime() - seedStart) / 1e9);
+
+                int port = Integer.parseInt(app.getEnvironment().getProperty("local.server.port"));
+                LoadGenerator generator = new LoadGenerator(URI.create("http://localhost:" + port),
+                        scenario, data, options.concurrency(), options.rate());
+                try {
+                    log("Warming up for %d s (scenario %s)", options.warmup().toSeconds(), scenario.name());
+                    generator.run(options.warmup());
+
+                    log("Measuring for %d s", options.duration().toSeconds());
+                    long start = System.nanoTime();
+                    Map<String, OperationStats> stats = generator.run(options.duration());
+                    double elapsed = (System.nanoTime() - start) / 1e9;
+
+                    Map<String, Object> result = LoadTestResult.build(options, scenario, data, stats, elapsed);
+                    LoadTestResult.write(result, options.output());
+                    LoadTestResult.print(result);
+                    log("Result written to %s", options.output().toAbsolutePath());
+                } finally {
+                    generator.close();
+                }
+            } finally {
+                app.close();
+            }
+        }
+    }
+
+    static ConfigurableApplicationContext startApplication(String jdbcUrl, LoadTestOptions options, String... extraArgs) {
+        // command line arguments outrank any application.properties packaged in the app jar
+        String[] args = {
+                "--server.port=0",
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.maximum-pool-size=" + options.poolSize(),
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--spring.jpa.show-sql=false",
+                "--spring.threads.virtual.enabled=" + options.virtualThreads(),
+                "--app.mail.outbox.enabled=false",
+                "--spring.mail.host=localhost",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springdoc=WARN",
+                "--logging.level.org.springframework.mail=WARN",
+                "--logging.level.org.hibernate.engine.jdbc.env.internal.JdbcEnvironmentInitiator=WARN",
+                "--spring.main.banner-mode=off"};
+        String[] all = Arrays.copyOf(args, args.length + extraArgs.length);
+        System.arraycopy(extraArgs, 0, all, args.length, extraArgs.length);
+        return SpringApplication.run(BrainbridgeApplication.class, all);
+    }
+
+    static void log(String format, Object... args) {
+        System.out.printf("[loadtest] " + format + "%n", args);
+    }
+}
@@ -0,0 +1,105 @@
+package com.learn.brainbridge.loadtest;
+
+import com.learn.brainbridge.entity.User;
+import com.learn.brainbridge.repository.UserRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.HdrHistogram.Histogram;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * LoginLookupBenchmark - Round trips and latency of the login lookup, old vs new
+ *
+ * - email-then-username: findByEmail, and on a miss findByUsername (full User entities)
+ * - single-query:        findCredentials, one query over both unique indexes, credential columns only
+ *
+ * Both run through the real repositories against a seeded embedded Postgres, once with emails
+ * and once with usernames as the login identifier. Statements are counted with Hibernate
+ * statistics, latency per lookup with HdrHistogram. Password checking is left out on purpose:
+ * BCrypt would hide the difference.
+ *
+ * Usage:
+ *   java -cp target/loadtest.jar -Dloader.main=com.learn.brainbridge.loadtest.LoginLookupBenchmark \
+ *        org.springframework.boot.loader.launch.PropertiesLauncher --users=10000 --iterations=20000
+ */
+public class LoginLookupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        int iterations = 20_000;
+        for (String arg : args) {
+            if (arg.startsWith("--iterations=")) {
+                iterations = Integer.parseInt(arg.substring("--iterations=".length()));
+            }
+        }
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            ConfigurableApplicationContext app = LoadTestRunner.startApplication(
+                    postgres.getJdbcUrl("postgres", "postgres"), options,
+                    "--spring.jpa.properties.hibernate.generate_statistics=true",
+                    "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN");
+            try {
+                LoadTestRunner.log("Seeding %d users", options.users());
+                SeedData data = new DataSeeder(new JdbcTemplate(app.getBean(DataSource.class)), "not-a-real-hash")
+                        .seed(Math.max(1, options.organizations()), options.users(), 0);
+
+                UserRepository users = app.getBean(UserRepository.class);
+                Statistics statistics = app.getBean(EntityManagerFactory.class)
+                        .unwrap(SessionFactory.class).getStatistics();
+
+                Function<String, Object> emailThenUsername = login -> {
+                    User user = users.findByEmail(login).orElse(null);
+                    return user != null ? user : users.findByUsername(login).orElse(null);
+                };
+                Function<String, Object> singleQuery = login -> {
+                    List<?> matches = users.findCredentials(login);
+                    return matches.isEmpty() ? null : matches.get(0);
+                };
+
+                List<String> usernames = data.usernames();
+                List<String> emails = usernames.stream().map(name -> name + "@brainbridge.dev").toList();
+
+                System.out.printf("%n%-20s %-9s %10s %9s %9s %9s%n",
+                        "strategy", "login by", "stmts/op", "mean us", "p50 us", "p99 us");
+                for (int round = 0; round < 2; round++) {
+                    // round 0 warms up the JIT, connection pool and Postgres buffers; only round 1 is printed
+                    boolean print = round == 1;
+                    run("email-then-username", "email", emailThenUsername, emails, iterations, statistics, print);
+                    run("email-then-username", "username", emailThenUsername, usernames, iterations, statistics, print);
+                    run("single-query", "email", singleQuery, emails, iterations, statistics, print);
+                    run("single-query", "username", singleQuery, usernames, iterations, statistics, print);
+                }
+            } finally {
+                app.close();
+            }
+        }
+    }
+
+    private static void run(String strategy, String loginKind, Function<String, Object> lookup,
+                            List<String> logins, int iterations, Statistics statistics, boolean print) {
+        Random random = new Random(7);
+        Histogram histogram = new Histogram(3);
+        long statementsBefore = statistics.getPrepareStatementCount();
+        for (int i = 0; i < iterations; i++) {
+            String login = logins.get(random.nextInt(logins.size()));
+            long start = System.nanoTime();
+            if (lookup.apply(login) == null) {
+                throw new IllegalStateException("Seeded login not found: " + login);
+            }
+            histogram.recordValue((System.nanoTime() - start) / 1000);
+        }
+        double statementsPerLookup = (double) (statistics.getPrepareStatementCount() - statementsBefore) / iterations;
+        if (print) {
+            System.out.printf("%-20s %-9s %10.2f %9.1f %9d %9d%n", strategy, loginKind, statementsPerLookup,
+                    histogram.getMean(), histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99));
+        }
+    }
+}
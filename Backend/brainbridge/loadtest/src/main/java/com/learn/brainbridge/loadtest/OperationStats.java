@@ -0,0 +1,54 @@
+package com.learn.brainbridge.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * OperationStats - Latency histogram and outcome counters for one operation
+ *
+ * Latencies are recorded in microseconds into an HdrHistogram Recorder,
+ * which is safe to record into from many threads without locking.
+ */
+public class OperationStats {
+
+    private final Recorder latencyMicros = new Recorder(3);
+    private final LongAdder errors = new LongAdder();
+    private final ConcurrentHashMap<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private Histogram histogram;
+
+    public void record(int status, long latencyNanos) {
+        latencyMicros.recordValue(Math.max(1, latencyNanos / 1000));
+        statusCounts.computeIfAbsent(status, s -> new LongAdder()).increment();
+        if (status < 200 || status >= 300) {
+            errors.increment();
+        }
+    }
+
+    /** A request that got no HTTP response at all (connect/read failure, timeout). */
+    public void recordFailure(long latencyNanos) {
+        record(0, latencyNanos);
+    }
+
+    /** Freeze the numbers; call once after the measured phase. */
+    public Histogram histogram() {
+        if (histogram == null) {
+            histogram = latencyMicros.getIntervalHistogram();
+        }
+        return histogram;
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public Map<Integer, Long> statusCounts() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statusCounts.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+}
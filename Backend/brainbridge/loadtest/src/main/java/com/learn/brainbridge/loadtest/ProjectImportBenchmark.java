@@ -0,0 +1,181 @@
+package com.learn.brainbridge.loadtest;
+
+import com.learn.brainbridge.dtos.ProjectImportResultDTO;
+import com.learn.brainbridge.entity.Projects;
+import com.learn.brainbridge.enums.ProjectStatus;
+import com.learn.brainbridge.enums.ProjectVisibility;
+import com.learn.brainbridge.repository.ProjectsRepository;
+import com.learn.brainbridge.service.ProjectImportService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ProjectImportBenchmark - Throughput and heap of the bulk project import vs one save() per row
+ *
+ * - save-per-row: ProjectsRepository.save in a loop (what POST /projects/api/add does per project)
+ * - bulk-import:  ProjectImportService over a generated NDJSON stream (what POST /projects/api/import does)
+ *
+ * The NDJSON input is generated while it is read, so the benchmark itself holds no rows; the
+ * peak heap column shows whether the import stays flat as the row count grows.
+ *
+ * Usage:
+ *   java -cp target/loadtest.jar -Dloader.main=com.learn.brainbridge.loadtest.ProjectImportBenchmark \
+ *        org.springframework.boot.loader.launch.PropertiesLauncher --rows=200000 --baseline-rows=5000
+ */
+public class ProjectImportBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rows = 200_000;
+        int baselineRows = 5_000;
+        for (String arg : args) {
+            if (arg.startsWith("--rows=")) {
+                rows = Integer.parseInt(arg.substring("--rows=".length()));
+            } else if (arg.startsWith("--baseline-rows=")) {
+                baselineRows = Integer.parseInt(arg.substring("--baseline-rows=".length()));
+            }
+        }
+        LoadTestOptions options = LoadTestOptions.parse(new String[0]);
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            ConfigurableApplicationContext app = LoadTestRunner.startApplication(
+                    postgres.getJdbcUrl("postgres", "postgres"), options);
+            try {
+                ProjectsRepository repo = app.getBean(ProjectsRepository.class);
+                ProjectImportService importService = app.getBean(ProjectImportService.class);
+
+                System.out.printf("%n%-14s %10s %10s %12s %14s%n", "strategy", "rows", "seconds", "rows/s", "peak heap MB");
+
+                HeapSampler heap = HeapSampler.start();
+                long started = System.nanoTime();
+                for (int i = 0; i < baselineRows; i++) {
+                    repo.save(project("Saved project #" + i, i));
+                }
+                print("save-per-row", baselineRows, started, heap.stop());
+
+                heap = HeapSampler.start();
+                started = System.nanoTime();
+                ProjectImportResultDTO result = importService.importProjects(new GeneratedNdjson(rows), true);
+                print("bulk-import", result.getImported(), started, heap.stop());
+                if (result.getFailed() > 0) {
+                    System.out.printf("%d rows failed, first: %s%n", result.getFailed(), result.getErrors().get(0));
+                }
+            } finally {
+                app.close();
+            }
+        }
+    }
+
+    private static void print(String strategy, int rows, long startedNanos, long peakHeapBytes) {
+        double seconds = (System.nanoTime() - startedNanos) / 1e9;
+        System.out.printf("%-14s %10d %10.1f %12.0f %14.0f%n", strategy, rows, seconds, rows / seconds,
+                peakHeapBytes / (1024.0 * 1024.0));
+    }
+
+    private static Projects project(String title, int i) {
+        LocalDate start = LocalDate.now().minusDays(i % 1000);
+        return new Projects(title, description(i), ProjectStatus.ACTIVE, ProjectVisibility.PUBLIC,
+                1 + i % 1000, 1 + i % 500, 1 + i % 200, "https://cdn.brainbridge.dev/covers/" + i + ".png",
+                "https://github.com/brainbridge/import-" + i, start, start.plusDays(90));
+    }
+
+    private static String description(int i) {
+        return "Imported project number " + i + ", generated by the import benchmark to measure batch inserts, "
+                + "flush and clear, and search indexing throughput.";
+    }
+
+    /**
+     * NDJSON rows produced on demand as the importer reads.
+     */
+    private static final class GeneratedNdjson extends InputStream {
+        private final int rows;
+        private int next;
+        private byte[] line = new byte[0];
+        private int position;
+
+        GeneratedNdjson(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length && !nextLine()) {
+                return -1;
+            }
+            return line[position++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (position == line.length && !nextLine()) {
+                return -1;
+            }
+            int n = Math.min(length, line.length - position);
+            System.arraycopy(line, position, buffer, offset, n);
+            position += n;
+            return n;
+        }
+
+        private boolean nextLine() {
+            if (next == rows) {
+                return false;
+            }
+            int i = next++;
+            LocalDate start = LocalDate.now().minusDays(i % 1000);
+            String json = "{\"title\":\"Imported project #" + i + "\",\"description\":\"" + description(i) + "\","
+                    + "\"project_status\":\"ACTIVE\",\"project_visibility\":\"PUBLIC\","
+                    + "\"owner_id\":" + (1 + i % 1000) + ",\"team_id\":" + (1 + i % 500) + ",\"source_idea_id\":" + (1 + i % 200) + ","
+                    + "\"cover_image_url\":\"https://cdn.brainbridge.dev/covers/" + i + ".png\","
+                    + "\"repo_url\":\"https://github.com/brainbridge/import-" + i + "\","
+                    + "\"start_date\":\"" + start + "\",\"end_date\":\"" + start.plusDays(90) + "\"}\n";
+            line = json.getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            return true;
+        }
+    }
+
+    /**
+     * Polls used heap every 20 ms on a daemon thread and keeps the maximum.
+     */
+    private static final class HeapSampler {
+        private final AtomicLong peak = new AtomicLong();
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        private HeapSampler() {
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            System.gc();
+            thread = new Thread(() -> {
+                while (running) {
+                    peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "heap-sampler");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        static HeapSampler start() {
+            return new HeapSampler();
+        }
+
+        long stop() throws InterruptedException {
+            running = false;
+            thread.join();
+            return peak.get();
+        }
+    }
+}
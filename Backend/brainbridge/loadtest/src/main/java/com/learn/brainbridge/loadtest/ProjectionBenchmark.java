@@ -0,0 +1,120 @@
+package com.learn.brainbridge.loadtest;
+
+import com.learn.brainbridge.dtos.ProjectDTO;
+import com.learn.brainbridge.dtos.UserDTO;
+import com.learn.brainbridge.entity.Projects;
+import com.learn.brainbridge.entity.User;
+import com.learn.brainbridge.repository.ProjectsRepository;
+import com.learn.brainbridge.repository.UserRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * ProjectionBenchmark - Entity loads vs DTO projections for the list endpoints
+ *
+ * For each list endpoint, the old path (load entities, map them to DTOs) against the
+ * "SELECT new ...DTO(...)" projection query that now backs it:
+ * - all-users:        findAll + UserDTO mapping    vs findAllUserDTOs
+ * - projects-by-team: findByTeamId + ProjectDTO    vs findDTOsByTeamId
+ * - projects-by-owner: findByOwnerId + ProjectDTO  vs findDTOsByOwnerId
+ *
+ * Runs through the real repositories against a seeded embedded Postgres and prints latency
+ * percentiles (HdrHistogram) and bytes allocated per call on the calling thread.
+ *
+ * Usage:
+ *   java -cp target/loadtest.jar -Dloader.main=com.learn.brainbridge.loadtest.ProjectionBenchmark \
+ *        org.springframework.boot.loader.launch.PropertiesLauncher --users=10000 --projects=50000 --iterations=2000
+ */
+public class ProjectionBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        int iterations = 2_000;
+        for (String arg : args) {
+            if (arg.startsWith("--iterations=")) {
+                iterations = Integer.parseInt(arg.substring("--iterations=".length()));
+            }
+        }
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            ConfigurableApplicationContext app = LoadTestRunner.startApplication(
+                    postgres.getJdbcUrl("postgres", "postgres"), options);
+            try {
+                LoadTestRunner.log("Seeding %d users and %d projects", options.users(), options.projects());
+                SeedData data = new DataSeeder(new JdbcTemplate(app.getBean(DataSource.class)), "not-a-real-hash")
+                        .seed(Math.max(1, options.organizations()), options.users(), options.projects());
+
+                UserRepository users = app.getBean(UserRepository.class);
+                ProjectsRepository projects = app.getBean(ProjectsRepository.class);
+                List<Long> ownerIds = data.userIds();
+
+                // loading every user is far heavier than one team's projects: fewer iterations
+                int allUsersIterations = Math.max(10, iterations / 20);
+
+                System.out.printf("%n%-18s %-10s %12s %9s %9s %9s%n",
+                        "endpoint", "path", "KB/op", "mean us", "p50 us", "p99 us");
+                for (int round = 0; round < 2; round++) {
+                    // round 0 warms up the JIT, connection pool and Postgres buffers; only round 1 is printed
+                    boolean print = round == 1;
+                    run("all-users", "entity", i -> users.findAll().stream().map(ProjectionBenchmark::toDTO).toList(),
+                            allUsersIterations, print);
+                    run("all-users", "projection", i -> users.findAllUserDTOs(), allUsersIterations, print);
+                    run("projects-by-team", "entity", i -> projects.findByTeamId(1 + i % 500).stream()
+                            .map(ProjectionBenchmark::toDTO).toList(), iterations, print);
+                    run("projects-by-team", "projection", i -> projects.findDTOsByTeamId(1 + i % 500), iterations, print);
+                    run("projects-by-owner", "entity", i -> projects.findByOwnerId(owner(ownerIds, i)).stream()
+                            .map(ProjectionBenchmark::toDTO).toList(), iterations, print);
+                    run("projects-by-owner", "projection", i -> projects.findDTOsByOwnerId(owner(ownerIds, i)),
+                            iterations, print);
+                }
+            } finally {
+                app.close();
+            }
+        }
+    }
+
+    private static Integer owner(List<Long> ownerIds, int i) {
+        return (int) (long) ownerIds.get(i % ownerIds.size());
+    }
+
+    private static void run(String endpoint, String path, IntFunction<List<?>> call, int iterations, boolean print) {
+        Random random = new Random(11);
+        Histogram histogram = new Histogram(3);
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            int key = random.nextInt(Integer.MAX_VALUE);
+            long start = System.nanoTime();
+            call.apply(key);
+            histogram.recordValue((System.nanoTime() - start) / 1000);
+        }
+        double kbPerCall = (THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore) / 1024.0 / iterations;
+        if (print) {
+            System.out.printf("%-18s %-10s %12.1f %9.1f %9d %9d%n", endpoint, path, kbPerCall,
+                    histogram.getMean(), histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99));
+        }
+    }
+
+    /** The mapping the old getAllUsers did (UserServiceImpl.convertToDTO) */
+    private static UserDTO toDTO(User user) {
+        return new UserDTO(user.getId(), user.getEmail(), user.getUsername(), user.getFirstName(), user.getLastName(),
+                user.getProfileImageUrl(), user.getIsActive(), user.getIsEmailVerified(),
+                user.getCreatedAt(), user.getUpdatedAt());
+    }
+
+    private static ProjectDTO toDTO(Projects project) {
+        return new ProjectDTO(project.getId(), project.getTitle(), project.getDescription(), project.getProjectStatus(),
+                project.getProjectVisibility(), project.getOwnerId(), project.getTeamId(), project.getSourceIdeaId(),
+                project.getCoverImageUrl(), project.getRepoUrl(), project.getStartDate(), project.getEndDate());
+    }
+}
@@ -0,0 +1,126 @@
+package com.learn.brainbridge.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scenario - A weighted traffic mix loaded from JSON
+ *
+ * <pre>
+ * {
+ *   "name": "mixed",
+ *   "operations": [
+ *     { "name": "user-by-id", "weight": 30, "method": "GET", "path": "/api/users/{userId}" },
+ *     { "name": "login", "weight": 10, "method": "POST", "path": "/api/users/login",
+ *       "body": { "emailOrUsername": "{username}", "password": "{password}" } }
+ *   ]
+ * }
+ * </pre>
+ *
+ * Placeholders in path and body: {userId}, {projectId}, {username}, {password},
+ * {searchTerm} (from the seeded data) and {unique} (a counter, for registrations).
+ */
+public record Scenario(String name, String description, List<Operation> operations, int totalWeight) {
+
+    private static final AtomicLong UNIQUE = new AtomicLong();
+
+    public record Operation(String name, int weight, String method, String path, String body) {
+
+        String resolvePath(SeedData data) {
+            return resolve(path, data);
+        }
+
+        String resolveBody(SeedData data) {
+            return body == null ? null : resolve(body, data);
+        }
+    }
+
+    public static Scenario load(String nameOrPath) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode root;
+        Path file = Path.of(nameOrPath);
+        if (Files.isRegularFile(file)) {
+            root = mapper.readTree(file.toFile());
+        } else {
+            try (InputStream in = Scenario.class.getResourceAsStream("/scenarios/" + nameOrPath + ".json")) {
+                if (in == null) {
+                    throw new IllegalArgumentException("Unknown scenario: " + nameOrPath);
+                }
+                root = mapper.readTree(in);
+            }
+        }
+
+        List<Operation> operations = new ArrayList<>();
+        int total = 0;
+        for (JsonNode op : root.path("operations")) {
+            JsonNode body = op.get("body");
+            Operation operation = new Operation(
+                    op.path("name").asText(),
+                    op.path("weight").asInt(1),
+                    op.path("method").asText("GET"),
+                    op.path("path").asText(),
+                    body == null ? null : mapper.writeValueAsString(body));
+            operations.add(operation);
+            total += operation.weight();
+        }
+        if (operations.isEmpty() || total <= 0) {
+            throw new IllegalArgumentException("Scenario " + nameOrPath + " has no weighted operations");
+        }
+        return new Scenario(root.path("name").asText(nameOrPath), root.path("description").asText(""),
+                List.copyOf(operations), total);
+    }
+
+    /** Pick an operation with probability weight / totalWeight. */
+    public Operation pick() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : operations) {
+            roll -= operation.weight();
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private static String resolve(String template, SeedData data) {
+        if (template.indexOf('{') < 0) {
+            return template;
+        }
+        StringBuilder out = new StringBuilder(template.length() + 16);
+        int i = 0;
+        while (i < template.length()) {
+            char c = template.charAt(i);
+            int close = c == '{' ? template.indexOf('}', i) : -1;
+            String value = close > 0 ? value(template.substring(i + 1, close), data) : null;
+            if (value == null) {
+                out.append(c);
+                i++;
+            } else {
+                out.append(value);
+                i = close + 1;
+            }
+        }
+        return out.toString();
+    }
+
+    private static String value(String placeholder, SeedData data) {
+        return switch (placeholder) {
+            case "userId" -> Long.toString(data.randomUserId());
+            case "projectId" -> Integer.toString(data.randomProjectId());
+            case "username" -> data.randomUsername();
+            case "password" -> data.password();
+            case "searchTerm" -> data.randomSearchTerm();
+            case "unique" -> Long.toString(UNIQUE.incrementAndGet()) + "-" + Long.toString(System.nanoTime(), 36);
+            default -> null; // not a placeholder (e.g. a JSON object brace)
+        };
+    }
+}
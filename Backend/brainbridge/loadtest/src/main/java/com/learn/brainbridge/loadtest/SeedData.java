@@ -0,0 +1,30 @@
+package com.learn.brainbridge.loadtest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * SeedData - What the seeder created, so scenarios can address real rows
+ */
+public record SeedData(List<Long> userIds,
+                       List<String> usernames,
+                       List<Integer> projectIds,
+                       List<String> searchTerms,
+                       String password) {
+
+    public long randomUserId() {
+        return userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+    }
+
+    public String randomUsername() {
+        return usernames.get(ThreadLocalRandom.current().nextInt(usernames.size()));
+    }
+
+    public int randomProjectId() {
+        return projectIds.get(ThreadLocalRandom.current().nextInt(projectIds.size()));
+    }
+
+    public String randomSearchTerm() {
+        return searchTerms.get(ThreadLocalRandom.current().nextInt(searchTerms.size()));
+    }
+}